@@ -0,0 +1,19 @@
+package com.tinkerpop.blueprints;
+
+import java.util.Map;
+
+/**
+ * A BulkPropertyElement is an element that can set many properties in a single operation.
+ * For remote or persistent graphs this avoids paying a round trip, a record save or an index update per property.
+ * All the key/value pairs are validated before any of them are written.
+ */
+public interface BulkPropertyElement extends Element {
+
+    /**
+     * Assign the key/value pairs of the map as properties of this element.
+     * Existing properties with the same keys are overwritten.
+     *
+     * @param properties the properties to set on the element
+     */
+    public void setBulkProperties(Map<String, Object> properties);
+}
@@ -0,0 +1,26 @@
+package com.tinkerpop.blueprints;
+
+/**
+ * A BulkRetrievalGraph is a graph that can retrieve many vertices or edges by their identifiers in a single operation.
+ * For remote or disk based graphs this avoids paying a round trip or a lookup setup cost per identifier.
+ * Identifiers that do not reference an element are skipped and duplicate identifiers yield their element once.
+ * The order of the returned elements is implementation specific.
+ */
+public interface BulkRetrievalGraph extends Graph {
+
+    /**
+     * Return the vertices referenced by the provided object identifiers.
+     *
+     * @param ids the identifiers of the vertices to retrieve
+     * @return an iterable of the vertices that exist for the identifiers
+     */
+    public Iterable<Vertex> getVertices(Iterable<?> ids);
+
+    /**
+     * Return the edges referenced by the provided object identifiers.
+     *
+     * @param ids the identifiers of the edges to retrieve
+     * @return an iterable of the edges that exist for the identifiers
+     */
+    public Iterable<Edge> getEdges(Iterable<?> ids);
+}
@@ -132,6 +132,14 @@ public class Features {
      * Does the graph implement ThreadedTransactionalGraph?
      */
     public Boolean supportsThreadedTransactions = null;
+    /**
+     * Does the graph implement BulkRetrievalGraph?
+     */
+    public Boolean supportsBulkRetrieval = null;
+    /**
+     * Do the elements of the graph implement BulkPropertyElement?
+     */
+    public Boolean supportsBulkProperties = null;
 
     /**
      * Checks whether the graph supports both vertex and edge properties
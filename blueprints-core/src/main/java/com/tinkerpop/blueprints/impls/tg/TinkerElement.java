@@ -1,8 +1,8 @@
 package com.tinkerpop.blueprints.impls.tg;
 
 
+import com.tinkerpop.blueprints.BulkPropertyElement;
 import com.tinkerpop.blueprints.Edge;
-import com.tinkerpop.blueprints.Element;
 import com.tinkerpop.blueprints.Vertex;
 import com.tinkerpop.blueprints.util.ElementHelper;
 
@@ -15,7 +15,7 @@ import java.util.Set;
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-abstract class TinkerElement implements Element, Serializable {
+abstract class TinkerElement implements BulkPropertyElement, Serializable {
 
     protected Map<String, Object> properties = new HashMap<String, Object>();
     protected final String id;
@@ -43,6 +43,17 @@ abstract class TinkerElement implements Element, Serializable {
             this.graph.edgeKeyIndex.autoUpdate(key, value, oldValue, (TinkerEdge) this);
     }
 
+    public void setBulkProperties(final Map<String, Object> properties) {
+        ElementHelper.validateProperties(this, properties);
+        for (final Map.Entry<String, Object> entry : properties.entrySet()) {
+            final Object oldValue = this.properties.put(entry.getKey(), entry.getValue());
+            if (this instanceof TinkerVertex)
+                this.graph.vertexKeyIndex.autoUpdate(entry.getKey(), entry.getValue(), oldValue, (TinkerVertex) this);
+            else
+                this.graph.edgeKeyIndex.autoUpdate(entry.getKey(), entry.getValue(), oldValue, (TinkerEdge) this);
+        }
+    }
+
     public <T> T removeProperty(final String key) {
         Object oldValue = this.properties.remove(key);
         if (this instanceof TinkerVertex)
@@ -1,6 +1,7 @@
 package com.tinkerpop.blueprints.impls.tg;
 
 
+import com.tinkerpop.blueprints.BulkRetrievalGraph;
 import com.tinkerpop.blueprints.Direction;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Element;
@@ -25,6 +26,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -34,7 +36,7 @@ import java.util.Set;
  *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-public class TinkerGraph implements IndexableGraph, KeyIndexableGraph, Serializable {
+public class TinkerGraph implements IndexableGraph, KeyIndexableGraph, BulkRetrievalGraph, Serializable {
 
     protected Long currentId = 0l;
     protected Map<String, Vertex> vertices = new HashMap<String, Vertex>();
@@ -82,6 +84,8 @@ public class TinkerGraph implements IndexableGraph, KeyIndexableGraph, Serializa
         FEATURES.supportsVertexProperties = true;
         FEATURES.supportsEdgeProperties = true;
         FEATURES.supportsThreadedTransactions = false;
+        FEATURES.supportsBulkRetrieval = true;
+        FEATURES.supportsBulkProperties = true;
 
         PERSISTENT_FEATURES = FEATURES.copyFeatures();
         PERSISTENT_FEATURES.isPersistent = true;
@@ -273,6 +277,26 @@ public class TinkerGraph implements IndexableGraph, KeyIndexableGraph, Serializa
         return this.edges.get(idString);
     }
 
+    public Iterable<Vertex> getVertices(final Iterable<?> ids) {
+        final Set<Vertex> vertices = new LinkedHashSet<Vertex>();
+        for (final Object id : ids) {
+            final Vertex vertex = this.getVertex(id);
+            if (null != vertex)
+                vertices.add(vertex);
+        }
+        return vertices;
+    }
+
+    public Iterable<Edge> getEdges(final Iterable<?> ids) {
+        final Set<Edge> edges = new LinkedHashSet<Edge>();
+        for (final Object id : ids) {
+            final Edge edge = this.getEdge(id);
+            if (null != edge)
+                edges.add(edge);
+        }
+        return edges;
+    }
+
 
     public Iterable<Vertex> getVertices() {
         return new ArrayList<Vertex>(this.vertices.values());
@@ -1,10 +1,12 @@
 package com.tinkerpop.blueprints.util;
 
+import com.tinkerpop.blueprints.BulkPropertyElement;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Element;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -36,6 +38,20 @@ public class ElementHelper {
             throw ExceptionFactory.propertyKeyCanNotBeEmpty();
     }
 
+    /**
+     * Determines whether all the property key/values in the map can be legally set on the specified element.
+     * This is typically used as a pre-condition check prior to setting many properties at once.
+     *
+     * @param element    the element for the properties to be set
+     * @param properties the key/values of the properties
+     * @throws IllegalArgumentException whether the properties are legal and if not, a clear reason message is provided
+     */
+    public static final void validateProperties(final Element element, final Map<String, Object> properties) throws IllegalArgumentException {
+        for (final Map.Entry<String, Object> property : properties.entrySet()) {
+            validateProperty(element, property.getKey(), property.getValue());
+        }
+    }
+
     /**
      * Copy the properties (key and value) from one element to another.
      * The properties are preserved on the from element.
@@ -45,9 +61,7 @@ public class ElementHelper {
      * @param to   the element to copy properties to
      */
     public static void copyProperties(final Element from, final Element to) {
-        for (final String key : from.getPropertyKeys()) {
-            to.setProperty(key, from.getProperty(key));
-        }
+        setProperties(to, getProperties(from));
     }
 
     /**
@@ -155,13 +169,19 @@ public class ElementHelper {
 
     /**
      * Set the properties of the provided element using the provided map.
+     * If the element is a BulkPropertyElement, the properties are set in a single operation.
      *
      * @param element    the element to set the properties of
      * @param properties the properties to set as a Map
      */
     public static void setProperties(final Element element, final Map<String, Object> properties) {
-        for (Map.Entry<String, Object> property : properties.entrySet()) {
-            element.setProperty(property.getKey(), property.getValue());
+        if (element instanceof BulkPropertyElement) {
+            if (!properties.isEmpty())
+                ((BulkPropertyElement) element).setBulkProperties(properties);
+        } else {
+            for (Map.Entry<String, Object> property : properties.entrySet()) {
+                element.setProperty(property.getKey(), property.getValue());
+            }
         }
     }
 
@@ -175,9 +195,11 @@ public class ElementHelper {
     public static void setProperties(final Element element, final Object... keysValues) {
         if (keysValues.length % 2 != 0)
             throw new IllegalArgumentException("The object var args must be divisible by 2");
+        final Map<String, Object> properties = new LinkedHashMap<String, Object>();
         for (int i = 0; i < keysValues.length; i = i + 2) {
-            element.setProperty((String) keysValues[i], keysValues[i + 1]);
+            properties.put((String) keysValues[i], keysValues[i + 1]);
         }
+        setProperties(element, properties);
     }
 
     /**
@@ -1,10 +1,16 @@
 package com.tinkerpop.blueprints.util;
 
+import com.tinkerpop.blueprints.BulkRetrievalGraph;
 import com.tinkerpop.blueprints.Direction;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Graph;
 import com.tinkerpop.blueprints.Vertex;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
@@ -22,9 +28,7 @@ public class GraphHelper {
         if ((properties.length % 2) != 0)
             throw new RuntimeException("There must be an equal number of keys and values");
         final Vertex vertex = graph.addVertex(id);
-        for (int i = 0; i < properties.length; i = i + 2) {
-            vertex.setProperty((String) properties[i], properties[i + 1]);
-        }
+        ElementHelper.setProperties(vertex, properties);
         return vertex;
     }
 
@@ -43,12 +47,82 @@ public class GraphHelper {
         if ((properties.length % 2) != 0)
             throw new RuntimeException("There must be an equal number of keys and values");
         final Edge edge = graph.addEdge(id, outVertex, inVertex, label);
-        for (int i = 0; i < properties.length; i = i + 2) {
-            edge.setProperty((String) properties[i], properties[i + 1]);
-        }
+        ElementHelper.setProperties(edge, properties);
         return edge;
     }
 
+    /**
+     * Get the vertices of the graph referenced by the provided ids.
+     * If the graph is a BulkRetrievalGraph, the retrieval is delegated to the graph.
+     * Otherwise, each distinct id is looked up with Graph.getVertex() and ids without a vertex are skipped.
+     *
+     * @param graph the graph to get the vertices from
+     * @param ids   the ids of the vertices to get
+     * @return the vertices referenced by the ids
+     */
+    public static Iterable<Vertex> getVertices(final Graph graph, final Iterable<?> ids) {
+        if (graph instanceof BulkRetrievalGraph)
+            return ((BulkRetrievalGraph) graph).getVertices(ids);
+        return lookupVertices(graph, ids);
+    }
+
+    /**
+     * Get the vertices of the graph referenced by the provided ids, looking up each distinct id with Graph.getVertex().
+     * Ids without a vertex are skipped.
+     *
+     * @param graph the graph to get the vertices from
+     * @param ids   the ids of the vertices to get
+     * @return the vertices in the order of their first id
+     */
+    public static List<Vertex> lookupVertices(final Graph graph, final Iterable<?> ids) {
+        final Set<Object> seen = new HashSet<Object>();
+        final List<Vertex> vertices = new ArrayList<Vertex>();
+        for (final Object id : ids) {
+            if (seen.add(id)) {
+                final Vertex vertex = graph.getVertex(id);
+                if (null != vertex)
+                    vertices.add(vertex);
+            }
+        }
+        return vertices;
+    }
+
+    /**
+     * Get the edges of the graph referenced by the provided ids.
+     * If the graph is a BulkRetrievalGraph, the retrieval is delegated to the graph.
+     * Otherwise, each distinct id is looked up with Graph.getEdge() and ids without an edge are skipped.
+     *
+     * @param graph the graph to get the edges from
+     * @param ids   the ids of the edges to get
+     * @return the edges referenced by the ids
+     */
+    public static Iterable<Edge> getEdges(final Graph graph, final Iterable<?> ids) {
+        if (graph instanceof BulkRetrievalGraph)
+            return ((BulkRetrievalGraph) graph).getEdges(ids);
+        return lookupEdges(graph, ids);
+    }
+
+    /**
+     * Get the edges of the graph referenced by the provided ids, looking up each distinct id with Graph.getEdge().
+     * Ids without an edge are skipped.
+     *
+     * @param graph the graph to get the edges from
+     * @param ids   the ids of the edges to get
+     * @return the edges in the order of their first id
+     */
+    public static List<Edge> lookupEdges(final Graph graph, final Iterable<?> ids) {
+        final Set<Object> seen = new HashSet<Object>();
+        final List<Edge> edges = new ArrayList<Edge>();
+        for (final Object id : ids) {
+            if (seen.add(id)) {
+                final Edge edge = graph.getEdge(id);
+                if (null != edge)
+                    edges.add(edge);
+            }
+        }
+        return edges;
+    }
+
     /**
      * Copy the vertex/edges of one graph over to another graph.
      * The id of the elements in the from graph are attempted to be used in the to graph.
@@ -0,0 +1,94 @@
+package com.tinkerpop.blueprints.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Splits ranges of integers (typically vertex numbers) into contiguous slices which are processed by a number of threads.
+ * The threads are created when first needed and are reused by every range of a computation, until shutdown.
+ */
+public class Parallel {
+
+    /**
+     * A task over the slice [from, to) of a range.
+     */
+    public interface RangeTask {
+        void run(int from, int to);
+    }
+
+    private final int threads;
+    private ExecutorService executor = null;
+
+    public Parallel(final int threads) {
+        if (threads <= 0)
+            throw new IllegalArgumentException("Number of threads must be positive");
+        this.threads = threads;
+    }
+
+    /**
+     * Runs the task over the range [0, size), split into one slice per thread, and waits for every slice to complete.
+     * With a single thread (or a small range) the task runs in the calling thread.
+     */
+    public void forRange(final int size, final RangeTask task) {
+        this.forRange(size, 1024, task);
+    }
+
+    /**
+     * Runs the task over the range [0, size), split into one slice per thread but no slice smaller than minSlice,
+     * and waits for every slice to complete.
+     */
+    public void forRange(final int size, final int minSlice, final RangeTask task) {
+        final int slices = Math.min(this.threads, Math.max(1, size / minSlice));
+        if (slices == 1) {
+            task.run(0, size);
+            return;
+        }
+
+        if (null == this.executor)
+            this.executor = Executors.newFixedThreadPool(this.threads);
+        final List<Future<Object>> futures = new ArrayList<Future<Object>>();
+        try {
+            for (int i = 0; i < slices; i++) {
+                final int from = (int) ((long) size * i / slices);
+                final int to = (int) ((long) size * (i + 1) / slices);
+                futures.add(this.executor.submit(new Callable<Object>() {
+                    public Object call() {
+                        task.run(from, to);
+                        return null;
+                    }
+                }));
+            }
+            for (final Future<Object> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            cancel(futures);
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new RuntimeException(e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            cancel(futures);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Stops the threads of the computation.
+     */
+    public void shutdown() {
+        if (null != this.executor)
+            this.executor.shutdownNow();
+    }
+
+    private static void cancel(final List<Future<Object>> futures) {
+        for (final Future<Object> future : futures) {
+            future.cancel(true);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.tinkerpop.blueprints.util.analytics;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.TransactionalGraph;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.Parallel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Analytics over a GraphSnapshot: PageRank, weakly connected components, breadth-first search and shortest paths,
+ * and degree distributions.
+ * Results are arrays indexed by the vertex numbers of the snapshot, and can be written back to the graph as vertex properties.
+ * PageRank, components and breadth-first search split the vertices of each step among a number of threads.
+ */
+public class GraphAnalytics {
+
+    public static final double DEFAULT_DAMPING = 0.85d;
+
+    /**
+     * Compute the PageRank of every vertex, following out edges. The rank of vertices without out edges is spread over every vertex.
+     *
+     * @param snapshot   the snapshot of the graph
+     * @param damping    the probability of following an edge rather than jumping to a random vertex
+     * @param iterations the maximum number of iterations
+     * @param tolerance  the total change of rank below which the ranks are considered to have converged
+     * @param threads    the number of threads to compute with
+     * @return the rank of every vertex, which sum to 1
+     */
+    public static double[] pageRank(final GraphSnapshot snapshot, final double damping, final int iterations, final double tolerance, final int threads) {
+        final int vertexCount = snapshot.getVertexCount();
+        if (0 == vertexCount)
+            return new double[0];
+
+        final int[] sources = snapshot.getNeighbors(Direction.IN);
+        final double[] outShares = new double[vertexCount];
+        double[] ranks = new double[vertexCount];
+        Arrays.fill(ranks, 1.0d / vertexCount);
+
+        final Parallel parallel = new Parallel(threads);
+        try {
+            for (int iteration = 0; iteration < iterations; iteration++) {
+                double dangling = 0.0d;
+                for (int v = 0; v < vertexCount; v++) {
+                    final int degree = snapshot.getDegree(v, Direction.OUT);
+                    if (0 == degree) {
+                        dangling += ranks[v];
+                        outShares[v] = 0.0d;
+                    } else {
+                        outShares[v] = ranks[v] / degree;
+                    }
+                }
+
+                final double base = (1.0d - damping + damping * dangling) / vertexCount;
+                final double[] next = new double[vertexCount];
+                parallel.forRange(vertexCount, new Parallel.RangeTask() {
+                    public void run(final int from, final int to) {
+                        for (int v = from; v < to; v++) {
+                            double sum = 0.0d;
+                            final int end = snapshot.getOffset(v + 1, Direction.IN);
+                            for (int i = snapshot.getOffset(v, Direction.IN); i < end; i++) {
+                                sum += outShares[sources[i]];
+                            }
+                            next[v] = base + damping * sum;
+                        }
+                    }
+                });
+
+                double change = 0.0d;
+                for (int v = 0; v < vertexCount; v++) {
+                    change += Math.abs(next[v] - ranks[v]);
+                }
+                ranks = next;
+                if (change < tolerance)
+                    break;
+            }
+        } finally {
+            parallel.shutdown();
+        }
+        return ranks;
+    }
+
+    /**
+     * Compute the weakly connected components of the graph.
+     * Every vertex of a component is labeled with the lowest vertex number in the component.
+     *
+     * @param snapshot the snapshot of the graph
+     * @param threads  the number of threads to compute with
+     * @return the component of every vertex
+     */
+    public static int[] connectedComponents(final GraphSnapshot snapshot, final int threads) {
+        final int vertexCount = snapshot.getVertexCount();
+        final int[] targets = snapshot.getNeighbors(Direction.OUT);
+        final AtomicIntegerArray parents = new AtomicIntegerArray(vertexCount);
+        for (int v = 0; v < vertexCount; v++) {
+            parents.set(v, v);
+        }
+
+        // a concurrent union-find in which the root with the higher number is always linked to the root with the lower number
+        final Parallel parallel = new Parallel(threads);
+        try {
+            parallel.forRange(vertexCount, new Parallel.RangeTask() {
+                public void run(final int from, final int to) {
+                    for (int v = from; v < to; v++) {
+                        final int end = snapshot.getOffset(v + 1, Direction.OUT);
+                        for (int i = snapshot.getOffset(v, Direction.OUT); i < end; i++) {
+                            union(parents, v, targets[i]);
+                        }
+                    }
+                }
+            });
+        } finally {
+            parallel.shutdown();
+        }
+
+        final int[] components = new int[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            components[v] = find(parents, v);
+        }
+        return components;
+    }
+
+    /**
+     * Compute the number of edges (hops) from the source vertex to every vertex, visiting the graph level by level.
+     *
+     * @param snapshot  the snapshot of the graph
+     * @param source    the number of the vertex to start from
+     * @param direction the direction of the edges to follow
+     * @param threads   the number of threads to compute with
+     * @return the distance to every vertex, or -1 for vertices which can not be reached
+     */
+    public static int[] breadthFirstSearch(final GraphSnapshot snapshot, final int source, final Direction direction, final int threads) {
+        final int[] distances = new int[snapshot.getVertexCount()];
+        Arrays.fill(distances, -1);
+        breadthFirstSearch(snapshot, source, -1, direction, threads, distances);
+        return distances;
+    }
+
+    /**
+     * Find a shortest path (in number of edges) between two vertices. The search stops at the level at which the target is reached.
+     *
+     * @param snapshot  the snapshot of the graph
+     * @param source    the number of the vertex to start from
+     * @param target    the number of the vertex to reach
+     * @param direction the direction of the edges to follow
+     * @param threads   the number of threads to compute with
+     * @return the numbers of the vertices of the path, from the source to the target, or null if the target can not be reached
+     */
+    public static List<Integer> shortestPath(final GraphSnapshot snapshot, final int source, final int target, final Direction direction, final int threads) {
+        final AtomicIntegerArray parents = breadthFirstSearch(snapshot, source, target, direction, threads, null);
+        if (-1 == parents.get(target))
+            return null;
+
+        final LinkedList<Integer> path = new LinkedList<Integer>();
+        for (int v = target; v != source; v = parents.get(v)) {
+            path.addFirst(v);
+        }
+        path.addFirst(source);
+        return path;
+    }
+
+    /**
+     * @param snapshot  the snapshot of the graph
+     * @param direction the direction of the edges to count
+     * @return the number of vertices of each degree, by increasing degree
+     */
+    public static SortedMap<Integer, Long> degreeDistribution(final GraphSnapshot snapshot, final Direction direction) {
+        final SortedMap<Integer, Long> distribution = new TreeMap<Integer, Long>();
+        for (int v = 0; v < snapshot.getVertexCount(); v++) {
+            final int degree = snapshot.getDegree(v, direction);
+            final Long count = distribution.get(degree);
+            distribution.put(degree, null == count ? 1l : count + 1);
+        }
+        return distribution;
+    }
+
+    /**
+     * Write a value of every vertex of the snapshot to the graph as a property of the vertex.
+     * If the graph is a TransactionalGraph, the properties are committed in batches.
+     *
+     * @param graph     the graph of which the snapshot was taken
+     * @param snapshot  the snapshot of the graph
+     * @param key       the key of the property
+     * @param values    the values of the vertices, indexed by vertex number
+     * @param batchSize the number of properties to write in each transaction
+     */
+    public static void writeProperties(final Graph graph, final GraphSnapshot snapshot, final String key, final double[] values, final int batchSize) {
+        final List<Object> boxed = new ArrayList<Object>(values.length);
+        for (final double value : values) {
+            boxed.add(value);
+        }
+        writeProperties(graph, snapshot, key, boxed, batchSize);
+    }
+
+    /**
+     * Write a value of every vertex of the snapshot to the graph as a property of the vertex.
+     * If the graph is a TransactionalGraph, the properties are committed in batches.
+     *
+     * @param graph     the graph of which the snapshot was taken
+     * @param snapshot  the snapshot of the graph
+     * @param key       the key of the property
+     * @param values    the values of the vertices, indexed by vertex number
+     * @param batchSize the number of properties to write in each transaction
+     */
+    public static void writeProperties(final Graph graph, final GraphSnapshot snapshot, final String key, final int[] values, final int batchSize) {
+        final List<Object> boxed = new ArrayList<Object>(values.length);
+        for (final int value : values) {
+            boxed.add(value);
+        }
+        writeProperties(graph, snapshot, key, boxed, batchSize);
+    }
+
+    private static void writeProperties(final Graph graph, final GraphSnapshot snapshot, final String key, final List<Object> values, final int batchSize) {
+        if (batchSize <= 0)
+            throw new IllegalArgumentException("Batch size must be positive");
+        if (values.size() != snapshot.getVertexCount())
+            throw new IllegalArgumentException("There must be a value for every vertex of the snapshot");
+
+        int uncommitted = 0;
+        for (int v = 0; v < values.size(); v++) {
+            final Vertex vertex = graph.getVertex(snapshot.getId(v));
+            if (null == vertex)
+                continue;
+            vertex.setProperty(key, values.get(v));
+            if (graph instanceof TransactionalGraph && ++uncommitted == batchSize) {
+                ((TransactionalGraph) graph).commit();
+                uncommitted = 0;
+            }
+        }
+        if (graph instanceof TransactionalGraph)
+            ((TransactionalGraph) graph).commit();
+    }
+
+    /**
+     * A level-synchronous search in which the vertices of each level are expanded in parallel.
+     * Each vertex is claimed by the first thread to set its parent.
+     *
+     * @param distances if not null, filled with the distance to every vertex reached
+     * @return the parent of every vertex reached (the source is its own parent), or -1 for vertices not reached
+     */
+    private static AtomicIntegerArray breadthFirstSearch(final GraphSnapshot snapshot, final int source, final int target, final Direction direction, final int threads, final int[] distances) {
+        final Direction[] directions = direction.equals(Direction.BOTH) ? Direction.proper : new Direction[]{direction};
+        final AtomicIntegerArray parents = new AtomicIntegerArray(snapshot.getVertexCount());
+        for (int v = 0; v < snapshot.getVertexCount(); v++) {
+            parents.set(v, -1);
+        }
+        parents.set(source, source);
+        if (null != distances)
+            distances[source] = 0;
+
+        int[] frontier = new int[]{source};
+        int level = 0;
+        final Parallel parallel = new Parallel(threads);
+        try {
+            while (frontier.length > 0 && (-1 == target || -1 == parents.get(target))) {
+                final int[] current = frontier;
+                final int distance = ++level;
+                final List<int[]> found = Collections.synchronizedList(new ArrayList<int[]>());
+                parallel.forRange(current.length, new Parallel.RangeTask() {
+                    public void run(final int from, final int to) {
+                        int[] next = new int[16];
+                        int size = 0;
+                        for (int i = from; i < to; i++) {
+                            final int v = current[i];
+                            for (final Direction d : directions) {
+                                final int[] neighbors = snapshot.getNeighbors(d);
+                                final int end = snapshot.getOffset(v + 1, d);
+                                for (int j = snapshot.getOffset(v, d); j < end; j++) {
+                                    final int w = neighbors[j];
+                                    if (-1 == parents.get(w) && parents.compareAndSet(w, -1, v)) {
+                                        if (null != distances)
+                                            distances[w] = distance;
+                                        if (size == next.length)
+                                            next = Arrays.copyOf(next, size * 2);
+                                        next[size++] = w;
+                                    }
+                                }
+                            }
+                        }
+                        found.add(Arrays.copyOf(next, size));
+                    }
+                });
+
+                int size = 0;
+                for (final int[] next : found) {
+                    size += next.length;
+                }
+                frontier = new int[size];
+                size = 0;
+                for (final int[] next : found) {
+                    System.arraycopy(next, 0, frontier, size, next.length);
+                    size += next.length;
+                }
+            }
+        } finally {
+            parallel.shutdown();
+        }
+        return parents;
+    }
+
+    private static void union(final AtomicIntegerArray parents, final int a, final int b) {
+        while (true) {
+            final int rootA = find(parents, a);
+            final int rootB = find(parents, b);
+            if (rootA == rootB)
+                return;
+            final int high = Math.max(rootA, rootB);
+            final int low = Math.min(rootA, rootB);
+            if (parents.compareAndSet(high, high, low))
+                return;
+        }
+    }
+
+    private static int find(final AtomicIntegerArray parents, int v) {
+        int parent;
+        while ((parent = parents.get(v)) != v) {
+            // path halving: the parent of a vertex only ever moves closer to its root
+            final int grandparent = parents.get(parent);
+            parents.compareAndSet(v, parent, grandparent);
+            v = grandparent;
+        }
+        return v;
+    }
+}
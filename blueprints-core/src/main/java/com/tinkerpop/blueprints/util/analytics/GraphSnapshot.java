@@ -0,0 +1,185 @@
+package com.tinkerpop.blueprints.util.analytics;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.Parallel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GraphSnapshot is a compact, read-only copy of the adjacency of a graph, in compressed sparse row (CSR) form.
+ * Each vertex is numbered from 0 to getVertexCount() - 1, and the out and in neighbors of each vertex are held as slices
+ * of primitive int arrays, so that analytics over the snapshot neither allocate objects nor touch the graph per hop.
+ * The adjacency of the vertices is read from the graph by a number of threads.
+ * <p/>
+ * An edge between two vertices is held once for each edge, so parallel edges and self-loops are preserved.
+ */
+public class GraphSnapshot {
+
+    private final Object[] ids;
+    private final Map<Object, Integer> numbers;
+
+    private final int[] outOffsets;
+    private final int[] outTargets;
+    private final int[] inOffsets;
+    private final int[] inSources;
+
+    /**
+     * Take a snapshot of every vertex and edge of the graph, reading adjacency with one thread.
+     *
+     * @param graph the graph to take a snapshot of
+     */
+    public GraphSnapshot(final Graph graph) {
+        this(graph, 1);
+    }
+
+    /**
+     * Take a snapshot of every vertex of the graph, and of the edges with the given labels (or every edge if no labels are given).
+     * The graph must be safe for concurrent reads if more than one thread is used.
+     *
+     * @param graph   the graph to take a snapshot of
+     * @param threads the number of threads with which to read the adjacency of the vertices
+     * @param labels  the labels of the edges to include
+     */
+    public GraphSnapshot(final Graph graph, final int threads, final String... labels) {
+        final List<Vertex> vertices = new ArrayList<Vertex>();
+        this.numbers = new HashMap<Object, Integer>();
+        for (final Vertex vertex : graph.getVertices()) {
+            this.numbers.put(vertex.getId(), vertices.size());
+            vertices.add(vertex);
+        }
+        this.ids = new Object[vertices.size()];
+        for (int i = 0; i < this.ids.length; i++) {
+            this.ids[i] = vertices.get(i).getId();
+        }
+
+        final int vertexCount = vertices.size();
+        final int[][] adjacency = new int[vertexCount][];
+        final Parallel parallel = new Parallel(threads);
+        try {
+            parallel.forRange(vertexCount, new Parallel.RangeTask() {
+                public void run(final int from, final int to) {
+                    int[] buffer = new int[16];
+                    for (int v = from; v < to; v++) {
+                        int size = 0;
+                        for (final Vertex neighbor : vertices.get(v).getVertices(Direction.OUT, labels)) {
+                            final Integer number = numbers.get(neighbor.getId());
+                            if (null == number)
+                                continue;
+                            if (size == buffer.length) {
+                                final int[] grown = new int[buffer.length * 2];
+                                System.arraycopy(buffer, 0, grown, 0, size);
+                                buffer = grown;
+                            }
+                            buffer[size++] = number;
+                        }
+                        adjacency[v] = new int[size];
+                        System.arraycopy(buffer, 0, adjacency[v], 0, size);
+                    }
+                }
+            });
+        } finally {
+            parallel.shutdown();
+        }
+
+        this.outOffsets = new int[vertexCount + 1];
+        this.inOffsets = new int[vertexCount + 1];
+        for (int v = 0; v < vertexCount; v++) {
+            this.outOffsets[v + 1] = this.outOffsets[v] + adjacency[v].length;
+            for (final int w : adjacency[v]) {
+                this.inOffsets[w + 1]++;
+            }
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            this.inOffsets[v + 1] += this.inOffsets[v];
+        }
+
+        final int edgeCount = this.outOffsets[vertexCount];
+        this.outTargets = new int[edgeCount];
+        this.inSources = new int[edgeCount];
+        final int[] inPosition = new int[vertexCount];
+        System.arraycopy(this.inOffsets, 0, inPosition, 0, vertexCount);
+        for (int v = 0; v < vertexCount; v++) {
+            System.arraycopy(adjacency[v], 0, this.outTargets, this.outOffsets[v], adjacency[v].length);
+            for (final int w : adjacency[v]) {
+                this.inSources[inPosition[w]++] = v;
+            }
+            adjacency[v] = null;
+        }
+    }
+
+    public int getVertexCount() {
+        return this.ids.length;
+    }
+
+    public int getEdgeCount() {
+        return this.outTargets.length;
+    }
+
+    /**
+     * @param vertex the number of a vertex of the snapshot
+     * @return the id of the vertex in the graph
+     */
+    public Object getId(final int vertex) {
+        return this.ids[vertex];
+    }
+
+    /**
+     * @param id the id of a vertex in the graph
+     * @return the number of the vertex in the snapshot, or -1 if the vertex is not in the snapshot
+     */
+    public int getVertex(final Object id) {
+        final Integer number = this.numbers.get(id);
+        return null == number ? -1 : number;
+    }
+
+    /**
+     * @return the number of edges of the vertex in the given direction (or in both directions)
+     */
+    public int getDegree(final int vertex, final Direction direction) {
+        if (direction.equals(Direction.OUT))
+            return this.outOffsets[vertex + 1] - this.outOffsets[vertex];
+        else if (direction.equals(Direction.IN))
+            return this.inOffsets[vertex + 1] - this.inOffsets[vertex];
+        else
+            return this.getDegree(vertex, Direction.OUT) + this.getDegree(vertex, Direction.IN);
+    }
+
+    /**
+     * The neighbors of a vertex in the given direction are getNeighbors(direction)[i] for
+     * getOffset(vertex, direction) <= i < getOffset(vertex + 1, direction).
+     * The array is shared and must not be modified.
+     *
+     * @param direction OUT or IN
+     * @return the neighbors of every vertex, in vertex order
+     */
+    public int[] getNeighbors(final Direction direction) {
+        if (direction.equals(Direction.OUT))
+            return this.outTargets;
+        else if (direction.equals(Direction.IN))
+            return this.inSources;
+        else
+            throw new IllegalArgumentException("Neighbors are held for a single direction");
+    }
+
+    /**
+     * @param direction OUT or IN
+     * @return the offset of the first neighbor of the vertex in the array of neighbors
+     */
+    public int getOffset(final int vertex, final Direction direction) {
+        if (direction.equals(Direction.OUT))
+            return this.outOffsets[vertex];
+        else if (direction.equals(Direction.IN))
+            return this.inOffsets[vertex];
+        else
+            throw new IllegalArgumentException("Neighbors are held for a single direction");
+    }
+
+    public String toString() {
+        return "graphsnapshot[vertices:" + this.getVertexCount() + " edges:" + this.getEdgeCount() + "]";
+    }
+}
@@ -4,6 +4,7 @@ import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Element;
 import com.tinkerpop.blueprints.Graph;
 import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.ElementHelper;
 
 import java.io.IOException;
 import java.io.StreamTokenizer;
@@ -165,8 +166,8 @@ class GMLParser {
         map.remove(GMLTokens.ID);
 
         Edge edge = graph.addEdge(edgeId, outVertex, inVertex, label.toString());
-        if (directed) {
-            edge.setProperty(GMLTokens.DIRECTED, directed);
+        if (directed && !map.containsKey(GMLTokens.DIRECTED)) {
+            map.put(GMLTokens.DIRECTED, directed);
         }
 
         addProperties(edge, map);
@@ -174,9 +175,7 @@ class GMLParser {
     }
 
     private void addProperties(final Element element, final Map<String, Object> map) {
-        for (Map.Entry<String, Object> entry : map.entrySet()) {
-            element.setProperty(entry.getKey(), entry.getValue());
-        }
+        ElementHelper.setProperties(element, map);
     }
 
     private Object parseValue(final String key, final StreamTokenizer st) throws IOException {
@@ -3,6 +3,7 @@ package com.tinkerpop.blueprints.util.io.graphml;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Graph;
 import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.ElementHelper;
 import com.tinkerpop.blueprints.util.wrappers.batch.BatchGraph;
 
 import javax.xml.stream.XMLInputFactory;
@@ -14,7 +15,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 
 /**
  * GraphMLReader writes the data from a GraphML stream to a graph.
@@ -270,9 +270,7 @@ public class GraphMLReader {
                             currentVertex = graph.addVertex(vertexId);
                         }
 
-                        for (Entry<String, Object> prop : vertexProps.entrySet()) {
-                            currentVertex.setProperty(prop.getKey(), prop.getValue());
-                        }
+                        ElementHelper.setProperties(currentVertex, vertexProps);
 
                         vertexId = null;
                         vertexProps = null;
@@ -280,9 +278,7 @@ public class GraphMLReader {
                     } else if (elementName.equals(GraphMLTokens.EDGE)) {
                         Edge currentEdge = graph.addEdge(edgeId, edgeEndVertices[0], edgeEndVertices[1], edgeLabel);
 
-                        for (Entry<String, Object> prop : edgeProps.entrySet()) {
-                            currentEdge.setProperty(prop.getKey(), prop.getValue());
-                        }
+                        ElementHelper.setProperties(currentEdge, edgeProps);
 
                         edgeId = null;
                         edgeLabel = null;
@@ -12,6 +12,7 @@ import com.tinkerpop.blueprints.Direction;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Element;
 import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.ElementHelper;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
 import org.codehaus.jettison.json.JSONTokener;
@@ -130,12 +131,14 @@ public class GraphSONUtility {
         final Object vertexId = getTypedValueFromJsonNode(json.get(GraphSONTokens._ID));
         final Vertex v = factory.createVertex(vertexId);
 
+        final Map<String, Object> included = new HashMap<String, Object>();
         for (Map.Entry<String, Object> entry : props.entrySet()) {
             //if (this.vertexPropertyKeys == null || vertexPropertyKeys.contains(entry.getKey())) {
             if (includeKey(entry.getKey(), vertexPropertyKeys, this.vertexPropertiesRule)) {
-                v.setProperty(entry.getKey(), entry.getValue());
+                included.put(entry.getKey(), entry.getValue());
             }
         }
+        ElementHelper.setProperties(v, included);
 
         return v;
     }
@@ -181,12 +184,14 @@ public class GraphSONUtility {
 
         final Edge e = factory.createEdge(edgeId, out, in, label);
 
+        final Map<String, Object> included = new HashMap<String, Object>();
         for (Map.Entry<String, Object> entry : props.entrySet()) {
             // if (this.edgePropertyKeys == null || this.edgePropertyKeys.contains(entry.getKey())) {
             if (includeKey(entry.getKey(), edgePropertyKeys, this.edgePropertiesRule)) {
-                e.setProperty(entry.getKey(), entry.getValue());
+                included.put(entry.getKey(), entry.getValue());
             }
         }
+        ElementHelper.setProperties(e, included);
 
         return e;
     }
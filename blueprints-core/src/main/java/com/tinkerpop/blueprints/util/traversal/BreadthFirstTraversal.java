@@ -0,0 +1,265 @@
+package com.tinkerpop.blueprints.util.traversal;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.Parallel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BreadthFirstTraversal visits the vertices of a graph level by level over Vertex.getVertices(), following edges
+ * in the given direction with the given labels (or any label if none are given).
+ * Each level is expanded by a number of threads (see Parallel), which only retrieve adjacent vertices, while visited
+ * vertices are tracked by id (see VisitedIds) and visitors are called from the calling thread, in order of increasing depth.
+ * The visit, the neighborhood and both sides of the shortest path search share this expansion of a level.
+ * With more than one thread, the graph must be safe for concurrent reads.
+ * <p/>
+ * The traversal offers a visit of the vertices reachable from a vertex (with early termination by the visitor),
+ * the k-hop neighborhood of a vertex, and a shortest path between two vertices by a bidirectional search.
+ */
+public class BreadthFirstTraversal {
+
+    private final Direction direction;
+    private final String[] labels;
+    private int maxDepth = Integer.MAX_VALUE;
+    private int threads = 1;
+
+    /**
+     * @param direction the direction of the edges to follow
+     * @param labels    the labels of the edges to follow
+     */
+    public BreadthFirstTraversal(final Direction direction, final String... labels) {
+        this.direction = direction;
+        this.labels = labels;
+    }
+
+    /**
+     * @param maxDepth the number of hops beyond which no vertices are visited
+     */
+    public BreadthFirstTraversal maxDepth(final int maxDepth) {
+        if (maxDepth < 0)
+            throw new IllegalArgumentException("Maximum depth can not be negative");
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    /**
+     * @param threads the number of threads with which to expand each level of the traversal
+     */
+    public BreadthFirstTraversal threads(final int threads) {
+        if (threads <= 0)
+            throw new IllegalArgumentException("Number of threads must be positive");
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Visit the start vertex and each vertex reachable from it, once, in order of increasing depth.
+     *
+     * @param start   the vertex to start from
+     * @param visitor the visitor of the vertices, which may terminate the traversal
+     * @return the number of vertices visited
+     */
+    public long traverse(final Vertex start, final VertexVisitor visitor) {
+        return this.traverse(start, visitor, this.maxDepth);
+    }
+
+    private long traverse(final Vertex start, final VertexVisitor visitor, final int maxDepth) {
+        final VisitedIds visited = new VisitedIds();
+        visited.add(start.getId());
+        if (!visitor.visit(start, 0))
+            return visited.size();
+
+        final Level level = new Level() {
+            public boolean reach(final Vertex vertex, final Vertex parent) {
+                if (!visited.add(vertex.getId()))
+                    return false;
+                this.done = !visitor.visit(vertex, this.depth);
+                return true;
+            }
+        };
+        final Parallel parallel = new Parallel(this.threads);
+        try {
+            List<Vertex> frontier = Collections.singletonList(start);
+            for (level.depth = 1; level.depth <= maxDepth && !frontier.isEmpty() && !level.done; level.depth++) {
+                frontier = this.expand(parallel, frontier, this.direction, level);
+            }
+            return visited.size();
+        } finally {
+            parallel.shutdown();
+        }
+    }
+
+    /**
+     * @param start the vertex to start from
+     * @param k     the maximum number of hops
+     * @return the vertices within k hops of the start vertex (excluding the start vertex), in order of increasing depth
+     */
+    public List<Vertex> neighborhood(final Vertex start, final int k) {
+        final List<Vertex> vertices = new ArrayList<Vertex>();
+        this.traverse(start, new VertexVisitor() {
+            public boolean visit(final Vertex vertex, final int depth) {
+                if (depth > 0)
+                    vertices.add(vertex);
+                return true;
+            }
+        }, Math.min(this.maxDepth, k));
+        return vertices;
+    }
+
+    /**
+     * Find a shortest path (in number of hops) from the source to the target with a bidirectional search,
+     * which expands the smaller of the forward frontier (from the source) and the backward frontier (from the target,
+     * following edges in the opposite direction) until they meet.
+     *
+     * @param source the vertex to start from
+     * @param target the vertex to reach
+     * @return the vertices of the path from the source to the target, or null if there is no path within the maximum depth
+     */
+    public List<Vertex> shortestPath(final Vertex source, final Vertex target) {
+        if (source.getId().equals(target.getId())) {
+            final List<Vertex> path = new ArrayList<Vertex>();
+            path.add(source);
+            return path;
+        }
+
+        // the parent of each vertex reached from either end, by id (the ends are their own parents)
+        final Map<Object, Vertex> forward = new HashMap<Object, Vertex>();
+        final Map<Object, Vertex> backward = new HashMap<Object, Vertex>();
+        forward.put(source.getId(), source);
+        backward.put(target.getId(), target);
+        List<Vertex> forwardFrontier = new ArrayList<Vertex>();
+        List<Vertex> backwardFrontier = new ArrayList<Vertex>();
+        forwardFrontier.add(source);
+        backwardFrontier.add(target);
+
+        final Parallel parallel = new Parallel(this.threads);
+        try {
+            for (int depth = 1; depth <= this.maxDepth && !forwardFrontier.isEmpty() && !backwardFrontier.isEmpty(); depth++) {
+                final boolean forwards = forwardFrontier.size() <= backwardFrontier.size();
+                final PathLevel level = forwards ? new PathLevel(forward, backward) : new PathLevel(backward, forward);
+                final List<Vertex> next = this.expand(parallel, forwards ? forwardFrontier : backwardFrontier, forwards ? this.direction : this.direction.opposite(), level);
+
+                if (null != level.meeting)
+                    return level.shortest <= this.maxDepth ? this.path(level.meeting, forward, backward) : null;
+
+                if (forwards)
+                    forwardFrontier = next;
+                else
+                    backwardFrontier = next;
+            }
+            return null;
+        } finally {
+            parallel.shutdown();
+        }
+    }
+
+    private List<Vertex> path(final Vertex meeting, final Map<Object, Vertex> forward, final Map<Object, Vertex> backward) {
+        final LinkedList<Vertex> path = new LinkedList<Vertex>();
+        path.add(meeting);
+        Vertex vertex = meeting;
+        Vertex parent;
+        while (!(parent = forward.get(vertex.getId())).getId().equals(vertex.getId())) {
+            path.addFirst(parent);
+            vertex = parent;
+        }
+        vertex = meeting;
+        while (!(parent = backward.get(vertex.getId())).getId().equals(vertex.getId())) {
+            path.addLast(parent);
+            vertex = parent;
+        }
+        return path;
+    }
+
+    /**
+     * Retrieves the adjacent vertices of each vertex of the frontier, in slices with the threads of the parallel,
+     * and hands them in order to the level from the calling thread.
+     *
+     * @return the vertices reached for the first time, which make up the next frontier
+     */
+    private List<Vertex> expand(final Parallel parallel, final List<Vertex> frontier, final Direction direction, final Level level) {
+        final List<List<Vertex>> adjacent = new ArrayList<List<Vertex>>(Collections.<List<Vertex>>nCopies(frontier.size(), null));
+        parallel.forRange(frontier.size(), 1, new Parallel.RangeTask() {
+            public void run(final int from, final int to) {
+                for (int i = from; i < to; i++) {
+                    final List<Vertex> vertices = new ArrayList<Vertex>();
+                    for (final Vertex vertex : frontier.get(i).getVertices(direction, labels)) {
+                        vertices.add(vertex);
+                    }
+                    adjacent.set(i, vertices);
+                }
+            }
+        });
+
+        final List<Vertex> next = new ArrayList<Vertex>();
+        for (int i = 0; i < frontier.size() && !level.done; i++) {
+            for (final Vertex vertex : adjacent.get(i)) {
+                if (level.reach(vertex, frontier.get(i))) {
+                    next.add(vertex);
+                    if (level.done)
+                        break;
+                }
+            }
+        }
+        return next;
+    }
+
+    /**
+     * The handling of the vertices reached by the expansion of a level of a search.
+     */
+    private static abstract class Level {
+        protected int depth = 0;
+        protected boolean done = false;
+
+        /**
+         * @return true if the vertex is reached for the first time, and so belongs to the next frontier
+         */
+        public abstract boolean reach(Vertex vertex, Vertex parent);
+    }
+
+    /**
+     * A level of one side of a bidirectional search, which records the parent of each vertex reached by id,
+     * and the vertex of the shortest path through which the sides meet.
+     */
+    private static class PathLevel extends Level {
+        private final Map<Object, Vertex> parents;
+        private final Map<Object, Vertex> others;
+        private Vertex meeting = null;
+        private int shortest = Integer.MAX_VALUE;
+
+        public PathLevel(final Map<Object, Vertex> parents, final Map<Object, Vertex> others) {
+            this.parents = parents;
+            this.others = others;
+        }
+
+        public boolean reach(final Vertex vertex, final Vertex parent) {
+            final Object id = vertex.getId();
+            if (this.parents.containsKey(id))
+                return false;
+            this.parents.put(id, parent);
+            if (this.others.containsKey(id)) {
+                final int length = length(this.parents, vertex) + length(this.others, vertex);
+                if (length < this.shortest) {
+                    this.shortest = length;
+                    this.meeting = vertex;
+                }
+            }
+            return true;
+        }
+
+        private static int length(final Map<Object, Vertex> parents, Vertex vertex) {
+            int length = 0;
+            Vertex parent;
+            while (!(parent = parents.get(vertex.getId())).getId().equals(vertex.getId())) {
+                vertex = parent;
+                length++;
+            }
+            return length;
+        }
+    }
+}
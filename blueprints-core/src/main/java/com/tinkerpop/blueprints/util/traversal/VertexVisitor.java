@@ -0,0 +1,16 @@
+package com.tinkerpop.blueprints.util.traversal;
+
+import com.tinkerpop.blueprints.Vertex;
+
+/**
+ * A VertexVisitor is called for each vertex reached by a BreadthFirstTraversal, in order of increasing depth.
+ */
+public interface VertexVisitor {
+
+    /**
+     * @param vertex the vertex reached
+     * @param depth  the number of hops from the start vertex to the vertex
+     * @return true to continue the traversal, or false to terminate it
+     */
+    public boolean visit(Vertex vertex, int depth);
+}
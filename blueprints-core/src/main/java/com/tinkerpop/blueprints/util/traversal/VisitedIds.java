@@ -0,0 +1,101 @@
+package com.tinkerpop.blueprints.util.traversal;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A set of the ids of visited vertices.
+ * Long ids (as used by most disk-based graphs) are held in an open-addressing table of primitive longs,
+ * so that neither the ids nor the vertices need be retained. Other ids are held in a HashSet.
+ * Ids are compared by the equals() of the ids, rather than of the vertices of a backend, so ids of different types
+ * (such as Integer 5 and Long 5) are different ids.
+ */
+public class VisitedIds {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] table = newTable(16);
+    private int longs = 0;
+    private boolean hasEmptyValue = false;
+    private Set<Object> others = null;
+
+    /**
+     * @param id the id of a vertex
+     * @return true if the id was not visited before
+     */
+    public boolean add(final Object id) {
+        if (id instanceof Long) {
+            final long value = (Long) id;
+            if (EMPTY == value) {
+                final boolean added = !this.hasEmptyValue;
+                this.hasEmptyValue = true;
+                return added;
+            }
+            if ((this.longs + 1) * 2 > this.table.length)
+                this.rehash();
+            if (insert(this.table, value)) {
+                this.longs++;
+                return true;
+            }
+            return false;
+        } else {
+            if (null == this.others)
+                this.others = new HashSet<Object>();
+            return this.others.add(id);
+        }
+    }
+
+    public boolean contains(final Object id) {
+        if (id instanceof Long) {
+            final long value = (Long) id;
+            if (EMPTY == value)
+                return this.hasEmptyValue;
+            final int mask = this.table.length - 1;
+            for (int i = hash(value) & mask; ; i = (i + 1) & mask) {
+                if (this.table[i] == value)
+                    return true;
+                if (this.table[i] == EMPTY)
+                    return false;
+            }
+        } else {
+            return null != this.others && this.others.contains(id);
+        }
+    }
+
+    public int size() {
+        return this.longs + (this.hasEmptyValue ? 1 : 0) + (null == this.others ? 0 : this.others.size());
+    }
+
+    private void rehash() {
+        final long[] grown = newTable(this.table.length * 2);
+        for (final long value : this.table) {
+            if (value != EMPTY)
+                insert(grown, value);
+        }
+        this.table = grown;
+    }
+
+    private static boolean insert(final long[] table, final long value) {
+        final int mask = table.length - 1;
+        for (int i = hash(value) & mask; ; i = (i + 1) & mask) {
+            if (table[i] == value)
+                return false;
+            if (table[i] == EMPTY) {
+                table[i] = value;
+                return true;
+            }
+        }
+    }
+
+    private static long[] newTable(final int size) {
+        final long[] table = new long[size];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+    private static int hash(final long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
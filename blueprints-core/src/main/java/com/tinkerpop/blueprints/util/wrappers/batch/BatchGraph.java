@@ -1,5 +1,6 @@
 package com.tinkerpop.blueprints.util.wrappers.batch;
 
+import com.tinkerpop.blueprints.BulkPropertyElement;
 import com.tinkerpop.blueprints.Direction;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Element;
@@ -9,6 +10,7 @@ import com.tinkerpop.blueprints.GraphQuery;
 import com.tinkerpop.blueprints.TransactionalGraph;
 import com.tinkerpop.blueprints.Vertex;
 import com.tinkerpop.blueprints.VertexQuery;
+import com.tinkerpop.blueprints.util.ElementHelper;
 import com.tinkerpop.blueprints.util.ExceptionFactory;
 import com.tinkerpop.blueprints.util.StringFactory;
 import com.tinkerpop.blueprints.util.wrappers.WrapperGraph;
@@ -16,6 +18,7 @@ import com.tinkerpop.blueprints.util.wrappers.batch.cache.VertexCache;
 import com.tinkerpop.blueprints.util.wrappers.id.IdGraph;
 
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -281,6 +284,8 @@ public class BatchGraph<T extends TransactionalGraph> implements TransactionalGr
         Features features = baseGraph.getFeatures().copyFeatures();
         features.ignoresSuppliedIds = false;
         features.isWrapper = true;
+        features.supportsBulkRetrieval = false;
+        features.supportsBulkProperties = true;
         features.supportsEdgeIteration = false;
         features.supportsThreadedTransactions = false;
         features.supportsVertexIteration = false;
@@ -391,18 +396,20 @@ public class BatchGraph<T extends TransactionalGraph> implements TransactionalGr
 
     protected <E extends Element> E setProperties(final E element, final Object... properties) {
         if (properties != null && properties.length > 0) {
+            final Map<String, Object> map = new LinkedHashMap<String, Object>();
             if (properties.length == 1) {
                 final Object f = properties[0];
                 if (f instanceof Map<?, ?>) {
                     for (Map.Entry<?, ?> entry : ((Map<?, ?>) f).entrySet())
-                        element.setProperty(entry.getKey().toString(), entry.getValue());
+                        map.put(entry.getKey().toString(), entry.getValue());
                 } else
                     throw new IllegalArgumentException(
                             "Invalid properties: expecting a pairs of fields as String,Object or a single Map<String,Object>, but found: " + f);
             } else
-                // SET PROPERTIES ONE BY ONE
                 for (int i = 0; i < properties.length; i += 2)
-                    element.setProperty(properties[i].toString(), properties[i + 1]);
+                    map.put(properties[i].toString(), properties[i + 1]);
+            // SET ALL PROPERTIES IN ONE OPERATION IF THE BASE ELEMENT SUPPORTS IT
+            ElementHelper.setProperties(element, map);
         }
         return element;
     }
@@ -459,7 +466,7 @@ public class BatchGraph<T extends TransactionalGraph> implements TransactionalGr
         throw retrievalNotSupported();
     }
 
-    private class BatchVertex implements Vertex {
+    private class BatchVertex implements Vertex, BulkPropertyElement {
 
         private final Object externalID;
 
@@ -492,6 +499,11 @@ public class BatchGraph<T extends TransactionalGraph> implements TransactionalGr
             getCachedVertex(externalID).setProperty(key, value);
         }
 
+        @Override
+        public void setBulkProperties(final Map<String, Object> properties) {
+            ElementHelper.setProperties(getCachedVertex(externalID), properties);
+        }
+
         @Override
         public Object getId() {
             return externalID;
@@ -522,7 +534,7 @@ public class BatchGraph<T extends TransactionalGraph> implements TransactionalGr
         }
     }
 
-    private class BatchEdge implements Edge {
+    private class BatchEdge implements Edge, BulkPropertyElement {
 
         @Override
         public Vertex getVertex(Direction direction) throws IllegalArgumentException {
@@ -539,6 +551,11 @@ public class BatchGraph<T extends TransactionalGraph> implements TransactionalGr
             getWrappedEdge().setProperty(key, value);
         }
 
+        @Override
+        public void setBulkProperties(final Map<String, Object> properties) {
+            ElementHelper.setProperties(getWrappedEdge(), properties);
+        }
+
         @Override
         public Object getId() {
             return getWrappedEdge().getId();
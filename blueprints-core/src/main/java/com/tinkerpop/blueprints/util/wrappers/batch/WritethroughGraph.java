@@ -62,6 +62,7 @@ class WritethroughGraph<T extends Graph> implements WrapperGraph<T>, Transaction
     public Features getFeatures() {
         Features f = graph.getFeatures().copyFeatures();
         f.isWrapper = true;
+        f.supportsBulkRetrieval = false;
         f.supportsTransactions = true;
         return f;
     }
@@ -48,6 +48,8 @@ public class EventGraph<T extends Graph> implements Graph, WrapperGraph<T> {
         this.baseGraph = baseGraph;
         this.features = this.baseGraph.getFeatures().copyFeatures();
         this.features.isWrapper = true;
+        this.features.supportsBulkRetrieval = false;
+        this.features.supportsBulkProperties = false;
 
         this.trigger = new EventTrigger(this, false);
     }
@@ -0,0 +1,53 @@
+package com.tinkerpop.blueprints.util.wrappers.id;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, least-recently-used mapping of IdGraph ids to the ids of the corresponding base graph elements.
+ * Entries are only hints: a cached base id must be verified against the base graph before it is trusted.
+ */
+class IdCache {
+
+    private final Map<Object, Object> cache;
+
+    public IdCache(final int capacity) {
+        this.cache = new LeastRecentlyUsed(capacity);
+    }
+
+    public synchronized Object get(final Object id) {
+        return this.cache.get(id);
+    }
+
+    public synchronized void put(final Object id, final Object baseId) {
+        this.cache.put(id, baseId);
+    }
+
+    public synchronized void remove(final Object id) {
+        this.cache.remove(id);
+    }
+
+    public synchronized void clear() {
+        this.cache.clear();
+    }
+
+    public synchronized int size() {
+        return this.cache.size();
+    }
+
+    private static class LeastRecentlyUsed extends LinkedHashMap<Object, Object> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        public LeastRecentlyUsed(final int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Object, Object> eldest) {
+            return this.size() > this.capacity;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.tinkerpop.blueprints.util.wrappers.id;
 
+import com.tinkerpop.blueprints.BulkRetrievalGraph;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Element;
 import com.tinkerpop.blueprints.Features;
@@ -11,6 +12,7 @@ import com.tinkerpop.blueprints.Parameter;
 import com.tinkerpop.blueprints.TransactionalGraph;
 import com.tinkerpop.blueprints.Vertex;
 import com.tinkerpop.blueprints.util.ExceptionFactory;
+import com.tinkerpop.blueprints.util.GraphHelper;
 import com.tinkerpop.blueprints.util.StringFactory;
 import com.tinkerpop.blueprints.util.wrappers.WrappedGraphQuery;
 import com.tinkerpop.blueprints.util.wrappers.WrapperGraph;
@@ -29,10 +31,13 @@ import java.util.UUID;
  * It *may* be an instance of TransactionalGraph, in which case transaction operations will be passed through.
  * For those graphs which support vertex indices but not edge indices (or vice versa),
  * you may configure IdGraph to use custom IDs only for vertices or only for edges.
+ * <p/>
+ * Each lookup by custom ID is a key index lookup in the base graph.
+ * Lookup-heavy applications may enable a bounded cache of custom ID to base graph ID mappings with setIdCacheSize(int).
  *
  * @author Joshua Shinavier (http://fortytwo.net)
  */
-public class IdGraph<T extends KeyIndexableGraph> implements KeyIndexableGraph, WrapperGraph<T>, IndexableGraph, TransactionalGraph {
+public class IdGraph<T extends KeyIndexableGraph> implements KeyIndexableGraph, WrapperGraph<T>, IndexableGraph, TransactionalGraph, BulkRetrievalGraph {
 
     // Note: using "__id" instead of "_id" avoids collision with Rexster's "_id"
     public static final String ID = "__id";
@@ -48,6 +53,9 @@ public class IdGraph<T extends KeyIndexableGraph> implements KeyIndexableGraph,
 
     private boolean uniqueIds = true;
 
+    private IdCache vertexIdCache = null;
+    private IdCache edgeIdCache = null;
+
     /**
      * Adds custom ID functionality to the given graph,
      * supporting both custom vertex IDs and custom edge IDs.
@@ -72,6 +80,8 @@ public class IdGraph<T extends KeyIndexableGraph> implements KeyIndexableGraph,
         this.baseGraph = baseGraph;
         this.features = this.baseGraph.getFeatures().copyFeatures();
         features.isWrapper = true;
+        features.supportsBulkRetrieval = true;
+        features.supportsBulkProperties = false;
         features.ignoresSuppliedIds = false;
 
         this.supportVertexIds = supportVertexIds;
@@ -119,6 +129,21 @@ public class IdGraph<T extends KeyIndexableGraph> implements KeyIndexableGraph,
         return edgeIdFactory;
     }
 
+    /**
+     * Enables a least-recently-used cache which maps custom IDs to the IDs of the base graph elements,
+     * so that repeated lookups of the same ID avoid a key index lookup in the base graph.
+     * A cached mapping is verified against the base graph before it is used, and the cache is cleared on rollback.
+     * The cache is only consulted while unique IDs are enforced.
+     *
+     * @param size the maximum number of vertex IDs and of edge IDs to cache, or 0 to disable caching (the default)
+     */
+    public void setIdCacheSize(final int size) {
+        if (size < 0)
+            throw new IllegalArgumentException("id cache size must not be negative: " + size);
+        vertexIdCache = size > 0 && supportVertexIds ? new IdCache(size) : null;
+        edgeIdCache = size > 0 && supportEdgeIds ? new IdCache(size) : null;
+    }
+
     public Features getFeatures() {
         return features;
     }
@@ -147,27 +172,29 @@ public class IdGraph<T extends KeyIndexableGraph> implements KeyIndexableGraph,
         }
 
         if (supportVertexIds) {
-            final Iterable<Vertex> i = baseGraph.getVertices(ID, id);
-            final Iterator<Vertex> iter = i.iterator();
-            if (!iter.hasNext()) {
-                return null;
-            } else {
-                Vertex e = iter.next();
-
-                if (iter.hasNext()) {
-                    throw new IllegalStateException("multiple vertices exist with id '" + id + "'");
-                }
-
-                return new IdVertex(e, this);
-            }
+            final Vertex base = getBaseVertex(id);
+            return null == base ? null : new IdVertex(base, this);
         } else {
             Vertex base = baseGraph.getVertex(id);
             return null == base ? null : new IdVertex(base, this);
         }
     }
 
+    /**
+     * Retrieves the vertices with the given IDs, consulting the ID cache (if enabled) before the base graph.
+     * Duplicate IDs are resolved once and IDs without a vertex are skipped.
+     *
+     * @param ids the vertex IDs
+     * @return the vertices in the order of their first ID
+     */
+    public Iterable<Vertex> getVertices(final Iterable<?> ids) {
+        return GraphHelper.lookupVertices(this, ids);
+    }
+
     public void removeVertex(final Vertex vertex) {
         verifyNativeElement(vertex);
+        if (null != vertexIdCache)
+            vertexIdCache.remove(vertex.getId());
         baseGraph.removeVertex(((IdVertex) vertex).getBaseVertex());
     }
 
@@ -214,28 +241,30 @@ public class IdGraph<T extends KeyIndexableGraph> implements KeyIndexableGraph,
         }
 
         if (supportEdgeIds) {
-            Iterable<Edge> i = baseGraph.getEdges(ID, id);
-            Iterator<Edge> iter = i.iterator();
-            if (!iter.hasNext()) {
-                return null;
-            } else {
-                Edge e = iter.next();
-
-                if (iter.hasNext()) {
-                    throw new IllegalStateException("multiple edges exist with id " + id);
-                }
-
-                return new IdEdge(e, this);
-            }
+            final Edge base = getBaseEdge(id);
+            return null == base ? null : new IdEdge(base, this);
         } else {
             Edge base = baseGraph.getEdge(id);
             return null == base ? null : new IdEdge(base, this);
         }
     }
 
+    /**
+     * Retrieves the edges with the given IDs, consulting the ID cache (if enabled) before the base graph.
+     * Duplicate IDs are resolved once and IDs without an edge are skipped.
+     *
+     * @param ids the edge IDs
+     * @return the edges in the order of their first ID
+     */
+    public Iterable<Edge> getEdges(final Iterable<?> ids) {
+        return GraphHelper.lookupEdges(this, ids);
+    }
+
     public void removeEdge(final Edge edge) {
         verifyNativeElement(edge);
 
+        if (null != edgeIdCache)
+            edgeIdCache.remove(edge.getId());
         baseGraph.removeEdge(((IdEdge) edge).getBaseEdge());
     }
 
@@ -261,6 +290,12 @@ public class IdGraph<T extends KeyIndexableGraph> implements KeyIndexableGraph,
     }
 
     public void rollback() {
+        // elements created in the rolled back transaction may have been cached
+        if (null != vertexIdCache)
+            vertexIdCache.clear();
+        if (null != edgeIdCache)
+            edgeIdCache.clear();
+
         if (this.baseGraph instanceof TransactionalGraph) {
             ((TransactionalGraph) baseGraph).rollback();
         }
@@ -404,6 +439,66 @@ public class IdGraph<T extends KeyIndexableGraph> implements KeyIndexableGraph,
         }
     }
 
+    private Vertex getBaseVertex(final Object id) {
+        final boolean cached = uniqueIds && null != vertexIdCache;
+        if (cached) {
+            final Object baseId = vertexIdCache.get(id);
+            if (null != baseId) {
+                final Vertex base = baseGraph.getVertex(baseId);
+                if (null != base && id.equals(base.getProperty(ID))) {
+                    return base;
+                }
+                vertexIdCache.remove(id);
+            }
+        }
+
+        final Iterator<Vertex> iter = baseGraph.getVertices(ID, id).iterator();
+        if (!iter.hasNext()) {
+            return null;
+        } else {
+            final Vertex base = iter.next();
+
+            if (iter.hasNext()) {
+                throw new IllegalStateException("multiple vertices exist with id '" + id + "'");
+            }
+
+            if (cached) {
+                vertexIdCache.put(id, base.getId());
+            }
+            return base;
+        }
+    }
+
+    private Edge getBaseEdge(final Object id) {
+        final boolean cached = uniqueIds && null != edgeIdCache;
+        if (cached) {
+            final Object baseId = edgeIdCache.get(id);
+            if (null != baseId) {
+                final Edge base = baseGraph.getEdge(baseId);
+                if (null != base && id.equals(base.getProperty(ID))) {
+                    return base;
+                }
+                edgeIdCache.remove(id);
+            }
+        }
+
+        final Iterator<Edge> iter = baseGraph.getEdges(ID, id).iterator();
+        if (!iter.hasNext()) {
+            return null;
+        } else {
+            final Edge base = iter.next();
+
+            if (iter.hasNext()) {
+                throw new IllegalStateException("multiple edges exist with id " + id);
+            }
+
+            if (cached) {
+                edgeIdCache.put(id, base.getId());
+            }
+            return base;
+        }
+    }
+
     private void verifyBaseGraphIsIndexableGraph() {
         if (!(baseGraph instanceof IndexableGraph)) {
             throw new IllegalStateException("base graph is not an indexable graph");
@@ -0,0 +1,89 @@
+package com.tinkerpop.blueprints.util.wrappers.interceptor;
+
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.EdgeAddedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.EdgePropertyChangedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.EdgePropertyRemovedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.EdgeRemovedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.Event;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.GraphChangedListener;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.VertexAddedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.VertexPropertyChangedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.VertexPropertyRemovedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.VertexRemovedEvent;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The interceptor equivalent of an EventGraph: GraphChangedListeners are notified of every change, in the order they were added.
+ */
+public class EventInterceptor extends GraphInterceptor {
+
+    protected final List<GraphChangedListener> graphChangedListeners = new ArrayList<GraphChangedListener>();
+
+    public void addListener(final GraphChangedListener listener) {
+        this.graphChangedListeners.add(listener);
+    }
+
+    public void removeListener(final GraphChangedListener listener) {
+        this.graphChangedListeners.remove(listener);
+    }
+
+    public void removeAllListeners() {
+        this.graphChangedListeners.clear();
+    }
+
+    public Iterator<GraphChangedListener> getListenerIterator() {
+        return this.graphChangedListeners.iterator();
+    }
+
+    protected void fireEvent(final Event event) {
+        event.fireEvent(this.getListenerIterator());
+    }
+
+    @Override
+    public boolean requiresPreviousValues() {
+        return true;
+    }
+
+    @Override
+    public void afterAddVertex(final Vertex vertex) {
+        this.fireEvent(new VertexAddedEvent(vertex));
+    }
+
+    @Override
+    public void afterRemoveVertex(final Vertex vertex, final Map<String, Object> properties) {
+        this.fireEvent(new VertexRemovedEvent(vertex, properties));
+    }
+
+    @Override
+    public void afterAddEdge(final Edge edge) {
+        this.fireEvent(new EdgeAddedEvent(edge));
+    }
+
+    @Override
+    public void afterRemoveEdge(final Edge edge, final Map<String, Object> properties) {
+        this.fireEvent(new EdgeRemovedEvent(edge, properties));
+    }
+
+    @Override
+    public void afterSetProperty(final Element element, final String key, final Object oldValue, final Object newValue) {
+        if (element instanceof Vertex)
+            this.fireEvent(new VertexPropertyChangedEvent((Vertex) element, key, oldValue, newValue));
+        else
+            this.fireEvent(new EdgePropertyChangedEvent((Edge) element, key, oldValue, newValue));
+    }
+
+    @Override
+    public void afterRemoveProperty(final Element element, final String key, final Object removedValue) {
+        if (element instanceof Vertex)
+            this.fireEvent(new VertexPropertyRemovedEvent((Vertex) element, key, removedValue));
+        else
+            this.fireEvent(new EdgePropertyRemovedEvent((Edge) element, key, removedValue));
+    }
+}
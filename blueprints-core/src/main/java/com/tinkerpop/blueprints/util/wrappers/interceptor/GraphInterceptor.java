@@ -0,0 +1,89 @@
+package com.tinkerpop.blueprints.util.wrappers.interceptor;
+
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.GraphQuery;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.VertexQuery;
+
+import java.util.Map;
+
+/**
+ * A GraphInterceptor is a single wrapper behavior (e.g. read-only, partitioning, eventing) that is applied by an InterceptorGraph.
+ * Every hook is a no-op by default so an interceptor only needs to override the hooks it cares about.
+ * Elements handed to the hooks are the InterceptorGraph elements, use InterceptorElement.getBaseElement() to reach the base element.
+ */
+public abstract class GraphInterceptor {
+
+    /**
+     * @param baseElement the element of the base graph
+     * @return false if the element must not be visible through the InterceptorGraph
+     */
+    public boolean isVisible(final Element baseElement) {
+        return true;
+    }
+
+    /**
+     * A hidden key can not be read, written or removed through the InterceptorGraph.
+     *
+     * @param key the property key
+     * @return false if the property key must not be visible through the InterceptorGraph
+     */
+    public boolean isVisibleKey(final String key) {
+        return true;
+    }
+
+    /**
+     * Interceptors that observe old property values or the properties of removed elements must return true.
+     * Otherwise those values are not read from the base graph and null is handed to the corresponding after-hooks.
+     *
+     * @return whether previous values are required by the after-hooks
+     */
+    public boolean requiresPreviousValues() {
+        return false;
+    }
+
+    public GraphQuery query(final GraphQuery query) {
+        return query;
+    }
+
+    public VertexQuery query(final VertexQuery query) {
+        return query;
+    }
+
+    public void beforeAddVertex(final Object id) {
+    }
+
+    public void afterAddVertex(final Vertex vertex) {
+    }
+
+    public void beforeRemoveVertex(final Vertex vertex) {
+    }
+
+    public void afterRemoveVertex(final Vertex vertex, final Map<String, Object> properties) {
+    }
+
+    public void beforeAddEdge(final Object id, final Vertex outVertex, final Vertex inVertex, final String label) {
+    }
+
+    public void afterAddEdge(final Edge edge) {
+    }
+
+    public void beforeRemoveEdge(final Edge edge) {
+    }
+
+    public void afterRemoveEdge(final Edge edge, final Map<String, Object> properties) {
+    }
+
+    public void beforeSetProperty(final Element element, final String key, final Object value) {
+    }
+
+    public void afterSetProperty(final Element element, final String key, final Object oldValue, final Object newValue) {
+    }
+
+    public void beforeRemoveProperty(final Element element, final String key) {
+    }
+
+    public void afterRemoveProperty(final Element element, final String key, final Object removedValue) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.tinkerpop.blueprints.util.wrappers.interceptor;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+
+public class InterceptorEdge extends InterceptorElement implements Edge {
+
+    protected InterceptorEdge(final Edge baseEdge, final InterceptorGraph graph) {
+        super(baseEdge, graph);
+    }
+
+    /**
+     * @return the vertex or null if the vertex is not visible through the InterceptorGraph
+     */
+    public Vertex getVertex(final Direction direction) throws IllegalArgumentException {
+        return this.graph.wrapVertex(((Edge) this.baseElement).getVertex(direction));
+    }
+
+    public String getLabel() {
+        return ((Edge) this.baseElement).getLabel();
+    }
+
+    public Edge getBaseEdge() {
+        return (Edge) this.baseElement;
+    }
+}
@@ -0,0 +1,65 @@
+package com.tinkerpop.blueprints.util.wrappers.interceptor;
+
+import com.tinkerpop.blueprints.CloseableIterable;
+import com.tinkerpop.blueprints.Edge;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+class InterceptorEdgeIterable implements CloseableIterable<Edge> {
+
+    private final Iterable<Edge> iterable;
+    private final InterceptorGraph graph;
+
+    public InterceptorEdgeIterable(final Iterable<Edge> iterable, final InterceptorGraph graph) {
+        this.iterable = iterable;
+        this.graph = graph;
+    }
+
+    public Iterator<Edge> iterator() {
+        return new Iterator<Edge>() {
+            private final Iterator<Edge> itty = iterable.iterator();
+            private InterceptorEdge nextEdge;
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+            public boolean hasNext() {
+                if (null != this.nextEdge) {
+                    return true;
+                }
+                while (this.itty.hasNext()) {
+                    final Edge edge = this.itty.next();
+                    if (graph.isVisible(edge)) {
+                        this.nextEdge = new InterceptorEdge(edge, graph);
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            public Edge next() {
+                if (null != this.nextEdge) {
+                    final InterceptorEdge temp = this.nextEdge;
+                    this.nextEdge = null;
+                    return temp;
+                } else {
+                    while (this.itty.hasNext()) {
+                        final Edge edge = this.itty.next();
+                        if (graph.isVisible(edge)) {
+                            return new InterceptorEdge(edge, graph);
+                        }
+                    }
+                    throw new NoSuchElementException();
+                }
+            }
+        };
+    }
+
+    public void close() {
+        if (this.iterable instanceof CloseableIterable) {
+            ((CloseableIterable) this.iterable).close();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.tinkerpop.blueprints.util.wrappers.interceptor;
+
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.ElementHelper;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public abstract class InterceptorElement implements Element {
+
+    protected final Element baseElement;
+    protected final InterceptorGraph graph;
+
+    protected InterceptorElement(final Element baseElement, final InterceptorGraph graph) {
+        this.baseElement = baseElement;
+        this.graph = graph;
+    }
+
+    public <T> T getProperty(final String key) {
+        if (!this.graph.isVisibleKey(key))
+            return null;
+        return this.baseElement.getProperty(key);
+    }
+
+    public Set<String> getPropertyKeys() {
+        final Set<String> keys = this.baseElement.getPropertyKeys();
+        for (final String key : keys) {
+            if (!this.graph.isVisibleKey(key)) {
+                final Set<String> visibleKeys = new HashSet<String>();
+                for (final String k : keys) {
+                    if (this.graph.isVisibleKey(k))
+                        visibleKeys.add(k);
+                }
+                return visibleKeys;
+            }
+        }
+        return keys;
+    }
+
+    public void setProperty(final String key, final Object value) {
+        if (!this.graph.isVisibleKey(key))
+            return;
+        this.graph.beforeSetProperty(this, key, value);
+        final Object oldValue = this.graph.requiresPreviousValues() ? this.baseElement.getProperty(key) : null;
+        this.baseElement.setProperty(key, value);
+        this.graph.afterSetProperty(this, key, oldValue, value);
+    }
+
+    public <T> T removeProperty(final String key) {
+        if (!this.graph.isVisibleKey(key))
+            return null;
+        this.graph.beforeRemoveProperty(this, key);
+        final Object removedValue = this.baseElement.removeProperty(key);
+        this.graph.afterRemoveProperty(this, key, removedValue);
+        return (T) removedValue;
+    }
+
+    public Object getId() {
+        return this.baseElement.getId();
+    }
+
+    public void remove() {
+        if (this instanceof Vertex)
+            this.graph.removeVertex((Vertex) this);
+        else
+            this.graph.removeEdge((Edge) this);
+    }
+
+    public Element getBaseElement() {
+        return this.baseElement;
+    }
+
+    public boolean equals(final Object object) {
+        return ElementHelper.areEqual(this, object);
+    }
+
+    public int hashCode() {
+        return this.baseElement.hashCode();
+    }
+
+    public String toString() {
+        return this.baseElement.toString();
+    }
+}
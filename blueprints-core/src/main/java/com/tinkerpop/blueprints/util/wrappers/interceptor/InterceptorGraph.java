@@ -0,0 +1,219 @@
+package com.tinkerpop.blueprints.util.wrappers.interceptor;
+
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.Features;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.GraphQuery;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.VertexQuery;
+import com.tinkerpop.blueprints.util.ElementHelper;
+import com.tinkerpop.blueprints.util.StringFactory;
+import com.tinkerpop.blueprints.util.wrappers.WrappedGraphQuery;
+import com.tinkerpop.blueprints.util.wrappers.WrapperGraph;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An InterceptorGraph applies a chain of GraphInterceptors to a base graph.
+ * Stacking wrappers (e.g. an EventGraph over a PartitionGraph over a ReadOnlyGraph) allocates one wrapper element and
+ * one wrapper iterable per wrapper for every element that is returned.
+ * An InterceptorGraph allocates a single wrapper element per element and a single iterable per traversal step
+ * no matter how many behaviors are applied.
+ * <p/>
+ * Interceptors are consulted in the order they were provided.
+ */
+public class InterceptorGraph<T extends Graph> implements Graph, WrapperGraph<T> {
+
+    protected final T baseGraph;
+    private final GraphInterceptor[] interceptors;
+    private final boolean requiresPreviousValues;
+    private final Features features;
+
+    public InterceptorGraph(final T baseGraph, final GraphInterceptor... interceptors) {
+        this.baseGraph = baseGraph;
+        this.interceptors = interceptors;
+        boolean requiresPreviousValues = false;
+        for (final GraphInterceptor interceptor : interceptors) {
+            requiresPreviousValues = requiresPreviousValues || interceptor.requiresPreviousValues();
+        }
+        this.requiresPreviousValues = requiresPreviousValues;
+        this.features = this.baseGraph.getFeatures().copyFeatures();
+        this.features.isWrapper = true;
+        this.features.supportsBulkRetrieval = false;
+        this.features.supportsBulkProperties = false;
+    }
+
+    public List<GraphInterceptor> getInterceptors() {
+        return Arrays.asList(this.interceptors);
+    }
+
+    public Vertex addVertex(final Object id) {
+        for (final GraphInterceptor interceptor : this.interceptors) {
+            interceptor.beforeAddVertex(id);
+        }
+        final Vertex vertex = new InterceptorVertex(this.baseGraph.addVertex(id), this);
+        for (final GraphInterceptor interceptor : this.interceptors) {
+            interceptor.afterAddVertex(vertex);
+        }
+        return vertex;
+    }
+
+    public Vertex getVertex(final Object id) {
+        return this.wrapVertex(this.baseGraph.getVertex(id));
+    }
+
+    public void removeVertex(final Vertex vertex) {
+        for (final GraphInterceptor interceptor : this.interceptors) {
+            interceptor.beforeRemoveVertex(vertex);
+        }
+        final Map<String, Object> properties = this.requiresPreviousValues ? ElementHelper.getProperties(vertex) : null;
+        this.baseGraph.removeVertex(vertex instanceof InterceptorVertex ? ((InterceptorVertex) vertex).getBaseVertex() : vertex);
+        for (final GraphInterceptor interceptor : this.interceptors) {
+            interceptor.afterRemoveVertex(vertex, properties);
+        }
+    }
+
+    public Iterable<Vertex> getVertices() {
+        return new InterceptorVertexIterable(this.baseGraph.getVertices(), this);
+    }
+
+    public Iterable<Vertex> getVertices(final String key, final Object value) {
+        return new InterceptorVertexIterable(this.baseGraph.getVertices(key, value), this);
+    }
+
+    public Edge addEdge(final Object id, final Vertex outVertex, final Vertex inVertex, final String label) {
+        for (final GraphInterceptor interceptor : this.interceptors) {
+            interceptor.beforeAddEdge(id, outVertex, inVertex, label);
+        }
+        final Vertex baseOutVertex = outVertex instanceof InterceptorVertex ? ((InterceptorVertex) outVertex).getBaseVertex() : outVertex;
+        final Vertex baseInVertex = inVertex instanceof InterceptorVertex ? ((InterceptorVertex) inVertex).getBaseVertex() : inVertex;
+        final Edge edge = new InterceptorEdge(this.baseGraph.addEdge(id, baseOutVertex, baseInVertex, label), this);
+        for (final GraphInterceptor interceptor : this.interceptors) {
+            interceptor.afterAddEdge(edge);
+        }
+        return edge;
+    }
+
+    public Edge getEdge(final Object id) {
+        return this.wrapEdge(this.baseGraph.getEdge(id));
+    }
+
+    public void removeEdge(final Edge edge) {
+        for (final GraphInterceptor interceptor : this.interceptors) {
+            interceptor.beforeRemoveEdge(edge);
+        }
+        final Map<String, Object> properties = this.requiresPreviousValues ? ElementHelper.getProperties(edge) : null;
+        this.baseGraph.removeEdge(edge instanceof InterceptorEdge ? ((InterceptorEdge) edge).getBaseEdge() : edge);
+        for (final GraphInterceptor interceptor : this.interceptors) {
+            interceptor.afterRemoveEdge(edge, properties);
+        }
+    }
+
+    public Iterable<Edge> getEdges() {
+        return new InterceptorEdgeIterable(this.baseGraph.getEdges(), this);
+    }
+
+    public Iterable<Edge> getEdges(final String key, final Object value) {
+        return new InterceptorEdgeIterable(this.baseGraph.getEdges(key, value), this);
+    }
+
+    public GraphQuery query() {
+        GraphQuery query = this.baseGraph.query();
+        for (final GraphInterceptor interceptor : this.interceptors) {
+            query = interceptor.query(query);
+        }
+        final InterceptorGraph interceptorGraph = this;
+        return new WrappedGraphQuery(query) {
+            @Override
+            public Iterable<Edge> edges() {
+                return new InterceptorEdgeIterable(this.query.edges(), interceptorGraph);
+            }
+
+            @Override
+            public Iterable<Vertex> vertices() {
+                return new InterceptorVertexIterable(this.query.vertices(), interceptorGraph);
+            }
+        };
+    }
+
+    public void shutdown() {
+        this.baseGraph.shutdown();
+    }
+
+    public Features getFeatures() {
+        return this.features;
+    }
+
+    @Override
+    public T getBaseGraph() {
+        return this.baseGraph;
+    }
+
+    public String toString() {
+        return StringFactory.graphString(this, this.baseGraph.toString());
+    }
+
+    ////////////////////
+
+    protected Vertex wrapVertex(final Vertex baseVertex) {
+        return null == baseVertex || !this.isVisible(baseVertex) ? null : new InterceptorVertex(baseVertex, this);
+    }
+
+    protected Edge wrapEdge(final Edge baseEdge) {
+        return null == baseEdge || !this.isVisible(baseEdge) ? null : new InterceptorEdge(baseEdge, this);
+    }
+
+    protected boolean isVisible(final Element baseElement) {
+        for (final GraphInterceptor interceptor : this.interceptors) {
+            if (!interceptor.isVisible(baseElement))
+                return false;
+        }
+        return true;
+    }
+
+    protected boolean isVisibleKey(final String key) {
+        for (final GraphInterceptor interceptor : this.interceptors) {
+            if (!interceptor.isVisibleKey(key))
+                return false;
+        }
+        return true;
+    }
+
+    protected VertexQuery query(VertexQuery query) {
+        for (final GraphInterceptor interceptor : this.interceptors) {
+            query = interceptor.query(query);
+        }
+        return query;
+    }
+
+    protected boolean requiresPreviousValues() {
+        return this.requiresPreviousValues;
+    }
+
+    protected void beforeSetProperty(final Element element, final String key, final Object value) {
+        for (final GraphInterceptor interceptor : this.interceptors) {
+            interceptor.beforeSetProperty(element, key, value);
+        }
+    }
+
+    protected void afterSetProperty(final Element element, final String key, final Object oldValue, final Object newValue) {
+        for (final GraphInterceptor interceptor : this.interceptors) {
+            interceptor.afterSetProperty(element, key, oldValue, newValue);
+        }
+    }
+
+    protected void beforeRemoveProperty(final Element element, final String key) {
+        for (final GraphInterceptor interceptor : this.interceptors) {
+            interceptor.beforeRemoveProperty(element, key);
+        }
+    }
+
+    protected void afterRemoveProperty(final Element element, final String key, final Object removedValue) {
+        for (final GraphInterceptor interceptor : this.interceptors) {
+            interceptor.afterRemoveProperty(element, key, removedValue);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.tinkerpop.blueprints.util.wrappers.interceptor;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.VertexQuery;
+import com.tinkerpop.blueprints.util.wrappers.WrapperVertexQuery;
+
+public class InterceptorVertex extends InterceptorElement implements Vertex {
+
+    protected InterceptorVertex(final Vertex baseVertex, final InterceptorGraph graph) {
+        super(baseVertex, graph);
+    }
+
+    public Iterable<Edge> getEdges(final Direction direction, final String... labels) {
+        return new InterceptorEdgeIterable(((Vertex) this.baseElement).getEdges(direction, labels), this.graph);
+    }
+
+    public Iterable<Vertex> getVertices(final Direction direction, final String... labels) {
+        return new InterceptorVertexIterable(((Vertex) this.baseElement).getVertices(direction, labels), this.graph);
+    }
+
+    public VertexQuery query() {
+        return new WrapperVertexQuery(this.graph.query(((Vertex) this.baseElement).query())) {
+            @Override
+            public Iterable<Vertex> vertices() {
+                return new InterceptorVertexIterable(this.query.vertices(), graph);
+            }
+
+            @Override
+            public Iterable<Edge> edges() {
+                return new InterceptorEdgeIterable(this.query.edges(), graph);
+            }
+        };
+    }
+
+    public Edge addEdge(final String label, final Vertex vertex) {
+        return this.graph.addEdge(null, this, vertex, label);
+    }
+
+    public Vertex getBaseVertex() {
+        return (Vertex) this.baseElement;
+    }
+}
@@ -0,0 +1,65 @@
+package com.tinkerpop.blueprints.util.wrappers.interceptor;
+
+import com.tinkerpop.blueprints.CloseableIterable;
+import com.tinkerpop.blueprints.Vertex;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+class InterceptorVertexIterable implements CloseableIterable<Vertex> {
+
+    private final Iterable<Vertex> iterable;
+    private final InterceptorGraph graph;
+
+    public InterceptorVertexIterable(final Iterable<Vertex> iterable, final InterceptorGraph graph) {
+        this.iterable = iterable;
+        this.graph = graph;
+    }
+
+    public Iterator<Vertex> iterator() {
+        return new Iterator<Vertex>() {
+            private final Iterator<Vertex> itty = iterable.iterator();
+            private InterceptorVertex nextVertex;
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+            public boolean hasNext() {
+                if (null != this.nextVertex) {
+                    return true;
+                }
+                while (this.itty.hasNext()) {
+                    final Vertex vertex = this.itty.next();
+                    if (graph.isVisible(vertex)) {
+                        this.nextVertex = new InterceptorVertex(vertex, graph);
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            public Vertex next() {
+                if (null != this.nextVertex) {
+                    final InterceptorVertex temp = this.nextVertex;
+                    this.nextVertex = null;
+                    return temp;
+                } else {
+                    while (this.itty.hasNext()) {
+                        final Vertex vertex = this.itty.next();
+                        if (graph.isVisible(vertex)) {
+                            return new InterceptorVertex(vertex, graph);
+                        }
+                    }
+                    throw new NoSuchElementException();
+                }
+            }
+        };
+    }
+
+    public void close() {
+        if (this.iterable instanceof CloseableIterable) {
+            ((CloseableIterable) this.iterable).close();
+        }
+    }
+}
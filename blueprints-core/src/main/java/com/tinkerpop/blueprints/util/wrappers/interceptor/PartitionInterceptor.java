@@ -0,0 +1,83 @@
+package com.tinkerpop.blueprints.util.wrappers.interceptor;
+
+import com.tinkerpop.blueprints.Contains;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.GraphQuery;
+import com.tinkerpop.blueprints.Vertex;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The interceptor equivalent of a PartitionGraph.
+ * Added elements are written to the write partition, only elements of the read partitions (or of no partition) are visible
+ * and the partition key is hidden.
+ */
+public class PartitionInterceptor extends GraphInterceptor {
+
+    private final String partitionKey;
+    private String writePartition;
+    private final Set<String> readPartitions = new HashSet<String>();
+
+    public PartitionInterceptor(final String partitionKey, final String writePartition, final Set<String> readPartitions) {
+        this.partitionKey = partitionKey;
+        this.writePartition = writePartition;
+        this.readPartitions.addAll(readPartitions);
+    }
+
+    public PartitionInterceptor(final String partitionKey, final String readWritePartition) {
+        this(partitionKey, readWritePartition, new HashSet<String>(Arrays.asList(readWritePartition)));
+    }
+
+    public String getPartitionKey() {
+        return this.partitionKey;
+    }
+
+    public String getWritePartition() {
+        return this.writePartition;
+    }
+
+    public void setWritePartition(final String writePartition) {
+        this.writePartition = writePartition;
+    }
+
+    public Set<String> getReadPartitions() {
+        return new HashSet<String>(this.readPartitions);
+    }
+
+    public void removeReadPartition(final String readPartition) {
+        this.readPartitions.remove(readPartition);
+    }
+
+    public void addReadPartition(final String readPartition) {
+        this.readPartitions.add(readPartition);
+    }
+
+    @Override
+    public boolean isVisible(final Element baseElement) {
+        final String partition = baseElement.getProperty(this.partitionKey);
+        return null == partition || this.readPartitions.contains(partition);
+    }
+
+    @Override
+    public boolean isVisibleKey(final String key) {
+        return !this.partitionKey.equals(key);
+    }
+
+    @Override
+    public GraphQuery query(final GraphQuery query) {
+        return query.has(this.partitionKey, Contains.IN, this.getReadPartitions());
+    }
+
+    @Override
+    public void afterAddVertex(final Vertex vertex) {
+        ((InterceptorElement) vertex).getBaseElement().setProperty(this.partitionKey, this.writePartition);
+    }
+
+    @Override
+    public void afterAddEdge(final Edge edge) {
+        ((InterceptorElement) edge).getBaseElement().setProperty(this.partitionKey, this.writePartition);
+    }
+}
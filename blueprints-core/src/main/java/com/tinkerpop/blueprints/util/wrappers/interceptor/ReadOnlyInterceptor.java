@@ -0,0 +1,42 @@
+package com.tinkerpop.blueprints.util.wrappers.interceptor;
+
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.wrappers.readonly.ReadOnlyTokens;
+
+/**
+ * The interceptor equivalent of a ReadOnlyGraph: every mutation throws an UnsupportedOperationException.
+ */
+public class ReadOnlyInterceptor extends GraphInterceptor {
+
+    @Override
+    public void beforeAddVertex(final Object id) {
+        throw new UnsupportedOperationException(ReadOnlyTokens.MUTATE_ERROR_MESSAGE);
+    }
+
+    @Override
+    public void beforeRemoveVertex(final Vertex vertex) {
+        throw new UnsupportedOperationException(ReadOnlyTokens.MUTATE_ERROR_MESSAGE);
+    }
+
+    @Override
+    public void beforeAddEdge(final Object id, final Vertex outVertex, final Vertex inVertex, final String label) {
+        throw new UnsupportedOperationException(ReadOnlyTokens.MUTATE_ERROR_MESSAGE);
+    }
+
+    @Override
+    public void beforeRemoveEdge(final Edge edge) {
+        throw new UnsupportedOperationException(ReadOnlyTokens.MUTATE_ERROR_MESSAGE);
+    }
+
+    @Override
+    public void beforeSetProperty(final Element element, final String key, final Object value) {
+        throw new UnsupportedOperationException(ReadOnlyTokens.MUTATE_ERROR_MESSAGE);
+    }
+
+    @Override
+    public void beforeRemoveProperty(final Element element, final String key) {
+        throw new UnsupportedOperationException(ReadOnlyTokens.MUTATE_ERROR_MESSAGE);
+    }
+}
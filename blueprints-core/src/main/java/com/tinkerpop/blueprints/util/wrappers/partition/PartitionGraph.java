@@ -6,6 +6,7 @@ import com.tinkerpop.blueprints.Element;
 import com.tinkerpop.blueprints.Features;
 import com.tinkerpop.blueprints.Graph;
 import com.tinkerpop.blueprints.GraphQuery;
+import com.tinkerpop.blueprints.KeyIndexableGraph;
 import com.tinkerpop.blueprints.Vertex;
 import com.tinkerpop.blueprints.util.StringFactory;
 import com.tinkerpop.blueprints.util.wrappers.WrappedGraphQuery;
@@ -16,6 +17,14 @@ import java.util.HashSet;
 import java.util.Set;
 
 /**
+ * A PartitionGraph restricts reads to a set of read partitions and tags written elements with a write partition.
+ * The partition of an element is stored in the base graph as the value of the partition key.
+ * An element without a partition value is visible to every partition, except through query(), which only returns
+ * elements of the read partitions.
+ * When the base graph is a KeyIndexableGraph with a key index on the partition key, query() is answered by unioning a
+ * key index lookup per read partition rather than by filtering a scan of the whole base graph.
+ * getVertices() and getEdges() scan the base graph, as a key index can not return the elements without a partition value.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public class PartitionGraph<T extends Graph> implements Graph, WrapperGraph<T> {
@@ -24,6 +33,7 @@ public class PartitionGraph<T extends Graph> implements Graph, WrapperGraph<T> {
     private String writePartition;
     private Set<String> readPartitions = new HashSet<String>();
     private String partitionKey;
+    private boolean autoIndexPartitionKey = false;
 
     private final Features features;
 
@@ -34,6 +44,8 @@ public class PartitionGraph<T extends Graph> implements Graph, WrapperGraph<T> {
         this.readPartitions.addAll(readPartitions);
         this.features = this.baseGraph.getFeatures().copyFeatures();
         this.features.isWrapper = true;
+        this.features.supportsBulkRetrieval = false;
+        this.features.supportsBulkProperties = false;
     }
 
     public PartitionGraph(final T baseGraph, final String partitionKey, final String readWritePartition) {
@@ -62,12 +74,49 @@ public class PartitionGraph<T extends Graph> implements Graph, WrapperGraph<T> {
 
     public void setPartitionKey(final String partitionKey) {
         this.partitionKey = partitionKey;
+        if (this.autoIndexPartitionKey)
+            this.createPartitionKeyIndices();
     }
 
     public String getPartitionKey() {
         return this.partitionKey;
     }
 
+    public boolean isAutoIndexPartitionKey() {
+        return this.autoIndexPartitionKey;
+    }
+
+    /**
+     * When set to true and the base graph is a KeyIndexableGraph, a vertex and an edge key index on the partition key
+     * are created if they do not already exist (now and whenever the partition key changes).
+     *
+     * @param autoIndexPartitionKey whether to create key indices on the partition key
+     */
+    public void setAutoIndexPartitionKey(final boolean autoIndexPartitionKey) {
+        this.autoIndexPartitionKey = autoIndexPartitionKey;
+        if (this.autoIndexPartitionKey)
+            this.createPartitionKeyIndices();
+    }
+
+    private void createPartitionKeyIndices() {
+        if (this.baseGraph instanceof KeyIndexableGraph) {
+            final KeyIndexableGraph graph = (KeyIndexableGraph) this.baseGraph;
+            if (this.baseGraph.getFeatures().supportsVertexKeyIndex && !graph.getIndexedKeys(Vertex.class).contains(this.partitionKey))
+                graph.createKeyIndex(this.partitionKey, Vertex.class);
+            if (this.baseGraph.getFeatures().supportsEdgeKeyIndex && !graph.getIndexedKeys(Edge.class).contains(this.partitionKey))
+                graph.createKeyIndex(this.partitionKey, Edge.class);
+        }
+    }
+
+    /**
+     * @param elementClass the element class to check
+     * @return whether the base graph has a key index on the partition key for the element class
+     */
+    protected boolean isPartitionKeyIndexed(final Class<? extends Element> elementClass) {
+        return this.baseGraph instanceof KeyIndexableGraph
+                && ((KeyIndexableGraph) this.baseGraph).getIndexedKeys(elementClass).contains(this.partitionKey);
+    }
+
     public boolean isInPartition(final Element element) {
         final String writePartition;
         if (element instanceof PartitionElement)
@@ -151,6 +200,9 @@ public class PartitionGraph<T extends Graph> implements Graph, WrapperGraph<T> {
     }
 
     public GraphQuery query() {
+        if (this.isPartitionKeyIndexed(Vertex.class) || this.isPartitionKeyIndexed(Edge.class))
+            return new PartitionGraphQuery(this);
+
         final PartitionGraph partitionGraph = this;
         return new WrappedGraphQuery(this.baseGraph.query()) {
             @Override
@@ -0,0 +1,159 @@
+package com.tinkerpop.blueprints.util.wrappers.partition;
+
+import com.tinkerpop.blueprints.CloseableIterable;
+import com.tinkerpop.blueprints.Contains;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.GraphQuery;
+import com.tinkerpop.blueprints.Predicate;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.MultiIterable;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A GraphQuery that is evaluated against the base graph once per read partition with an equality constraint on the partition key.
+ * This allows the base graph to serve each partition from its key index on the partition key.
+ * The results of the per partition queries are unioned and the limit is applied over the union.
+ * If the partition key is not indexed for the requested element class, a single query filtering on all read partitions is used.
+ */
+class PartitionGraphQuery implements GraphQuery {
+
+    private final PartitionGraph graph;
+    private final List<GraphQuery> partitionQueries = new ArrayList<GraphQuery>();
+    private GraphQuery query;
+    private int limit = Integer.MAX_VALUE;
+
+    public PartitionGraphQuery(final PartitionGraph graph) {
+        this.graph = graph;
+        final Set readPartitions = graph.getReadPartitions();
+        for (final Object partition : readPartitions) {
+            this.partitionQueries.add(graph.getBaseGraph().query().has(graph.getPartitionKey(), partition));
+        }
+        this.query = graph.getBaseGraph().query().has(graph.getPartitionKey(), Contains.IN, readPartitions);
+    }
+
+    public GraphQuery has(final String key) {
+        this.query = this.query.has(key);
+        for (int i = 0; i < this.partitionQueries.size(); i++) {
+            this.partitionQueries.set(i, this.partitionQueries.get(i).has(key));
+        }
+        return this;
+    }
+
+    public GraphQuery hasNot(final String key) {
+        this.query = this.query.hasNot(key);
+        for (int i = 0; i < this.partitionQueries.size(); i++) {
+            this.partitionQueries.set(i, this.partitionQueries.get(i).hasNot(key));
+        }
+        return this;
+    }
+
+    public GraphQuery has(final String key, final Object value) {
+        this.query = this.query.has(key, value);
+        for (int i = 0; i < this.partitionQueries.size(); i++) {
+            this.partitionQueries.set(i, this.partitionQueries.get(i).has(key, value));
+        }
+        return this;
+    }
+
+    public GraphQuery hasNot(final String key, final Object value) {
+        this.query = this.query.hasNot(key, value);
+        for (int i = 0; i < this.partitionQueries.size(); i++) {
+            this.partitionQueries.set(i, this.partitionQueries.get(i).hasNot(key, value));
+        }
+        return this;
+    }
+
+    public GraphQuery has(final String key, final Predicate predicate, final Object value) {
+        this.query = this.query.has(key, predicate, value);
+        for (int i = 0; i < this.partitionQueries.size(); i++) {
+            this.partitionQueries.set(i, this.partitionQueries.get(i).has(key, predicate, value));
+        }
+        return this;
+    }
+
+    public <T extends Comparable<T>> GraphQuery has(final String key, final T value, final Compare compare) {
+        return this.has(key, compare, value);
+    }
+
+    public <T extends Comparable<?>> GraphQuery interval(final String key, final T startValue, final T endValue) {
+        this.query = this.query.interval(key, startValue, endValue);
+        for (int i = 0; i < this.partitionQueries.size(); i++) {
+            this.partitionQueries.set(i, this.partitionQueries.get(i).interval(key, startValue, endValue));
+        }
+        return this;
+    }
+
+    public GraphQuery limit(final int limit) {
+        this.limit = limit;
+        this.query = this.query.limit(limit);
+        for (int i = 0; i < this.partitionQueries.size(); i++) {
+            this.partitionQueries.set(i, this.partitionQueries.get(i).limit(limit));
+        }
+        return this;
+    }
+
+    public Iterable<Edge> edges() {
+        if (!this.graph.isPartitionKeyIndexed(Edge.class))
+            return new PartitionEdgeIterable(this.query.edges(), this.graph);
+
+        final List<Iterable<Edge>> iterables = new ArrayList<Iterable<Edge>>();
+        for (final GraphQuery query : this.partitionQueries) {
+            iterables.add(query.edges());
+        }
+        return new PartitionEdgeIterable(new LimitedIterable<Edge>(new MultiIterable<Edge>(iterables), this.limit), this.graph, false);
+    }
+
+    public Iterable<Vertex> vertices() {
+        if (!this.graph.isPartitionKeyIndexed(Vertex.class))
+            return new PartitionVertexIterable(this.query.vertices(), this.graph);
+
+        final List<Iterable<Vertex>> iterables = new ArrayList<Iterable<Vertex>>();
+        for (final GraphQuery query : this.partitionQueries) {
+            iterables.add(query.vertices());
+        }
+        return new PartitionVertexIterable(new LimitedIterable<Vertex>(new MultiIterable<Vertex>(iterables), this.limit), this.graph, false);
+    }
+
+    private static class LimitedIterable<S> implements CloseableIterable<S> {
+
+        private final CloseableIterable<S> iterable;
+        private final int limit;
+
+        public LimitedIterable(final CloseableIterable<S> iterable, final int limit) {
+            this.iterable = iterable;
+            this.limit = limit;
+        }
+
+        public Iterator<S> iterator() {
+            return new Iterator<S>() {
+                private final Iterator<S> itty = iterable.iterator();
+                private int count = 0;
+
+                public boolean hasNext() {
+                    return this.count < limit && this.itty.hasNext();
+                }
+
+                public S next() {
+                    if (this.count >= limit)
+                        throw new NoSuchElementException();
+                    final S s = this.itty.next();
+                    this.count++;
+                    return s;
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        public void close() {
+            this.iterable.close();
+        }
+    }
+}
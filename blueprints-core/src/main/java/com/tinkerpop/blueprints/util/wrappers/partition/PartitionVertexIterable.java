@@ -13,11 +13,20 @@ class PartitionVertexIterable implements CloseableIterable<Vertex> {
 
     private final Iterable<Vertex> iterable;
     private final PartitionGraph graph;
+    private final boolean filter;
 
 
     public PartitionVertexIterable(final Iterable<Vertex> iterable, final PartitionGraph graph) {
+        this(iterable, graph, true);
+    }
+
+    /**
+     * @param filter false when the iterable was already restricted to the read partitions (e.g. by a key index lookup)
+     */
+    public PartitionVertexIterable(final Iterable<Vertex> iterable, final PartitionGraph graph, final boolean filter) {
         this.iterable = iterable;
         this.graph = graph;
+        this.filter = filter;
     }
 
     public Iterator<Vertex> iterator() {
@@ -35,7 +44,7 @@ class PartitionVertexIterable implements CloseableIterable<Vertex> {
                 }
                 while (this.itty.hasNext()) {
                     final Vertex vertex = this.itty.next();
-                    if (graph.isInPartition(vertex)) {
+                    if (!filter || graph.isInPartition(vertex)) {
                         this.nextVertex = new PartitionVertex(vertex, graph);
                         return true;
                     }
@@ -52,7 +61,7 @@ class PartitionVertexIterable implements CloseableIterable<Vertex> {
                 } else {
                     while (this.itty.hasNext()) {
                         final Vertex vertex = this.itty.next();
-                        if (graph.isInPartition(vertex)) {
+                        if (!filter || graph.isInPartition(vertex)) {
                             return new PartitionVertex(vertex, graph);
                         }
                     }
@@ -24,6 +24,8 @@ public class WrappedGraph<T extends Graph> implements Graph, WrapperGraph<T> {
         this.baseGraph = baseGraph;
         this.features = this.baseGraph.getFeatures().copyFeatures();
         this.features.isWrapper = true;
+        this.features.supportsBulkRetrieval = false;
+        this.features.supportsBulkProperties = false;
     }
 
     public void shutdown() {
@@ -0,0 +1,291 @@
+package com.tinkerpop.blueprints.oupls.jung;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.Vertex;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A materialized copy of the adjacency of a Blueprints graph, in which vertices and edges are numbered
+ * and the edges of each vertex are held in primitive arrays (in compressed sparse row form).
+ * Counts and degrees are answered in constant time, and the sets of successors, predecessors and neighbors
+ * of each vertex are held as sorted arrays of vertex numbers.
+ * The collections returned are read-only views of the snapshot.
+ * An edge with a vertex which is not among the vertices of the graph (as in a filtered graph) is left out.
+ */
+class AdjacencySnapshot {
+
+    private final Vertex[] vertices;
+    private final Edge[] edges;
+    private final Map<Vertex, Integer> vertexIndex;
+    private final Map<Edge, Integer> edgeIndex;
+
+    private final int[] outVertex;
+    private final int[] inVertex;
+
+    private final int[] outOffsets;
+    private final int[] outEdges;
+    private final int[] inOffsets;
+    private final int[] inEdges;
+
+    private final int[][] successors;
+    private final int[][] predecessors;
+    private final int[][] neighbors;
+
+    public AdjacencySnapshot(final Graph graph) {
+        final List<Vertex> vertexList = new ArrayList<Vertex>();
+        this.vertexIndex = new HashMap<Vertex, Integer>();
+        for (final Vertex vertex : graph.getVertices()) {
+            this.vertexIndex.put(vertex, vertexList.size());
+            vertexList.add(vertex);
+        }
+        this.vertices = vertexList.toArray(new Vertex[vertexList.size()]);
+
+        final List<Edge> edgeList = new ArrayList<Edge>();
+        final List<Integer> outList = new ArrayList<Integer>();
+        final List<Integer> inList = new ArrayList<Integer>();
+        for (final Edge edge : graph.getEdges()) {
+            final Integer out = this.vertexIndex.get(edge.getVertex(Direction.OUT));
+            final Integer in = this.vertexIndex.get(edge.getVertex(Direction.IN));
+            if (null != out && null != in) {
+                edgeList.add(edge);
+                outList.add(out);
+                inList.add(in);
+            }
+        }
+        this.edges = edgeList.toArray(new Edge[edgeList.size()]);
+        this.edgeIndex = new HashMap<Edge, Integer>();
+
+        final int vertexCount = this.vertices.length;
+        final int edgeCount = this.edges.length;
+        this.outVertex = new int[edgeCount];
+        this.inVertex = new int[edgeCount];
+        this.outOffsets = new int[vertexCount + 1];
+        this.inOffsets = new int[vertexCount + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            this.edgeIndex.put(this.edges[i], i);
+            this.outVertex[i] = outList.get(i);
+            this.inVertex[i] = inList.get(i);
+            this.outOffsets[this.outVertex[i] + 1]++;
+            this.inOffsets[this.inVertex[i] + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            this.outOffsets[v + 1] += this.outOffsets[v];
+            this.inOffsets[v + 1] += this.inOffsets[v];
+        }
+
+        this.outEdges = new int[edgeCount];
+        this.inEdges = new int[edgeCount];
+        final int[] outPosition = Arrays.copyOf(this.outOffsets, vertexCount);
+        final int[] inPosition = Arrays.copyOf(this.inOffsets, vertexCount);
+        for (int i = 0; i < edgeCount; i++) {
+            this.outEdges[outPosition[this.outVertex[i]]++] = i;
+            this.inEdges[inPosition[this.inVertex[i]]++] = i;
+        }
+
+        this.successors = new int[vertexCount][];
+        this.predecessors = new int[vertexCount][];
+        this.neighbors = new int[vertexCount][];
+        for (int v = 0; v < vertexCount; v++) {
+            this.successors[v] = distinct(this.outEdges, this.outOffsets[v], this.outOffsets[v + 1], this.inVertex);
+            this.predecessors[v] = distinct(this.inEdges, this.inOffsets[v], this.inOffsets[v + 1], this.outVertex);
+            this.neighbors[v] = union(this.successors[v], this.predecessors[v]);
+        }
+    }
+
+    public int getVertexCount() {
+        return this.vertices.length;
+    }
+
+    public int getEdgeCount() {
+        return this.edges.length;
+    }
+
+    public List<Vertex> getVertices() {
+        return new VertexList(null, 0, this.vertices.length);
+    }
+
+    public List<Edge> getEdges() {
+        return new EdgeList(null, 0, this.edges.length);
+    }
+
+    public boolean containsVertex(final Vertex vertex) {
+        return this.vertexIndex.containsKey(vertex);
+    }
+
+    public boolean containsEdge(final Edge edge) {
+        return this.edgeIndex.containsKey(edge);
+    }
+
+    public Vertex getVertex(final Edge edge, final Direction direction) {
+        final Integer e = this.edgeIndex.get(edge);
+        if (null == e)
+            return edge.getVertex(direction);
+        return this.vertices[direction.equals(Direction.OUT) ? this.outVertex[e] : this.inVertex[e]];
+    }
+
+    public List<Edge> getEdges(final Vertex vertex, final Direction direction) {
+        final Integer v = this.vertexIndex.get(vertex);
+        if (null == v)
+            return new EdgeList(null, 0, 0);
+        if (direction.equals(Direction.OUT))
+            return new EdgeList(this.outEdges, this.outOffsets[v], this.outOffsets[v + 1]);
+        else
+            return new EdgeList(this.inEdges, this.inOffsets[v], this.inOffsets[v + 1]);
+    }
+
+    public int degree(final Vertex vertex, final Direction direction) {
+        final Integer v = this.vertexIndex.get(vertex);
+        if (null == v)
+            return 0;
+        if (direction.equals(Direction.OUT))
+            return this.outOffsets[v + 1] - this.outOffsets[v];
+        else if (direction.equals(Direction.IN))
+            return this.inOffsets[v + 1] - this.inOffsets[v];
+        else
+            return this.outOffsets[v + 1] - this.outOffsets[v] + this.inOffsets[v + 1] - this.inOffsets[v];
+    }
+
+    /**
+     * @param direction OUT for successors, IN for predecessors and BOTH for neighbors
+     */
+    public List<Vertex> getAdjacent(final Vertex vertex, final Direction direction) {
+        final int[] adjacent = this.adjacent(vertex, direction);
+        return new VertexList(adjacent, 0, adjacent.length);
+    }
+
+    public int countAdjacent(final Vertex vertex, final Direction direction) {
+        return this.adjacent(vertex, direction).length;
+    }
+
+    public boolean isAdjacent(final Vertex vertex, final Vertex other, final Direction direction) {
+        final Integer o = this.vertexIndex.get(other);
+        return null != o && Arrays.binarySearch(this.adjacent(vertex, direction), o) >= 0;
+    }
+
+    /**
+     * @return the edges from the out vertex to the in vertex
+     */
+    public List<Edge> findEdges(final Vertex outVertex, final Vertex inVertex) {
+        final Integer v = this.vertexIndex.get(outVertex);
+        final Integer w = this.vertexIndex.get(inVertex);
+        final List<Edge> found = new ArrayList<Edge>();
+        if (null != v && null != w) {
+            for (int i = this.outOffsets[v]; i < this.outOffsets[v + 1]; i++) {
+                if (this.inVertex[this.outEdges[i]] == w)
+                    found.add(this.edges[this.outEdges[i]]);
+            }
+        }
+        return found;
+    }
+
+    private int[] adjacent(final Vertex vertex, final Direction direction) {
+        final Integer v = this.vertexIndex.get(vertex);
+        if (null == v)
+            return new int[0];
+        if (direction.equals(Direction.OUT))
+            return this.successors[v];
+        else if (direction.equals(Direction.IN))
+            return this.predecessors[v];
+        else
+            return this.neighbors[v];
+    }
+
+    private static int[] distinct(final int[] edgeNumbers, final int from, final int to, final int[] endpoints) {
+        final int[] result = new int[to - from];
+        for (int i = from; i < to; i++) {
+            result[i - from] = endpoints[edgeNumbers[i]];
+        }
+        Arrays.sort(result);
+        int size = 0;
+        for (int i = 0; i < result.length; i++) {
+            if (0 == size || result[size - 1] != result[i])
+                result[size++] = result[i];
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private static int[] union(final int[] a, final int[] b) {
+        final int[] result = new int[a.length + b.length];
+        int i = 0, j = 0, size = 0;
+        while (i < a.length || j < b.length) {
+            final int next;
+            if (j == b.length || (i < a.length && a[i] <= b[j]))
+                next = a[i++];
+            else
+                next = b[j++];
+            if (0 == size || result[size - 1] != next)
+                result[size++] = next;
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    /**
+     * The vertices with the given numbers, or all vertices if the numbers are null.
+     */
+    private class VertexList extends AbstractList<Vertex> {
+        private final int[] numbers;
+        private final int from;
+        private final int to;
+
+        public VertexList(final int[] numbers, final int from, final int to) {
+            this.numbers = numbers;
+            this.from = from;
+            this.to = to;
+        }
+
+        public Vertex get(final int index) {
+            if (index < 0 || index >= this.size())
+                throw new IndexOutOfBoundsException();
+            return vertices[null == this.numbers ? this.from + index : this.numbers[this.from + index]];
+        }
+
+        public int size() {
+            return this.to - this.from;
+        }
+
+        public boolean contains(final Object object) {
+            if (!(object instanceof Vertex))
+                return false;
+            final Integer v = vertexIndex.get(object);
+            if (null == v)
+                return false;
+            else if (null == this.numbers)
+                return v >= this.from && v < this.to;
+            else
+                return Arrays.binarySearch(this.numbers, this.from, this.to, v) >= 0;
+        }
+    }
+
+    /**
+     * The edges with the given numbers, or all edges if the numbers are null.
+     */
+    private class EdgeList extends AbstractList<Edge> {
+        private final int[] numbers;
+        private final int from;
+        private final int to;
+
+        public EdgeList(final int[] numbers, final int from, final int to) {
+            this.numbers = numbers;
+            this.from = from;
+            this.to = to;
+        }
+
+        public Edge get(final int index) {
+            if (index < 0 || index >= this.size())
+                throw new IndexOutOfBoundsException();
+            return edges[null == this.numbers ? this.from + index : this.numbers[this.from + index]];
+        }
+
+        public int size() {
+            return this.to - this.from;
+        }
+    }
+}
@@ -23,15 +23,56 @@ import java.util.Set;
  * An implementation of the JUNG graph interface provided by Blueprints graph.
  * In this way, a Blueprints graph is modeled as a JUNG graph.
  * This JUNG model can be used with any algorithms/tools that require a JUNG graph.
+ * <p/>
+ * JUNG algorithms query counts, degrees and adjacency in their inner loops.
+ * A GraphJung may materialize a snapshot of the adjacency of the graph, held in primitive arrays,
+ * which answers these queries in memory rather than by iterating over the elements of the graph.
+ * The snapshot is taken when it is first needed, and is discarded when the graph is mutated through GraphJung
+ * (or by invalidate(), when the graph is mutated directly).
  *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public class GraphJung<T extends Graph> implements DirectedGraph<Vertex, Edge>, WrapperGraph<T> {
 
     private final T graph;
+    private final boolean materialize;
+    private volatile AdjacencySnapshot adjacency = null;
 
     public GraphJung(final T graph) {
+        this(graph, false);
+    }
+
+    /**
+     * @param graph       the graph to model as a JUNG graph
+     * @param materialize whether to answer queries from a materialized snapshot of the adjacency of the graph
+     */
+    public GraphJung(final T graph, final boolean materialize) {
         this.graph = graph;
+        this.materialize = materialize;
+    }
+
+    /**
+     * Discards the snapshot of the adjacency of the graph, if any, so that it is taken again when next needed.
+     * This is necessary when the graph has been mutated other than through GraphJung.
+     */
+    public void invalidate() {
+        this.adjacency = null;
+    }
+
+    private AdjacencySnapshot getSnapshot() {
+        if (!this.materialize)
+            return null;
+        AdjacencySnapshot current = this.adjacency;
+        if (null == current) {
+            synchronized (this) {
+                current = this.adjacency;
+                if (null == current) {
+                    current = new AdjacencySnapshot(this.graph);
+                    this.adjacency = current;
+                }
+            }
+        }
+        return current;
     }
 
     public T getBaseGraph() {
@@ -41,15 +82,20 @@ public class GraphJung<T extends Graph> implements DirectedGraph<Vertex, Edge>,
     public boolean addVertex(final Vertex vertex) {
         if (null != graph.getVertex(vertex.getId()))
             graph.addVertex(vertex.getId());
+        this.invalidate();
         return true;
     }
 
     public boolean removeVertex(final Vertex vertex) {
         this.graph.removeVertex(vertex);
+        this.invalidate();
         return true;
     }
 
     public boolean containsVertex(final Vertex vertex) {
+        final AdjacencySnapshot snapshot = this.getSnapshot();
+        if (null != snapshot)
+            return snapshot.containsVertex(vertex);
         return this.graph.getVertex(vertex.getId()) != null;
     }
 
@@ -74,6 +120,7 @@ public class GraphJung<T extends Graph> implements DirectedGraph<Vertex, Edge>,
 
     public boolean addEdge(final Edge edge, final Vertex outVertex, final Vertex inVertex) {
         this.graph.addEdge(edge.getId(), outVertex, inVertex, edge.getLabel());
+        this.invalidate();
         return true;
     }
 
@@ -83,10 +130,14 @@ public class GraphJung<T extends Graph> implements DirectedGraph<Vertex, Edge>,
 
     public boolean removeEdge(final Edge edge) {
         this.graph.removeEdge(edge);
+        this.invalidate();
         return true;
     }
 
     public boolean containsEdge(final Edge edge) {
+        final AdjacencySnapshot snapshot = this.getSnapshot();
+        if (null != snapshot)
+            return snapshot.containsEdge(edge);
         return this.graph.getEdge(edge.getId()) != null;
     }
 
@@ -95,6 +146,11 @@ public class GraphJung<T extends Graph> implements DirectedGraph<Vertex, Edge>,
     }
 
     public Edge findEdge(final Vertex outVertex, final Vertex inVertex) {
+        final AdjacencySnapshot snapshot = this.getSnapshot();
+        if (null != snapshot) {
+            final List<Edge> edges = snapshot.findEdges(outVertex, inVertex);
+            return edges.isEmpty() ? null : edges.get(0);
+        }
         for (final Edge edge : outVertex.getEdges(Direction.OUT)) {
             if (edge.getVertex(Direction.IN).equals(inVertex)) {
                 return edge;
@@ -104,6 +160,9 @@ public class GraphJung<T extends Graph> implements DirectedGraph<Vertex, Edge>,
     }
 
     public Collection<Edge> findEdgeSet(final Vertex outVertex, final Vertex inVertex) {
+        final AdjacencySnapshot snapshot = this.getSnapshot();
+        if (null != snapshot)
+            return new HashSet<Edge>(snapshot.findEdges(outVertex, inVertex));
         final Set<Edge> edges = new HashSet<Edge>();
         for (final Edge edge : outVertex.getEdges(Direction.OUT)) {
             if (edge.getVertex(Direction.IN).equals(inVertex)) {
@@ -114,11 +173,17 @@ public class GraphJung<T extends Graph> implements DirectedGraph<Vertex, Edge>,
     }
 
     public boolean isIncident(final Vertex vertex, final Edge edge) {
-        return edge.getVertex(Direction.IN).equals(vertex) || edge.getVertex(Direction.OUT).equals(vertex);
+        return this.getVertex(edge, Direction.IN).equals(vertex) || this.getVertex(edge, Direction.OUT).equals(vertex);
     }
 
     public Collection<Edge> getIncidentEdges(final Vertex vertex) {
         final Set<Edge> edges = new HashSet<Edge>();
+        final AdjacencySnapshot snapshot = this.getSnapshot();
+        if (null != snapshot) {
+            edges.addAll(snapshot.getEdges(vertex, Direction.IN));
+            edges.addAll(snapshot.getEdges(vertex, Direction.OUT));
+            return edges;
+        }
         for (final Edge edge : vertex.getEdges(Direction.IN)) {
             edges.add(edge);
         }
@@ -137,13 +202,16 @@ public class GraphJung<T extends Graph> implements DirectedGraph<Vertex, Edge>,
     }
 
     public int getIncidentCount(final Edge edge) {
-        if (edge.getVertex(Direction.IN).equals(edge.getVertex(Direction.OUT)))
+        if (this.getVertex(edge, Direction.IN).equals(this.getVertex(edge, Direction.OUT)))
             return 1;
         else
             return 2;
     }
 
     public int getVertexCount() {
+        final AdjacencySnapshot snapshot = this.getSnapshot();
+        if (null != snapshot)
+            return snapshot.getVertexCount();
         final Iterable<Vertex> itty = this.graph.getVertices();
         if (itty instanceof Collection) {
             return ((Collection) itty).size();
@@ -157,14 +225,25 @@ public class GraphJung<T extends Graph> implements DirectedGraph<Vertex, Edge>,
     }
 
     public int getEdgeCount() {
-        int count = 0;
-        for (final Edge edge : this.graph.getEdges()) {
-            count++;
+        final AdjacencySnapshot snapshot = this.getSnapshot();
+        if (null != snapshot)
+            return snapshot.getEdgeCount();
+        final Iterable<Edge> itty = this.graph.getEdges();
+        if (itty instanceof Collection) {
+            return ((Collection) itty).size();
+        } else {
+            int count = 0;
+            for (final Edge edge : itty) {
+                count++;
+            }
+            return count;
         }
-        return count;
     }
 
     public Collection<Edge> getEdges() {
+        final AdjacencySnapshot snapshot = this.getSnapshot();
+        if (null != snapshot)
+            return snapshot.getEdges();
         final Iterable<Edge> itty = this.graph.getEdges();
         if (itty instanceof Collection) {
             return (Collection<Edge>) itty;
@@ -178,6 +257,9 @@ public class GraphJung<T extends Graph> implements DirectedGraph<Vertex, Edge>,
     }
 
     public Collection<Vertex> getVertices() {
+        final AdjacencySnapshot snapshot = this.getSnapshot();
+        if (null != snapshot)
+            return snapshot.getVertices();
         final Iterable<Vertex> itty = this.graph.getVertices();
         if (itty instanceof Collection) {
             return (Collection<Vertex>) itty;
@@ -191,22 +273,32 @@ public class GraphJung<T extends Graph> implements DirectedGraph<Vertex, Edge>,
     }
 
     public Collection<Vertex> getIncidentVertices(final Edge edge) {
-        return Arrays.asList(edge.getVertex(Direction.IN), edge.getVertex(Direction.OUT));
+        return Arrays.asList(this.getVertex(edge, Direction.IN), this.getVertex(edge, Direction.OUT));
     }
 
     public Vertex getDest(final Edge edge) {
-        return edge.getVertex(Direction.IN);
+        return this.getVertex(edge, Direction.IN);
     }
 
     public Vertex getSource(final Edge edge) {
-        return edge.getVertex(Direction.OUT);
+        return this.getVertex(edge, Direction.OUT);
     }
 
     public Pair<Vertex> getEndpoints(final Edge edge) {
-        return new Pair<Vertex>(edge.getVertex(Direction.OUT), edge.getVertex(Direction.IN));
+        return new Pair<Vertex>(this.getVertex(edge, Direction.OUT), this.getVertex(edge, Direction.IN));
+    }
+
+    private Vertex getVertex(final Edge edge, final Direction direction) {
+        final AdjacencySnapshot snapshot = this.getSnapshot();
+        if (null != snapshot)
+            return snapshot.getVertex(edge, direction);
+        return edge.getVertex(direction);
     }
 
     public boolean isNeighbor(final Vertex outVertex, final Vertex inVertex) {
+        final AdjacencySnapshot snapshot = this.getSnapshot();
+        if (null != snapshot)
+            return snapshot.isAdjacent(outVertex, inVertex, Direction.BOTH);
         for (final Edge edge : outVertex.getEdges(Direction.OUT)) {
             if (edge.getVertex(Direction.IN).equals(inVertex))
                 return true;
@@ -219,10 +311,16 @@ public class GraphJung<T extends Graph> implements DirectedGraph<Vertex, Edge>,
     }
 
     public int getNeighborCount(final Vertex vertex) {
+        final AdjacencySnapshot snapshot = this.getSnapshot();
+        if (null != snapshot)
+            return snapshot.countAdjacent(vertex, Direction.BOTH);
         return this.getNeighbors(vertex).size();
     }
 
     public Collection<Vertex> getNeighbors(final Vertex vertex) {
+        final AdjacencySnapshot snapshot = this.getSnapshot();
+        if (null != snapshot)
+            return snapshot.getAdjacent(vertex, Direction.BOTH);
         final Set<Vertex> vertices = new HashSet<Vertex>();
         for (final Edge e : vertex.getEdges(Direction.OUT)) {
             vertices.add(e.getVertex(Direction.IN));
@@ -234,13 +332,16 @@ public class GraphJung<T extends Graph> implements DirectedGraph<Vertex, Edge>,
     }
 
     public Vertex getOpposite(final Vertex vertex, final Edge edge) {
-        if (edge.getVertex(Direction.OUT).equals(vertex))
-            return edge.getVertex(Direction.IN);
+        if (this.getVertex(edge, Direction.OUT).equals(vertex))
+            return this.getVertex(edge, Direction.IN);
         else
-            return edge.getVertex(Direction.OUT);
+            return this.getVertex(edge, Direction.OUT);
     }
 
     public Collection<Edge> getOutEdges(final Vertex vertex) {
+        final AdjacencySnapshot snapshot = this.getSnapshot();
+        if (null != snapshot)
+            return snapshot.getEdges(vertex, Direction.OUT);
         final Iterable<Edge> itty = vertex.getEdges(Direction.OUT);
         if (itty instanceof Collection) {
             return (Collection<Edge>) itty;
@@ -254,6 +355,9 @@ public class GraphJung<T extends Graph> implements DirectedGraph<Vertex, Edge>,
     }
 
     public Collection<Edge> getInEdges(final Vertex vertex) {
+        final AdjacencySnapshot snapshot = this.getSnapshot();
+        if (null != snapshot)
+            return snapshot.getEdges(vertex, Direction.IN);
         final Iterable<Edge> itty = vertex.getEdges(Direction.IN);
         if (itty instanceof Collection) {
             return (Collection<Edge>) itty;
@@ -267,10 +371,16 @@ public class GraphJung<T extends Graph> implements DirectedGraph<Vertex, Edge>,
     }
 
     public int getPredecessorCount(final Vertex vertex) {
+        final AdjacencySnapshot snapshot = this.getSnapshot();
+        if (null != snapshot)
+            return snapshot.countAdjacent(vertex, Direction.IN);
         return this.getPredecessors(vertex).size();
     }
 
     public Collection<Vertex> getPredecessors(final Vertex vertex) {
+        final AdjacencySnapshot snapshot = this.getSnapshot();
+        if (null != snapshot)
+            return snapshot.getAdjacent(vertex, Direction.IN);
         final Set<Vertex> vertices = new HashSet<Vertex>();
         for (final Edge edge : vertex.getEdges(Direction.IN)) {
             vertices.add(edge.getVertex(Direction.OUT));
@@ -279,10 +389,16 @@ public class GraphJung<T extends Graph> implements DirectedGraph<Vertex, Edge>,
     }
 
     public int getSuccessorCount(final Vertex vertex) {
+        final AdjacencySnapshot snapshot = this.getSnapshot();
+        if (null != snapshot)
+            return snapshot.countAdjacent(vertex, Direction.OUT);
         return this.getSuccessors(vertex).size();
     }
 
     public Collection<Vertex> getSuccessors(final Vertex vertex) {
+        final AdjacencySnapshot snapshot = this.getSnapshot();
+        if (null != snapshot)
+            return snapshot.getAdjacent(vertex, Direction.OUT);
         final Set<Vertex> vertices = new HashSet<Vertex>();
         for (final Edge edge : vertex.getEdges(Direction.OUT)) {
             vertices.add(edge.getVertex(Direction.IN));
@@ -291,6 +407,9 @@ public class GraphJung<T extends Graph> implements DirectedGraph<Vertex, Edge>,
     }
 
     public int inDegree(final Vertex vertex) {
+        final AdjacencySnapshot snapshot = this.getSnapshot();
+        if (null != snapshot)
+            return snapshot.degree(vertex, Direction.IN);
         final Iterable<Edge> itty = vertex.getEdges(Direction.IN);
         if (itty instanceof Collection) {
             return ((Collection) itty).size();
@@ -304,6 +423,9 @@ public class GraphJung<T extends Graph> implements DirectedGraph<Vertex, Edge>,
     }
 
     public int outDegree(final Vertex vertex) {
+        final AdjacencySnapshot snapshot = this.getSnapshot();
+        if (null != snapshot)
+            return snapshot.degree(vertex, Direction.OUT);
         final Iterable<Edge> itty = vertex.getEdges(Direction.OUT);
         if (itty instanceof Collection) {
             return ((Collection) itty).size();
@@ -322,14 +444,17 @@ public class GraphJung<T extends Graph> implements DirectedGraph<Vertex, Edge>,
     }
 
     public boolean isDest(final Vertex vertex, final Edge edge) {
-        return edge.getVertex(Direction.IN).equals(vertex);
+        return this.getVertex(edge, Direction.IN).equals(vertex);
     }
 
     public boolean isSource(final Vertex vertex, final Edge edge) {
-        return edge.getVertex(Direction.OUT).equals(vertex);
+        return this.getVertex(edge, Direction.OUT).equals(vertex);
     }
 
     public boolean isPredecessor(final Vertex outVertex, final Vertex inVertex) {
+        final AdjacencySnapshot snapshot = this.getSnapshot();
+        if (null != snapshot)
+            return snapshot.isAdjacent(outVertex, inVertex, Direction.IN);
         for (final Edge edge : outVertex.getEdges(Direction.IN)) {
             if (edge.getVertex(Direction.OUT).equals(inVertex))
                 return true;
@@ -338,6 +463,9 @@ public class GraphJung<T extends Graph> implements DirectedGraph<Vertex, Edge>,
     }
 
     public boolean isSuccessor(final Vertex outVertex, final Vertex inVertex) {
+        final AdjacencySnapshot snapshot = this.getSnapshot();
+        if (null != snapshot)
+            return snapshot.isAdjacent(outVertex, inVertex, Direction.OUT);
         for (final Edge edge : outVertex.getEdges(Direction.OUT)) {
             if (edge.getVertex(Direction.IN).equals(inVertex))
                 return true;
@@ -5,6 +5,7 @@ import com.tinkerpop.blueprints.Vertex;
 import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
 import com.tinkerpop.blueprints.impls.tg.TinkerGraphFactory;
 import com.tinkerpop.blueprints.oupls.jung.GraphJung;
+import com.tinkerpop.blueprints.util.wrappers.partition.PartitionGraph;
 import edu.uci.ics.jung.graph.util.EdgeType;
 import junit.framework.TestCase;
 
@@ -136,4 +137,72 @@ public class GraphJungTest extends TestCase {
         }
 
     }
+
+    public void testMaterializedTinkerGraph() {
+        TinkerGraph graph = TinkerGraphFactory.createTinkerGraph();
+        GraphJung<TinkerGraph> jung = new GraphJung<TinkerGraph>(graph, true);
+        Vertex marko = graph.getVertex("1");
+        Vertex vadas = graph.getVertex("2");
+        Vertex josh = graph.getVertex("4");
+        assertEquals(jung.getVertexCount(), 6);
+        assertEquals(jung.getEdgeCount(), 6);
+        assertEquals(jung.getVertices().size(), 6);
+        assertEquals(jung.getEdges().size(), 6);
+        assertEquals(jung.outDegree(marko), 3);
+        assertEquals(jung.inDegree(marko), 0);
+        assertEquals(jung.degree(josh), 3);
+        assertEquals(jung.getNeighborCount(josh), 3);
+        assertEquals(jung.getSuccessorCount(josh), 2);
+        assertEquals(jung.getPredecessorCount(josh), 1);
+        assertTrue(jung.getNeighbors(josh).contains(marko));
+        assertFalse(jung.getNeighbors(josh).contains(vadas));
+        assertTrue(jung.isNeighbor(josh, marko));
+        assertTrue(jung.isPredecessor(josh, marko));
+        assertFalse(jung.isSuccessor(josh, marko));
+        assertTrue(jung.isSuccessor(marko, josh));
+        assertEquals(jung.findEdgeSet(marko, josh).size(), 1);
+        assertEquals(jung.getSource(jung.findEdge(marko, josh)), marko);
+        assertEquals(jung.getDest(jung.findEdge(marko, josh)), josh);
+        assertNull(jung.findEdge(josh, marko));
+        for (Vertex vertex : jung.getVertices()) {
+            assertTrue(jung.containsVertex(vertex));
+            assertEquals(jung.getOutEdges(vertex).size(), jung.outDegree(vertex));
+            for (Edge edge : jung.getInEdges(vertex)) {
+                assertEquals(jung.getDest(edge), vertex);
+                assertTrue(jung.containsEdge(edge));
+            }
+        }
+
+        // mutations through GraphJung discard the snapshot
+        jung.removeEdge(jung.findEdge(marko, josh));
+        assertEquals(jung.getEdgeCount(), 5);
+        assertEquals(jung.getNeighborCount(josh), 2);
+        assertFalse(jung.isNeighbor(josh, marko));
+
+        // ... and direct mutations of the graph are seen once the snapshot is invalidated
+        graph.addEdge(null, vadas, josh, "knows");
+        assertEquals(jung.getEdgeCount(), 5);
+        jung.invalidate();
+        assertEquals(jung.getEdgeCount(), 6);
+        assertEquals(jung.getNeighborCount(josh), 3);
+        assertTrue(jung.isNeighbor(vadas, josh));
+    }
+
+    public void testMaterializedPartitionGraph() {
+        PartitionGraph<TinkerGraph> graph = new PartitionGraph<TinkerGraph>(new TinkerGraph(), "_partition", "a");
+        Vertex a = graph.addVertex(null);
+        Vertex b = graph.addVertex(null);
+        graph.addEdge(null, a, b, "knows");
+        graph.setWritePartition("b");
+        Vertex c = graph.addVertex(null);
+        graph.setWritePartition("a");
+        graph.addEdge(null, a, c, "knows");
+
+        // the edge to a vertex of another partition is left out
+        GraphJung<PartitionGraph<TinkerGraph>> jung = new GraphJung<PartitionGraph<TinkerGraph>>(graph, true);
+        assertEquals(jung.getVertexCount(), 2);
+        assertEquals(jung.getEdgeCount(), 1);
+        assertEquals(jung.outDegree(a), 1);
+        assertTrue(jung.isSuccessor(a, b));
+    }
 }
@@ -26,7 +26,9 @@ import java.io.File;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.Set;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
@@ -38,6 +40,9 @@ import java.util.regex.Pattern;
  * <p/>
  * RDF resources are stored as vertices, RDF statements as edges using the Blueprints default (automatic) indices.
  * Namespaces are stored at a special vertex with the id "urn:com.tinkerpop.blueprints.sail:namespaces".
+ * Counts of statements, per context and per predicate, are stored at another special vertex with the id
+ * "urn:com.tinkerpop.blueprints.pgm.oupls.sail:statistics".  The counts changed by a commit are updated with it, and they allow the size
+ * of the store to be found without iterating over statements and joins in queries to be ordered by selectivity.
  * <p/>
  * This Sail is as transactional as the underlying graph database: if the provided Graph implements TransactionalGraph
  * and is in manual transaction mode, then the SailConnection's commit and rollback methods will be used correspondingly.
@@ -93,10 +98,18 @@ public class GraphSail<T extends KeyIndexableGraph> extends NotifyingSailBase im
 
     public static final String NULL_CONTEXT_NATIVE = "" + NULL_CONTEXT_PREFIX;
 
+    public static final int DEFAULT_BULK_LOAD_BUFFER_SIZE = 10000;
+
+    public static final int DEFAULT_VERTEX_CACHE_SIZE = 100000;
+
     private static final String[][] ALTERNATIVES = {{"s", ""}, {"p", ""}, {"o", ""}, {"c", ""}, {"sp", "s", "p"}, {"so", "s", "o"}, {"sc", "s", "c"}, {"po", "o", "p"}, {"pc", "p", "c"}, {"oc", "o", "c"}, {"spo", "so", "sp", "po"}, {"spc", "sc", "sp", "pc"}, {"soc", "so", "sc", "oc"}, {"poc", "po", "oc", "pc"}, {"spoc", "spo", "soc", "spc", "poc"},};
 
     private static final String NAMESPACES_VERTEX_ID = "urn:com.tinkerpop.blueprints.pgm.oupls.sail:namespaces";
 
+    private static final String STATISTICS_VERTEX_ID = "urn:com.tinkerpop.blueprints.pgm.oupls.sail:statistics";
+
+    private static final String DICTIONARY_VERTEX_ID = "urn:com.tinkerpop.blueprints.pgm.oupls.sail:dictionary";
+
     private final DataStore store = new DataStore();
 
     /**
@@ -135,6 +148,24 @@ public class GraphSail<T extends KeyIndexableGraph> extends NotifyingSailBase im
      *                        To use GraphSail with a base Graph which does not support edge indices, provide "" as the argument.
      */
     public GraphSail(final T graph, final String indexedPatterns) {
+        this(graph, indexedPatterns, false);
+    }
+
+    /**
+     * Create a new RDF store using the provided Blueprints graph and triple pattern indices, optionally with
+     * dictionary encoding of RDF terms.
+     * With dictionary encoding, each subject, predicate and object is assigned a compact numeric id, and the triple
+     * pattern indices are keyed on these ids rather than on the full string forms of the terms,
+     * which greatly reduces the size of the indices for URI-heavy data.  Contexts are not encoded.
+     * Dictionary encoding can only be enabled for an empty store; once enabled, it is used whenever the store is opened.
+     *
+     * @param graph              the storage layer.  If the provided graph implements TransactionalGraph and is in manual transaction
+     *                           mode, then this Sail will also be transactional.
+     *                           Any vertices and edges in the graph should have been previously created with GraphSail.
+     * @param indexedPatterns    a comma-delimited list of triple patterns for index-based statement matching.
+     * @param dictionaryEncoding whether to key triple pattern indices on dictionary-encoded terms
+     */
+    public GraphSail(final T graph, final String indexedPatterns, final boolean dictionaryEncoding) {
         //if (graph instanceof TransactionalGraph)
         //    ((TransactionalGraph) graph).setTransactionMode(TransactionalGraph.Mode.AUTOMATIC);
         //printGraphInfo(graph);
@@ -163,6 +194,46 @@ public class GraphSail<T extends KeyIndexableGraph> extends NotifyingSailBase im
                 }
             }
         }
+
+        store.statisticsVertex = store.getReferenceVertex(STATISTICS_VERTEX_ID);
+        if (null == store.statisticsVertex) {
+            // The graph was created without statistics (or is new); count its statements once.
+            try {
+                for (Edge e : store.matchers[0x0].match(null, null, null, null, false)) {
+                    store.statistics.statementAdded(e.getLabel(), (String) e.getProperty(CONTEXT_PROP));
+                }
+                store.statisticsVertex = store.addVertex(STATISTICS_VERTEX_ID);
+                store.statistics.save(store.statisticsVertex);
+            } finally {
+                if (store.manualTransactions) {
+                    ((TransactionalGraph) graph).commit();
+                }
+            }
+        } else {
+            store.statistics.load(store.statisticsVertex);
+        }
+
+        Vertex dictionary = store.getReferenceVertex(DICTIONARY_VERTEX_ID);
+        if (null == dictionary && dictionaryEncoding) {
+            if (0 < store.statistics.size()) {
+                throw new IllegalStateException("dictionary encoding can only be enabled for an empty store");
+            }
+
+            try {
+                dictionary = store.addVertex(DICTIONARY_VERTEX_ID);
+            } finally {
+                if (store.manualTransactions) {
+                    ((TransactionalGraph) graph).commit();
+                }
+            }
+        }
+        if (null != dictionary) {
+            if (!store.graph.getIndexedKeys(Vertex.class).contains(TermDictionary.TERM)) {
+                store.graph.createKeyIndex(TermDictionary.TERM, Vertex.class);
+            }
+
+            store.dictionary = new TermDictionary(graph, dictionary);
+        }
     }
 
     public T getBaseGraph() {
@@ -218,6 +289,42 @@ public class GraphSail<T extends KeyIndexableGraph> extends NotifyingSailBase im
         store.uniqueStatements = flag;
     }
 
+    /**
+     * Enables or disables bulk loading (disabled by default), with the default buffer and cache sizes.
+     *
+     * @param flag whether to bulk load statements
+     * @see #useBulkLoading(int, int)
+     */
+    public void useBulkLoading(final boolean flag) {
+        if (flag) {
+            useBulkLoading(DEFAULT_BULK_LOAD_BUFFER_SIZE, DEFAULT_VERTEX_CACHE_SIZE);
+        } else {
+            useBulkLoading(0, 0);
+        }
+    }
+
+    /**
+     * Enables bulk loading of statements, for the import of large RDF documents.
+     * While bulk loading, the vertices of recently added subjects and objects are kept in a cache, so that they need not
+     * be looked up in the vertex index, and the underlying graph is committed each time the given number of statements
+     * has been added.  The cache is shared by all connections, and a vertex created by a connection is added to it
+     * only once the connection has committed.
+     * Note that a connection which is rolled back, while bulk loading into a transactional graph, will only roll back
+     * the statements added since the last of these intermediate commits.
+     *
+     * @param bufferSize the number of statements to add between commits of the underlying graph.
+     *                   A value of 0 disables bulk loading.
+     * @param cacheSize  the maximum number of vertices to cache
+     */
+    public void useBulkLoading(final int bufferSize, final int cacheSize) {
+        if (bufferSize < 0 || cacheSize < 0) {
+            throw new IllegalArgumentException("buffer and cache sizes must be non-negative");
+        }
+
+        store.bulkLoadBufferSize = bufferSize;
+        store.vertexCache = 0 == bufferSize || 0 == cacheSize ? null : new VertexCache(cacheSize);
+    }
+
     public String toString() {
         String type = store.graph.getClass().getSimpleName().toLowerCase();
         return "graphsail[" + type + "]";
@@ -246,9 +353,27 @@ public class GraphSail<T extends KeyIndexableGraph> extends NotifyingSailBase im
 
         public Vertex namespaces;
 
+        // The dictionary of encoded terms, or null if terms are not encoded
+        public TermDictionary dictionary = null;
+
+        // The number of statements to add between commits while bulk loading, or 0 if not bulk loading
+        public int bulkLoadBufferSize = 0;
+        public VertexCache vertexCache = null;
+
+        // Counts of the committed statements in the store
+        public final StatementStatistics statistics = new StatementStatistics();
+        public Vertex statisticsVertex;
+
+        // Serializes commits, so that the counts written by each commit are based on those of the previous one
+        private final Object commitLock = new Object();
+
         public Vertex getReferenceVertex() {
+            return getReferenceVertex(NAMESPACES_VERTEX_ID);
+        }
+
+        public Vertex getReferenceVertex(final String id) {
             //System.out.println("value = " + value);
-            Iterable<Vertex> i = store.graph.getVertices(VALUE, NAMESPACES_VERTEX_ID);
+            Iterable<Vertex> i = store.graph.getVertices(VALUE, id);
             // TODO: restore the close()
             //try {
             Iterator<Vertex> iter = i.iterator();
@@ -285,6 +410,46 @@ public class GraphSail<T extends KeyIndexableGraph> extends NotifyingSailBase im
             return v;
         }
 
+        /**
+         * Commits the underlying graph (if it is transactional) together with the uncommitted changes of a connection
+         * to the statistics of the store.  The changed counts are written to the graph before it is committed,
+         * and are added to the counts shared by all connections only once the commit has succeeded.
+         */
+        public void commit(final StatementStatistics changes) {
+            synchronized (commitLock) {
+                if (!changes.isEmpty()) {
+                    statistics.save(statisticsVertex, changes);
+                }
+
+                if (manualTransactions) {
+                    ((TransactionalGraph) graph).commit();
+                }
+
+                statistics.addAll(changes);
+            }
+
+            changes.clear();
+        }
+
+        /**
+         * @param term the native representation of a subject, predicate or object
+         * @return the form of the term used in the keys of triple pattern indices,
+         *         or null if terms are encoded and the term is not present in the dictionary
+         */
+        public String toIndexKey(final String term) {
+            return null == dictionary ? term : dictionary.encode(term, null);
+        }
+
+        /**
+         * @param term    the native representation of a subject, predicate or object
+         * @param created the terms added to the dictionary in the current transaction of a connection,
+         *                to which the term is added if it is not yet present
+         * @return the form of the term used in the keys of triple pattern indices
+         */
+        public String toIndexKey(final String term, final Map<String, String> created) {
+            return null == dictionary ? term : dictionary.encode(term, created);
+        }
+
         public Vertex findVertex(final Value value) {
             for (Vertex v : store.graph.getVertices(VALUE, value.stringValue())) {
                 if (matches(v, value)) {
@@ -390,6 +555,44 @@ public class GraphSail<T extends KeyIndexableGraph> extends NotifyingSailBase im
         }
     }
 
+    /**
+     * A least-recently-used cache of the vertices of RDF values.
+     */
+    class VertexCache {
+        private final Map<Value, Vertex> vertices;
+
+        public VertexCache(final int capacity) {
+            vertices = new LinkedHashMap<Value, Vertex>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<Value, Vertex> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        public synchronized Vertex get(final Value value) {
+            return vertices.get(value);
+        }
+
+        public synchronized void put(final Value value, final Vertex vertex) {
+            vertices.put(value, vertex);
+        }
+
+        public synchronized void putAll(final Map<Value, Vertex> committed) {
+            vertices.putAll(committed);
+        }
+
+        public synchronized void remove(final Value value) {
+            vertices.remove(value);
+        }
+
+        public synchronized void removeAll(final Collection<Value> removed) {
+            for (Value value : removed) {
+                vertices.remove(value);
+            }
+        }
+    }
+
     private void createTripleIndices(final String tripleIndexes) {
         if (null == tripleIndexes) {
             throw new IllegalArgumentException("index list, if supplied, must be non-null");
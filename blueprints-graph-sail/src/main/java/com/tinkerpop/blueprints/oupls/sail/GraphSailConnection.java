@@ -4,7 +4,6 @@ import com.tinkerpop.blueprints.Direction;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.TransactionalGraph;
 import com.tinkerpop.blueprints.Vertex;
-import net.fortytwo.sesametools.CompoundCloseableIteration;
 import net.fortytwo.sesametools.SailConnectionTripleSource;
 import info.aduna.iteration.CloseableIteration;
 import org.openrdf.model.Namespace;
@@ -16,17 +15,26 @@ import org.openrdf.model.impl.NamespaceImpl;
 import org.openrdf.query.BindingSet;
 import org.openrdf.query.Dataset;
 import org.openrdf.query.QueryEvaluationException;
+import org.openrdf.query.algebra.QueryRoot;
 import org.openrdf.query.algebra.TupleExpr;
 import org.openrdf.query.algebra.evaluation.TripleSource;
+import org.openrdf.query.algebra.evaluation.impl.BindingAssigner;
 import org.openrdf.query.algebra.evaluation.impl.EvaluationStrategyImpl;
+import org.openrdf.query.algebra.evaluation.impl.QueryJoinOptimizer;
 import org.openrdf.sail.SailException;
 import org.openrdf.sail.helpers.DefaultSailChangedEvent;
 import org.openrdf.sail.helpers.NotifyingSailConnectionBase;
 import org.openrdf.sail.inferencer.InferencerConnection;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * A stateful connection to a BlueprintsSail RDF store interface.
@@ -40,9 +48,26 @@ public class GraphSailConnection extends NotifyingSailConnectionBase implements
 
     private final Collection<WriteAction> writeBuffer = new LinkedList<WriteAction>();
 
+    // Changes to the statement counts of the store which have not yet been committed
+    private final StatementStatistics statistics = new StatementStatistics();
+
     private boolean statementsAdded;
     private boolean statementsRemoved;
 
+    // The number of statements added since the last commit, while bulk loading
+    private int bulkLoadCount = 0;
+
+    // Vertices created since the last commit, while bulk loading, which are added to the vertex cache once committed,
+    // and the values of vertices removed since the last commit, which are removed from the vertex cache once committed
+    private final Map<Value, Vertex> createdVertices = new HashMap<Value, Vertex>();
+    private final Set<Value> removedVertices = new HashSet<Value>();
+
+    // Terms added to the dictionary since the last commit, the ids of vertices whose values must not be cached
+    // until then, and the ids of removed vertices whose values are forgotten again once committed, if terms are encoded
+    private final Map<String, String> createdTerms = new HashMap<String, String>();
+    private final Set<Object> createdVertexIds = new HashSet<Object>();
+    private final Set<Object> removedVertexIds = new HashSet<Object>();
+
     public GraphSailConnection(final GraphSail.DataStore store) {
         super(store.sail);
         this.store = store;
@@ -54,9 +79,7 @@ public class GraphSailConnection extends NotifyingSailConnectionBase implements
     }
 
     public void commitInternal() throws SailException {
-        if (store.manualTransactions) {
-            ((TransactionalGraph) store.graph).commit();
-        }
+        commitChanges();
 
         if (statementsAdded || statementsRemoved) {
             DefaultSailChangedEvent e = new DefaultSailChangedEvent(store.sail);
@@ -67,26 +90,88 @@ public class GraphSailConnection extends NotifyingSailConnectionBase implements
     }
 
     public void rollbackInternal() throws SailException {
+        rollbackChanges();
+
         if (store.manualTransactions) {
             ((TransactionalGraph) store.graph).stopTransaction(TransactionalGraph.Conclusion.FAILURE);
         }
     }
 
     public void closeInternal() throws SailException {
+        rollbackChanges();
+
         // Roll back any uncommitted operations.
         if (store.manualTransactions) {
             ((TransactionalGraph) store.graph).stopTransaction(TransactionalGraph.Conclusion.FAILURE);
         }
     }
 
+    /**
+     * Commits the underlying graph and, once it has been committed, shares the changes of this connection
+     * with the other connections of the store.
+     */
+    private void commitChanges() {
+        bulkLoadCount = 0;
+        if (null != store.dictionary) {
+            store.dictionary.prepareCommit(createdTerms);
+        }
+        store.commit(statistics);
+
+        if (null != store.dictionary) {
+            store.dictionary.commit(createdTerms);
+            createdVertexIds.clear();
+
+            // Other connections may have cached the values of the removed vertices again before they were committed.
+            for (Object id : removedVertexIds) {
+                store.dictionary.removeValue(id);
+            }
+            removedVertexIds.clear();
+        }
+        if (null != store.vertexCache) {
+            // Other connections may have cached the removed vertices again before they were committed.
+            store.vertexCache.removeAll(removedVertices);
+            store.vertexCache.putAll(createdVertices);
+        }
+        createdVertices.clear();
+        removedVertices.clear();
+    }
+
+    private void rollbackChanges() {
+        if (store.manualTransactions) {
+            bulkLoadCount = 0;
+            statistics.clear();
+
+            // Vertices created in this transaction no longer exist.
+            createdVertices.clear();
+            removedVertices.clear();
+            if (null != store.dictionary) {
+                store.dictionary.rollback(createdTerms);
+                createdVertexIds.clear();
+                removedVertexIds.clear();
+            }
+        } else {
+            // Without transactions, changes to the graph can't be rolled back, so they are shared regardless.
+            commitChanges();
+        }
+    }
+
     public CloseableIteration<? extends BindingSet, QueryEvaluationException> evaluateInternal(final TupleExpr query,
                                                                                                final Dataset dataset,
                                                                                                final BindingSet bindings,
                                                                                                final boolean includeInferred) throws SailException {
         try {
             TripleSource tripleSource = new SailConnectionTripleSource(this, store.valueFactory, includeInferred);
-            EvaluationStrategyImpl strategy = new EvaluationStrategyImpl(tripleSource, dataset);
-            return strategy.evaluate(query, bindings);
+            EvaluationStrategyImpl strategy = new GraphSailEvaluationStrategy(tripleSource, dataset, store, this, includeInferred);
+
+            // Order joins using the statement counts of the store.  The query is cloned, as the optimizers modify it.
+            TupleExpr expr = query.clone();
+            if (!(expr instanceof QueryRoot)) {
+                expr = new QueryRoot(expr);
+            }
+            new BindingAssigner().optimize(expr, dataset, bindings);
+            new QueryJoinOptimizer(new GraphSailEvaluationStatistics(store, statistics)).optimize(expr, dataset, bindings);
+
+            return strategy.evaluate(expr, bindings);
         } catch (QueryEvaluationException e) {
             throw new SailException(e);
         }
@@ -119,45 +204,56 @@ public class GraphSailConnection extends NotifyingSailConnectionBase implements
         if (0 == contexts.length) {
             return createIteration(store.matchers[index].match(subject, predicate, object, null, includeInferred));
         } else {
-            Collection<CloseableIteration<Statement, SailException>> iterations = new LinkedList<CloseableIteration<Statement, SailException>>();
+            return createIteration(matchInContexts(index, subject, predicate, object, includeInferred, contexts));
+        }
+    }
 
-            // TODO: as an optimization, filter on multiple contexts simultaneously (when context is not used in the matcher), rather than trying each context consecutively.
+    /**
+     * Matches statements in any of the given contexts.  If the matcher for the pattern indexes on context,
+     * the index is looked up once for each context.  Otherwise, statements are matched without regard to context,
+     * and filtered on the set of contexts in a single pass.
+     *
+     * @param index the index of the triple pattern, not including the context
+     */
+    private Iterable<Edge> matchInContexts(final int index,
+                                           final Resource subject,
+                                           final URI predicate,
+                                           final Value object,
+                                           final boolean includeInferred,
+                                           final Resource... contexts) {
+        Matcher m = store.matchers[index | 0x8];
+
+        if (1 == contexts.length) {
+            return m.match(subject, predicate, object, contexts[0], includeInferred);
+        } else if (m instanceof IndexingMatcher && m.c) {
+            return m.matchInContexts(subject, predicate, object, new LinkedHashSet<Resource>(Arrays.asList(contexts)), includeInferred);
+        } else {
+            Set<String> nativeContexts = new HashSet<String>();
             for (Resource context : contexts) {
-                index |= 0x8;
-
-                Matcher m = store.matchers[index];
-                iterations.add(createIteration(m.match(subject, predicate, object, context, includeInferred)));
+                nativeContexts.add(store.valueToNative(context));
             }
 
-            return new CompoundCloseableIteration<Statement, SailException>(iterations);
+            return new FilteredIterator<Edge>(store.matchers[index].match(subject, predicate, object, null, includeInferred),
+                    new Matcher.ContextCriterion(nativeContexts));
         }
     }
 
     // Note: inferred statements are not counted
     public long sizeInternal(final Resource... contexts) throws SailException {
         if (0 == contexts.length) {
-            return countIterator(store.matchers[0x0].match(null, null, null, null, false));
+            return store.statistics.size() + statistics.size();
         } else {
-            int count = 0;
+            long count = 0;
 
             for (Resource context : contexts) {
-                count += countIterator(store.matchers[0x8].match(null, null, null, context, false));
+                String c = store.valueToNative(context);
+                count += store.statistics.size(c) + statistics.size(c);
             }
 
             return count;
         }
     }
 
-    private int countIterator(final Iterable i) {
-        Iterator iter = i.iterator();
-        int count = 0;
-        while (iter.hasNext()) {
-            count++;
-            iter.next();
-        }
-        return count;
-    }
-
     public void addStatementInternal(final Resource subject,
                                      final URI predicate,
                                      final Value object,
@@ -202,11 +298,20 @@ public class GraphSailConnection extends NotifyingSailConnectionBase implements
             }
         }
 
+        Vertex out = getOrCreateVertex(subject);
+        Vertex in = getOrCreateVertex(object);
+
+        // The index keys of the subject, predicate and object are shared by all indices.
+        String subjectKey = null, predicateKey = null, objectKey = null;
+        if (!store.indexers.isEmpty()) {
+            subjectKey = store.toIndexKey(store.resourceToNative(subject), createdTerms);
+            predicateKey = store.toIndexKey(store.uriToNative(predicate), createdTerms);
+            objectKey = store.toIndexKey(store.valueToNative(object), createdTerms);
+        }
+
         for (Resource context : ((0 == contexts.length) ? NULL_CONTEXT_ARRAY : contexts)) {
             String c = null == context ? GraphSail.NULL_CONTEXT_NATIVE : store.resourceToNative(context);
 
-            Vertex out = getOrCreateVertex(subject);
-            Vertex in = getOrCreateVertex(object);
             Edge edge = store.graph.addEdge(null, out, in, predicate.stringValue());
             if (inferred) {
                 //System.out.println("inferred!");
@@ -215,7 +320,7 @@ public class GraphSailConnection extends NotifyingSailConnectionBase implements
 
             for (IndexingMatcher m : (Collection<IndexingMatcher>) store.indexers) {
                 //System.out.println("\t\tindexing with: " + m);
-                m.indexStatement(edge, subject, predicate, object, c);
+                m.indexStatement(edge, subjectKey, predicateKey, objectKey, c);
             }
 
             // Hack to encode graph context even if the "c" index is disabled
@@ -223,6 +328,10 @@ public class GraphSailConnection extends NotifyingSailConnectionBase implements
                 edge.setProperty(GraphSail.CONTEXT_PROP, store.valueToNative(context));
             }
 
+            if (!inferred) {
+                statistics.statementAdded(edge.getLabel(), (String) edge.getProperty(GraphSail.CONTEXT_PROP));
+            }
+
             if (hasConnectionListeners()) {
                 Statement s = store.valueFactory.createStatement(subject, predicate, object, context);
                 notifyStatementAdded(s);
@@ -235,12 +344,39 @@ public class GraphSailConnection extends NotifyingSailConnectionBase implements
 
         statementsAdded = true;
         //System.out.println("\tdone adding");
+
+        if (0 < store.bulkLoadBufferSize && ++bulkLoadCount >= store.bulkLoadBufferSize) {
+            commitChanges();
+        }
     }
 
     private Vertex getOrCreateVertex(final Value value) {
-        Vertex v = store.findVertex(value);
+        if (null == store.vertexCache) {
+            Vertex v = store.findVertex(value);
+            return null == v ? createVertex(value) : v;
+        }
+
+        Vertex v = createdVertices.get(value);
+        if (null == v) {
+            v = store.vertexCache.get(value);
+        }
         if (null == v) {
-            v = store.addVertex(value);
+            v = store.findVertex(value);
+            if (null == v) {
+                // Not visible to other connections until committed
+                v = createVertex(value);
+                createdVertices.put(value, v);
+            } else {
+                store.vertexCache.put(value, v);
+            }
+        }
+        return v;
+    }
+
+    private Vertex createVertex(final Value value) {
+        Vertex v = store.addVertex(value);
+        if (null != store.dictionary) {
+            createdVertexIds.add(v.getId());
         }
         return v;
     }
@@ -290,18 +426,12 @@ public class GraphSailConnection extends NotifyingSailConnectionBase implements
                 edgesToRemove.add(anI);
             }
         } else {
-            // TODO: as an optimization, filter on multiple contexts simultaneously (when context is not used in the matcher), rather than trying each context consecutively.
-            for (Resource context : contexts) {
-                index |= 0x8;
-
-                //System.out.println("matcher: " + indexes.matchers[index]);
-                Iterable<Edge> i = store.matchers[index].match(subject, predicate, object, context, inferred);
-                for (Edge e : i) {
-                    Boolean b = (Boolean) e.getProperty(GraphSail.INFERRED);
-                    if ((!inferred && null == b)
-                            || (inferred && null != b && b)) {
-                        edgesToRemove.add(e);
-                    }
+            Iterable<Edge> i = matchInContexts(index, subject, predicate, object, inferred, contexts);
+            for (Edge e : i) {
+                Boolean b = (Boolean) e.getProperty(GraphSail.INFERRED);
+                if ((!inferred && null == b)
+                        || (inferred && null != b && b)) {
+                    edgesToRemove.add(e);
                 }
             }
         }
@@ -350,10 +480,7 @@ public class GraphSailConnection extends NotifyingSailConnectionBase implements
         if (0 == contexts.length) {
             deleteEdgesInIterator(inferred, store.matchers[0x0].match(null, null, null, null, inferred));
         } else {
-            for (Resource context : contexts) {
-                // Note: order of operands to the "or" is important here
-                deleteEdgesInIterator(inferred, store.matchers[0x8].match(null, null, null, context, inferred));
-            }
+            deleteEdgesInIterator(inferred, matchInContexts(0x0, null, null, null, inferred, contexts));
         }
     }
 
@@ -395,23 +522,38 @@ public class GraphSailConnection extends NotifyingSailConnectionBase implements
     }
 
     private void removeEdge(final Edge edge) {
+        statistics.statementRemoved(edge);
+
         Vertex h = edge.getVertex(Direction.IN);
         Vertex t = edge.getVertex(Direction.OUT);
         store.graph.removeEdge(edge);
-        if (!h.getEdges(Direction.IN).iterator().hasNext() && !h.getEdges(Direction.OUT).iterator().hasNext()) {
+        removeIfOrphaned(h);
+        removeIfOrphaned(t);
+    }
+
+    private void removeIfOrphaned(final Vertex v) {
+        if (!v.getEdges(Direction.IN).iterator().hasNext() && !v.getEdges(Direction.OUT).iterator().hasNext()) {
+            Value value = null;
             try {
-                store.graph.removeVertex(h);
+                // The value is needed to forget the cached vertex, and can't be read once the vertex is removed
+                if (null != store.vertexCache) {
+                    value = decode(v);
+                }
+                store.graph.removeVertex(v);
             } catch (IllegalStateException ex) {
                 // Just keep going.  This is a hack for Neo4j vertices which appear in more than
                 // one to-be-deleted edge.
             }
-        }
-        if (!t.getEdges(Direction.OUT).iterator().hasNext() && !t.getEdges(Direction.IN).iterator().hasNext()) {
-            try {
-                store.graph.removeVertex(t);
-            } catch (IllegalStateException ex) {
-                // Just keep going.  This is a hack for Neo4j vertices which appear in more than
-                // one to-be-deleted edge.
+
+            // Forget the vertex, whose id may be reused
+            if (null != value) {
+                store.vertexCache.remove(value);
+                createdVertices.remove(value);
+                removedVertices.add(value);
+            }
+            if (null != store.dictionary) {
+                store.dictionary.removeValue(v.getId());
+                removedVertexIds.add(v.getId());
             }
         }
     }
@@ -585,7 +727,7 @@ public class GraphSailConnection extends NotifyingSailConnectionBase implements
 
     // statement iteration /////////////////////////////////////////////////////
 
-    private CloseableIteration<Statement, SailException> createIteration(final Iterable<Edge> iterator) {
+    CloseableIteration<Statement, SailException> createIteration(final Iterable<Edge> iterator) {
         return store.volatileStatements
                 ? new VolatileStatementIteration(iterator)
                 : new StableStatementIteration(iterator);
@@ -728,7 +870,24 @@ public class GraphSailConnection extends NotifyingSailConnectionBase implements
         return prefix.equals(GraphSail.DEFAULT_NAMESPACE_PREFIX_KEY) ? "" : prefix;
     }
 
-    private Value toSesame(final Vertex v) {
+    Value toSesame(final Vertex v) {
+        if (null == store.dictionary) {
+            return decode(v);
+        }
+
+        Value value = store.dictionary.getValue(v.getId());
+        if (null == value) {
+            value = decode(v);
+
+            // The id of an uncommitted vertex may be given to another vertex, if the transaction is rolled back.
+            if (!createdVertexIds.contains(v.getId())) {
+                store.dictionary.putValue(v.getId(), value);
+            }
+        }
+        return value;
+    }
+
+    private Value decode(final Vertex v) {
         String value = (String) v.getProperty(GraphSail.VALUE);
         String kind = (String) v.getProperty(GraphSail.KIND);
         if (kind.equals(GraphSail.URI)) {
@@ -748,7 +907,7 @@ public class GraphSailConnection extends NotifyingSailConnectionBase implements
         }
     }
 
-    private Value toSesame(final String s) {
+    Value toSesame(final String s) {
         int i;
 
         switch (s.charAt(0)) {
@@ -0,0 +1,82 @@
+package com.tinkerpop.blueprints.oupls.sail;
+
+import org.openrdf.model.Resource;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.query.algebra.StatementPattern;
+import org.openrdf.query.algebra.Var;
+import org.openrdf.query.algebra.evaluation.impl.EvaluationStatistics;
+
+/**
+ * Estimates the cardinality of triple patterns from the statement counts of a GraphSail, so that joins are evaluated
+ * in order of increasing selectivity.
+ * A constant predicate or context selects the exact number of statements with that predicate or in that context.
+ * The store keeps no counts per subject or object, so a constant subject or object is assumed to select the square
+ * root of the remaining statements.
+ */
+class GraphSailEvaluationStatistics extends EvaluationStatistics {
+    private final GraphSail.DataStore store;
+    private final StatementStatistics committed;
+    private final StatementStatistics pending;
+
+    /**
+     * @param store   the data store of the GraphSail
+     * @param pending the uncommitted changes of the connection which evaluates the query
+     */
+    public GraphSailEvaluationStatistics(final GraphSail.DataStore store,
+                                         final StatementStatistics pending) {
+        this.store = store;
+        this.committed = store.statistics;
+        this.pending = pending;
+    }
+
+    @Override
+    protected CardinalityCalculator createCardinalityCalculator() {
+        return new GraphSailCardinalityCalculator();
+    }
+
+    protected class GraphSailCardinalityCalculator extends CardinalityCalculator {
+        @Override
+        protected double getCardinality(final StatementPattern sp) {
+            Value subject = getConstantValue(sp.getSubjectVar());
+            Value predicate = getConstantValue(sp.getPredicateVar());
+            Value object = getConstantValue(sp.getObjectVar());
+            Value context = getConstantValue(sp.getContextVar());
+
+            double size = committed.size() + pending.size();
+            double cardinality;
+
+            if (null == predicate) {
+                cardinality = size;
+            } else if (predicate instanceof URI) {
+                String p = predicate.stringValue();
+                cardinality = committed.count(p) + pending.count(p);
+            } else {
+                return 0;
+            }
+
+            if (null != context && size > 0) {
+                if (!(context instanceof Resource)) {
+                    return 0;
+                }
+
+                String c = store.resourceToNative((Resource) context);
+                cardinality *= (committed.size(c) + pending.size(c)) / size;
+            }
+
+            if (null != subject) {
+                cardinality = Math.sqrt(cardinality);
+            }
+
+            if (null != object) {
+                cardinality = Math.sqrt(cardinality);
+            }
+
+            return cardinality;
+        }
+
+        private Value getConstantValue(final Var var) {
+            return null == var ? null : var.getValue();
+        }
+    }
+}
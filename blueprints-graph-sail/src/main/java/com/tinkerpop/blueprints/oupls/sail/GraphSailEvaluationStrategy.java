@@ -0,0 +1,392 @@
+package com.tinkerpop.blueprints.oupls.sail;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+import info.aduna.iteration.CloseableIteration;
+import info.aduna.iteration.EmptyIteration;
+import info.aduna.iteration.LookAheadIteration;
+import net.fortytwo.sesametools.CompoundCloseableIteration;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.query.BindingSet;
+import org.openrdf.query.Dataset;
+import org.openrdf.query.QueryEvaluationException;
+import org.openrdf.query.algebra.Join;
+import org.openrdf.query.algebra.StatementPattern;
+import org.openrdf.query.algebra.Var;
+import org.openrdf.query.algebra.evaluation.QueryBindingSet;
+import org.openrdf.query.algebra.evaluation.TripleSource;
+import org.openrdf.query.algebra.evaluation.impl.EvaluationStrategyImpl;
+import org.openrdf.sail.SailException;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An evaluation strategy which answers triple patterns with a bound subject or object by walking the edges of the
+ * corresponding vertex, rather than by looking up statements in an index.
+ * Joins with a triple pattern on the right are evaluated in batches of bindings from the left: bindings which share
+ * the same subject (or object) are answered with a single walk over the edges of its vertex,
+ * and each subject or object is resolved to its vertex only once per query.
+ * Triple patterns with neither a subject nor an object, and queries with a dataset, are evaluated as usual.
+ * Either way, edges are read through the statement iterations of the connection, so that writes made while a query is
+ * evaluated (for instance, by an inferencer) are deferred in the same way.
+ */
+class GraphSailEvaluationStrategy extends EvaluationStrategyImpl {
+    // The number of bindings from the left-hand side of a join which are evaluated together
+    static final int BATCH_SIZE = 100;
+
+    // The maximum number of values whose vertices are remembered during the evaluation of a query
+    private static final int VERTEX_CACHE_SIZE = 10000;
+
+    private final GraphSail.DataStore store;
+    private final GraphSailConnection connection;
+    private final boolean includeInferred;
+    private final boolean datasetScoped;
+
+    private final Map<Value, Vertex> vertices = new LinkedHashMap<Value, Vertex>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Value, Vertex> eldest) {
+            return size() > VERTEX_CACHE_SIZE;
+        }
+    };
+
+    public GraphSailEvaluationStrategy(final TripleSource tripleSource,
+                                       final Dataset dataset,
+                                       final GraphSail.DataStore store,
+                                       final GraphSailConnection connection,
+                                       final boolean includeInferred) {
+        super(tripleSource, dataset);
+        this.store = store;
+        this.connection = connection;
+        this.includeInferred = includeInferred;
+        this.datasetScoped = null != dataset;
+    }
+
+    @Override
+    public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(final StatementPattern sp,
+                                                                             final BindingSet bindings) throws QueryEvaluationException {
+        Value anchor = getAnchor(sp, bindings);
+        if (null == anchor) {
+            return super.evaluate(sp, bindings);
+        }
+
+        List<BindingSet> group = new LinkedList<BindingSet>();
+        group.add(bindings);
+        return traverse(sp, anchor, isSubject(anchor, sp, bindings), group);
+    }
+
+    @Override
+    public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(final Join join,
+                                                                             final BindingSet bindings) throws QueryEvaluationException {
+        if (!datasetScoped && join.getRightArg() instanceof StatementPattern) {
+            return new BatchJoinIteration(evaluate(join.getLeftArg(), bindings), (StatementPattern) join.getRightArg());
+        } else {
+            return super.evaluate(join, bindings);
+        }
+    }
+
+    /**
+     * @return the bound subject of the pattern if there is one, otherwise its bound object,
+     *         or null if the pattern can not be answered by a traversal
+     */
+    private Value getAnchor(final StatementPattern sp,
+                            final BindingSet bindings) {
+        if (datasetScoped) {
+            return null;
+        }
+
+        Value predicate = getValue(sp.getPredicateVar(), bindings);
+        Value context = getValue(sp.getContextVar(), bindings);
+        if ((null != predicate && !(predicate instanceof URI))
+                || (null != context && !(context instanceof Resource))) {
+            return null;
+        }
+
+        Value subject = getValue(sp.getSubjectVar(), bindings);
+        if (null != subject) {
+            return subject instanceof Resource ? subject : null;
+        }
+
+        return getValue(sp.getObjectVar(), bindings);
+    }
+
+    private boolean isSubject(final Value anchor,
+                              final StatementPattern sp,
+                              final BindingSet bindings) {
+        return anchor.equals(getValue(sp.getSubjectVar(), bindings));
+    }
+
+    // All bindings in the group agree on the anchor; the other components of the pattern may vary between them.
+    private CloseableIteration<BindingSet, QueryEvaluationException> traverse(final StatementPattern sp,
+                                                                              final Value anchor,
+                                                                              final boolean fromSubject,
+                                                                              final List<BindingSet> group) {
+        Vertex v = getVertex(anchor);
+        if (null == v) {
+            return new EmptyIteration<BindingSet, QueryEvaluationException>();
+        }
+
+        Value predicate = getValue(sp.getPredicateVar(), group.get(0));
+        boolean samePredicate = true;
+        for (BindingSet b : group) {
+            Value p = getValue(sp.getPredicateVar(), b);
+            if (null == p ? null != predicate : !p.equals(predicate)) {
+                samePredicate = false;
+                break;
+            }
+        }
+
+        Direction direction = fromSubject ? Direction.OUT : Direction.IN;
+        Iterable<Edge> edges = samePredicate && null != predicate
+                ? v.getEdges(direction, predicate.stringValue())
+                : v.getEdges(direction);
+
+        return new TraversalIteration(sp, anchor, fromSubject, edges, group);
+    }
+
+    private Vertex getVertex(final Value value) {
+        if (vertices.containsKey(value)) {
+            return vertices.get(value);
+        }
+
+        Vertex v = store.findVertex(value);
+        vertices.put(value, v);
+        return v;
+    }
+
+    private static Value getValue(final Var var,
+                                  final BindingSet bindings) {
+        if (null == var) {
+            return null;
+        } else if (var.hasValue()) {
+            return var.getValue();
+        } else {
+            return bindings.getValue(var.getName());
+        }
+    }
+
+    /**
+     * Adds a binding for the given variable to a solution, unless the variable is already bound.
+     *
+     * @return whether the value of the variable in the solution is consistent with the given value
+     */
+    private static boolean bind(final Var var,
+                                final Value value,
+                                final QueryBindingSet solution) {
+        if (null == var || var.hasValue()) {
+            return true;
+        }
+
+        Value existing = solution.getValue(var.getName());
+        if (null == existing) {
+            if (null != value) {
+                solution.addBinding(var.getName(), value);
+            }
+            return true;
+        } else {
+            return existing.equals(value);
+        }
+    }
+
+    /**
+     * Joins the edges of a single vertex with each of a group of bindings.
+     * The edges are read only once the first solution is requested, so that a batch of traversals which have not yet
+     * been started does not hold up the writes of the connection.
+     */
+    private class TraversalIteration extends LookAheadIteration<BindingSet, QueryEvaluationException> {
+        private final StatementPattern sp;
+        private final Value anchor;
+        private final boolean fromSubject;
+        private final Iterable<Edge> edges;
+        private final List<BindingSet> group;
+
+        private CloseableIteration<Statement, SailException> statements;
+        private Statement statement;
+        private Iterator<BindingSet> groupIterator;
+
+        public TraversalIteration(final StatementPattern sp,
+                                  final Value anchor,
+                                  final boolean fromSubject,
+                                  final Iterable<Edge> edges,
+                                  final List<BindingSet> group) {
+            this.sp = sp;
+            this.anchor = anchor;
+            this.fromSubject = fromSubject;
+            this.edges = edges;
+            this.group = group;
+        }
+
+        @Override
+        protected BindingSet getNextElement() throws QueryEvaluationException {
+            if (null == statements) {
+                statements = connection.createIteration(includeInferred
+                        ? edges
+                        : new FilteredIterator<Edge>(edges, new Matcher.NoInferenceCriterion()));
+            }
+
+            while (true) {
+                while (null != groupIterator && groupIterator.hasNext()) {
+                    BindingSet solution = join(groupIterator.next());
+                    if (null != solution) {
+                        return solution;
+                    }
+                }
+
+                if (!advance()) {
+                    return null;
+                }
+            }
+        }
+
+        private boolean advance() throws QueryEvaluationException {
+            try {
+                while (statements.hasNext()) {
+                    Statement s = statements.next();
+                    if (StatementPattern.Scope.NAMED_CONTEXTS == sp.getScope() && null == s.getContext()) {
+                        continue;
+                    }
+
+                    statement = s;
+                    groupIterator = group.iterator();
+                    return true;
+                }
+            } catch (SailException e) {
+                throw new QueryEvaluationException(e);
+            }
+
+            return false;
+        }
+
+        private BindingSet join(final BindingSet bindings) {
+            Value p = getValue(sp.getPredicateVar(), bindings);
+            if (null != p && !p.equals(statement.getPredicate())) {
+                return null;
+            }
+
+            Var otherVar = fromSubject ? sp.getObjectVar() : sp.getSubjectVar();
+            Value other = fromSubject ? statement.getObject() : statement.getSubject();
+            Value o = getValue(otherVar, bindings);
+            if (null != o && !o.equals(other)) {
+                return null;
+            }
+
+            Value c = getValue(sp.getContextVar(), bindings);
+            if (null != c && !c.equals(statement.getContext())) {
+                return null;
+            }
+
+            QueryBindingSet solution = new QueryBindingSet(bindings);
+            return bind(fromSubject ? sp.getSubjectVar() : sp.getObjectVar(), anchor, solution)
+                    && bind(sp.getPredicateVar(), statement.getPredicate(), solution)
+                    && bind(otherVar, other, solution)
+                    && bind(sp.getContextVar(), statement.getContext(), solution)
+                    ? solution
+                    : null;
+        }
+
+        @Override
+        protected void handleClose() throws QueryEvaluationException {
+            try {
+                if (null != statements) {
+                    statements.close();
+                }
+            } catch (SailException e) {
+                throw new QueryEvaluationException(e);
+            } finally {
+                super.handleClose();
+            }
+        }
+    }
+
+    /**
+     * Evaluates a join with a triple pattern on the right by reading bindings from the left in batches,
+     * grouping them by the subject (or object) of the pattern, and answering each group with one traversal.
+     */
+    private class BatchJoinIteration extends LookAheadIteration<BindingSet, QueryEvaluationException> {
+        private final CloseableIteration<BindingSet, QueryEvaluationException> left;
+        private final StatementPattern right;
+
+        private CloseableIteration<BindingSet, QueryEvaluationException> current;
+
+        public BatchJoinIteration(final CloseableIteration<BindingSet, QueryEvaluationException> left,
+                                  final StatementPattern right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        protected BindingSet getNextElement() throws QueryEvaluationException {
+            while (true) {
+                if (null != current) {
+                    if (current.hasNext()) {
+                        return current.next();
+                    }
+
+                    current.close();
+                    current = null;
+                }
+
+                if (!left.hasNext()) {
+                    return null;
+                }
+
+                current = nextBatch();
+            }
+        }
+
+        private CloseableIteration<BindingSet, QueryEvaluationException> nextBatch() throws QueryEvaluationException {
+            Map<Value, List<BindingSet>> subjectGroups = new LinkedHashMap<Value, List<BindingSet>>();
+            Map<Value, List<BindingSet>> objectGroups = new LinkedHashMap<Value, List<BindingSet>>();
+            Collection<CloseableIteration<BindingSet, QueryEvaluationException>> iterations
+                    = new LinkedList<CloseableIteration<BindingSet, QueryEvaluationException>>();
+
+            for (int i = 0; i < BATCH_SIZE && left.hasNext(); i++) {
+                BindingSet bindings = left.next();
+                Value anchor = getAnchor(right, bindings);
+                if (null == anchor) {
+                    iterations.add(GraphSailEvaluationStrategy.super.evaluate(right, bindings));
+                } else {
+                    Map<Value, List<BindingSet>> groups = isSubject(anchor, right, bindings) ? subjectGroups : objectGroups;
+                    List<BindingSet> group = groups.get(anchor);
+                    if (null == group) {
+                        group = new LinkedList<BindingSet>();
+                        groups.put(anchor, group);
+                    }
+                    group.add(bindings);
+                }
+            }
+
+            for (Map.Entry<Value, List<BindingSet>> e : subjectGroups.entrySet()) {
+                iterations.add(traverse(right, e.getKey(), true, e.getValue()));
+            }
+            for (Map.Entry<Value, List<BindingSet>> e : objectGroups.entrySet()) {
+                iterations.add(traverse(right, e.getKey(), false, e.getValue()));
+            }
+
+            return new CompoundCloseableIteration<BindingSet, QueryEvaluationException>(iterations);
+        }
+
+        @Override
+        protected void handleClose() throws QueryEvaluationException {
+            try {
+                if (null != current) {
+                    current.close();
+                }
+            } finally {
+                try {
+                    left.close();
+                } finally {
+                    super.handleClose();
+                }
+            }
+        }
+    }
+}
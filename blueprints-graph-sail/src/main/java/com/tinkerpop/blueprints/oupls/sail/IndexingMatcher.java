@@ -6,8 +6,7 @@ import org.openrdf.model.Resource;
 import org.openrdf.model.URI;
 import org.openrdf.model.Value;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Collections;
 
 /**
  * A matcher which uses Blueprints indexing functionality to both index and retrieve statements.  Indexing matchers
@@ -16,10 +15,6 @@ import java.util.List;
  * @author Joshua Shinavier (http://fortytwo.net)
  */
 public class IndexingMatcher extends Matcher {
-    private enum PartOfSpeech {
-        SUBJECT, PREDICATE, OBJECT, CONTEXT
-    }
-
     private final String propertyName;
     private final GraphSail.DataStore store;
 
@@ -62,38 +57,49 @@ public class IndexingMatcher extends Matcher {
                                 final Value object,
                                 final Resource context,
                                 final boolean includeInferred) {
-
-        // TODO: the temporary linked list is a little wasty
-        List<FilteredIterator.Criterion<Edge>> criteria = new LinkedList<FilteredIterator.Criterion<Edge>>();
-
         StringBuilder sb = new StringBuilder();
 
+        // Components which are given, but which are not part of the index pattern, are checked by a single criterion.
+        String contextFilter = null;
+        Resource subjectFilter = null;
+        URI predicateFilter = null;
+        Value objectFilter = null;
+
         if (c) {
             sb.append(GraphSail.SEPARATOR).append(null == context ? GraphSail.NULL_CONTEXT_NATIVE : store.resourceToNative(context));
         } else if (null != context) {
-            criteria.add(new PartOfSpeechCriterion(PartOfSpeech.CONTEXT, store.resourceToNative(context)));
+            contextFilter = store.resourceToNative(context);
         }
 
+        // A term which is not in the dictionary (if terms are encoded) can not be part of any statement.
         if (s) {
-            sb.append(GraphSail.SEPARATOR).append(store.resourceToNative(subject));
-        } else if (null != subject) {
-            criteria.add(new PartOfSpeechCriterion(PartOfSpeech.SUBJECT, store.resourceToNative(subject)));
+            String key = store.toIndexKey(store.resourceToNative(subject));
+            if (null == key) {
+                return new IteratorCloseableIterable<Edge>(Collections.<Edge>emptyList().iterator());
+            }
+            sb.append(GraphSail.SEPARATOR).append(key);
+        } else {
+            subjectFilter = subject;
         }
 
         if (p) {
-            sb.append(GraphSail.SEPARATOR).append(store.uriToNative(predicate));
-        } else if (null != predicate) {
-            criteria.add(new PartOfSpeechCriterion(PartOfSpeech.PREDICATE, store.uriToNative(predicate)));
+            String key = store.toIndexKey(store.uriToNative(predicate));
+            if (null == key) {
+                return new IteratorCloseableIterable<Edge>(Collections.<Edge>emptyList().iterator());
+            }
+            sb.append(GraphSail.SEPARATOR).append(key);
+        } else {
+            predicateFilter = predicate;
         }
 
         if (o) {
-            sb.append(GraphSail.SEPARATOR).append(store.valueToNative(object));
-        } else if (null != object) {
-            criteria.add(new PartOfSpeechCriterion(PartOfSpeech.OBJECT, store.valueToNative(object)));
-        }
-
-        if (!includeInferred) {
-            criteria.add(new NoInferenceCriterion());
+            String key = store.toIndexKey(store.valueToNative(object));
+            if (null == key) {
+                return new IteratorCloseableIterable<Edge>(Collections.<Edge>emptyList().iterator());
+            }
+            sb.append(GraphSail.SEPARATOR).append(key);
+        } else {
+            objectFilter = object;
         }
 
         //System.out.println("spoc: " + s + " " + p + " " + o + " " + c);
@@ -103,9 +109,9 @@ public class IndexingMatcher extends Matcher {
         //System.out.println("\tstore.edges = " + store.edges);
         Iterable<Edge> results = store.graph.getEdges(propertyName, sb.toString().substring(1));
 
-        if (criteria.size() > 0) {
-            FilteredIterator.Criterion<Edge> c = new FilteredIterator.CompoundCriterion<Edge>(criteria);
-            results = new FilteredIterator<Edge>(results, c);
+        if (!includeInferred || null != contextFilter || null != subjectFilter || null != predicateFilter || null != objectFilter) {
+            results = new FilteredIterator<Edge>(results,
+                    new PatternCriterion(subjectFilter, predicateFilter, objectFilter, contextFilter, includeInferred));
         }
 
         return results;
@@ -115,6 +121,8 @@ public class IndexingMatcher extends Matcher {
      * Index a statement using this Matcher's triple pattern.  The subject, predicate, object and context values
      * are provided for efficiency only, and should agree with the corresponding values associated with the graph
      * structure of the edge.
+     * If terms are encoded, the terms of the statement must already be in the dictionary, as they are once the
+     * statement has been added through a connection.
      *
      * @param statement the edge to index as an RDF statement
      * @param subject   the subject of the statement
@@ -123,6 +131,34 @@ public class IndexingMatcher extends Matcher {
      * @param context   the context of the statement
      */
     public void indexStatement(final Edge statement, final Resource subject, final URI predicate, final Value object, final String context) {
+        indexStatement(statement,
+                s ? toExistingIndexKey(store.resourceToNative(subject)) : null,
+                p ? toExistingIndexKey(store.uriToNative(predicate)) : null,
+                o ? toExistingIndexKey(store.valueToNative(object)) : null,
+                context);
+    }
+
+    private String toExistingIndexKey(final String term) {
+        String key = store.toIndexKey(term);
+        if (null == key) {
+            throw new IllegalArgumentException("term is not in the dictionary: " + term);
+        }
+        return key;
+    }
+
+    /**
+     * Index a statement using this Matcher's triple pattern, given the index keys of its components
+     * (see <code>GraphSail.DataStore.toIndexKey</code>).
+     * Components which are not part of the pattern may be null.
+     * This allows the index keys to be computed only once for all indexing matchers.
+     *
+     * @param statement the edge to index as an RDF statement
+     * @param subject   the index key of the subject of the statement
+     * @param predicate the index key of the predicate of the statement
+     * @param object    the index key of the object of the statement
+     * @param context   the native representation of the context of the statement
+     */
+    public void indexStatement(final Edge statement, final String subject, final String predicate, final String object, final String context) {
         StringBuilder sb = new StringBuilder();
 
         if (c) {
@@ -130,48 +166,48 @@ public class IndexingMatcher extends Matcher {
         }
 
         if (s) {
-            sb.append(GraphSail.SEPARATOR).append(store.resourceToNative(subject));
+            sb.append(GraphSail.SEPARATOR).append(subject);
         }
 
         if (p) {
-            sb.append(GraphSail.SEPARATOR).append(store.uriToNative(predicate));
+            sb.append(GraphSail.SEPARATOR).append(predicate);
         }
 
         if (o) {
-            sb.append(GraphSail.SEPARATOR).append(store.valueToNative(object));
+            sb.append(GraphSail.SEPARATOR).append(object);
         }
 
         //edges.put(propertyName, sb.toString(), edge);
-        statement.setProperty(propertyName, sb.toString().substring(1));
+        statement.setProperty(propertyName, sb.substring(1));
     }
 
     // TODO: unindexStatement
 
-    private class PartOfSpeechCriterion implements FilteredIterator.Criterion<Edge> {
-        private final PartOfSpeech partOfSpeech;
-        private final String value;
+    private class PatternCriterion implements FilteredIterator.Criterion<Edge> {
+        private final Resource subject;
+        private final URI predicate;
+        private final Value object;
+        private final String context;
+        private final boolean includeInferred;
 
-        public PartOfSpeechCriterion(final PartOfSpeech partOfSpeech, final String value) {
-            this.partOfSpeech = partOfSpeech;
-            this.value = value;
+        public PatternCriterion(final Resource subject,
+                                final URI predicate,
+                                final Value object,
+                                final String context,
+                                final boolean includeInferred) {
+            this.subject = subject;
+            this.predicate = predicate;
+            this.object = object;
+            this.context = context;
+            this.includeInferred = includeInferred;
         }
 
         public boolean fulfilledBy(final Edge edge) {
-            //GraphSail.debugEdge(edge);
-            //System.out.println("pos: " + partOfSpeech + ", value: " + value);
-
-            switch (partOfSpeech) {
-                case CONTEXT:
-                    return value.equals(edge.getProperty(GraphSail.CONTEXT_PROP));
-                case OBJECT:
-                    return value.equals(store.getValueOf(edge.getVertex(Direction.IN)));
-                case PREDICATE:
-                    return value.equals(edge.getProperty(GraphSail.PREDICATE_PROP));
-                case SUBJECT:
-                    return value.equals(store.getValueOf(edge.getVertex(Direction.OUT)));
-                default:
-                    throw new IllegalStateException();
-            }
+            return (includeInferred || null == edge.getProperty(GraphSail.INFERRED))
+                    && (null == context || context.equals(edge.getProperty(GraphSail.CONTEXT_PROP)))
+                    && (null == predicate || predicate.stringValue().equals(edge.getLabel()))
+                    && (null == subject || store.matches(edge.getVertex(Direction.OUT), subject))
+                    && (null == object || store.matches(edge.getVertex(Direction.IN), object));
         }
     }
 }
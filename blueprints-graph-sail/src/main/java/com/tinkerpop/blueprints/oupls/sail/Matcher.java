@@ -5,6 +5,11 @@ import org.openrdf.model.Resource;
 import org.openrdf.model.URI;
 import org.openrdf.model.Value;
 
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
 /**
  * An object which retrieves statements from the triple store based on a given triple pattern.
  * For example, an "soc" matcher expects the subject, object, and context components to be specified; it will then retrieve
@@ -48,6 +53,52 @@ public abstract class Matcher {
                                          final Resource context,
                                          final boolean includeInferred);
 
+    /**
+     * Retrieve statements which match this matcher's triple pattern in any of the given contexts.
+     * The statements of each context are retrieved lazily, once those of the previous context have been consumed.
+     *
+     * @param subject   the subject value of matching statements
+     * @param predicate the predicate value of matching statements
+     * @param object    the object of matching statements
+     * @param contexts  the distinct contexts of matching statements
+     * @return an iterator over all matching statements
+     */
+    public Iterable<Edge> matchInContexts(final Resource subject,
+                                          final URI predicate,
+                                          final Value object,
+                                          final Collection<Resource> contexts,
+                                          final boolean includeInferred) {
+        return new Iterable<Edge>() {
+            public Iterator<Edge> iterator() {
+                final Iterator<Resource> contextIterator = contexts.iterator();
+
+                return new Iterator<Edge>() {
+                    private Iterator<Edge> current;
+
+                    public boolean hasNext() {
+                        while ((null == current || !current.hasNext()) && contextIterator.hasNext()) {
+                            current = match(subject, predicate, object, contextIterator.next(), includeInferred).iterator();
+                        }
+
+                        return null != current && current.hasNext();
+                    }
+
+                    public Edge next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+
+                        return current.next();
+                    }
+
+                    public void remove() {
+                        current.remove();
+                    }
+                };
+            }
+        };
+    }
+
     public String toString() {
         StringBuilder sb = new StringBuilder("matcher[");
         if (s) {
@@ -78,4 +129,22 @@ public abstract class Matcher {
             return null == edge.getProperty(GraphSail.INFERRED);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * A criterion which accepts only statements in one of a set of contexts.
+     */
+    static class ContextCriterion implements FilteredIterator.Criterion<Edge> {
+        private final Set<String> contexts;
+
+        /**
+         * @param contexts the native representations of the contexts, as stored in the "c" property of statement edges
+         */
+        public ContextCriterion(final Set<String> contexts) {
+            this.contexts = contexts;
+        }
+
+        public boolean fulfilledBy(final Edge edge) {
+            return contexts.contains(edge.getProperty(GraphSail.CONTEXT_PROP));
+        }
+    }
+}
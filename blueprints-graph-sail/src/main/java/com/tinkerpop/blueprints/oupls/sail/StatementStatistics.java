@@ -0,0 +1,160 @@
+package com.tinkerpop.blueprints.oupls.sail;
+
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts of the explicit (non-inferred) statements in a GraphSail, in total, per context and per predicate.
+ * The counts are maintained incrementally as statements are added and removed, so that the size of the store
+ * can be determined without iterating over its statements, and so that query evaluation can estimate
+ * the cardinality of triple patterns.
+ * A GraphSail persists its statistics at a reference vertex, alongside the namespaces vertex, with a property for the
+ * total and one for each context and predicate, so that a commit only writes the counts which it changes.
+ */
+class StatementStatistics {
+    private static final String
+            STATEMENTS = "statements",
+            CONTEXT_PREFIX = GraphSail.CONTEXT_PROP + GraphSail.SEPARATOR,
+            PREDICATE_PREFIX = GraphSail.PREDICATE_PROP + GraphSail.SEPARATOR;
+
+    private long size = 0;
+    private final Map<String, Long> contextSizes = new HashMap<String, Long>();
+    private final Map<String, Long> predicateSizes = new HashMap<String, Long>();
+
+    /**
+     * @return the total number of statements
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * @param context the native representation of a context, as stored in the "c" property of statement edges
+     * @return the number of statements in the given context
+     */
+    public synchronized long size(final String context) {
+        return get(contextSizes, context);
+    }
+
+    /**
+     * @param predicate the string value of a predicate, as stored in the label of statement edges
+     * @return the number of statements with the given predicate
+     */
+    public synchronized long count(final String predicate) {
+        return get(predicateSizes, predicate);
+    }
+
+    public synchronized boolean isEmpty() {
+        return 0 == size && contextSizes.isEmpty() && predicateSizes.isEmpty();
+    }
+
+    public synchronized void statementAdded(final String predicate, final String context) {
+        adjust(predicate, context, 1);
+    }
+
+    public synchronized void statementRemoved(final Edge edge) {
+        if (null == edge.getProperty(GraphSail.INFERRED)) {
+            adjust(edge.getLabel(), (String) edge.getProperty(GraphSail.CONTEXT_PROP), -1);
+        }
+    }
+
+    /**
+     * Adds the counts of another set of statistics (typically the uncommitted changes of a connection) to these.
+     */
+    public void addAll(final StatementStatistics other) {
+        synchronized (other) {
+            synchronized (this) {
+                size += other.size;
+                for (Map.Entry<String, Long> e : other.contextSizes.entrySet()) {
+                    put(contextSizes, e.getKey(), e.getValue());
+                }
+                for (Map.Entry<String, Long> e : other.predicateSizes.entrySet()) {
+                    put(predicateSizes, e.getKey(), e.getValue());
+                }
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        size = 0;
+        contextSizes.clear();
+        predicateSizes.clear();
+    }
+
+    public synchronized void load(final Vertex v) {
+        clear();
+        Number s = (Number) v.getProperty(STATEMENTS);
+        size = null == s ? 0 : s.longValue();
+        for (String key : v.getPropertyKeys()) {
+            if (key.startsWith(CONTEXT_PREFIX)) {
+                contextSizes.put(key.substring(CONTEXT_PREFIX.length()), ((Number) v.getProperty(key)).longValue());
+            } else if (key.startsWith(PREDICATE_PREFIX)) {
+                predicateSizes.put(key.substring(PREDICATE_PREFIX.length()), ((Number) v.getProperty(key)).longValue());
+            }
+        }
+    }
+
+    /**
+     * Writes all of the counts to a vertex which has no counts yet.
+     */
+    public synchronized void save(final Vertex v) {
+        v.setProperty(STATEMENTS, size);
+        for (Map.Entry<String, Long> e : contextSizes.entrySet()) {
+            v.setProperty(CONTEXT_PREFIX + e.getKey(), e.getValue());
+        }
+        for (Map.Entry<String, Long> e : predicateSizes.entrySet()) {
+            v.setProperty(PREDICATE_PREFIX + e.getKey(), e.getValue());
+        }
+    }
+
+    /**
+     * Writes to a vertex only those counts which another set of statistics changes,
+     * with the values they will have once the changes have been added to these statistics.
+     */
+    public void save(final Vertex v, final StatementStatistics changes) {
+        synchronized (changes) {
+            synchronized (this) {
+                if (0 != changes.size) {
+                    v.setProperty(STATEMENTS, size + changes.size);
+                }
+                for (Map.Entry<String, Long> e : changes.contextSizes.entrySet()) {
+                    save(v, CONTEXT_PREFIX + e.getKey(), get(contextSizes, e.getKey()) + e.getValue());
+                }
+                for (Map.Entry<String, Long> e : changes.predicateSizes.entrySet()) {
+                    save(v, PREDICATE_PREFIX + e.getKey(), get(predicateSizes, e.getKey()) + e.getValue());
+                }
+            }
+        }
+    }
+
+    private void adjust(final String predicate, final String context, final long delta) {
+        size += delta;
+        put(contextSizes, null == context ? GraphSail.NULL_CONTEXT_NATIVE : context, delta);
+        put(predicateSizes, predicate, delta);
+    }
+
+    private static long get(final Map<String, Long> sizes, final String key) {
+        Long l = sizes.get(key);
+        return null == l ? 0 : l;
+    }
+
+    private static void put(final Map<String, Long> sizes, final String key, final long delta) {
+        long l = get(sizes, key) + delta;
+        if (0 == l) {
+            sizes.remove(key);
+        } else {
+            sizes.put(key, l);
+        }
+    }
+
+    private static void save(final Vertex v, final String key, final long count) {
+        if (0 == count) {
+            v.removeProperty(key);
+        } else {
+            v.setProperty(key, count);
+        }
+    }
+}
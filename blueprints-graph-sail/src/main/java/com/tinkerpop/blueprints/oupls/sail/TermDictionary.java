@@ -0,0 +1,181 @@
+package com.tinkerpop.blueprints.oupls.sail;
+
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.Vertex;
+import org.openrdf.model.Value;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A dictionary which assigns compact, numeric ids to RDF terms, so that the triple pattern indices of a GraphSail
+ * can be keyed on the ids of subjects, predicates and objects rather than on their (possibly long) native forms.
+ * Each term is stored at a vertex of its own, which is never removed, so that ids are stable for the life of the store.
+ * Ids are reserved in blocks, and the end of the current block is recorded at a reference vertex.
+ * <p/>
+ * The ids of committed terms are cached for all connections.  A term added by a connection is kept in a map of that
+ * connection until its transaction is committed, and is only then added to the cache.
+ * The dictionary also caches the Sesame values decoded from the vertices of the store.
+ */
+class TermDictionary {
+    public static final String
+            TERM = "term",
+            TERM_ID = "termId",
+            NEXT_ID = "nextId";
+
+    private static final int BLOCK_SIZE = 1000;
+
+    private static final int CACHE_SIZE = 100000;
+
+    private final Graph graph;
+    private final Vertex reference;
+
+    private long nextId;
+    private long reservedUntil = 0;
+
+    // The end of the last block whose reservation has been committed, and of the block recorded by a pending commit
+    private long committedUntil = 0;
+    private long preparedUntil = 0;
+
+    private final Map<String, String> ids = new LinkedHashMap<String, String>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final Map<Object, Value> values = new LinkedHashMap<Object, Value>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Object, Value> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    // Terms which have been added in transactions which are not yet committed, and whose ids must not be cached
+    private final Set<String> uncommitted = new HashSet<String>();
+
+    /**
+     * @param graph     the graph in which terms are stored.  Its vertices must be indexed on the "term" key.
+     * @param reference the reference vertex of the dictionary
+     */
+    public TermDictionary(final Graph graph,
+                          final Vertex reference) {
+        this.graph = graph;
+        this.reference = reference;
+
+        Number n = (Number) reference.getProperty(NEXT_ID);
+        nextId = null == n ? 0 : n.longValue();
+    }
+
+    /**
+     * @param term    the native representation of a term
+     * @param created the terms added in the current transaction of a connection, to which the term is added if it is
+     *                not already present, or null if the term is only looked up
+     * @return the id of the term, in the form used in index keys, or null if the term is not present and is not created
+     */
+    public synchronized String encode(final String term,
+                                      final Map<String, String> created) {
+        String id = null == created ? null : created.get(term);
+        if (null != id) {
+            return id;
+        }
+
+        id = ids.get(term);
+        if (null != id) {
+            return id;
+        }
+
+        Iterator<Vertex> iter = graph.getVertices(TERM, term).iterator();
+        if (iter.hasNext()) {
+            id = toKey(((Number) iter.next().getProperty(TERM_ID)).longValue());
+            if (!uncommitted.contains(term)) {
+                ids.put(term, id);
+            }
+        } else if (null != created) {
+            long l = nextId();
+            Vertex v = graph.addVertex(null);
+            v.setProperty(TERM, term);
+            v.setProperty(TERM_ID, l);
+            id = toKey(l);
+
+            uncommitted.add(term);
+            created.put(term, id);
+        } else {
+            return null;
+        }
+
+        return id;
+    }
+
+    public synchronized Value getValue(final Object vertexId) {
+        return values.get(vertexId);
+    }
+
+    public synchronized void putValue(final Object vertexId,
+                                      final Value value) {
+        values.put(vertexId, value);
+    }
+
+    /**
+     * Forgets the decoded value of a vertex, which is necessary when the vertex is removed, as vertex ids may be reused.
+     */
+    public synchronized void removeValue(final Object vertexId) {
+        values.remove(vertexId);
+    }
+
+    /**
+     * Records the ids given out so far at the reference vertex, in the transaction of a connection which is about
+     * to commit terms, as the transaction which reserved them may yet be rolled back.
+     *
+     * @param created the terms added in the transaction
+     */
+    public synchronized void prepareCommit(final Map<String, String> created) {
+        if (!created.isEmpty()) {
+            preparedUntil = Math.max(nextId, reservedUntil);
+            reference.setProperty(NEXT_ID, preparedUntil);
+        }
+    }
+
+    /**
+     * Adds the terms of a transaction which has been committed to the cache of ids.
+     *
+     * @param created the terms added in the transaction, which are cleared
+     */
+    public synchronized void commit(final Map<String, String> created) {
+        if (!created.isEmpty()) {
+            committedUntil = Math.max(committedUntil, preparedUntil);
+        }
+        ids.putAll(created);
+        uncommitted.removeAll(created.keySet());
+        created.clear();
+    }
+
+    /**
+     * Forgets the terms of a transaction which has been rolled back.
+     *
+     * @param created the terms added in the transaction, which are cleared
+     */
+    public synchronized void rollback(final Map<String, String> created) {
+        uncommitted.removeAll(created.keySet());
+        created.clear();
+
+        // A reservation made since the last commit may also have been rolled back, but a committed one stands.
+        reservedUntil = Math.min(reservedUntil, committedUntil);
+    }
+
+    private long nextId() {
+        if (nextId >= reservedUntil) {
+            reservedUntil = nextId + BLOCK_SIZE;
+            reference.setProperty(NEXT_ID, reservedUntil);
+        }
+
+        return nextId++;
+    }
+
+    private static String toKey(final long id) {
+        return Long.toString(id, Character.MAX_RADIX);
+    }
+}
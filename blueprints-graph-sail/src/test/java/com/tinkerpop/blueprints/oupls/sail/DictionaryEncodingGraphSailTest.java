@@ -0,0 +1,101 @@
+package com.tinkerpop.blueprints.oupls.sail;
+
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.KeyIndexableGraph;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+import org.junit.Test;
+import org.openrdf.model.URI;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.sail.Sail;
+import org.openrdf.sail.SailConnection;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
+
+/**
+ * Runs the GraphSail tests against a store whose triple pattern indices are keyed on dictionary-encoded terms.
+ */
+public class DictionaryEncodingGraphSailTest extends GraphSailTest {
+    @Override
+    protected KeyIndexableGraph createGraph() {
+        return new TinkerGraph();
+    }
+
+    @Override
+    protected Sail createSail() throws Exception {
+        uniqueStatements = true;
+
+        graph = createGraph();
+        GraphSail<KeyIndexableGraph> g = new GraphSail<KeyIndexableGraph>(graph, "s,p,o,c,sp,po,pc", true);
+        g.enforceUniqueStatements(uniqueStatements);
+
+        return g;
+    }
+
+    @Test
+    public void testIndexKeysAreEncoded() throws Exception {
+        ValueFactory vf = sail.getValueFactory();
+        URI subject = vf.createURI("http://example.org/a-rather-long-subject-uri");
+        URI predicate = vf.createURI("http://example.org/a-rather-long-predicate-uri");
+
+        SailConnection sc = sail.getConnection();
+        try {
+            sc.begin();
+            sc.clear();
+            sc.addStatement(subject, predicate, vf.createLiteral("object"));
+            sc.commit();
+
+            Edge edge = graph.getEdges().iterator().next();
+            String key = (String) edge.getProperty("sp");
+            assertFalse(key.contains(subject.stringValue()));
+            assertTrue(key.length() < 10);
+
+            sc.begin();
+            assertEquals(1, countStatements(sc, subject, predicate, null, false));
+            assertEquals(1, countStatements(sc, null, predicate, vf.createLiteral("object"), false));
+            assertEquals(0, countStatements(sc, null, predicate, vf.createLiteral("unknown"), false));
+            sc.commit();
+        } finally {
+            sc.rollback();
+            sc.close();
+        }
+
+        // The store remains encoded when it is reopened.
+        Sail reopened = new GraphSail<KeyIndexableGraph>(graph, "s,p,o,c,sp,po,pc");
+        reopened.initialize();
+        sc = reopened.getConnection();
+        try {
+            sc.begin();
+            assertEquals(1, countStatements(sc, subject, predicate, null, false));
+        } finally {
+            sc.rollback();
+            sc.close();
+        }
+    }
+
+    @Test
+    public void testEncodingRequiresEmptyStore() throws Exception {
+        KeyIndexableGraph g = new TinkerGraph();
+        Sail plain = new GraphSail<KeyIndexableGraph>(g);
+        plain.initialize();
+        SailConnection sc = plain.getConnection();
+        try {
+            sc.begin();
+            ValueFactory vf = plain.getValueFactory();
+            sc.addStatement(vf.createURI("http://example.org/s"), vf.createURI("http://example.org/p"), vf.createURI("http://example.org/o"));
+            sc.commit();
+        } finally {
+            sc.rollback();
+            sc.close();
+        }
+
+        try {
+            new GraphSail<KeyIndexableGraph>(g, "p,c,pc", true);
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+}
@@ -177,6 +177,185 @@ public abstract class GraphSailTest extends SailTest {
         assertTriplePattern("sspo", false);
     }
 
+    @Test
+    public void testStatementStatistics() throws Exception {
+        ValueFactory vf = sail.getValueFactory();
+        URI a = vf.createURI("http://example.org/a");
+        URI b = vf.createURI("http://example.org/b");
+        URI c = vf.createURI("http://example.org/c");
+        URI knows = vf.createURI("http://example.org/knows");
+        URI name = vf.createURI("http://example.org/name");
+
+        SailConnection sc = sail.getConnection();
+        try {
+            sc.begin();
+            sc.clear();
+            sc.addStatement(a, knows, b, c);
+            sc.addStatement(b, knows, c, c);
+            sc.addStatement(a, name, vf.createLiteral("a"));
+            assertEquals(3L, sc.size());
+            sc.commit();
+
+            sc.begin();
+            sc.removeStatements(b, null, null);
+            assertEquals(2L, sc.size());
+            assertEquals(1L, sc.size(c));
+            assertEquals(1L, sc.size((URI) null));
+            sc.commit();
+        } finally {
+            sc.rollback();
+            sc.close();
+        }
+
+        // The counts are kept in the graph, and are read by any GraphSail which is subsequently created on it.
+        Vertex statistics = graph.getVertices(GraphSail.VALUE, "urn:com.tinkerpop.blueprints.pgm.oupls.sail:statistics").iterator().next();
+        assertEquals(2L, ((Number) statistics.getProperty("statements")).longValue());
+        assertEquals(1L, ((Number) statistics.getProperty("c U http://example.org/c")).longValue());
+        assertEquals(1L, ((Number) statistics.getProperty("p http://example.org/knows")).longValue());
+
+        Sail reopened = new GraphSail<KeyIndexableGraph>(graph);
+        reopened.initialize();
+        sc = reopened.getConnection();
+        try {
+            sc.begin();
+            assertEquals(2L, sc.size());
+            assertEquals(1L, sc.size(c));
+
+            // A join which is evaluated in order of selectivity gives the same answers
+            SPARQLParser parser = new SPARQLParser();
+            ParsedQuery query = parser.parseQuery("SELECT ?x ?n WHERE { ?x <http://example.org/name> ?n . ?x ?p ?y }", "http://example.org/");
+            CloseableIteration<? extends BindingSet, QueryEvaluationException> results
+                    = sc.evaluate(query.getTupleExpr(), query.getDataset(), new EmptyBindingSet(), false);
+            int count = 0;
+            try {
+                while (results.hasNext()) {
+                    assertEquals(a, results.next().getValue("x"));
+                    count++;
+                }
+            } finally {
+                results.close();
+            }
+            assertEquals(2, count);
+        } finally {
+            sc.rollback();
+            sc.close();
+        }
+    }
+
+    @Test
+    public void testTraversalJoins() throws Exception {
+        ValueFactory vf = sail.getValueFactory();
+        URI knows = vf.createURI("http://example.org/knows");
+        URI name = vf.createURI("http://example.org/name");
+        URI ctx = vf.createURI("http://example.org/ctx");
+        int length = 2 * GraphSailEvaluationStrategy.BATCH_SIZE + 50;
+
+        SailConnection sc = sail.getConnection();
+        try {
+            sc.begin();
+            sc.clear();
+            for (int i = 0; i < length; i++) {
+                URI person = vf.createURI("http://example.org/person" + i);
+                sc.addStatement(person, knows, vf.createURI("http://example.org/person" + (i + 1)), ctx);
+                sc.addStatement(person, name, vf.createLiteral("person" + i));
+            }
+            sc.commit();
+
+            sc.begin();
+            // a path: every bound ?b of the left-hand side is the subject of the next pattern
+            assertEquals(length - 1, countSolutions(sc, "SELECT * WHERE { ?a <http://example.org/knows> ?b . ?b <http://example.org/knows> ?c }"));
+            // a star, with an object-bound pattern on the left
+            assertEquals(1, countSolutions(sc, "SELECT * WHERE { ?a <http://example.org/name> \"person7\" . ?a <http://example.org/knows> ?b . ?b <http://example.org/name> ?n }"));
+            // a repeated variable and a named graph
+            assertEquals(0, countSolutions(sc, "SELECT * WHERE { ?a <http://example.org/knows> ?b . ?b <http://example.org/knows> ?b }"));
+            assertEquals(length, countSolutions(sc, "SELECT * WHERE { ?a <http://example.org/name> ?n . GRAPH ?g { ?a <http://example.org/knows> ?b } }"));
+            assertEquals(0, countSolutions(sc, "SELECT * WHERE { ?a <http://example.org/knows> ?b . GRAPH ?g { ?a <http://example.org/name> ?n } }"));
+            sc.commit();
+        } finally {
+            sc.rollback();
+            sc.close();
+        }
+    }
+
+    @Test
+    public void testMultipleContexts() throws Exception {
+        ValueFactory vf = sail.getValueFactory();
+        URI knows = vf.createURI("http://example.org/knows");
+        URI[] contexts = new URI[50];
+
+        SailConnection sc = sail.getConnection();
+        try {
+            sc.begin();
+            sc.clear();
+            for (int i = 0; i < contexts.length; i++) {
+                contexts[i] = vf.createURI("http://example.org/graph" + i);
+                URI person = vf.createURI("http://example.org/person" + i);
+                sc.addStatement(person, knows, vf.createURI("http://example.org/person" + (i + 1)), contexts[i]);
+                sc.addStatement(person, RDFS.LABEL, vf.createLiteral("person" + i), contexts[i]);
+            }
+            sc.addStatement(vf.createURI("http://example.org/person0"), knows, vf.createURI("http://example.org/person2"));
+            sc.commit();
+
+            sc.begin();
+            assertEquals(6, countStatements(sc, null, null, null, false, contexts[0], contexts[1], contexts[2]));
+            assertEquals(3, countStatements(sc, null, knows, null, false, contexts[0], contexts[1], contexts[2]));
+            assertEquals(2, countStatements(sc, null, knows, null, false, contexts[0], contexts[0], null));
+            assertEquals(1, countStatements(sc, vf.createURI("http://example.org/person1"), null, null, false, contexts[0], contexts[1]));
+
+            sc.removeStatements(null, knows, null, contexts[3], contexts[4], null);
+            assertEquals(98, countStatements(sc, null, null, null, false));
+            sc.clear(contexts[5], contexts[6]);
+            assertEquals(94, countStatements(sc, null, null, null, false));
+            assertEquals(0, countStatements(sc, null, null, null, false, contexts[5], contexts[6]));
+            assertEquals(94L, sc.size());
+            sc.commit();
+        } finally {
+            sc.rollback();
+            sc.close();
+        }
+    }
+
+    @Test
+    public void testBulkLoading() throws Exception {
+        ((GraphSail) sail).useBulkLoading(100, 50);
+
+        ValueFactory vf = sail.getValueFactory();
+        URI knows = vf.createURI("http://example.org/knows");
+        URI ctx = vf.createURI("http://example.org/ctx");
+        int verticesBefore;
+
+        SailConnection sc = sail.getConnection();
+        try {
+            sc.begin();
+            sc.clear();
+            verticesBefore = countVertices();
+            for (int i = 0; i < 1000; i++) {
+                // Each subject recurs in several statements, some of them after it has left the cache.
+                URI person = vf.createURI("http://example.org/person" + (i % 200));
+                sc.addStatement(person, knows, vf.createURI("http://example.org/thing" + i), ctx);
+                sc.addStatement(person, RDFS.LABEL, vf.createLiteral("label" + i));
+            }
+            sc.commit();
+
+            sc.begin();
+            assertEquals(verticesBefore + 2200, countVertices());
+            assertEquals(2000L, sc.size());
+            assertEquals(5, countStatements(sc, vf.createURI("http://example.org/person3"), knows, null, false));
+
+            // Orphaned vertices are removed from the cache along with the graph.
+            sc.removeStatements(null, RDFS.LABEL, null);
+            sc.addStatement(vf.createURI("http://example.org/person3"), RDFS.LABEL, vf.createLiteral("label3"));
+            assertEquals(verticesBefore + 1201, countVertices());
+            assertEquals(1, countStatements(sc, null, RDFS.LABEL, vf.createLiteral("label3"), false));
+            sc.commit();
+        } finally {
+            sc.rollback();
+            sc.close();
+        }
+
+        ((GraphSail) sail).useBulkLoading(false);
+    }
+
     @Test
     public void testCodePlay() throws Exception {
         Sail sail = new GraphSail(new TinkerGraph());
@@ -256,11 +435,30 @@ public abstract class GraphSailTest extends SailTest {
         assertTrue(isValid ? m : !m);
     }
 
+    private int countSolutions(final SailConnection sc, final String queryString) throws Exception {
+        ParsedQuery query = new SPARQLParser().parseQuery(queryString, "http://example.org/");
+        CloseableIteration<? extends BindingSet, QueryEvaluationException> results
+                = sc.evaluate(query.getTupleExpr(), query.getDataset(), new EmptyBindingSet(), false);
+        int count = 0;
+        try {
+            while (results.hasNext()) {
+                results.next();
+                count++;
+            }
+        } finally {
+            results.close();
+        }
+        return count;
+    }
+
     private int countVertices() {
         int count = 0;
 
         for (Vertex v : graph.getVertices()) {
-            count++;
+            // Vertices of the term dictionary are not RDF values.
+            if (null == v.getProperty(TermDictionary.TERM)) {
+                count++;
+            }
         }
 
         return count;
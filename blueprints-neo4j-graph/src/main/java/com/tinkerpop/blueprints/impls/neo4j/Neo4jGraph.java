@@ -103,6 +103,8 @@ public class Neo4jGraph implements TransactionalGraph, IndexableGraph, KeyIndexa
         FEATURES.supportsVertexProperties = true;
         FEATURES.supportsEdgeProperties = true;
         FEATURES.supportsThreadedTransactions = false;
+        FEATURES.supportsBulkRetrieval = false;
+        FEATURES.supportsBulkProperties = false;
     }
 
     protected boolean checkElementsInTransaction() {
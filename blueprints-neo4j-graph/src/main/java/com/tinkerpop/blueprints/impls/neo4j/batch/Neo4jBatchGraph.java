@@ -92,6 +92,8 @@ public class Neo4jBatchGraph implements KeyIndexableGraph, IndexableGraph, MetaG
         FEATURES.supportsVertexProperties = true;
         FEATURES.supportsEdgeProperties = true;
         FEATURES.supportsThreadedTransactions = false;
+        FEATURES.supportsBulkRetrieval = false;
+        FEATURES.supportsBulkProperties = false;
     }
 
 
@@ -1,8 +1,8 @@
 package com.tinkerpop.blueprints.impls.neo4j2;
 
 
+import com.tinkerpop.blueprints.BulkPropertyElement;
 import com.tinkerpop.blueprints.Edge;
-import com.tinkerpop.blueprints.Element;
 import com.tinkerpop.blueprints.Vertex;
 import com.tinkerpop.blueprints.util.ElementHelper;
 import org.neo4j.graphdb.Node;
@@ -14,12 +14,13 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-abstract class Neo4j2Element implements Element {
+abstract class Neo4j2Element implements BulkPropertyElement {
 
     protected final Neo4j2Graph graph;
     protected PropertyContainer rawElement;
@@ -43,6 +44,14 @@ abstract class Neo4j2Element implements Element {
         this.rawElement.setProperty(key, tryConvertCollectionToArray(value));
     }
 
+    public void setBulkProperties(final Map<String, Object> properties) {
+        ElementHelper.validateProperties(this, properties);
+        this.graph.autoStartTransaction(true);
+        for (final Map.Entry<String, Object> property : properties.entrySet()) {
+            this.rawElement.setProperty(property.getKey(), tryConvertCollectionToArray(property.getValue()));
+        }
+    }
+
     public <T> T removeProperty(final String key) {
         if (!this.rawElement.hasProperty(key))
             return null;
@@ -1,5 +1,6 @@
 package com.tinkerpop.blueprints.impls.neo4j2;
 
+import com.tinkerpop.blueprints.BulkRetrievalGraph;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Element;
 import com.tinkerpop.blueprints.Features;
@@ -11,7 +12,6 @@ import com.tinkerpop.blueprints.MetaGraph;
 import com.tinkerpop.blueprints.Parameter;
 import com.tinkerpop.blueprints.TransactionalGraph;
 import com.tinkerpop.blueprints.Vertex;
-import com.tinkerpop.blueprints.util.DefaultGraphQuery;
 import com.tinkerpop.blueprints.util.ExceptionFactory;
 import com.tinkerpop.blueprints.util.KeyIndexableGraphHelper;
 import com.tinkerpop.blueprints.util.PropertyFilteredIterable;
@@ -48,7 +48,7 @@ import java.util.logging.Logger;
  *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-public class Neo4j2Graph implements TransactionalGraph, IndexableGraph, KeyIndexableGraph, MetaGraph<GraphDatabaseService> {
+public class Neo4j2Graph implements TransactionalGraph, IndexableGraph, KeyIndexableGraph, BulkRetrievalGraph, MetaGraph<GraphDatabaseService> {
     private static final Logger logger = Logger.getLogger(Neo4j2Graph.class.getName());
 
     private GraphDatabaseService rawGraph;
@@ -100,6 +100,8 @@ public class Neo4j2Graph implements TransactionalGraph, IndexableGraph, KeyIndex
         FEATURES.supportsVertexProperties = true;
         FEATURES.supportsEdgeProperties = true;
         FEATURES.supportsThreadedTransactions = false;
+        FEATURES.supportsBulkRetrieval = true;
+        FEATURES.supportsBulkProperties = true;
     }
 
     private final TransactionManager transactionManager;
@@ -510,6 +512,60 @@ public class Neo4j2Graph implements TransactionalGraph, IndexableGraph, KeyIndex
         }
     }
 
+    /**
+     * Retrieves the vertices with the given ids within a single transaction check.
+     * Ids that are not numeric or that do not reference a node are skipped.
+     */
+    public Iterable<Vertex> getVertices(final Iterable<?> ids) {
+        this.autoStartTransaction(false);
+        final Set<Long> seen = new HashSet<Long>();
+        final List<Vertex> vertices = new ArrayList<Vertex>();
+        for (final Object id : ids) {
+            final Long longId = toLongId(id);
+            if (null == longId || !seen.add(longId))
+                continue;
+            try {
+                vertices.add(new Neo4j2Vertex(this.rawGraph.getNodeById(longId), this));
+            } catch (NotFoundException e) {
+            }
+        }
+        return vertices;
+    }
+
+    /**
+     * Retrieves the edges with the given ids within a single transaction check.
+     * Ids that are not numeric or that do not reference a relationship are skipped.
+     */
+    public Iterable<Edge> getEdges(final Iterable<?> ids) {
+        this.autoStartTransaction(false);
+        final Set<Long> seen = new HashSet<Long>();
+        final List<Edge> edges = new ArrayList<Edge>();
+        for (final Object id : ids) {
+            final Long longId = toLongId(id);
+            if (null == longId || !seen.add(longId))
+                continue;
+            try {
+                edges.add(new Neo4j2Edge(this.rawGraph.getRelationshipById(longId), this));
+            } catch (NotFoundException e) {
+            }
+        }
+        return edges;
+    }
+
+    private static Long toLongId(final Object id) {
+        if (null == id)
+            throw ExceptionFactory.vertexIdCanNotBeNull();
+        if (id instanceof Long)
+            return (Long) id;
+        else if (id instanceof Number)
+            return ((Number) id).longValue();
+        try {
+            return Double.valueOf(id.toString()).longValue();
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     public void removeEdge(final Edge edge) {
         this.autoStartTransaction(true);
         ((Relationship) ((Neo4j2Edge) edge).getRawElement()).delete();
@@ -589,7 +645,7 @@ public class Neo4j2Graph implements TransactionalGraph, IndexableGraph, KeyIndex
     }
 
     public GraphQuery query() {
-        return new DefaultGraphQuery(this);
+        return new Neo4j2GraphQuery(this);
     }
 
     public Iterator<Map<String,Object>> query(String query, Map<String,Object> params) {
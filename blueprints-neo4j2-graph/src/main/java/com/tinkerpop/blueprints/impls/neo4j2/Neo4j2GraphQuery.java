@@ -0,0 +1,301 @@
+package com.tinkerpop.blueprints.impls.neo4j2;
+
+import com.tinkerpop.blueprints.Contains;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.GraphQuery;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.DefaultGraphQuery;
+import com.tinkerpop.blueprints.util.StringFactory;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Neo4j2GraphQuery compiles a graph query with labels into a parameterized Cypher statement, which is
+ * executed (and its plan cached) by the Cypher engine of the graph. Labels restrict vertices to the nodes with any of
+ * the given Neo4j labels and edges to the relationships of any of the given types, so that a query with a single label
+ * and an equality condition on a property with a schema index (CREATE INDEX ON :Label(key)) is served by that index.
+ * <p/>
+ * Conditions which Cypher can not evaluate with the semantics of Blueprints (on ids, on edge labels, with custom
+ * predicates, or on numbers, which Cypher compares across types where Blueprints does not) are evaluated in memory on
+ * the results of the statement. A query without labels is evaluated as by DefaultGraphQuery.
+ */
+public class Neo4j2GraphQuery extends DefaultGraphQuery {
+
+    private static final String VARIABLE = "x";
+    private static final String PARAMETER = "p";
+
+    public Neo4j2GraphQuery(final Neo4j2Graph graph) {
+        super(graph);
+    }
+
+    /**
+     * @param labels the Neo4j labels of the vertices, or the types of the edges, of which any must match
+     */
+    public GraphQuery labels(final String... labels) {
+        this.labels = labels;
+        return this;
+    }
+
+    public Iterable<Vertex> vertices() {
+        if (this.limit == 0)
+            return Collections.emptyList();
+        if (!this.isCompiled())
+            return super.vertices();
+
+        final Neo4j2Graph neo4j2Graph = (Neo4j2Graph) this.graph;
+        final Map<String, Object> parameters = new HashMap<String, Object>();
+        final List<HasContainer> remaining = new ArrayList<HasContainer>();
+        final String statement = this.toCypher(true, parameters, remaining);
+
+        neo4j2Graph.autoStartTransaction(false);
+        final Iterable<Vertex> vertices = new Neo4j2VertexIterable(this.<Node>execute(statement, parameters), neo4j2Graph, neo4j2Graph.checkElementsInTransaction());
+        return remaining.isEmpty() ? vertices : new FilteredIterable<Vertex>(vertices, remaining);
+    }
+
+    public Iterable<Edge> edges() {
+        if (this.limit == 0)
+            return Collections.emptyList();
+        if (!this.isCompiled())
+            return super.edges();
+
+        final Neo4j2Graph neo4j2Graph = (Neo4j2Graph) this.graph;
+        final Map<String, Object> parameters = new HashMap<String, Object>();
+        final List<HasContainer> remaining = new ArrayList<HasContainer>();
+        final String statement = this.toCypher(false, parameters, remaining);
+
+        neo4j2Graph.autoStartTransaction(false);
+        final Iterable<Edge> edges = new Neo4j2EdgeIterable(this.<Relationship>execute(statement, parameters), neo4j2Graph, neo4j2Graph.checkElementsInTransaction());
+        return remaining.isEmpty() ? edges : new FilteredIterable<Edge>(edges, remaining);
+    }
+
+    /**
+     * A query is compiled into Cypher when it has labels, as a statement without a label scans all nodes or relationships.
+     */
+    private boolean isCompiled() {
+        return null != this.labels && this.labels.length > 0;
+    }
+
+    String toCypher(final boolean forVertex, final Map<String, Object> parameters) {
+        return this.toCypher(forVertex, parameters, new ArrayList<HasContainer>());
+    }
+
+    /**
+     * Compiles the query into a Cypher statement.
+     *
+     * @param forVertex  whether the statement returns nodes, or relationships
+     * @param parameters the map to which the parameters of the statement are added
+     * @param remaining  the list to which the conditions which are not compiled are added
+     * @return the statement, which returns the matches in the column "x"
+     */
+    String toCypher(final boolean forVertex, final Map<String, Object> parameters, final List<HasContainer> remaining) {
+        final StringBuilder statement = new StringBuilder("MATCH ");
+        final List<String> conditions = new ArrayList<String>();
+        final boolean labeled = null != this.labels && this.labels.length > 0;
+
+        if (forVertex) {
+            statement.append('(').append(VARIABLE);
+            if (labeled && this.labels.length == 1) {
+                // a single label allows the use of its schema indices
+                statement.append(':').append(escape(this.labels[0]));
+            } else if (labeled) {
+                final StringBuilder any = new StringBuilder("(");
+                for (int i = 0; i < this.labels.length; i++) {
+                    if (i > 0)
+                        any.append(" OR ");
+                    any.append(VARIABLE).append(':').append(escape(this.labels[i]));
+                }
+                conditions.add(any.append(')').toString());
+            }
+            statement.append(')');
+        } else {
+            statement.append("()-[").append(VARIABLE);
+            if (labeled) {
+                for (int i = 0; i < this.labels.length; i++) {
+                    statement.append(i == 0 ? ':' : '|').append(escape(this.labels[i]));
+                }
+            }
+            statement.append("]->()");
+        }
+
+        for (final HasContainer hasContainer : this.hasContainers) {
+            final String condition = this.toCondition(hasContainer, parameters);
+            if (null == condition)
+                remaining.add(hasContainer);
+            else
+                conditions.add(condition);
+        }
+
+        for (int i = 0; i < conditions.size(); i++) {
+            statement.append(i == 0 ? " WHERE " : " AND ").append(conditions.get(i));
+        }
+        statement.append(" RETURN ").append(VARIABLE);
+        if (remaining.isEmpty() && this.limit != Integer.MAX_VALUE)
+            statement.append(" LIMIT ").append(this.limit);
+        return statement.toString();
+    }
+
+    /**
+     * @return the Cypher condition with the semantics of the container (where a missing property is null), or null
+     */
+    @SuppressWarnings("unchecked")
+    private String toCondition(final HasContainer hasContainer, final Map<String, Object> parameters) {
+        if (hasContainer.key.equals(StringFactory.ID) || hasContainer.key.equals(StringFactory.LABEL))
+            return null;
+
+        final String property = VARIABLE + '.' + escape(hasContainer.key);
+        final String exists = "has(" + property + ")";
+        if (hasContainer.predicate instanceof Contains) {
+            if (!(hasContainer.value instanceof Collection))
+                return null;
+            for (final Object value : (Collection<Object>) hasContainer.value) {
+                if (!isComparedAlike(value))
+                    return null;
+            }
+            final String parameter = this.addParameter(parameters, new ArrayList<Object>((Collection<Object>) hasContainer.value));
+            if (hasContainer.predicate == Contains.IN)
+                return property + " IN " + parameter;
+            else
+                return "(NOT " + exists + " OR NOT " + property + " IN " + parameter + ")";
+        } else if (hasContainer.predicate instanceof com.tinkerpop.blueprints.Compare) {
+            if (hasContainer.value instanceof Collection)
+                return null;
+            final com.tinkerpop.blueprints.Compare compare = (com.tinkerpop.blueprints.Compare) hasContainer.predicate;
+            if (null == hasContainer.value) {
+                if (compare == com.tinkerpop.blueprints.Compare.EQUAL)
+                    return "NOT " + exists;
+                else if (compare == com.tinkerpop.blueprints.Compare.NOT_EQUAL)
+                    return exists;
+                return null;
+            }
+
+            if (!isComparedAlike(hasContainer.value))
+                return null;
+
+            final String parameter = this.addParameter(parameters, hasContainer.value);
+            switch (compare) {
+                case EQUAL:
+                    return property + " = " + parameter;
+                case NOT_EQUAL:
+                    return "(NOT " + exists + " OR " + property + " <> " + parameter + ")";
+                case GREATER_THAN:
+                    return property + " > " + parameter;
+                case GREATER_THAN_EQUAL:
+                    return property + " >= " + parameter;
+                case LESS_THAN:
+                    return property + " < " + parameter;
+                case LESS_THAN_EQUAL:
+                    return property + " <= " + parameter;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Cypher considers numbers of different types (e.g. 1 and 1L) equal, where Blueprints compares them with equals().
+     *
+     * @return whether Cypher compares the value to a property as Blueprints does
+     */
+    private static boolean isComparedAlike(final Object value) {
+        return value instanceof String || value instanceof Boolean;
+    }
+
+    private String addParameter(final Map<String, Object> parameters, final Object value) {
+        final String name = PARAMETER + parameters.size();
+        parameters.put(name, value);
+        return "{" + name + "}";
+    }
+
+    private static String escape(final String identifier) {
+        return '`' + identifier.replace("`", "``") + '`';
+    }
+
+    /**
+     * @return the lazily executed statement, whose results are streamed from the column of the matches
+     */
+    private <T> Iterable<T> execute(final String statement, final Map<String, Object> parameters) {
+        return new Iterable<T>() {
+            public Iterator<T> iterator() {
+                final Iterator<Map<String, Object>> rows = ((Neo4j2Graph) graph).query(statement, parameters);
+                return new Iterator<T>() {
+                    public boolean hasNext() {
+                        return rows.hasNext();
+                    }
+
+                    @SuppressWarnings("unchecked")
+                    public T next() {
+                        return (T) rows.next().get(VARIABLE);
+                    }
+
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Applies the conditions which are not compiled, and the limit, to the results of a statement.
+     */
+    private class FilteredIterable<T extends Element> implements Iterable<T> {
+
+        private final Iterable<T> iterable;
+        private final List<HasContainer> containers;
+
+        public FilteredIterable(final Iterable<T> iterable, final List<HasContainer> containers) {
+            this.iterable = iterable;
+            this.containers = containers;
+        }
+
+        public Iterator<T> iterator() {
+            return new Iterator<T>() {
+                private final Iterator<T> itty = iterable.iterator();
+                private T nextElement = null;
+                private long count = 0;
+
+                public boolean hasNext() {
+                    if (null != this.nextElement)
+                        return true;
+                    while (this.count < limit && this.itty.hasNext()) {
+                        final T element = this.itty.next();
+                        boolean legal = true;
+                        for (final HasContainer hasContainer : containers) {
+                            if (!hasContainer.isLegal(element)) {
+                                legal = false;
+                                break;
+                            }
+                        }
+                        if (legal) {
+                            this.count++;
+                            this.nextElement = element;
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+
+                public T next() {
+                    if (!this.hasNext())
+                        throw new NoSuchElementException();
+                    final T element = this.nextElement;
+                    this.nextElement = null;
+                    return element;
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+}
@@ -92,6 +92,8 @@ public class Neo4j2BatchGraph implements KeyIndexableGraph, IndexableGraph, Meta
         FEATURES.supportsVertexProperties = true;
         FEATURES.supportsEdgeProperties = true;
         FEATURES.supportsThreadedTransactions = false;
+        FEATURES.supportsBulkRetrieval = false;
+        FEATURES.supportsBulkProperties = false;
     }
 
 
@@ -1,11 +1,15 @@
 package com.tinkerpop.blueprints.impls.neo4j2;
 
+import com.tinkerpop.blueprints.Compare;
+import com.tinkerpop.blueprints.Contains;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Index;
 import com.tinkerpop.blueprints.Parameter;
 import com.tinkerpop.blueprints.TestSuite;
 import com.tinkerpop.blueprints.Vertex;
 import com.tinkerpop.blueprints.impls.GraphTest;
+import org.neo4j.cypher.javacompat.ExecutionEngine;
+import org.neo4j.cypher.javacompat.ExecutionResult;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.event.TransactionData;
 import org.neo4j.graphdb.event.TransactionEventHandler;
@@ -14,7 +18,11 @@ import org.neo4j.kernel.InternalAbstractGraphDatabase;
 import org.neo4j.kernel.ha.HighlyAvailableGraphDatabase;
 import org.neo4j.tooling.GlobalGraphOperations;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -103,6 +111,53 @@ public class Neo4j2GraphSpecificTestSuite extends TestSuite {
         graph.shutdown();
     }
 
+    public void testGraphQueryUsesSchemaIndex() throws Exception {
+        Neo4j2Graph graph = (Neo4j2Graph) graphTest.generateGraph();
+        Neo4j2Vertex previous = null;
+        for (int i = 0; i < 100; i++) {
+            Neo4j2Vertex vertex = graph.addVertex(null);
+            vertex.addLabel(i % 2 == 0 ? "Person" : "Place");
+            vertex.setProperty("name", "name" + i);
+            vertex.setProperty("age", i);
+            if (null != previous)
+                graph.addEdge(null, previous, vertex, i % 2 == 0 ? "knows" : "likes").setProperty("weight", i);
+            previous = vertex;
+        }
+        graph.commit();
+        graph.query("CREATE INDEX ON :Person(name)", null);
+        graph.autoStartTransaction(false);
+        graph.getRawGraph().schema().awaitIndexesOnline(10, TimeUnit.SECONDS);
+        graph.commit();
+
+        assertEquals(count(((Neo4j2GraphQuery) graph.query()).labels("Person").has("name", "name4").vertices()), 1);
+        assertEquals(count(((Neo4j2GraphQuery) graph.query()).labels("Place").has("name", "name4").vertices()), 0);
+        assertEquals(count(((Neo4j2GraphQuery) graph.query()).labels("Person").has("age", Compare.GREATER_THAN_EQUAL, 90).vertices()), 5);
+        assertEquals(count(((Neo4j2GraphQuery) graph.query()).labels("Person", "Place").has("age", Compare.LESS_THAN, 10).vertices()), 10);
+        assertEquals(count(((Neo4j2GraphQuery) graph.query()).labels("Person").has("age", Compare.LESS_THAN, 10).limit(3).vertices()), 3);
+        assertEquals(count(((Neo4j2GraphQuery) graph.query()).labels("Place").hasNot("nickname").vertices()), 50);
+        assertEquals(count(((Neo4j2GraphQuery) graph.query()).labels("Person").has("age", 4).vertices()), 1);
+        assertEquals(count(((Neo4j2GraphQuery) graph.query()).labels("Person").has("age", 4l).vertices()), 0);
+        assertEquals(count(((Neo4j2GraphQuery) graph.query()).labels("Person").has("age", Contains.IN, Arrays.asList(4l, 6l)).vertices()), 0);
+        assertEquals(count(graph.query().has("name", "name5").vertices()), 1);
+        assertEquals(count(graph.query().has("age", Contains.IN, Arrays.asList(1, 2, 3)).vertices()), 3);
+        assertEquals(count(graph.query().has("age", Contains.NOT_IN, Arrays.asList(1, 2, 3)).vertices()), 97);
+        assertEquals(count(graph.query().interval("age", 10, 20).has("id", previous.getId()).vertices()), 0);
+        assertEquals(count(graph.query().interval("age", 90, 100).has("id", previous.getId()).vertices()), 1);
+        assertEquals(count(((Neo4j2GraphQuery) graph.query()).labels("knows").has("weight", Compare.GREATER_THAN, 50).edges()), 24);
+        assertEquals(count(graph.query().has("weight", Compare.LESS_THAN_EQUAL, 10).edges()), 10);
+        assertEquals(count(((Neo4j2GraphQuery) graph.query()).labels("knows", "likes").has("label", "likes").edges()), 50);
+
+        // the statement of a labeled equality query is served by the schema index
+        final Map<String, Object> parameters = new HashMap<String, Object>();
+        final String statement = ((Neo4j2GraphQuery) ((Neo4j2GraphQuery) graph.query()).labels("Person").has("name", "name4")).toCypher(true, parameters);
+        final ExecutionResult result = new ExecutionEngine(graph.getRawGraph()).profile(statement, parameters);
+        assertEquals(count(result.columnAs("x")), 1);
+        assertTrue(result.executionPlanDescription().toString().contains("SchemaIndex"));
+        graph.commit();
+
+        graph.shutdown();
+    }
+
     public void testIndexParameters() throws Exception {
         Neo4j2Graph graph = (Neo4j2Graph) graphTest.generateGraph();
         Index<Vertex> index = graph.createIndex("luceneIdx", Vertex.class, new Parameter<String, String>("analyzer", LowerCaseKeywordAnalyzer.class.getName()));
@@ -1,5 +1,6 @@
 package com.tinkerpop.blueprints.impls.neo4j2;
 
+import com.tinkerpop.blueprints.BulkRetrievalGraphTestSuite;
 import com.tinkerpop.blueprints.EdgeTestSuite;
 import com.tinkerpop.blueprints.Graph;
 import com.tinkerpop.blueprints.GraphQueryTestSuite;
@@ -68,6 +69,12 @@ public class Neo4j2GraphTest extends GraphTest {
         printTestPerformance("KeyIndexableGraphTestSuite", this.stopWatch());
     }
 
+    public void testBulkRetrievalGraphTestSuite() throws Exception {
+        this.stopWatch();
+        doTestSuite(new BulkRetrievalGraphTestSuite(this));
+        printTestPerformance("BulkRetrievalGraphTestSuite", this.stopWatch());
+    }
+
     public void testIndexableGraphTestSuite() throws Exception {
         this.stopWatch();
         doTestSuite(new IndexableGraphTestSuite(this));
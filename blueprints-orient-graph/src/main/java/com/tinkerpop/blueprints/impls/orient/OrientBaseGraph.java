@@ -7,8 +7,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.configuration.Configuration;
 
@@ -32,8 +36,11 @@ import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.metadata.schema.OProperty;
 import com.orientechnologies.orient.core.metadata.schema.OSchema;
 import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.ORecord;
 import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
 import com.orientechnologies.orient.core.type.tree.provider.OMVRBTreeRIDProvider;
+import com.tinkerpop.blueprints.BulkRetrievalGraph;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Element;
 import com.tinkerpop.blueprints.GraphQuery;
@@ -53,11 +60,12 @@ import com.tinkerpop.blueprints.util.StringFactory;
  * @author Luca Garulli (http://www.orientechnologies.com)
  */
 public abstract class OrientBaseGraph implements IndexableGraph,
-		MetaGraph<ODatabaseDocumentTx>, KeyIndexableGraph {
+		MetaGraph<ODatabaseDocumentTx>, KeyIndexableGraph, BulkRetrievalGraph {
 	public static final String CONNECTION_OUT = "out";
 	public static final String CONNECTION_IN = "in";
 	public static final String CLASS_PREFIX = "class:";
 	public static final String CLUSTER_PREFIX = "cluster:";
+	public static final int STATEMENT_CACHE_SIZE = 256;
 
 	public enum THREAD_MODE {
 		MANUAL, AUTOSET_IFNULL, ALWAYS_AUTOSET
@@ -78,6 +86,13 @@ public abstract class OrientBaseGraph implements IndexableGraph,
 	private String username;
 	private String password;
 
+	// KEY INDEX RESOLUTIONS OF THE CURRENT VERSION OF THE INDEX CONFIGURATION
+	private volatile IndexCache indexCache = new IndexCache(-1);
+
+	// PREPARED QUERIES OF GRAPH QUERIES BY STATEMENT SHAPE, LEAST RECENTLY
+	// USED FIRST
+	private final QueryCache queries = new QueryCache();
+
 	private static final ThreadLocal<OrientGraphContext> threadContext = new ThreadLocal<OrientGraphContext>();
 	private static final List<OrientGraphContext> contexts = new ArrayList<OrientGraphContext>();
 
@@ -306,6 +321,7 @@ public abstract class OrientBaseGraph implements IndexableGraph,
                                 .dropIndex(recordMapIndexName);
 
 					saveIndexConfiguration();
+					invalidateIndexCache();
 					return null;
 				} catch (Exception e) {
 					g.rollback();
@@ -472,23 +488,29 @@ public abstract class OrientBaseGraph implements IndexableGraph,
 		final String key;
 		int pos = iKey.indexOf('.');
 		if (pos > -1) {
-			indexName = iKey;
-
-			final String className = iKey.substring(0, pos);
 			key = iKey.substring(iKey.indexOf('.') + 1);
 
-			final OClass clazz = getContext(true).rawGraph.getMetadata()
-					.getSchema().getClass(className);
-
-			final Collection<? extends OIndex<?>> indexes = clazz.getIndexes();
-			for (OIndex<?> index : indexes) {
-				final String oInName = index.getName();
-				final int point = oInName.indexOf(".");
-				final String okey = oInName.substring(point + 1);
-				if (okey.equals(key)) {
-					indexName = oInName;
-					break;
+			final IndexCache cache = getIndexCache();
+			indexName = cache.indexNames.get(iKey);
+			if (indexName == null) {
+				indexName = iKey;
+
+				final String className = iKey.substring(0, pos);
+				final OClass clazz = getContext(true).rawGraph.getMetadata()
+						.getSchema().getClass(className);
+
+				final Collection<? extends OIndex<?>> indexes = clazz
+						.getIndexes();
+				for (OIndex<?> index : indexes) {
+					final String oInName = index.getName();
+					final int point = oInName.indexOf(".");
+					final String okey = oInName.substring(point + 1);
+					if (okey.equals(key)) {
+						indexName = oInName;
+						break;
+					}
 				}
+				cache.indexNames.put(iKey, indexName);
 			}
 
 		} else {
@@ -610,6 +632,129 @@ public abstract class OrientBaseGraph implements IndexableGraph,
 		edge.remove();
 	}
 
+	/**
+	 * Retrieves the vertices with the given ids. Outside of a transaction the
+	 * records are loaded with a single <code>select from [rids]</code> query,
+	 * otherwise each vertex is loaded by its id so that uncommitted changes are
+	 * seen. Ids are compared as record ids, and records which are not vertices
+	 * are skipped.
+	 */
+	public Iterable<Vertex> getVertices(final Iterable<?> ids) {
+		final List<Vertex> vertices = new ArrayList<Vertex>();
+		final List<ORID> rids = new ArrayList<ORID>();
+		final boolean inTransaction = getRawGraph().getTransaction()
+				.isActive();
+		for (final ORID rid : parseRids(ids, null)) {
+			if (!inTransaction && rid.isPersistent())
+				rids.add(rid);
+			else {
+				final OrientVertex vertex = getVertex(rid);
+				if (vertex != null
+						&& isOfClass(vertex.getRecord(), OrientVertex.CLASS_NAME))
+					vertices.add(vertex);
+			}
+		}
+
+		for (OIdentifiable record : queryRids(rids))
+			if (isOfClass(record, OrientVertex.CLASS_NAME))
+				vertices.add(new OrientVertex(this, record));
+		return vertices;
+	}
+
+	/**
+	 * Retrieves the edges with the given ids. Outside of a transaction the
+	 * records are loaded with a single <code>select from [rids]</code> query,
+	 * otherwise each edge is loaded by its id so that uncommitted changes are
+	 * seen. Ids are compared as record ids, and records which are not edges
+	 * are skipped. Lightweight edge ids are always resolved one by one.
+	 */
+	public Iterable<Edge> getEdges(final Iterable<?> ids) {
+		final List<Edge> edges = new ArrayList<Edge>();
+		final List<ORID> rids = new ArrayList<ORID>();
+		final Set<String> lightweightIds = new HashSet<String>();
+		final boolean inTransaction = getRawGraph().getTransaction()
+				.isActive();
+		for (final ORID rid : parseRids(ids, lightweightIds)) {
+			if (!inTransaction && rid.isPersistent())
+				rids.add(rid);
+			else {
+				final OrientEdge edge = getEdge(rid);
+				if (edge != null
+						&& isOfClass(edge.getRecord(), OrientEdge.CLASS_NAME))
+					edges.add(edge);
+			}
+		}
+		for (String id : lightweightIds) {
+			final Edge edge = getEdge(id);
+			if (edge != null)
+				edges.add(edge);
+		}
+
+		for (OIdentifiable record : queryRids(rids))
+			if (isOfClass(record, OrientEdge.CLASS_NAME))
+				edges.add(new OrientEdge(this, record));
+		return edges;
+	}
+
+	/**
+	 * Parses the ids to distinct valid record ids, skipping the ids which are
+	 * not record ids. Lightweight edge ids are collected apart, or skipped
+	 * when no set is given.
+	 */
+	private static Set<ORID> parseRids(final Iterable<?> ids,
+			final Set<String> lightweightIds) {
+		final Set<ORID> rids = new LinkedHashSet<ORID>();
+		for (final Object id : ids) {
+			if (null == id)
+				continue;
+			if (id instanceof OIdentifiable) {
+				final ORID rid = ((OIdentifiable) id).getIdentity();
+				if (rid.isValid())
+					rids.add(rid);
+				continue;
+			}
+
+			final String str = id.toString();
+			if (str.indexOf("->") > -1) {
+				if (lightweightIds != null)
+					lightweightIds.add(str);
+				continue;
+			}
+			try {
+				final ORID rid = new ORecordId(str);
+				if (rid.isValid())
+					rids.add(rid);
+			} catch (IllegalArgumentException iae) {
+				// NOT A RECORD ID
+			}
+		}
+		return rids;
+	}
+
+	private static boolean isOfClass(final OIdentifiable record,
+			final String className) {
+		final ORecord<?> doc = record == null ? null : record.getRecord();
+		return doc instanceof ODocument
+				&& ((ODocument) doc).getSchemaClass() != null
+				&& ((ODocument) doc).getSchemaClass().isSubClassOf(className);
+	}
+
+	private List<OIdentifiable> queryRids(final List<ORID> rids) {
+		if (rids.isEmpty())
+			return new ArrayList<OIdentifiable>();
+
+		setCurrentGraphInThreadLocal();
+		final StringBuilder text = new StringBuilder("select from [");
+		for (int i = 0; i < rids.size(); i++) {
+			if (i > 0)
+				text.append(',');
+			text.append(rids.get(i).toString());
+		}
+		text.append(']');
+		return getRawGraph().query(
+				new OSQLSynchQuery<OIdentifiable>(text.toString()));
+	}
+
 	/**
 	 * Reuses the underlying database avoiding to create and open it every time.
 	 *
@@ -974,6 +1119,7 @@ public abstract class OrientBaseGraph implements IndexableGraph,
 				final String className = getClassName(elementClass);
 				getRawGraph().getMetadata().getIndexManager()
 						.dropIndex(className + "." + key);
+				invalidateIndexCache();
 				return null;
 			}
 		}, "drop key index '", elementClass.getSimpleName(), ".", key, "'");
@@ -1049,6 +1195,7 @@ public abstract class OrientBaseGraph implements IndexableGraph,
 								new OPropertyIndexDefinition(className, key,
 										keyType),
 								cls.getPolymorphicClusterIds(), null, null);
+				invalidateIndexCache();
 				return null;
 
 			}
@@ -1065,6 +1212,13 @@ public abstract class OrientBaseGraph implements IndexableGraph,
 		if (elementClass == null)
 			throw ExceptionFactory.classForElementCannotBeNull();
 
+		final IndexCache cache = getIndexCache();
+		final String cacheKey = elementClass.getName() + ':'
+				+ includeClassNames;
+		final Set<String> cached = cache.indexedKeys.get(cacheKey);
+		if (cached != null)
+			return new HashSet<String>(cached);
+
 		final OSchema schema = getRawGraph().getMetadata().getSchema();
 		final String elementOClassName = getClassName(elementClass);
 
@@ -1085,9 +1239,84 @@ public abstract class OrientBaseGraph implements IndexableGraph,
 				}
 			}
 		}
+		cache.indexedKeys.put(cacheKey, new HashSet<String>(result));
 		return result;
 	}
 
+	/**
+	 * Clears the cached resolutions of keys to indices. The cache is only
+	 * used for the version of the index configuration of the database with
+	 * which it was filled, and so is refreshed when any graph on the database
+	 * creates or drops an index. Clearing it is only needed when the schema is
+	 * changed in a way which does not save the index configuration.
+	 */
+	public void invalidateIndexCache() {
+		indexCache = new IndexCache(-1);
+	}
+
+	/**
+	 * Returns the cached resolutions of keys to indices, which are discarded
+	 * when the index configuration of the database has been saved since they
+	 * were cached.
+	 */
+	private IndexCache getIndexCache() {
+		final int version = getRawGraph().getMetadata().getIndexManager()
+				.getConfiguration().getVersion();
+		IndexCache cache = indexCache;
+		if (cache.version != version) {
+			cache = new IndexCache(version);
+			indexCache = cache;
+		}
+		return cache;
+	}
+
+	private static class IndexCache {
+		private final int version;
+		private final Map<String, String> indexNames = new ConcurrentHashMap<String, String>();
+		private final Map<String, Set<String>> indexedKeys = new ConcurrentHashMap<String, Set<String>>();
+
+		private IndexCache(final int version) {
+			this.version = version;
+		}
+	}
+
+	/**
+	 * Takes the prepared query of a statement shape out of the cache, or
+	 * returns null. The query is not shared while it is taken, and is put
+	 * back with returnQuery once it has been executed.
+	 */
+	OSQLSynchQuery<OIdentifiable> takeQuery(final String shape) {
+		synchronized (queries) {
+			return queries.remove(shape);
+		}
+	}
+
+	/**
+	 * Puts the prepared query of a statement shape back into the cache,
+	 * evicting the least recently used query beyond STATEMENT_CACHE_SIZE.
+	 */
+	void returnQuery(final String shape,
+			final OSQLSynchQuery<OIdentifiable> query) {
+		synchronized (queries) {
+			queries.put(shape, query);
+		}
+	}
+
+	private static class QueryCache extends
+			LinkedHashMap<String, OSQLSynchQuery<OIdentifiable>> {
+		private static final long serialVersionUID = 1L;
+
+		private QueryCache() {
+			super(16, 0.75f, true);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(
+				final Map.Entry<String, OSQLSynchQuery<OIdentifiable>> eldest) {
+			return size() > STATEMENT_CACHE_SIZE;
+		}
+	}
+
 	public GraphQuery query() {
 		return new OrientGraphQuery(this);
 	}
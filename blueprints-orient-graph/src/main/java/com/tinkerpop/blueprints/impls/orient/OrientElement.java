@@ -15,6 +15,7 @@ import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.metadata.schema.OSchema;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.serialization.OSerializableStream;
+import com.tinkerpop.blueprints.BulkPropertyElement;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Element;
 import com.tinkerpop.blueprints.util.ElementHelper;
@@ -28,8 +29,8 @@ import com.tinkerpop.blueprints.util.StringFactory;
  * @author Luca Garulli (http://www.orientechnologies.com)
  */
 @SuppressWarnings("unchecked")
-public abstract class OrientElement implements Element, OSerializableStream,
-		OIdentifiable {
+public abstract class OrientElement implements BulkPropertyElement,
+		OSerializableStream, OIdentifiable {
 	private static final long serialVersionUID = 1L;
 
 	public static final String LABEL_FIELD_NAME = "label";
@@ -102,6 +103,21 @@ public abstract class OrientElement implements Element, OSerializableStream,
 		save();
 	}
 
+	/**
+	 * Sets all the properties on the underlying document and saves it once,
+	 * instead of saving the document for every property.
+	 */
+	public void setBulkProperties(final Map<String, Object> properties) {
+		for (Map.Entry<String, Object> entry : properties.entrySet())
+			validateProperty(this, entry.getKey(), entry.getValue());
+
+		graph.autoStartTransaction();
+		final ODocument doc = getRecord();
+		for (Map.Entry<String, Object> entry : properties.entrySet())
+			doc.field(entry.getKey(), entry.getValue());
+		save();
+	}
+
 	public <T> T removeProperty(final String key) {
 		graph.autoStartTransaction();
 		final Object oldValue = getRecord().removeField(key);
@@ -149,5 +149,7 @@ public class OrientGraph extends OrientTransactionalGraph {
 		FEATURES.supportsMapProperty = true;
 		FEATURES.supportsStringProperty = true;
 		FEATURES.supportsThreadedTransactions = false;
+		FEATURES.supportsBulkRetrieval = true;
+		FEATURES.supportsBulkProperties = true;
 	}
 }
\ No newline at end of file
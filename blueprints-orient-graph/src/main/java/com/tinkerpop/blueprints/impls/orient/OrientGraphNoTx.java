@@ -76,5 +76,7 @@ public class OrientGraphNoTx extends OrientBaseGraph {
         FEATURES.supportsMapProperty = true;
         FEATURES.supportsStringProperty = true;
         FEATURES.supportsThreadedTransactions = false;
+        FEATURES.supportsBulkRetrieval = true;
+        FEATURES.supportsBulkProperties = true;
     }
 }
\ No newline at end of file
@@ -1,11 +1,20 @@
 package com.tinkerpop.blueprints.impls.orient;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.db.record.ORecordOperation;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.record.ORecord;
+import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
 import com.tinkerpop.blueprints.Contains;
 import com.tinkerpop.blueprints.Edge;
@@ -50,6 +59,9 @@ public class OrientGraphQuery extends DefaultGraphQuery {
 	protected static final String SKIP = " SKIP ";
 	protected static final String LIMIT = " LIMIT ";
 	protected static final String ORDERBY = " ORDER BY ";
+	protected static final char PARAMETER = '?';
+	protected static final String NULL = "null";
+	protected static final char SHAPE_SEPARATOR = '|';
 
 	protected String fetchPlan;
 
@@ -100,109 +112,385 @@ public class OrientGraphQuery extends DefaultGraphQuery {
 		if (limit == 0)
 			return Collections.emptyList();
 
-		if (((OrientBaseGraph) graph).getRawGraph().getTransaction().isActive())
-			// INSIDE TRANSACTION QUERY DOESN'T SEE IN MEMORY CHANGES, UNTIL
-			// SUPPORTED USED THE BASIC IMPL
-			return new OrientGraphQueryIterable<Vertex>(true);
+		final OrientBaseGraph g = (OrientBaseGraph) graph;
+		final boolean useClass = g.isUseClassForVertexLabel() && labels != null
+				&& labels.length > 0;
+		return query(true, OrientVertex.CLASS_NAME, useClass, true);
+	}
 
-		final StringBuilder text = new StringBuilder();
+	@Override
+	public Iterable<Edge> edges() {
+		if (limit == 0)
+			return Collections.emptyList();
 
-		// GO DIRECTLY AGAINST E CLASS AND SUB-CLASSES
-		text.append(QUERY_SELECT_FROM);
+		final OrientBaseGraph g = (OrientBaseGraph) graph;
+		if (g.isUseLightweightEdges())
+			return new OrientGraphQueryIterable<Edge>(false);
 
-		if (((OrientBaseGraph) graph).isUseClassForVertexLabel()
-				&& labels != null && labels.length > 0) {
-			// FILTER PER CLASS SAVING CHECKING OF LABEL PROPERTY
-			if (labels.length == 1)
-				// USE THE CLASS NAME
-				text.append(OrientBaseGraph.encodeClassName(labels[0]));
-			else {
-				// MULTIPLE CLASSES NOT SUPPORTED DIRECTLY: CREATE A SUB-QUERY
-				return new OrientGraphQueryIterable<Vertex>(true);
-			}
+		final boolean useClass = g.isUseClassForEdgeLabel() && labels != null
+				&& labels.length > 0;
+		return query(false, OrientEdge.CLASS_NAME, useClass, false);
+	}
+
+	/**
+	 * Executes the query with OSQL. Labels stored as classes are served by one
+	 * query per class, whose results are concatenated (a union without
+	 * duplicates). Inside a transaction the queries only see committed data, so
+	 * the records created, updated and deleted by the transaction are merged in:
+	 * committed results for records touched by the transaction are discarded,
+	 * and the transaction's own version of the records is filtered in memory
+	 * and returned after them.
+	 */
+	protected <T extends Element> Iterable<T> query(final boolean forVertex,
+			final String baseClassName, final boolean useClass,
+			final boolean orderAndSkip) {
+		final OrientBaseGraph g = (OrientBaseGraph) graph;
+		final String[] classNames;
+		if (useClass) {
+			classNames = new String[labels.length];
+			for (int i = 0; i < labels.length; ++i)
+				classNames[i] = OrientBaseGraph.encodeClassName(labels[i]);
 		} else
-			text.append(OrientVertex.CLASS_NAME);
+			classNames = new String[] { baseClassName };
+
+		final long toSkip = orderAndSkip ? skip : 0;
+		final Set<ORID> touched = new HashSet<ORID>();
+		final List<ODocument> pending = new ArrayList<ODocument>();
+		if (g.getRawGraph().getTransaction().isActive())
+			collectTransactionRecords(baseClassName, touched, pending);
+
+		final Object[] parameters = createParameters(!useClass);
+		if (touched.isEmpty() && classNames.length == 1)
+			// NOTHING TO MERGE: SKIP AND LIMIT ARE EXECUTED BY THE QUERY
+			return new OrientElementIterable<T>(g, execute(classNames[0],
+					!useClass, orderAndSkip, toSkip, limit, parameters));
+
+		// EVERY QUERY RETURNS ENOUGH RECORDS TO SKIP, TO FILL THE LIMIT AND TO
+		// REPLACE THOSE TOUCHED BY THE TRANSACTION
+		final long rows = (long) limit + toSkip + touched.size();
+		return new OrientMergedQueryIterable<T>(forVertex, classNames,
+				!useClass, orderAndSkip, rows, parameters, touched, pending,
+				useClass ? classNames : null, toSkip);
+	}
+
+	/**
+	 * Executes the query against a class. The prepared query of the statement
+	 * shape is taken from the graph's cache, or created, and returned to the
+	 * cache after the execution.
+	 */
+	protected List<OIdentifiable> execute(final String className,
+			final boolean filterLabels, final boolean orderAndSkip,
+			final long skip, final long limit, final Object[] parameters) {
+		final OrientBaseGraph g = (OrientBaseGraph) graph;
+		final String shape = createShape(className, filterLabels,
+				orderAndSkip, skip, limit);
+		OSQLSynchQuery<OIdentifiable> query = g.takeQuery(shape);
+		if (query == null)
+			query = createQuery(className, filterLabels, orderAndSkip, skip,
+					limit);
+		try {
+			final List<OIdentifiable> result = g.getRawGraph().query(query,
+					parameters);
+			// THE RESULT MAY BE HELD BY THE QUERY, WHICH IS REUSED
+			return result == null ? null
+					: new ArrayList<OIdentifiable>(result);
+		} finally {
+			g.returnQuery(shape, query);
+		}
+	}
+
+	/**
+	 * Creates the query against a class. Filter values and labels are passed
+	 * as parameters, so the statement only depends on the shape of the query
+	 * and the query is cached by the graph across queries of the same shape.
+	 */
+	protected OSQLSynchQuery<OIdentifiable> createQuery(final String className,
+			final boolean filterLabels, final boolean orderAndSkip,
+			final long skip, final long limit) {
+		final OSQLSynchQuery<OIdentifiable> query = new OSQLSynchQuery<OIdentifiable>(
+				createStatement(className, filterLabels, orderAndSkip, skip,
+						limit));
+
+		if (fetchPlan != null)
+			query.setFetchPlan(fetchPlan);
+
+		return query;
+	}
+
+	/**
+	 * Returns a key which is equal for queries with the same statement: the
+	 * class, keys, predicates and kinds of values, the number of labels, the
+	 * ordering, skip, limit and fetch plan.
+	 */
+	protected String createShape(final String className,
+			final boolean filterLabels, final boolean orderAndSkip,
+			final long skip, final long limit) {
+		final StringBuilder shape = new StringBuilder();
+		shape.append(className);
+		for (HasContainer has : hasContainers) {
+			shape.append(SHAPE_SEPARATOR);
+			shape.append(has.key);
+			shape.append(SHAPE_SEPARATOR);
+			shape.append(has.predicate);
+			shape.append(SHAPE_SEPARATOR);
+			if (has.value == null)
+				shape.append(NULL);
+			else if (has.predicate instanceof Contains
+					&& has.value instanceof Collection<?>)
+				shape.append(((Collection<?>) has.value).size());
+			else if (has.value instanceof Collection<?>)
+				shape.append(COLLECTION_BEGIN);
+			else
+				shape.append(PARAMETER);
+		}
+		shape.append(SHAPE_SEPARATOR);
+		if (filterLabels && labels != null)
+			shape.append(labels.length);
+		shape.append(SHAPE_SEPARATOR);
+		if (orderAndSkip && orderBy.length() > 1) {
+			shape.append(orderBy);
+			shape.append(SPACE);
+			shape.append(orderByDir);
+		}
+		shape.append(SHAPE_SEPARATOR);
+		shape.append(skip);
+		shape.append(SHAPE_SEPARATOR);
+		shape.append(limit);
+		shape.append(SHAPE_SEPARATOR);
+		if (fetchPlan != null)
+			shape.append(fetchPlan);
+		return shape.toString();
+	}
+
+	protected String createStatement(final String className,
+			final boolean filterLabels, final boolean orderAndSkip,
+			final long skip, final long limit) {
+		final StringBuilder text = new StringBuilder();
+		text.append(QUERY_SELECT_FROM);
+		text.append(className);
 
 		// APPEND ALWAYS WHERE
 		text.append(QUERY_WHERE);
 		manageFilters(text);
-		if (!((OrientBaseGraph) graph).isUseClassForVertexLabel())
+		if (filterLabels)
 			manageLabels(text);
 
-		if (orderBy.length() > 1) {
+		if (orderAndSkip && orderBy.length() > 1) {
 			text.append(ORDERBY);
 			text.append(orderBy);
 			text.append(" " + orderByDir + " ");
 		}
-		if (skip > 0 && skip < Long.MAX_VALUE) {
+		if (skip > 0 && skip < Integer.MAX_VALUE) {
 			text.append(SKIP);
 			text.append(skip);
 		}
 
-		if (limit > 0 && limit < Long.MAX_VALUE) {
+		if (limit > 0 && limit < Integer.MAX_VALUE) {
 			text.append(LIMIT);
 			text.append(limit);
 		}
 
-		final OSQLSynchQuery<OIdentifiable> query = new OSQLSynchQuery<OIdentifiable>(
-				text.toString());
+		return text.toString();
+	}
 
-		if (fetchPlan != null)
-			query.setFetchPlan(fetchPlan);
+	/**
+	 * Returns the parameters of the statement, in the order of their
+	 * placeholders: the filter values, then the labels.
+	 */
+	@SuppressWarnings("unchecked")
+	protected Object[] createParameters(final boolean filterLabels) {
+		final List<Object> parameters = new ArrayList<Object>();
+		for (HasContainer has : hasContainers) {
+			if (has.value == null)
+				continue;
+
+			if (has.predicate instanceof Contains
+					&& has.value instanceof Collection<?>) {
+				for (Object o : (Collection<Object>) has.value)
+					parameters.add(generateFilterValue(o));
+			} else if (has.predicate instanceof Contains
+					|| has.predicate instanceof com.tinkerpop.blueprints.Compare)
+				parameters.add(generateFilterValue(has.value));
+		}
 
-		return new OrientElementIterable<Vertex>(((OrientBaseGraph) graph),
-				((OrientBaseGraph) graph).getRawGraph().query(query));
-	}
+		if (filterLabels && labels != null)
+			for (String label : labels)
+				parameters.add(label);
 
-	@Override
-	public Iterable<Edge> edges() {
-		if (limit == 0)
-			return Collections.emptyList();
+		return parameters.toArray();
+	}
 
-		if (((OrientBaseGraph) graph).getRawGraph().getTransaction().isActive())
-			// INSIDE TRANSACTION QUERY DOESN'T SEE IN MEMORY CHANGES, UNTIL
-			// SUPPORTED USED THE BASIC IMPL
-			return new OrientGraphQueryIterable<Edge>(false);
+	/**
+	 * Collects the records of the given base class (or its sub-classes) which
+	 * are created, updated or deleted by the current transaction.
+	 */
+	protected void collectTransactionRecords(final String baseClassName,
+			final Set<ORID> touched, final List<ODocument> pending) {
+		for (ORecordOperation oper : ((OrientBaseGraph) graph).getRawGraph()
+				.getTransaction().getAllRecordEntries()) {
+			if (oper.type != ORecordOperation.CREATED
+					&& oper.type != ORecordOperation.UPDATED
+					&& oper.type != ORecordOperation.DELETED)
+				continue;
+
+			final ORecord<?> record = oper.getRecord();
+			if (!(record instanceof ODocument))
+				continue;
+
+			final ODocument doc = (ODocument) record;
+			if (doc.getSchemaClass() == null
+					|| !doc.getSchemaClass().isSubClassOf(baseClassName))
+				continue;
+
+			touched.add(doc.getIdentity());
+			if (oper.type != ORecordOperation.DELETED)
+				pending.add(doc);
+		}
+	}
 
-		if (((OrientBaseGraph) graph).isUseLightweightEdges())
-			return new OrientGraphQueryIterable<Edge>(false);
+	/**
+	 * Iterates the results of the committed data queries, without the records
+	 * touched by the transaction, followed by the pending records of the
+	 * transaction which match the query.
+	 */
+	protected class OrientMergedQueryIterable<T extends Element> implements
+			Iterable<T> {
+
+		private final boolean forVertex;
+		private final String[] queryClassNames;
+		private final boolean filterLabels;
+		private final boolean orderAndSkip;
+		private final long rows;
+		private final Object[] parameters;
+		private final Set<ORID> touched;
+		private final List<ODocument> pending;
+		private final String[] classNames;
+		private final long toSkip;
+
+		public OrientMergedQueryIterable(final boolean forVertex,
+				final String[] queryClassNames, final boolean filterLabels,
+				final boolean orderAndSkip, final long rows,
+				final Object[] parameters, final Set<ORID> touched, final List<ODocument> pending,
+				final String[] classNames, final long toSkip) {
+			this.forVertex = forVertex;
+			this.queryClassNames = queryClassNames;
+			this.filterLabels = filterLabels;
+			this.orderAndSkip = orderAndSkip;
+			this.rows = rows;
+			this.parameters = parameters;
+			this.touched = touched;
+			this.pending = pending;
+			this.classNames = classNames;
+			this.toSkip = toSkip;
+		}
 
-		final StringBuilder text = new StringBuilder();
+		public Iterator<T> iterator() {
+			return new Iterator<T>() {
+				private final Set<ORID> returned = queryClassNames.length > 1 ? new HashSet<ORID>()
+						: null;
+				private int nextQuery = 0;
+				private Iterator<OIdentifiable> results = null;
+				private Iterator<ODocument> pendingResults = null;
+				private long skipped = 0;
+				private long count = 0;
+				private T nextElement = null;
+
+				public boolean hasNext() {
+					return nextElement != null || loadNext();
+				}
 
-		// GO DIRECTLY AGAINST E CLASS AND SUB-CLASSES
-		text.append(QUERY_SELECT_FROM);
+				public T next() {
+					if (!hasNext())
+						throw new NoSuchElementException();
+					final T element = nextElement;
+					nextElement = null;
+					return element;
+				}
 
-		if (((OrientBaseGraph) graph).isUseClassForEdgeLabel()
-				&& labels != null && labels.length > 0) {
-			// FILTER PER CLASS SAVING CHECKING OF LABEL PROPERTY
-			if (labels.length == 1)
-				// USE THE CLASS NAME
-				text.append(OrientBaseGraph.encodeClassName(labels[0]));
-			else {
-				// MULTIPLE CLASSES NOT SUPPORTED DIRECTLY: CREATE A SUB-QUERY
-				return new OrientGraphQueryIterable<Edge>(false);
-			}
-		} else
-			text.append(OrientEdge.CLASS_NAME);
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
 
-		// APPEND ALWAYS WHERE 1=1 TO MAKE CONCATENATING EASIER
-		text.append(QUERY_WHERE);
+				private boolean loadNext() {
+					while (count < limit) {
+						final OIdentifiable record = nextRecord();
+						if (record == null)
+							return false;
+						if (skipped < toSkip) {
+							skipped++;
+							continue;
+						}
+						count++;
+						nextElement = wrap(record);
+						return true;
+					}
+					return false;
+				}
 
-		manageFilters(text);
-		if (!((OrientBaseGraph) graph).isUseClassForEdgeLabel())
-			manageLabels(text);
+				private OIdentifiable nextRecord() {
+					while (pendingResults == null) {
+						if (results != null && results.hasNext()) {
+							final OIdentifiable record = results.next();
+							final ORID rid = record.getIdentity();
+							if (touched.contains(rid)
+									|| (returned != null && !returned.add(rid)))
+								continue;
+							return record;
+						}
+
+						if (nextQuery < queryClassNames.length) {
+							final List<OIdentifiable> list = execute(
+									queryClassNames[nextQuery++], filterLabels,
+									orderAndSkip, 0, rows, parameters);
+							results = list == null ? null : list.iterator();
+						} else
+							pendingResults = pending.iterator();
+					}
 
-		final OSQLSynchQuery<OIdentifiable> query = new OSQLSynchQuery<OIdentifiable>(
-				text.toString());
+					while (pendingResults.hasNext()) {
+						final ODocument doc = pendingResults.next();
+						if (isMatching(doc))
+							return doc;
+					}
+					return null;
+				}
+			};
+		}
 
-		if (fetchPlan != null)
-			query.setFetchPlan(fetchPlan);
+		@SuppressWarnings("unchecked")
+		private T wrap(final OIdentifiable record) {
+			if (forVertex)
+				return (T) new OrientVertex((OrientBaseGraph) graph, record);
+			return (T) new OrientEdge((OrientBaseGraph) graph, record);
+		}
 
-		if (limit > 0 && limit < Long.MAX_VALUE)
-			query.setLimit((int) limit);
+		private boolean isMatching(final ODocument doc) {
+			if (labels != null && labels.length > 0) {
+				boolean labeled = false;
+				if (classNames != null) {
+					for (String className : classNames)
+						if (doc.getSchemaClass().isSubClassOf(className)) {
+							labeled = true;
+							break;
+						}
+				} else {
+					final Object label = doc.field(OrientElement.LABEL_FIELD_NAME);
+					for (String l : labels)
+						if (l.equals(label)) {
+							labeled = true;
+							break;
+						}
+				}
+				if (!labeled)
+					return false;
+			}
 
-		return new OrientElementIterable<Edge>(((OrientBaseGraph) graph),
-				((OrientBaseGraph) graph).getRawGraph().query(query));
+			final Element element = wrap(doc);
+			for (HasContainer has : hasContainers)
+				if (!has.isLegal(element))
+					return false;
+			return true;
+		}
 	}
 
 	public String getFetchPlan() {
@@ -220,9 +508,7 @@ public class OrientGraphQuery extends DefaultGraphQuery {
 			for (int i = 0; i < labels.length; ++i) {
 				if (i > 0)
 					text.append(QUERY_SEPARATOR);
-				text.append(QUERY_STRING);
-				text.append(labels[i]);
-				text.append(QUERY_STRING);
+				text.append(PARAMETER);
 			}
 			text.append(QUERY_LABEL_END);
 		}
@@ -247,18 +533,18 @@ public class OrientGraphQuery extends DefaultGraphQuery {
 
 				if (has.value instanceof String) {
 					text.append(OPERATOR_LIKE);
-					generateFilterValue(text, has.value);
+					text.append(PARAMETER);
 				} else {
 					text.append(OPERATOR_IN);
 					text.append(COLLECTION_BEGIN);
 
 					boolean firstItem = true;
-					for (Object o : (Collection<Object>) has.value) {
+					for (int i = 0; i < ((Collection<Object>) has.value).size(); ++i) {
 						if (!firstItem)
 							text.append(QUERY_SEPARATOR);
 						else
 							firstItem = false;
-						generateFilterValue(text, o);
+						text.append(PARAMETER);
 					}
 
 					text.append(COLLECTION_END);
@@ -302,7 +588,10 @@ public class OrientGraphQuery extends DefaultGraphQuery {
 						break;
 					}
 					text.append(SPACE);
-					generateFilterValue(text, has.value);
+					if (has.value == null)
+						text.append(NULL);
+					else
+						text.append(PARAMETER);
 				}
 
 				if (has.value instanceof Collection<?>)
@@ -311,23 +600,9 @@ public class OrientGraphQuery extends DefaultGraphQuery {
 		}
 	}
 
-	protected void generateFilterValue(final StringBuilder text,
-			final Object iValue) {
-		if (iValue instanceof String)
-			text.append(QUERY_STRING);
-
-		final Object value;
-
+	protected Object generateFilterValue(final Object iValue) {
 		if (iValue instanceof Date)
-			value = ((Date) iValue).getTime();
-		else if (iValue != null)
-			value = iValue.toString().replace("'", "\\'");
-		else
-			value = iValue;
-
-		text.append(value);
-
-		if (iValue instanceof String)
-			text.append(QUERY_STRING);
+			return ((Date) iValue).getTime();
+		return iValue;
 	}
 }
\ No newline at end of file
@@ -1,18 +1,62 @@
 package com.tinkerpop.blueprints.impls.orient;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.orientechnologies.common.util.OPair;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.db.record.ORecordLazyMultiValue;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+import com.tinkerpop.blueprints.Contains;
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.Vertex;
 import com.tinkerpop.blueprints.util.DefaultVertexQuery;
+import com.tinkerpop.blueprints.util.StringFactory;
 
 /**
  * OrientDB implementation for vertex query.
+ * <p/>
+ * Queries with conditions read the connection fields of the vertex without loading the connected records:
+ * lightweight edges (links to vertices) are recognized by the cluster of the linked record and are filtered in memory,
+ * as they have no properties, while edge documents are filtered by OSQL queries against their record ids, in batches.
  *
  * @author Luca Garulli (http://www.orientechnologies.com)
  */
 public class OrientVertexQuery extends DefaultVertexQuery {
 
+    protected static final int BATCH_SIZE = 1000;
+
     public OrientVertexQuery(final OrientVertex vertex) {
         super(vertex);
     }
 
+    @Override
+    public Iterable<Edge> edges() {
+        if (hasContainers.isEmpty())
+            return super.edges();
+        return new OrientVertexQueryIterable<Edge>(false);
+    }
+
+    @Override
+    public Iterable<Vertex> vertices() {
+        if (hasContainers.isEmpty())
+            return super.vertices();
+        return new OrientVertexQueryIterable<Vertex>(true);
+    }
+
     @Override
     public long count() {
         if (hasContainers.isEmpty()) {
@@ -26,4 +70,190 @@ public class OrientVertexQuery extends DefaultVertexQuery {
         // ITERATE EDGES TO MATCH CONDITIONS
         return super.count();
     }
+
+    /**
+     * Returns true if the condition can be executed by OSQL with the same semantics as in memory.
+     */
+    protected boolean isPushable(final HasContainer has) {
+        if (has.key.equals(StringFactory.ID) || has.key.equals(StringFactory.LABEL) || has.key.startsWith("_"))
+            return false;
+        if (has.predicate instanceof Contains)
+            return has.value instanceof Collection<?>;
+        return has.predicate instanceof com.tinkerpop.blueprints.Compare && !(has.value instanceof Collection<?>);
+    }
+
+    private class OrientVertexQueryIterable<T extends Element> implements Iterable<T> {
+
+        private final boolean forVertex;
+        private final OrientVertex source;
+        private final OrientBaseGraph graph;
+        private final String[] encodedLabels;
+        private final OrientGraphQuery filter;
+        private final List<HasContainer> remaining = new ArrayList<HasContainer>();
+
+        public OrientVertexQueryIterable(final boolean forVertex) {
+            this.forVertex = forVertex;
+            this.source = (OrientVertex) vertex;
+            this.graph = this.source.graph;
+            this.encodedLabels = labels.clone();
+            OrientBaseGraph.encodeClassNames(this.encodedLabels);
+
+            // CONDITIONS ARE EXECUTED BY OSQL, UNLESS INSIDE A TRANSACTION THAT OSQL DOES NOT SEE
+            if (this.graph.getRawGraph().getTransaction().isActive()) {
+                this.filter = null;
+                this.remaining.addAll(hasContainers);
+            } else {
+                this.filter = new OrientGraphQuery(this.graph);
+                for (final HasContainer has : hasContainers) {
+                    if (isPushable(has))
+                        this.filter.has(has.key, has.predicate, has.value);
+                    else
+                        this.remaining.add(has);
+                }
+            }
+        }
+
+        public Iterator<T> iterator() {
+            this.graph.setCurrentGraphInThreadLocal();
+            final ODocument doc = this.source.getRecord();
+            final Iterator<String> fieldNames = Arrays.asList(doc.fieldNames()).iterator();
+
+            return new Iterator<T>() {
+                private final LinkedList<T> ready = new LinkedList<T>();
+                private final Map<ORID, List<Direction>> batch = new HashMap<ORID, List<Direction>>();
+                private OPair<Direction, String> connection = null;
+                private Iterator<?> items = Collections.emptyList().iterator();
+                private long count = 0;
+
+                public boolean hasNext() {
+                    return !this.ready.isEmpty() || this.loadNext();
+                }
+
+                public T next() {
+                    if (!this.hasNext())
+                        throw new NoSuchElementException();
+                    return this.ready.removeFirst();
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+
+                private boolean loadNext() {
+                    while (this.ready.isEmpty() && this.count < limit) {
+                        if (this.items.hasNext()) {
+                            this.addItem(this.items.next());
+                            if (this.batch.size() >= BATCH_SIZE)
+                                this.flush();
+                        } else if (fieldNames.hasNext()) {
+                            final String fieldName = fieldNames.next();
+                            this.connection = source.getConnection(direction, fieldName, encodedLabels);
+                            if (this.connection != null)
+                                this.items = iterate(doc.field(fieldName));
+                        } else if (!this.batch.isEmpty()) {
+                            this.flush();
+                        } else {
+                            return false;
+                        }
+                    }
+                    return !this.ready.isEmpty();
+                }
+
+                private void addItem(final Object item) {
+                    if (!(item instanceof OIdentifiable))
+                        return;
+                    final ORID rid = ((OIdentifiable) item).getIdentity();
+                    final Direction dir = this.connection.getKey();
+
+                    OClass cls = graph.getRawGraph().getMetadata().getSchema().getClassByClusterId(rid.getClusterId());
+                    if (cls == null) {
+                        final ODocument record = ((OIdentifiable) item).getRecord();
+                        cls = record == null ? null : record.getSchemaClass();
+                        if (cls == null)
+                            return;
+                    }
+
+                    if (cls.isSubClassOf(OrientVertex.CLASS_NAME)) {
+                        // LIGHTWEIGHT EDGE: NO PROPERTIES, NO RECORD TO LOAD
+                        final OrientEdge edge = dir == Direction.OUT ?
+                                new OrientEdge(graph, source.getIdentity(), rid, this.connection.getValue()) :
+                                new OrientEdge(graph, rid, source.getIdentity(), this.connection.getValue());
+                        if (isLegal(edge, hasContainers))
+                            this.add(edge, rid);
+                    } else if (cls.isSubClassOf(OrientEdge.CLASS_NAME)) {
+                        List<Direction> directions = this.batch.get(rid);
+                        if (directions == null) {
+                            directions = new ArrayList<Direction>(1);
+                            this.batch.put(rid, directions);
+                        }
+                        directions.add(dir);
+                    } else
+                        throw new IllegalStateException("Invalid content found between connections:" + rid);
+                }
+
+                private void flush() {
+                    final List<OIdentifiable> records;
+                    if (filter == null) {
+                        records = new ArrayList<OIdentifiable>(this.batch.keySet());
+                    } else {
+                        final StringBuilder target = new StringBuilder();
+                        target.append(OrientGraphQuery.COLLECTION_BEGIN);
+                        for (final ORID rid : this.batch.keySet()) {
+                            if (target.length() > 1)
+                                target.append(OrientGraphQuery.QUERY_SEPARATOR);
+                            target.append(rid.toString());
+                        }
+                        target.append(OrientGraphQuery.COLLECTION_END);
+
+                        final OSQLSynchQuery<OIdentifiable> query = new OSQLSynchQuery<OIdentifiable>(
+                                filter.createStatement(target.toString(), false, false, 0, 0));
+                        records = graph.getRawGraph().query(query, filter.createParameters(false));
+                    }
+
+                    for (final OIdentifiable record : records) {
+                        final ODocument edgeRecord = record.getRecord();
+                        if (edgeRecord == null)
+                            continue;
+                        final OrientEdge edge = new OrientEdge(graph, edgeRecord);
+                        if (!graph.isUseVertexFieldsForEdgeLabels() && !edge.isLabeled(encodedLabels))
+                            continue;
+                        if (!isLegal(edge, remaining))
+                            continue;
+
+                        final List<Direction> directions = this.batch.get(edgeRecord.getIdentity());
+                        if (directions == null)
+                            continue;
+                        for (final Direction dir : directions)
+                            this.add(edge, OrientEdge.getConnection(edgeRecord, dir.opposite()));
+                    }
+                    this.batch.clear();
+                }
+
+                @SuppressWarnings("unchecked")
+                private void add(final OrientEdge edge, final OIdentifiable other) {
+                    if (this.count++ >= limit)
+                        return;
+                    this.ready.add(forVertex ? (T) new OrientVertex(graph, other) : (T) edge);
+                }
+            };
+        }
+
+        private boolean isLegal(final Edge edge, final List<HasContainer> containers) {
+            for (final HasContainer has : containers) {
+                if (!has.isLegal(edge))
+                    return false;
+            }
+            return true;
+        }
+
+        private Iterator<?> iterate(final Object fieldValue) {
+            if (fieldValue instanceof OIdentifiable)
+                return Collections.singletonList(fieldValue).iterator();
+            else if (fieldValue instanceof ORecordLazyMultiValue)
+                return ((ORecordLazyMultiValue) fieldValue).rawIterator();
+            else if (fieldValue instanceof Collection<?>)
+                return ((Collection<?>) fieldValue).iterator();
+            return Collections.emptyList().iterator();
+        }
+    }
 }
@@ -4,6 +4,7 @@ import java.io.File;
 import java.lang.reflect.Method;
 
 import com.orientechnologies.orient.core.db.graph.OGraphDatabase;
+import com.tinkerpop.blueprints.BulkRetrievalGraphTestSuite;
 import com.tinkerpop.blueprints.Graph;
 import com.tinkerpop.blueprints.GraphQueryTestSuite;
 import com.tinkerpop.blueprints.IndexableGraphTestSuite;
@@ -48,6 +49,12 @@ public class OrientGraphNoTxTest extends GraphTest {
         printTestPerformance("KeyIndexableGraphTestSuite", this.stopWatch());
     }
 
+    public void testBulkRetrievalGraphTestSuite() throws Exception {
+        this.stopWatch();
+        doTestSuite(new BulkRetrievalGraphTestSuite(this));
+        printTestPerformance("BulkRetrievalGraphTestSuite", this.stopWatch());
+    }
+
     public void testGraphMLReaderTestSuite() throws Exception {
         this.stopWatch();
         doTestSuite(new GraphMLReaderTestSuite(this));
@@ -1,12 +1,18 @@
 package com.tinkerpop.blueprints.impls.orient;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.junit.Assert;
 
+import com.orientechnologies.orient.core.index.OIndexManager;
+import com.orientechnologies.orient.core.index.OPropertyIndexDefinition;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Graph;
 import com.tinkerpop.blueprints.TestSuite;
 import com.tinkerpop.blueprints.TransactionalGraph;
@@ -54,6 +60,163 @@ public class OrientGraphSpecificTestSuite extends TestSuite {
 				+ "/graph");
 	}
 
+	public void testBulkRetrievalByRecordIds() throws Exception {
+		OrientGraph graph = (OrientGraph) graphTest.generateGraph("bulk");
+		graph.setUseLightweightEdges(false);
+		final Vertex a = graph.addVertex(null);
+		final Vertex b = graph.addVertex(null);
+		final Edge e = graph.addEdge(null, a, b, "knows");
+		graph.commit();
+
+		// the same record as a string and as a record id is retrieved once
+		assertEquals(1, count(graph.getVertices(Arrays.asList(a.getId()
+				.toString(), a.getId()))));
+		assertEquals(1, count(graph.getEdges(Arrays.asList(e.getId()
+				.toString(), e.getId()))));
+
+		// records of the other kind are skipped
+		assertEquals(1, count(graph.getVertices(Arrays.asList(a.getId(),
+				e.getId()))));
+		assertEquals(0, count(graph.getEdges(Arrays.asList(a.getId(),
+				b.getId()))));
+		assertEquals(b, graph.getVertices(Arrays.asList(e.getId(), b.getId()))
+				.iterator().next());
+
+		graph.shutdown();
+		graphTest.dropGraph(((OrientGraphTest) graphTest).getWorkingDirectory()
+				+ "/bulk");
+	}
+
+	public void testQueryInsideTransaction() throws Exception {
+		OrientGraph graph = (OrientGraph) graphTest.generateGraph("tx-query");
+		graph.setUseClassForVertexLabel(true);
+		graph.createVertexType("Person");
+		graph.createVertexType("Company");
+		graph.createVertexType("Place");
+
+		final Vertex marko = graph.addVertex("class:Person", "name", "marko", "age", 29);
+		final Vertex josh = graph.addVertex("class:Person", "name", "josh", "age", 32);
+		graph.addVertex("class:Company", "name", "tinkerpop", "age", 5);
+		graph.addVertex("class:Place", "name", "santa fe", "age", 400);
+		graph.commit();
+
+		// created, updated and deleted records of the open transaction
+		graph.addVertex("class:Person", "name", "peter", "age", 35);
+		josh.setProperty("age", 20);
+		marko.remove();
+
+		assertEquals(2, count(graph.query().labels("Person").vertices()));
+		assertEquals(1, count(graph.query().labels("Person")
+				.has("age", com.tinkerpop.blueprints.Compare.GREATER_THAN, 30).vertices()));
+		assertEquals(1, count(graph.query().has("name", "josh").vertices()));
+		assertEquals(0, count(graph.query().has("name", "marko").vertices()));
+		assertEquals(3, count(graph.query().labels("Person", "Company").vertices()));
+		assertEquals(2, count(graph.query().labels("Person", "Company")
+				.has("age", com.tinkerpop.blueprints.Compare.LESS_THAN, 30).vertices()));
+		assertEquals(2, count(graph.query().labels("Person", "Company").limit(2).vertices()));
+		assertEquals(4, count(graph.query().vertices()));
+
+		graph.rollback();
+		assertEquals(2, count(graph.query().labels("Person").vertices()));
+		assertEquals(1, count(graph.query().has("name", "marko").vertices()));
+		assertEquals(3, count(graph.query().labels("Person", "Company").vertices()));
+
+		graph.shutdown();
+		graphTest.dropGraph(((OrientGraphTest) graphTest).getWorkingDirectory()
+				+ "/tx-query");
+	}
+
+	public void testParameterizedQueries() throws Exception {
+		OrientGraph graph = (OrientGraph) graphTest.generateGraph("param-query");
+		graph.addVertex(null, "name", "o'brien", "age", 29);
+		graph.addVertex(null, "name", "josh", "age", 32);
+		graph.addVertex(null, "name", "peter", "age", 35);
+		graph.commit();
+
+		// queries of the same shape are executed with their own values
+		assertEquals(1, count(graph.query().has("name", "o'brien").vertices()));
+		assertEquals(1, count(graph.query().has("name", "josh").vertices()));
+		assertEquals(0, count(graph.query().has("name", "marko").vertices()));
+		assertEquals(2, count(graph.query()
+				.has("age", com.tinkerpop.blueprints.Compare.GREATER_THAN, 30).vertices()));
+		assertEquals(1, count(graph.query()
+				.has("age", com.tinkerpop.blueprints.Compare.GREATER_THAN, 33).vertices()));
+		assertEquals(2, count(graph.query()
+				.has("name", com.tinkerpop.blueprints.Contains.IN, Arrays.asList("josh", "peter")).vertices()));
+		assertEquals(1, count(graph.query()
+				.has("name", com.tinkerpop.blueprints.Contains.IN, Arrays.asList("peter")).vertices()));
+
+		// the indexed keys are refreshed when key indices change
+		assertFalse(graph.getIndexedKeys(Vertex.class).contains("name"));
+		graph.createKeyIndex("name", Vertex.class);
+		assertTrue(graph.getIndexedKeys(Vertex.class).contains("name"));
+		assertEquals(1, count(graph.getVertices("name", "josh")));
+		graph.dropKeyIndex("name", Vertex.class);
+		assertFalse(graph.getIndexedKeys(Vertex.class).contains("name"));
+		assertEquals(1, count(graph.getVertices("name", "josh")));
+
+		// and when the indices of the database are changed by other means,
+		// such as by another graph on the same database
+		graph.commit();
+		final OIndexManager indexManager = graph.getRawGraph().getMetadata()
+				.getIndexManager();
+		indexManager.createIndex(OrientVertex.CLASS_NAME + ".age",
+				OClass.INDEX_TYPE.NOTUNIQUE.name(),
+				new OPropertyIndexDefinition(OrientVertex.CLASS_NAME, "age",
+						OType.INTEGER), graph.getRawGraph().getMetadata()
+						.getSchema().getClass(OrientVertex.CLASS_NAME)
+						.getPolymorphicClusterIds(), null, null);
+		assertTrue(graph.getIndexedKeys(Vertex.class).contains("age"));
+		indexManager.dropIndex(OrientVertex.CLASS_NAME + ".age");
+		assertFalse(graph.getIndexedKeys(Vertex.class).contains("age"));
+
+		graph.shutdown();
+		graphTest.dropGraph(((OrientGraphTest) graphTest).getWorkingDirectory()
+				+ "/param-query");
+	}
+
+	public void testVertexQueryConditions() throws Exception {
+		OrientGraph graph = (OrientGraph) graphTest.generateGraph("vertex-query");
+		OrientVertex marko = graph.addVertex(null, "name", "marko");
+		OrientVertex vadas = graph.addVertex(null, "name", "vadas");
+		OrientVertex josh = graph.addVertex(null, "name", "josh");
+		OrientVertex lop = graph.addVertex(null, "name", "lop");
+		marko.addEdge("knows", vadas, new Object[] { "weight", 0.5f });
+		marko.addEdge("knows", josh, new Object[] { "weight", 1.0f });
+		marko.addEdge("created", lop, new Object[] { "weight", 0.4f });
+		// lightweight edges, without properties
+		marko.addEdge("likes", lop);
+		josh.addEdge("likes", marko);
+		graph.commit();
+
+		for (int i = 0; i < 2; i++) {
+			// once against committed data, once inside a transaction
+			assertEquals(2, count(marko.query().direction(Direction.OUT)
+					.has("weight", com.tinkerpop.blueprints.Compare.GREATER_THAN, 0.45f).edges()));
+			assertEquals(1, count(marko.query().direction(Direction.OUT).labels("knows")
+					.has("weight", com.tinkerpop.blueprints.Compare.GREATER_THAN, 0.6f).vertices()));
+			assertEquals("josh", marko.query().direction(Direction.OUT).labels("knows")
+					.has("weight", com.tinkerpop.blueprints.Compare.GREATER_THAN, 0.6f)
+					.vertices().iterator().next().getProperty("name"));
+			assertEquals(1, count(marko.query().direction(Direction.OUT)
+					.interval("weight", 0.3f, 0.45f).vertices()));
+			assertEquals(2, count(marko.query().direction(Direction.BOTH).hasNot("weight").edges()));
+			assertEquals(1, count(marko.query().direction(Direction.IN).hasNot("weight").vertices()));
+			assertEquals(1, count(marko.query().direction(Direction.OUT).hasNot("weight")
+					.has("label", "likes").edges()));
+			assertEquals(3, marko.query().direction(Direction.OUT).has("weight").count());
+			assertEquals(2, marko.query().direction(Direction.OUT).has("weight").limit(2).count());
+			assertEquals(0, count(marko.query().direction(Direction.IN).has("weight").edges()));
+
+			marko.setProperty("visited", true);
+		}
+		graph.rollback();
+
+		graph.shutdown();
+		graphTest.dropGraph(((OrientGraphTest) graphTest).getWorkingDirectory()
+				+ "/vertex-query");
+	}
+
 	public void testComplexMapProperty() throws Exception {
 		// complex map properties have problems when unmarshalled from disk to
 		// an OTrackedMap
@@ -4,6 +4,7 @@ import java.io.File;
 import java.lang.reflect.Method;
 
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.tinkerpop.blueprints.BulkRetrievalGraphTestSuite;
 import com.tinkerpop.blueprints.EdgeTestSuite;
 import com.tinkerpop.blueprints.Graph;
 import com.tinkerpop.blueprints.GraphQueryTestSuite;
@@ -83,6 +84,12 @@ public abstract class OrientGraphTest extends GraphTest {
         printTestPerformance("KeyIndexableGraphTestSuite", this.stopWatch());
     }
 
+    public void testBulkRetrievalGraphTestSuite() throws Exception {
+        this.stopWatch();
+        doTestSuite(new BulkRetrievalGraphTestSuite(this));
+        printTestPerformance("BulkRetrievalGraphTestSuite", this.stopWatch());
+    }
+
     public void testTransactionalGraphTestSuite() throws Exception {
         this.stopWatch();
         doTestSuite(new TransactionalGraphTestSuite(this));
@@ -1,19 +1,21 @@
 package com.tinkerpop.blueprints.impls.rexster;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.tinkerpop.blueprints.util.io.graphson.GraphSONTokens;
 import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
-import org.codehaus.jettison.json.JSONTokener;
 
-import java.io.BufferedReader;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.net.HttpURLConnection;
 import java.net.URL;
-import java.net.URLConnection;
 import java.net.URLEncoder;
+import java.util.zip.GZIPInputStream;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -24,12 +26,13 @@ final class RestHelper {
     public static RexsterAuthentication Authentication;
     private static final String PUT = "PUT";
     private static final String DELETE = "DELETE";
+    private static final JsonFactory JSON_FACTORY = new JsonFactory().disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
 
     static JSONObject get(final String uri) {
         try {
-            final URLConnection connection = createConnection(uri, null, RexsterTokens.APPLICATION_REXSTER_TYPED_JSON);
+            final HttpURLConnection connection = createConnection(uri, null, RexsterTokens.APPLICATION_REXSTER_TYPED_JSON);
             connection.connect();
-            return new JSONObject(new JSONTokener(convertStreamToString(connection.getInputStream())));
+            return readResponse(connection);
         } catch (Exception e) {
             throw new RuntimeException(e.getMessage(), e);
         }
@@ -48,6 +51,11 @@ final class RestHelper {
                 RexsterTokens.APPLICATION_JSON, false).optJSONArray(RexsterTokens.RESULTS);
     }
 
+    static JSONArray postTypedResultArray(final String uri, final JSONObject json) {
+        return post(uri, json.toString(), RexsterTokens.APPLICATION_JSON,
+                RexsterTokens.APPLICATION_REXSTER_TYPED_JSON, false).optJSONArray(RexsterTokens.RESULTS);
+    }
+
     static JSONObject postResultObject(final String uri) {
         return post(uri, postData(uri), null, RexsterTokens.APPLICATION_JSON, false).optJSONObject(RexsterTokens.RESULTS);
     }
@@ -69,6 +77,13 @@ final class RestHelper {
         act(uri, PUT, null, RexsterTokens.APPLICATION_REXSTER_TYPED_JSON);
     }
 
+    /**
+     * @return whether the request failed because the resource was not found (e.g. an extension that is not configured)
+     */
+    static boolean isNotFound(final RuntimeException e) {
+        return e.getCause() instanceof FileNotFoundException;
+    }
+
     static Object typeCast(final String type, final Object value) {
         if (type.equals(GraphSONTokens.TYPE_STRING))
             return value.toString();
@@ -116,7 +131,7 @@ final class RestHelper {
         try {
             final HttpURLConnection connection = createConnection(uri, contentType, accept);
             connection.setRequestMethod(verb);
-            new InputStreamReader(connection.getInputStream()).close();
+            consumeResponse(connection);
         } catch (Exception e) {
             throw new RuntimeException(e.getMessage(), e);
         }
@@ -134,6 +149,8 @@ final class RestHelper {
             connection.setRequestProperty(RexsterTokens.ACCEPT, accept);
         }
 
+        connection.setRequestProperty(RexsterTokens.ACCEPT_ENCODING, RexsterTokens.GZIP);
+
         if (Authentication.isAuthenticationEnabled()) {
             connection.setRequestProperty(RexsterTokens.AUTHORIZATION, Authentication.getAuthenticationHeaderValue());
         }
@@ -151,10 +168,10 @@ final class RestHelper {
             writer.close();
 
             if (noResult) {
-                new InputStreamReader(connection.getInputStream()).close();
+                consumeResponse(connection);
                 return null;
             } else {
-                return new JSONObject(new JSONTokener(convertStreamToString(connection.getInputStream())));
+                return readResponse(connection);
             }
         } catch (Exception e) {
             throw new RuntimeException(e.getMessage(), e);
@@ -189,14 +206,98 @@ final class RestHelper {
         return uri.replace(" ", "%20");
     }
 
-    private static String convertStreamToString(final InputStream is) throws Exception {
-        final BufferedReader reader = new BufferedReader(new InputStreamReader(is));
-        final StringBuilder sb = new StringBuilder();
-        String line = null;
-        while ((line = reader.readLine()) != null) {
-            sb.append(line + "\n");
+    /**
+     * Decodes the JSON response body as it is read off the connection, without first buffering it into a String.
+     * The body is always read to its end and closed so that the underlying connection is returned to the keep-alive cache.
+     */
+    private static JSONObject readResponse(final HttpURLConnection connection) throws IOException, JSONException {
+        final InputStream inputStream = openResponseStream(connection);
+        try {
+            final JsonParser parser = JSON_FACTORY.createParser(inputStream);
+            try {
+                if (parser.nextToken() != JsonToken.START_OBJECT)
+                    throw new JSONException("The response from " + connection.getURL() + " is not a JSON object");
+                return readObject(parser);
+            } finally {
+                parser.close();
+            }
+        } finally {
+            drain(inputStream);
+        }
+    }
+
+    /**
+     * Reads and discards the response body so that the underlying connection can be reused.
+     */
+    private static void consumeResponse(final HttpURLConnection connection) throws IOException {
+        drain(openResponseStream(connection));
+    }
+
+    private static InputStream openResponseStream(final HttpURLConnection connection) throws IOException {
+        final InputStream inputStream;
+        try {
+            inputStream = connection.getInputStream();
+        } catch (IOException ioe) {
+            // the error body must be consumed as well or the connection can not be reused
+            drain(connection.getErrorStream());
+            throw ioe;
+        }
+        if (RexsterTokens.GZIP.equalsIgnoreCase(connection.getContentEncoding()))
+            return new GZIPInputStream(inputStream);
+        else
+            return inputStream;
+    }
+
+    private static void drain(final InputStream inputStream) throws IOException {
+        if (null == inputStream)
+            return;
+        try {
+            final byte[] buffer = new byte[4096];
+            while (inputStream.read(buffer) != -1) {
+            }
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    private static JSONObject readObject(final JsonParser parser) throws IOException, JSONException {
+        final JSONObject object = new JSONObject();
+        while (parser.nextToken() != JsonToken.END_OBJECT) {
+            final String key = parser.getCurrentName();
+            parser.nextToken();
+            object.put(key, readValue(parser));
+        }
+        return object;
+    }
+
+    private static JSONArray readArray(final JsonParser parser) throws IOException, JSONException {
+        final JSONArray array = new JSONArray();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            array.put(readValue(parser));
+        }
+        return array;
+    }
+
+    private static Object readValue(final JsonParser parser) throws IOException, JSONException {
+        switch (parser.getCurrentToken()) {
+            case START_OBJECT:
+                return readObject(parser);
+            case START_ARRAY:
+                return readArray(parser);
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+                return parser.getNumberValue();
+            case VALUE_NUMBER_FLOAT:
+                return parser.getDoubleValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return JSONObject.NULL;
+            default:
+                throw new JSONException("Unexpected JSON token " + parser.getCurrentToken());
         }
-        is.close();
-        return sb.toString();
     }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.tinkerpop.blueprints.impls.rexster;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.ExceptionFactory;
+import com.tinkerpop.blueprints.util.StringFactory;
+
+class RexsterBatchEdge extends RexsterBatchElement implements Edge {
+
+    private final String label;
+    private final Vertex outVertex;
+    private final Vertex inVertex;
+
+    protected RexsterBatchEdge(final String tmpId, final Vertex outVertex, final Vertex inVertex, final String label, final RexsterBatchGraph graph) {
+        super(tmpId, graph);
+        this.label = label;
+        this.outVertex = outVertex;
+        this.inVertex = inVertex;
+    }
+
+    protected RexsterBatchEdge(final String tmpId, final Object id, final RexsterEdge baseEdge, final RexsterBatchGraph graph) {
+        super(tmpId, id, baseEdge, graph);
+        this.label = null == baseEdge ? null : baseEdge.getLabel();
+        this.outVertex = null;
+        this.inVertex = null;
+    }
+
+    public Vertex getVertex(final Direction direction) {
+        if (direction.equals(Direction.OUT)) {
+            if (null != this.outVertex)
+                return this.outVertex;
+        } else if (direction.equals(Direction.IN)) {
+            if (null != this.inVertex)
+                return this.inVertex;
+        } else {
+            throw ExceptionFactory.bothIsNotSupported();
+        }
+
+        return this.graph.wrapVertex((RexsterVertex) ((Edge) this.getBaseElement()).getVertex(direction));
+    }
+
+    public String getLabel() {
+        if (null != this.label)
+            return this.label;
+        return ((Edge) this.getBaseElement()).getLabel();
+    }
+
+    public String toString() {
+        return StringFactory.edgeString(this);
+    }
+
+    protected RexsterElement loadBaseElement() {
+        final RexsterEdge edge = (RexsterEdge) this.graph.getBaseGraph().getEdge(this.getId());
+        if (null == edge)
+            throw new IllegalStateException("Edge with id does not exist: " + this.getId());
+        return edge;
+    }
+}
@@ -0,0 +1,41 @@
+package com.tinkerpop.blueprints.impls.rexster;
+
+import com.tinkerpop.blueprints.CloseableIterable;
+import com.tinkerpop.blueprints.Edge;
+
+import java.util.Iterator;
+
+class RexsterBatchEdgeIterable implements CloseableIterable<Edge> {
+
+    private final Iterable<Edge> iterable;
+    private final RexsterBatchGraph graph;
+
+    public RexsterBatchEdgeIterable(final Iterable<Edge> iterable, final RexsterBatchGraph graph) {
+        this.iterable = iterable;
+        this.graph = graph;
+    }
+
+    public Iterator<Edge> iterator() {
+        return new Iterator<Edge>() {
+            private final Iterator<Edge> itty = iterable.iterator();
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+            public boolean hasNext() {
+                return this.itty.hasNext();
+            }
+
+            public Edge next() {
+                return graph.wrapEdge((RexsterEdge) this.itty.next());
+            }
+        };
+    }
+
+    public void close() {
+        if (this.iterable instanceof CloseableIterable) {
+            ((CloseableIterable) iterable).close();
+        }
+    }
+}
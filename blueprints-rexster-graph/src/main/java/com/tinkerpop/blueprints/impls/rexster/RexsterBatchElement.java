@@ -0,0 +1,148 @@
+package com.tinkerpop.blueprints.impls.rexster;
+
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.ElementHelper;
+import org.codehaus.jettison.json.JSONObject;
+
+import java.util.Set;
+
+/**
+ * A RexsterBatchElement is the client side proxy of an element of a RexsterBatchGraph.
+ * An element that was added through the graph only has a temporary id until the buffer of the graph is flushed.
+ * Property writes are buffered by the graph. Reads flush the buffer and are served by the underlying RexsterElement.
+ */
+abstract class RexsterBatchElement implements Element {
+
+    protected final RexsterBatchGraph graph;
+    private final String tmpId;
+    private Object id;
+    private boolean resolved;
+    private boolean removed = false;
+    private RexsterElement baseElement;
+
+    protected RexsterBatchElement(final String tmpId, final RexsterBatchGraph graph) {
+        this.graph = graph;
+        this.tmpId = tmpId;
+        this.resolved = false;
+    }
+
+    protected RexsterBatchElement(final Object id, final RexsterElement baseElement, final RexsterBatchGraph graph) {
+        this(null, id, baseElement, graph);
+    }
+
+    /**
+     * @param tmpId the temporary id the element was added with, or null if it was not added through the graph
+     */
+    protected RexsterBatchElement(final String tmpId, final Object id, final RexsterElement baseElement, final RexsterBatchGraph graph) {
+        this.graph = graph;
+        this.tmpId = tmpId;
+        this.id = id;
+        this.resolved = true;
+        this.baseElement = baseElement;
+    }
+
+    /**
+     * The id of an element that was added through the graph is only known once the buffer is flushed, so it flushes the buffer.
+     */
+    public Object getId() {
+        if (!this.resolved)
+            this.graph.flush();
+        return this.id;
+    }
+
+    public <T> T getProperty(final String key) {
+        return this.getBaseElement().getProperty(key);
+    }
+
+    public Set<String> getPropertyKeys() {
+        return this.getBaseElement().getPropertyKeys();
+    }
+
+    public void setProperty(final String key, final Object value) {
+        ElementHelper.validateProperty(this, key, value);
+        this.graph.setProperty(this, key, value);
+        if (null != this.baseElement)
+            this.baseElement.refresh();
+    }
+
+    /**
+     * The previous value has to be returned, so the buffer is flushed and the property is removed on the server right away.
+     */
+    public <T> T removeProperty(final String key) {
+        return this.getBaseElement().removeProperty(key);
+    }
+
+    public void remove() {
+        if (this instanceof Vertex)
+            this.graph.removeVertex((Vertex) this);
+        else
+            this.graph.removeEdge((Edge) this);
+    }
+
+    /**
+     * An element that was added through the graph is identified by its temporary id, so that comparing or hashing it does
+     * not flush the buffer. Other elements, and elements read back after the graph forgot their id, are identified by their id.
+     */
+    public boolean equals(final Object object) {
+        if (this == object)
+            return true;
+        if (null == object || this.getClass() != object.getClass())
+            return false;
+
+        final RexsterBatchElement other = (RexsterBatchElement) object;
+        if (null != this.tmpId || null != other.tmpId)
+            return this.graph == other.graph && null != this.tmpId && this.tmpId.equals(other.tmpId);
+        return this.id.equals(other.id);
+    }
+
+    public int hashCode() {
+        return null != this.tmpId ? this.tmpId.hashCode() : this.id.hashCode();
+    }
+
+    /**
+     * Flushes the buffer of the graph and returns the element as it is on the server.
+     */
+    protected RexsterElement getBaseElement() {
+        this.graph.flush();
+        if (null == this.baseElement)
+            this.baseElement = this.loadBaseElement();
+        return this.baseElement;
+    }
+
+    protected abstract RexsterElement loadBaseElement();
+
+    String getTmpId() {
+        return this.tmpId;
+    }
+
+    Object getResolvedId() {
+        return this.id;
+    }
+
+    void setId(final Object id) {
+        this.id = id;
+        this.resolved = true;
+    }
+
+    boolean isRemoved() {
+        return this.removed;
+    }
+
+    void setRemoved() {
+        this.removed = true;
+    }
+
+    /**
+     * @return the reference to this element in a buffered mutation
+     */
+    JSONObject ref() {
+        final JSONObject ref = new JSONObject();
+        if (this.resolved)
+            RexsterBatchGraph.put(ref, RexsterBatchGraph.ID, this.id);
+        else
+            RexsterBatchGraph.put(ref, RexsterBatchGraph.TMP, this.tmpId);
+        return ref;
+    }
+}
@@ -0,0 +1,560 @@
+package com.tinkerpop.blueprints.impls.rexster;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.Features;
+import com.tinkerpop.blueprints.GraphQuery;
+import com.tinkerpop.blueprints.TransactionalGraph;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.ExceptionFactory;
+import com.tinkerpop.blueprints.util.StringFactory;
+import com.tinkerpop.blueprints.util.io.graphson.GraphSONTokens;
+import com.tinkerpop.blueprints.util.wrappers.WrappedGraphQuery;
+import com.tinkerpop.blueprints.util.wrappers.WrapperGraph;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * RexsterBatchGraph buffers the mutations made through it and sends them to the Rexster server as a single request.
+ * Vertices and edges that are added are given a temporary id on the client and the id that the server assigned is
+ * mapped back into them when the buffer is flushed.
+ * The buffer is flushed when it holds batchSize mutations, when a mutation is made after the oldest buffered mutation is
+ * older than maxDelay milliseconds, when commit() is called, and before any read that has to go to the server.
+ * <p/>
+ * The ids of the elements added through the graph (up to KNOWN_IDS_CAPACITY of each kind, the least recently used are
+ * forgotten) are remembered, so that getVertex() and getEdge() return them without a request to the server.
+ * <p/>
+ * The buffered mutations are applied by way of the Gremlin extension of the Rexster server, which must be configured.
+ * Property values are sent with their types in the typed GraphSON format, so the script only relies on the Blueprints API.
+ * Each flush is applied in a single transaction on the server, but a RexsterBatchGraph is not transactional across flushes
+ * and rollback() only discards the mutations that have not been flushed.
+ * A flush that fails is not retried: its mutations are discarded and the exception reports how many of them were applied
+ * (none, when the graph of the server is transactional, as the transaction is rolled back).
+ * Being a TransactionalGraph, a RexsterBatchGraph can be wrapped in a BatchGraph to load data into a remote graph.
+ */
+public class RexsterBatchGraph implements TransactionalGraph, WrapperGraph<RexsterGraph> {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final long DEFAULT_MAX_DELAY = 1000l;
+    public static final int KNOWN_IDS_CAPACITY = 100000;
+
+    private static final String OPS = "ops";
+    private static final String IDS = "ids";
+    private static final String APPLIED = "applied";
+    private static final String ERROR = "error";
+    private static final String BATCH_SCRIPT = "def m = [:]; def r = [" + IDS + ": m, " + APPLIED + ": 0]; " +
+            "def e = { x, edge -> def i = x.containsKey('tmp') ? m[x.tmp] : x.id; edge ? g.getEdge(i) : g.getVertex(i) }; " +
+            "def t; t = { x -> switch (x." + GraphSONTokens.TYPE + ") { " +
+            "case '" + GraphSONTokens.TYPE_INTEGER + "': return x.value as Integer; " +
+            "case '" + GraphSONTokens.TYPE_LONG + "': return x.value as Long; " +
+            "case '" + GraphSONTokens.TYPE_FLOAT + "': return x.value as Float; " +
+            "case '" + GraphSONTokens.TYPE_DOUBLE + "': return x.value as Double; " +
+            "case '" + GraphSONTokens.TYPE_SHORT + "': return x.value as Short; " +
+            "case '" + GraphSONTokens.TYPE_BYTE + "': return x.value as Byte; " +
+            "case '" + GraphSONTokens.TYPE_LIST + "': return x.value.collect { t(it) }; " +
+            "case '" + GraphSONTokens.TYPE_MAP + "': return x.value.collectEntries { k, v -> [k, t(v)] }; " +
+            "default: return x.value } }; " +
+            "try { for (o in ops) { " +
+            "if (o.op == 'addVertex') m[o.tmp] = g.addVertex(o.id).id; " +
+            "else if (o.op == 'addEdge') m[o.tmp] = g.addEdge(o.id, e(o.out, false), e(o.in, false), o.label).id; " +
+            "else if (o.op == 'setProperty') e(o.element, o.edge).setProperty(o.key, t(o.value)); " +
+            "else if (o.op == 'removeVertex') g.removeVertex(e(o.element, false)); " +
+            "else if (o.op == 'removeEdge') g.removeEdge(e(o.element, true)); " +
+            "r." + APPLIED + "++ } } " +
+            "catch (ex) { if (g instanceof com.tinkerpop.blueprints.TransactionalGraph) { g.rollback(); m.clear(); r." + APPLIED + " = 0 }; r." + ERROR + " = ex.toString() }; r";
+
+    static final String OP = "op";
+    static final String TMP = "tmp";
+    static final String ID = "id";
+    static final String ELEMENT = "element";
+    static final String EDGE = "edge";
+    static final String KEY = "key";
+    static final String VALUE = "value";
+    static final String OUT = "out";
+    static final String IN = "in";
+    static final String LABEL = "label";
+    static final String ADD_VERTEX = "addVertex";
+    static final String ADD_EDGE = "addEdge";
+    static final String SET_PROPERTY = "setProperty";
+    static final String REMOVE_VERTEX = "removeVertex";
+    static final String REMOVE_EDGE = "removeEdge";
+
+    private final RexsterGraph baseGraph;
+    private final int batchSize;
+    private final long maxDelay;
+    private final Features features;
+
+    private final List<JSONObject> ops = new ArrayList<JSONObject>();
+    private final List<RexsterBatchElement> pendingElements = new ArrayList<RexsterBatchElement>();
+    private final KnownIds knownVertexIds = new KnownIds();
+    private final KnownEdgeIds knownEdgeIds = new KnownEdgeIds();
+    private long firstOpTime = 0l;
+    private long tmpCounter = 0l;
+
+    public RexsterBatchGraph(final RexsterGraph baseGraph) {
+        this(baseGraph, DEFAULT_BATCH_SIZE, DEFAULT_MAX_DELAY);
+    }
+
+    /**
+     * @param baseGraph the RexsterGraph to send the mutations to
+     * @param batchSize the number of mutations after which the buffer is flushed
+     * @param maxDelay  the age in milliseconds of the oldest buffered mutation after which the next mutation flushes the buffer.
+     *                  A negative value only flushes on size, commit() and reads.
+     */
+    public RexsterBatchGraph(final RexsterGraph baseGraph, final int batchSize, final long maxDelay) {
+        this.baseGraph = baseGraph;
+        this.batchSize = batchSize;
+        this.maxDelay = maxDelay;
+        this.features = baseGraph.getFeatures().copyFeatures();
+        this.features.isWrapper = true;
+        this.features.supportsBulkRetrieval = false;
+        this.features.supportsBulkProperties = false;
+        this.features.supportsIndices = false;
+        this.features.supportsKeyIndices = false;
+        this.features.supportsVertexIndex = false;
+        this.features.supportsEdgeIndex = false;
+        this.features.supportsVertexKeyIndex = false;
+        this.features.supportsEdgeKeyIndex = false;
+    }
+
+    public Vertex addVertex(final Object id) {
+        final RexsterBatchVertex vertex = new RexsterBatchVertex(this.nextTmpId(), this);
+        final JSONObject op = op(ADD_VERTEX);
+        put(op, TMP, vertex.getTmpId());
+        put(op, ID, id);
+        this.pendingElements.add(vertex);
+        this.buffer(op);
+        return vertex;
+    }
+
+    /**
+     * A vertex that was added through this graph is returned without a request to the server.
+     */
+    public Vertex getVertex(final Object id) {
+        if (null == id)
+            throw ExceptionFactory.vertexIdCanNotBeNull();
+
+        final String tmpId = this.knownVertexIds.get(id);
+        if (null != tmpId)
+            return new RexsterBatchVertex(tmpId, id, null, this);
+
+        this.flush();
+        final Vertex vertex = this.baseGraph.getVertex(id);
+        return null == vertex ? null : this.wrapVertex((RexsterVertex) vertex);
+    }
+
+    public void removeVertex(final Vertex vertex) {
+        final JSONObject op = op(REMOVE_VERTEX);
+        put(op, ELEMENT, ref(vertex));
+        if (vertex instanceof RexsterBatchVertex)
+            ((RexsterBatchVertex) vertex).setRemoved();
+        final Object id = resolvedId(vertex);
+        if (null != id) {
+            this.knownVertexIds.remove(id);
+            this.knownEdgeIds.removeVertex(id);
+        }
+        this.buffer(op);
+    }
+
+    public Iterable<Vertex> getVertices() {
+        this.flush();
+        return new RexsterBatchVertexIterable(this.baseGraph.getVertices(), this);
+    }
+
+    public Iterable<Vertex> getVertices(final String key, final Object value) {
+        this.flush();
+        return new RexsterBatchVertexIterable(this.baseGraph.getVertices(key, value), this);
+    }
+
+    public Edge addEdge(final Object id, final Vertex outVertex, final Vertex inVertex, final String label) {
+        if (null == label)
+            throw ExceptionFactory.edgeLabelCanNotBeNull();
+
+        final RexsterBatchEdge edge = new RexsterBatchEdge(this.nextTmpId(), outVertex, inVertex, label, this);
+        final JSONObject op = op(ADD_EDGE);
+        put(op, TMP, edge.getTmpId());
+        put(op, ID, id);
+        put(op, OUT, ref(outVertex));
+        put(op, IN, ref(inVertex));
+        put(op, LABEL, label);
+        this.pendingElements.add(edge);
+        this.buffer(op);
+        return edge;
+    }
+
+    /**
+     * An edge that was added through this graph is returned without a request to the server.
+     */
+    public Edge getEdge(final Object id) {
+        if (null == id)
+            throw ExceptionFactory.edgeIdCanNotBeNull();
+
+        final String tmpId = this.knownEdgeIds.get(id);
+        if (null != tmpId)
+            return new RexsterBatchEdge(tmpId, id, null, this);
+
+        this.flush();
+        final Edge edge = this.baseGraph.getEdge(id);
+        return null == edge ? null : this.wrapEdge((RexsterEdge) edge);
+    }
+
+    public void removeEdge(final Edge edge) {
+        final JSONObject op = op(REMOVE_EDGE);
+        put(op, ELEMENT, ref(edge));
+        if (edge instanceof RexsterBatchEdge)
+            ((RexsterBatchEdge) edge).setRemoved();
+        final Object id = resolvedId(edge);
+        if (null != id)
+            this.knownEdgeIds.remove(id);
+        this.buffer(op);
+    }
+
+    public Iterable<Edge> getEdges() {
+        this.flush();
+        return new RexsterBatchEdgeIterable(this.baseGraph.getEdges(), this);
+    }
+
+    public Iterable<Edge> getEdges(final String key, final Object value) {
+        this.flush();
+        return new RexsterBatchEdgeIterable(this.baseGraph.getEdges(key, value), this);
+    }
+
+    public GraphQuery query() {
+        this.flush();
+        final RexsterBatchGraph graph = this;
+        return new WrappedGraphQuery(this.baseGraph.query()) {
+            @Override
+            public Iterable<Edge> edges() {
+                return new RexsterBatchEdgeIterable(this.query.edges(), graph);
+            }
+
+            @Override
+            public Iterable<Vertex> vertices() {
+                return new RexsterBatchVertexIterable(this.query.vertices(), graph);
+            }
+        };
+    }
+
+    /**
+     * Sends the buffered mutations to the server.
+     */
+    public void commit() {
+        this.flush();
+    }
+
+    /**
+     * Discards the mutations that have not been sent to the server.
+     * Elements added since the last flush can no longer be used.
+     */
+    public void rollback() {
+        this.discard();
+    }
+
+    @Deprecated
+    public void stopTransaction(final Conclusion conclusion) {
+        if (Conclusion.SUCCESS == conclusion)
+            this.commit();
+        else
+            this.rollback();
+    }
+
+    public void shutdown() {
+        this.flush();
+        this.baseGraph.shutdown();
+    }
+
+    public Features getFeatures() {
+        return this.features;
+    }
+
+    public RexsterGraph getBaseGraph() {
+        return this.baseGraph;
+    }
+
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    public long getMaxDelay() {
+        return this.maxDelay;
+    }
+
+    /**
+     * @return the number of mutations that have not been sent to the server
+     */
+    public int getBufferedCount() {
+        return this.ops.size();
+    }
+
+    public String toString() {
+        return StringFactory.graphString(this, this.baseGraph.toString());
+    }
+
+    /**
+     * Sends the buffered mutations to the server in a single request and maps the ids assigned by the server into the
+     * elements that were added. The mutations are applied in order and the batch stops at the first one that fails.
+     * A failed batch is discarded rather than retried, as replaying it would apply its first mutations twice, and an
+     * exception that reports how many of the mutations were applied is thrown.
+     */
+    public void flush() {
+        if (this.ops.isEmpty())
+            return;
+
+        final int count = this.ops.size();
+        final Map<String, Object> params = new HashMap<String, Object>();
+        params.put(OPS, new JSONArray(this.ops));
+        final JSONObject result;
+        try {
+            result = getResult(this.baseGraph.execute(BATCH_SCRIPT, params));
+        } catch (RuntimeException e) {
+            this.discard();
+            throw new IllegalStateException("The request for a batch of " + count + " mutations failed and it is unknown which of them were applied: " + e.getMessage(), e);
+        }
+
+        final JSONObject ids = null == result ? null : result.optJSONObject(IDS);
+        final int applied = null == result ? 0 : result.optInt(APPLIED);
+        boolean missingIds = false;
+        for (final RexsterBatchElement element : this.pendingElements) {
+            if (null == ids || ids.isNull(element.getTmpId())) {
+                missingIds = true;
+                continue;
+            }
+
+            final Object id = ids.opt(element.getTmpId());
+            element.setId(id);
+            if (!element.isRemoved()) {
+                if (element instanceof Vertex)
+                    this.knownVertexIds.put(id, element.getTmpId());
+                else {
+                    final RexsterBatchEdge edge = (RexsterBatchEdge) element;
+                    this.knownEdgeIds.put(id, element.getTmpId(), resolvedId(edge.getVertex(Direction.OUT)), resolvedId(edge.getVertex(Direction.IN)));
+                }
+            }
+        }
+        this.discard();
+
+        if (null == result)
+            throw new IllegalStateException("The server did not return the result of a batch of " + count + " mutations, it is unknown which of them were applied");
+        if (result.has(ERROR))
+            throw new IllegalStateException("The first " + applied + " of a batch of " + count + " mutations were applied, the others were discarded: " + result.optString(ERROR));
+        if (missingIds)
+            throw new IllegalStateException("The server applied a batch of " + count + " mutations but did not return the id of every added element");
+    }
+
+    ////////////////////
+
+    /**
+     * @return the proxy of the vertex, identified by its temporary id if it was added through this graph
+     */
+    RexsterBatchVertex wrapVertex(final RexsterVertex vertex) {
+        return new RexsterBatchVertex(this.knownVertexIds.get(vertex.getId()), vertex.getId(), vertex, this);
+    }
+
+    /**
+     * @return the proxy of the edge, identified by its temporary id if it was added through this graph
+     */
+    RexsterBatchEdge wrapEdge(final RexsterEdge edge) {
+        return new RexsterBatchEdge(this.knownEdgeIds.get(edge.getId()), edge.getId(), edge, this);
+    }
+
+    void setProperty(final RexsterBatchElement element, final String key, final Object value) {
+        final JSONObject op = op(SET_PROPERTY);
+        put(op, ELEMENT, element.ref());
+        put(op, EDGE, element instanceof Edge);
+        put(op, KEY, key);
+        put(op, VALUE, typedValue(value));
+        this.buffer(op);
+    }
+
+    private void buffer(final JSONObject op) {
+        if (this.ops.isEmpty())
+            this.firstOpTime = System.currentTimeMillis();
+        this.ops.add(op);
+
+        if (this.ops.size() >= this.batchSize || (this.maxDelay >= 0 && System.currentTimeMillis() - this.firstOpTime >= this.maxDelay))
+            this.flush();
+    }
+
+    private void discard() {
+        this.ops.clear();
+        this.pendingElements.clear();
+        this.firstOpTime = 0l;
+    }
+
+    private String nextTmpId() {
+        return RexsterTokens.UNDERSCORE + this.tmpCounter++;
+    }
+
+    private static JSONObject getResult(final JSONArray results) {
+        Object result = null == results ? null : results.opt(0);
+        while (result instanceof JSONArray) {
+            result = ((JSONArray) result).opt(0);
+        }
+        return result instanceof JSONObject ? (JSONObject) result : null;
+    }
+
+    private static JSONObject ref(final Object element) {
+        if (element instanceof RexsterBatchElement)
+            return ((RexsterBatchElement) element).ref();
+
+        final JSONObject ref = new JSONObject();
+        put(ref, ID, ((Element) element).getId());
+        return ref;
+    }
+
+    private static Object resolvedId(final Object element) {
+        if (element instanceof RexsterBatchElement)
+            return ((RexsterBatchElement) element).getResolvedId();
+        return ((Element) element).getId();
+    }
+
+    private static JSONObject op(final String name) {
+        final JSONObject op = new JSONObject();
+        put(op, OP, name);
+        return op;
+    }
+
+    /**
+     * @return the value in the typed GraphSON format, where any value that is not of a GraphSON type is a string
+     */
+    static JSONObject typedValue(final Object value) {
+        final JSONObject json = new JSONObject();
+        if (value instanceof List) {
+            final JSONArray list = new JSONArray();
+            for (final Object item : (List<?>) value) {
+                list.put(typedValue(item));
+            }
+            put(json, GraphSONTokens.TYPE, GraphSONTokens.TYPE_LIST);
+            put(json, GraphSONTokens.VALUE, list);
+        } else if (value instanceof Map) {
+            final JSONObject map = new JSONObject();
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                put(map, String.valueOf(entry.getKey()), typedValue(entry.getValue()));
+            }
+            put(json, GraphSONTokens.TYPE, GraphSONTokens.TYPE_MAP);
+            put(json, GraphSONTokens.VALUE, map);
+        } else {
+            final String type;
+            if (value instanceof Integer)
+                type = GraphSONTokens.TYPE_INTEGER;
+            else if (value instanceof Long)
+                type = GraphSONTokens.TYPE_LONG;
+            else if (value instanceof Float)
+                type = GraphSONTokens.TYPE_FLOAT;
+            else if (value instanceof Double)
+                type = GraphSONTokens.TYPE_DOUBLE;
+            else if (value instanceof Short)
+                type = GraphSONTokens.TYPE_SHORT;
+            else if (value instanceof Byte)
+                type = GraphSONTokens.TYPE_BYTE;
+            else if (value instanceof Boolean)
+                type = GraphSONTokens.TYPE_BOOLEAN;
+            else
+                type = GraphSONTokens.TYPE_STRING;
+            put(json, GraphSONTokens.TYPE, type);
+            put(json, GraphSONTokens.VALUE, type.equals(GraphSONTokens.TYPE_STRING) ? value.toString() : value);
+        }
+        return json;
+    }
+
+    static void put(final JSONObject json, final String key, final Object value) {
+        try {
+            json.put(key, value);
+        } catch (JSONException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * The ids of the elements added through the graph, mapped to their temporary ids. The least recently used are forgotten.
+     */
+    private static class KnownIds extends LinkedHashMap<Object, String> {
+
+        private static final long serialVersionUID = 2391530617834572206L;
+
+        public KnownIds() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Object, String> eldest) {
+            if (this.size() <= KNOWN_IDS_CAPACITY)
+                return false;
+            this.forget(eldest.getKey());
+            return true;
+        }
+
+        protected void forget(final Object id) {
+        }
+    }
+
+    /**
+     * The known edge ids, indexed by the ids of their vertices so that removing a vertex forgets only its edges.
+     */
+    private static class KnownEdgeIds extends KnownIds {
+
+        private static final long serialVersionUID = -6009640418725379547L;
+
+        private final Map<Object, Object[]> vertexIds = new HashMap<Object, Object[]>();
+        private final Map<Object, Set<Object>> edgeIds = new HashMap<Object, Set<Object>>();
+
+        public void put(final Object id, final String tmpId, final Object outVertexId, final Object inVertexId) {
+            this.put(id, tmpId);
+            this.forget(id);
+            this.vertexIds.put(id, new Object[]{outVertexId, inVertexId});
+            this.index(outVertexId, id);
+            this.index(inVertexId, id);
+        }
+
+        public void removeVertex(final Object vertexId) {
+            final Set<Object> ids = this.edgeIds.remove(vertexId);
+            if (null != ids) {
+                for (final Object id : ids) {
+                    this.remove(id);
+                }
+            }
+        }
+
+        @Override
+        public String remove(final Object id) {
+            this.forget(id);
+            return super.remove(id);
+        }
+
+        @Override
+        protected void forget(final Object id) {
+            final Object[] vertices = this.vertexIds.remove(id);
+            if (null != vertices) {
+                for (final Object vertexId : vertices) {
+                    final Set<Object> ids = this.edgeIds.get(vertexId);
+                    if (null != ids) {
+                        ids.remove(id);
+                        if (ids.isEmpty())
+                            this.edgeIds.remove(vertexId);
+                    }
+                }
+            }
+        }
+
+        private void index(final Object vertexId, final Object id) {
+            if (null == vertexId)
+                return;
+            Set<Object> ids = this.edgeIds.get(vertexId);
+            if (null == ids) {
+                ids = new HashSet<Object>();
+                this.edgeIds.put(vertexId, ids);
+            }
+            ids.add(id);
+        }
+    }
+}
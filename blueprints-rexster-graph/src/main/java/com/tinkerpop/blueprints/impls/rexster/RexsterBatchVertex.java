@@ -0,0 +1,58 @@
+package com.tinkerpop.blueprints.impls.rexster;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.VertexQuery;
+import com.tinkerpop.blueprints.util.ExceptionFactory;
+import com.tinkerpop.blueprints.util.StringFactory;
+import com.tinkerpop.blueprints.util.wrappers.WrapperVertexQuery;
+
+class RexsterBatchVertex extends RexsterBatchElement implements Vertex {
+
+    protected RexsterBatchVertex(final String tmpId, final RexsterBatchGraph graph) {
+        super(tmpId, graph);
+    }
+
+    protected RexsterBatchVertex(final String tmpId, final Object id, final RexsterVertex baseVertex, final RexsterBatchGraph graph) {
+        super(tmpId, id, baseVertex, graph);
+    }
+
+    public Iterable<Edge> getEdges(final Direction direction, final String... labels) {
+        return new RexsterBatchEdgeIterable(((Vertex) this.getBaseElement()).getEdges(direction, labels), this.graph);
+    }
+
+    public Iterable<Vertex> getVertices(final Direction direction, final String... labels) {
+        return new RexsterBatchVertexIterable(((Vertex) this.getBaseElement()).getVertices(direction, labels), this.graph);
+    }
+
+    public VertexQuery query() {
+        final RexsterBatchGraph graph = this.graph;
+        return new WrapperVertexQuery(((Vertex) this.getBaseElement()).query()) {
+            @Override
+            public Iterable<Vertex> vertices() {
+                return new RexsterBatchVertexIterable(this.query.vertices(), graph);
+            }
+
+            @Override
+            public Iterable<Edge> edges() {
+                return new RexsterBatchEdgeIterable(this.query.edges(), graph);
+            }
+        };
+    }
+
+    public Edge addEdge(final String label, final Vertex vertex) {
+        return this.graph.addEdge(null, this, vertex, label);
+    }
+
+    public String toString() {
+        return StringFactory.vertexString(this);
+    }
+
+    protected RexsterElement loadBaseElement() {
+        final RexsterVertex vertex = (RexsterVertex) this.graph.getBaseGraph().getVertex(this.getId());
+        if (null == vertex)
+            throw ExceptionFactory.vertexWithIdDoesNotExist(this.getId());
+        return vertex;
+    }
+}
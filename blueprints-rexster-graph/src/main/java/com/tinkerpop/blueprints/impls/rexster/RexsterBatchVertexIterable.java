@@ -0,0 +1,41 @@
+package com.tinkerpop.blueprints.impls.rexster;
+
+import com.tinkerpop.blueprints.CloseableIterable;
+import com.tinkerpop.blueprints.Vertex;
+
+import java.util.Iterator;
+
+class RexsterBatchVertexIterable implements CloseableIterable<Vertex> {
+
+    private final Iterable<Vertex> iterable;
+    private final RexsterBatchGraph graph;
+
+    public RexsterBatchVertexIterable(final Iterable<Vertex> iterable, final RexsterBatchGraph graph) {
+        this.iterable = iterable;
+        this.graph = graph;
+    }
+
+    public Iterator<Vertex> iterator() {
+        return new Iterator<Vertex>() {
+            private final Iterator<Vertex> itty = iterable.iterator();
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+            public boolean hasNext() {
+                return this.itty.hasNext();
+            }
+
+            public Vertex next() {
+                return graph.wrapVertex((RexsterVertex) this.itty.next());
+            }
+        };
+    }
+
+    public void close() {
+        if (this.iterable instanceof CloseableIterable) {
+            ((CloseableIterable) iterable).close();
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package com.tinkerpop.blueprints.impls.rexster;
 
+import com.tinkerpop.blueprints.BulkPropertyElement;
 import com.tinkerpop.blueprints.Edge;
-import com.tinkerpop.blueprints.Element;
 import com.tinkerpop.blueprints.Vertex;
 import com.tinkerpop.blueprints.util.ElementHelper;
 import org.codehaus.jettison.json.JSONObject;
@@ -13,17 +13,24 @@ import java.util.Map;
 import java.util.Set;
 
 /**
+ * A RexsterElement keeps a snapshot of the typed properties of the element as they were last returned by the server.
+ * Whether the snapshot is used to serve getProperty() and getPropertyKeys() is determined by the property snapshot timeout of the RexsterGraph.
+ * Writes made through the element are applied to the snapshot.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  * @author Stephen Mallette (http://stephen.genoprime.com)
  */
-abstract class RexsterElement implements Element {
+abstract class RexsterElement implements BulkPropertyElement {
 
     protected final Object id;
     protected final RexsterGraph graph;
+    private JSONObject snapshot;
+    private long snapshotTime;
 
     public RexsterElement(final JSONObject rawElement, final RexsterGraph graph) {
         this.id = rawElement.opt(RexsterTokens._ID);
         this.graph = graph;
+        this.updateSnapshot(rawElement);
     }
 
     public Object getId() {
@@ -31,12 +38,7 @@ abstract class RexsterElement implements Element {
     }
 
     public Set<String> getPropertyKeys() {
-        JSONObject rawElement;
-
-        if (this instanceof Vertex)
-            rawElement = RestHelper.getResultObject(this.graph.getGraphURI() + RexsterTokens.SLASH_VERTICES_SLASH + RestHelper.encode(this.getId()));
-        else
-            rawElement = RestHelper.getResultObject(this.graph.getGraphURI() + RexsterTokens.SLASH_EDGES_SLASH + RestHelper.encode(this.getId()));
+        final JSONObject rawElement = this.getRawElement();
 
         Set<String> keys = new HashSet<String>();
         Iterator keyIterator = rawElement.keys();
@@ -62,13 +64,7 @@ abstract class RexsterElement implements Element {
     }
 
     public <T> T getProperty(final String key) {
-        JSONObject rawElement;
-        if (this instanceof Vertex)
-            rawElement = RestHelper.getResultObject(this.graph.getGraphURI() + RexsterTokens.SLASH_VERTICES_SLASH + RestHelper.encode(this.getId()) + RexsterTokens.QUESTION + RexsterTokens.REXSTER_SHOW_TYPES_EQUALS_TRUE);
-        else
-            rawElement = RestHelper.getResultObject(this.graph.getGraphURI() + RexsterTokens.SLASH_EDGES_SLASH + RestHelper.encode(this.getId()) + RexsterTokens.QUESTION + RexsterTokens.REXSTER_SHOW_TYPES_EQUALS_TRUE);
-
-        JSONObject typedProperty = rawElement.optJSONObject(key);
+        JSONObject typedProperty = this.getRawElement().optJSONObject(key);
         if (null != typedProperty)
             return (T) RestHelper.typeCast(typedProperty.optString(RexsterTokens.TYPE), typedProperty.opt(RexsterTokens.VALUE));
         else
@@ -82,13 +78,30 @@ abstract class RexsterElement implements Element {
 
         final Map<String, Object> data = new HashMap<String, Object>();
         data.put(key, RestHelper.uriCast(value));
-        final JSONObject json = new JSONObject(data);
+        this.postProperties(new JSONObject(data));
+    }
 
-        if (this instanceof Vertex) {
-            RestHelper.postResultObject(this.graph.getGraphURI() + RexsterTokens.SLASH_VERTICES_SLASH + RestHelper.encode(this.getId()), json);
-        } else {
-            RestHelper.postResultObject(this.graph.getGraphURI() + RexsterTokens.SLASH_EDGES_SLASH + RestHelper.encode(this.getId()), json);
+    /**
+     * Sets all the properties with a single POST to the element resource rather than one POST per property.
+     */
+    public void setBulkProperties(final Map<String, Object> properties) {
+        ElementHelper.validateProperties(this, properties);
+        final Map<String, Object> data = new HashMap<String, Object>();
+        for (final Map.Entry<String, Object> property : properties.entrySet()) {
+            if (property.getKey().startsWith(RexsterTokens.UNDERSCORE))
+                throw new RuntimeException("RexsterGraph does not support property keys that start with underscore");
+            data.put(property.getKey(), RestHelper.uriCast(property.getValue()));
         }
+        this.postProperties(new JSONObject(data));
+    }
+
+    private void postProperties(final JSONObject json) {
+        // the server responds with the updated element which becomes the new snapshot
+        final JSONObject rawElement = RestHelper.postResultObject(this.getElementUri(), json);
+        if (null == rawElement)
+            this.refresh();
+        else
+            this.updateSnapshot(rawElement);
     }
 
     public int hashCode() {
@@ -99,10 +112,9 @@ abstract class RexsterElement implements Element {
 
         Object object = this.getProperty(key);
 
-        if (this instanceof Vertex)
-            RestHelper.delete(this.graph.getGraphURI() + RexsterTokens.SLASH_VERTICES_SLASH + RestHelper.encode(this.getId()) + RexsterTokens.QUESTION + RestHelper.encode(key));
-        else
-            RestHelper.delete(this.graph.getGraphURI() + RexsterTokens.SLASH_EDGES_SLASH + RestHelper.encode(this.getId()) + RexsterTokens.QUESTION + RestHelper.encode(key));
+        RestHelper.delete(this.getElementUri() + RexsterTokens.QUESTION + RestHelper.encode(key));
+        if (null != this.snapshot)
+            this.snapshot.remove(key);
 
         return (T) object;
     }
@@ -111,4 +123,37 @@ abstract class RexsterElement implements Element {
         return ElementHelper.areEqual(this, object);
     }
 
+    /**
+     * Discard the property snapshot of this element so that the next read retrieves the element from the server.
+     */
+    public void refresh() {
+        this.snapshot = null;
+    }
+
+    private JSONObject getRawElement() {
+        final long timeout = this.graph.getPropertySnapshotTimeout();
+        if (null == this.snapshot || (timeout >= 0 && System.currentTimeMillis() - this.snapshotTime >= timeout)) {
+            final JSONObject rawElement = RestHelper.getResultObject(this.getElementUri() + RexsterTokens.QUESTION + RexsterTokens.REXSTER_SHOW_TYPES_EQUALS_TRUE);
+            if (timeout == 0)
+                return rawElement;
+            this.updateSnapshot(rawElement);
+        }
+        return this.snapshot;
+    }
+
+    private void updateSnapshot(final JSONObject rawElement) {
+        if (this.graph.getPropertySnapshotTimeout() == 0) {
+            this.snapshot = null;
+        } else {
+            this.snapshot = rawElement;
+            this.snapshotTime = System.currentTimeMillis();
+        }
+    }
+
+    private String getElementUri() {
+        if (this instanceof Vertex)
+            return this.graph.getGraphURI() + RexsterTokens.SLASH_VERTICES_SLASH + RestHelper.encode(this.getId());
+        else
+            return this.graph.getGraphURI() + RexsterTokens.SLASH_EDGES_SLASH + RestHelper.encode(this.getId());
+    }
 }
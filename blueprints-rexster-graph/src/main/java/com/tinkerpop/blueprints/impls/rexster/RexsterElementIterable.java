@@ -4,18 +4,50 @@ import com.tinkerpop.blueprints.CloseableIterable;
 import com.tinkerpop.blueprints.Element;
 import sun.reflect.generics.reflectiveObjects.NotImplementedException;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 /**
+ * Pages through the elements at a Rexster uri using the offset parameters.
+ * With a prefetch depth greater than zero, the next pages are requested in the background while the current page is consumed.
+ * The size of a page starts at the buffer size of the graph and grows (up to the max buffer size) while pages return quickly,
+ * so that long scans are not bound by the round trip time of each page.
+ * Closing the iterable cancels the background requests of the iterators that have not been exhausted.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 abstract class RexsterElementIterable<T extends Element> implements CloseableIterable<T> {
 
+    /**
+     * Pages that return faster than this number of milliseconds are considered latency bound and the page size is doubled.
+     */
+    private static final long FAST_PAGE_LATENCY = 50l;
+    /**
+     * Pages that take longer than this number of milliseconds halve the page size (but never below the buffer size).
+     */
+    private static final long SLOW_PAGE_LATENCY = 200l;
+
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "rexster-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
     protected final RexsterGraph graph;
     protected final String uri;
+    private final List<PagingIterator> openIterators = new ArrayList<PagingIterator>();
 
     public RexsterElementIterable(final String uri, final RexsterGraph graph) {
         this.graph = graph;
@@ -23,68 +55,142 @@ abstract class RexsterElementIterable<T extends Element> implements CloseableIte
     }
 
     public Iterator<T> iterator() {
-        return new Iterator<T>() {
-
-            private final Queue<T> queue = new LinkedList<T>();
-            private int start = 0;
-            private int end = graph.getBufferSize();
-
-            public boolean hasNext() {
-                if (!queue.isEmpty())
-                    return true;
-                else {
-                    if (end > start) {
-                        // last buffer if start == end
-                        fillBuffer(queue, start, end);
-                        this.update();
-                    }
-                    return !queue.isEmpty();
-                }
+        final PagingIterator iterator = new PagingIterator();
+        if (iterator.prefetchDepth > 0) {
+            synchronized (this.openIterators) {
+                this.openIterators.add(iterator);
             }
+        }
+        return iterator;
+    }
 
+    protected abstract void fillBuffer(final Queue<T> queue, final int start, final int end);
 
-            public void remove() {
-                throw new NotImplementedException();
+    protected String createSeparator() {
+        if (this.uri.contains(RexsterTokens.QUESTION))
+            return RexsterTokens.AND;
+        else
+            return RexsterTokens.QUESTION;
+    }
+
+    public void close() {
+        synchronized (this.openIterators) {
+            for (final PagingIterator iterator : this.openIterators) {
+                iterator.cancel();
             }
+            this.openIterators.clear();
+        }
+    }
 
-            public T next() {
-                if (!queue.isEmpty()) {
-                    return queue.remove();
-                } else {
-                    if (end > start) {
-                        // last buffer if start == end
-                        fillBuffer(queue, start, end);
-                        this.update();
-                    }
+    private class PagingIterator implements Iterator<T> {
 
-                    if (!queue.isEmpty()) {
-                        return queue.remove();
-                    } else
-                        throw new NoSuchElementException();
-                }
+        private Queue<T> queue = new LinkedList<T>();
+        private final LinkedList<Future<Page<T>>> pending = new LinkedList<Future<Page<T>>>();
+        private final int prefetchDepth = graph.getPrefetchDepth();
+        private final int minPageSize = graph.getBufferSize();
+        private final int maxPageSize = Math.max(graph.getBufferSize(), graph.getMaxBufferSize());
+        private int pageSize = graph.getBufferSize();
+        private int start = 0;
+        private boolean exhausted = false;
+
+        public boolean hasNext() {
+            while (queue.isEmpty() && !(exhausted && pending.isEmpty())) {
+                this.nextPage();
+            }
+            return !queue.isEmpty();
+        }
+
+        public void remove() {
+            throw new NotImplementedException();
+        }
+
+        public T next() {
+            if (!this.hasNext())
+                throw new NoSuchElementException();
+            return queue.remove();
+        }
+
+        private void nextPage() {
+            final Page<T> page;
+            if (this.prefetchDepth <= 0) {
+                page = fetch(this.start, this.start + this.pageSize);
+                this.start = this.start + this.pageSize;
+            } else {
+                this.schedule();
+                page = await(this.pending.removeFirst());
             }
 
-            private void update() {
-                final int bufferSize = graph.getBufferSize();
-                if (this.queue.size() == bufferSize) { // next buffer if full
-                    this.start = this.start + bufferSize;
-                    this.end = this.end + bufferSize;
-                } else { // last buffer
-                    this.start = this.end;
+            this.queue = page.elements;
+            if (page.elements.size() < page.requested) { // last page
+                this.cancel();
+                synchronized (openIterators) {
+                    openIterators.remove(this);
                 }
+            } else {
+                this.adapt(page.latency);
+                if (this.prefetchDepth > 0)
+                    this.schedule();
+            }
+        }
+
+        private void schedule() {
+            while (!this.exhausted && this.pending.size() < this.prefetchDepth) {
+                final int pageStart = this.start;
+                final int pageEnd = this.start + this.pageSize;
+                this.pending.add(PREFETCH_EXECUTOR.submit(new Callable<Page<T>>() {
+                    public Page<T> call() {
+                        return fetch(pageStart, pageEnd);
+                    }
+                }));
+                this.start = pageEnd;
+            }
+        }
+
+        private void adapt(final long latency) {
+            if (latency < FAST_PAGE_LATENCY)
+                this.pageSize = Math.min(this.maxPageSize, this.pageSize * 2);
+            else if (latency > SLOW_PAGE_LATENCY)
+                this.pageSize = Math.max(this.minPageSize, this.pageSize / 2);
+        }
+
+        private void cancel() {
+            this.exhausted = true;
+            for (final Future<Page<T>> future : this.pending) {
+                future.cancel(true);
             }
-        };
+            this.pending.clear();
+        }
     }
 
-    protected abstract void fillBuffer(final Queue<T> queue, final int start, final int end);
+    private Page<T> fetch(final int start, final int end) {
+        final long startTime = System.currentTimeMillis();
+        final Queue<T> elements = new LinkedList<T>();
+        this.fillBuffer(elements, start, end);
+        return new Page<T>(elements, end - start, System.currentTimeMillis() - startTime);
+    }
 
-    protected String createSeparator() {
-        if (this.uri.contains(RexsterTokens.QUESTION))
-            return RexsterTokens.AND;
-        else
-            return RexsterTokens.QUESTION;
+    private static <T> Page<T> await(final Future<Page<T>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new RuntimeException(e.getCause().getMessage(), e.getCause());
+        }
     }
 
-    public void close() {
+    private static class Page<T> {
+        private final Queue<T> elements;
+        private final int requested;
+        private final long latency;
+
+        public Page(final Queue<T> elements, final int requested, final long latency) {
+            this.elements = elements;
+            this.requested = requested;
+            this.latency = latency;
+        }
     }
 }
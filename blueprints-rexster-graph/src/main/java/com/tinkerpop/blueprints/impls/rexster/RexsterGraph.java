@@ -1,5 +1,6 @@
 package com.tinkerpop.blueprints.impls.rexster;
 
+import com.tinkerpop.blueprints.BulkRetrievalGraph;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Element;
 import com.tinkerpop.blueprints.Features;
@@ -10,7 +11,6 @@ import com.tinkerpop.blueprints.KeyIndexableGraph;
 import com.tinkerpop.blueprints.MetaGraph;
 import com.tinkerpop.blueprints.Parameter;
 import com.tinkerpop.blueprints.Vertex;
-import com.tinkerpop.blueprints.util.DefaultGraphQuery;
 import com.tinkerpop.blueprints.util.ExceptionFactory;
 import com.tinkerpop.blueprints.util.StringFactory;
 import org.apache.commons.configuration.Configuration;
@@ -22,6 +22,7 @@ import org.codehaus.jettison.json.JSONObject;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -31,11 +32,20 @@ import java.util.Set;
  *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-public class RexsterGraph implements IndexableGraph, KeyIndexableGraph, MetaGraph<JSONObject> {
+public class RexsterGraph implements IndexableGraph, KeyIndexableGraph, BulkRetrievalGraph, MetaGraph<JSONObject> {
 
     public static final int DEFAULT_BUFFER_SIZE = 100;
+    public static final int DEFAULT_MAX_BUFFER_SIZE = 1000;
+    public static final int DEFAULT_PREFETCH_DEPTH = 1;
+    public static final long DEFAULT_PROPERTY_SNAPSHOT_TIMEOUT = 0l;
+    private static final String IDS = "ids";
+    private static final String GET_VERTICES_SCRIPT = "ids.unique().collect{g.getVertex(it)}.findAll{it != null}";
+    private static final String GET_EDGES_SCRIPT = "ids.unique().collect{g.getEdge(it)}.findAll{it != null}";
     private final String graphURI;
     private int bufferSize;
+    private int maxBufferSize = DEFAULT_MAX_BUFFER_SIZE;
+    private int prefetchDepth = DEFAULT_PREFETCH_DEPTH;
+    private long propertySnapshotTimeout = DEFAULT_PROPERTY_SNAPSHOT_TIMEOUT;
 
     private static final Features FEATURES = new Features();
 
@@ -72,6 +82,8 @@ public class RexsterGraph implements IndexableGraph, KeyIndexableGraph, MetaGrap
         FEATURES.supportsMapProperty = true;
         FEATURES.supportsStringProperty = true;
         FEATURES.supportsThreadedTransactions = false;
+        FEATURES.supportsBulkRetrieval = true;
+        FEATURES.supportsBulkProperties = true;
         FEATURES.supportsTransactions = false;
     }
 
@@ -102,6 +114,9 @@ public class RexsterGraph implements IndexableGraph, KeyIndexableGraph, MetaGrap
              configuration.getInt("blueprints.rexster.buffer-size", DEFAULT_BUFFER_SIZE),
              configuration.getString("blueprints.rexster.username", null),
              configuration.getString("blueprints.rexster.password", null));
+        this.setMaxBufferSize(configuration.getInt("blueprints.rexster.max-buffer-size", DEFAULT_MAX_BUFFER_SIZE));
+        this.setPrefetchDepth(configuration.getInt("blueprints.rexster.prefetch-depth", DEFAULT_PREFETCH_DEPTH));
+        this.setPropertySnapshotTimeout(configuration.getLong("blueprints.rexster.property-snapshot-timeout", DEFAULT_PROPERTY_SNAPSHOT_TIMEOUT));
     }
 
     /**
@@ -143,6 +158,68 @@ public class RexsterGraph implements IndexableGraph, KeyIndexableGraph, MetaGrap
         this.bufferSize = bufferSize;
     }
 
+    /**
+     * Get the size that the communication buffer may grow to when iterating over many elements.
+     *
+     * @return the maximum communication buffer size
+     */
+    public int getMaxBufferSize() {
+        return this.maxBufferSize;
+    }
+
+    /**
+     * When iterating, the first page of elements is the size of the buffer.
+     * While pages are returned quickly, the size of the following pages is doubled up to the max buffer size.
+     * A max buffer size that is not larger than the buffer size keeps every page at the buffer size.
+     *
+     * @param maxBufferSize the maximum size of the buffer
+     */
+    public void setMaxBufferSize(final int maxBufferSize) {
+        this.maxBufferSize = maxBufferSize;
+    }
+
+    /**
+     * Get the number of pages that are requested ahead of the page being iterated.
+     *
+     * @return the prefetch depth
+     */
+    public int getPrefetchDepth() {
+        return this.prefetchDepth;
+    }
+
+    /**
+     * When iterating, the pages after the current one are requested in the background so that moving to the next page does not
+     * wait on a full round trip to the server. A prefetch depth of 0 requests each page only once the previous one is consumed.
+     *
+     * @param prefetchDepth the number of pages to request ahead
+     */
+    public void setPrefetchDepth(final int prefetchDepth) {
+        this.prefetchDepth = prefetchDepth;
+    }
+
+    /**
+     * Get the number of milliseconds for which the properties an element was retrieved with are used to serve its property reads.
+     *
+     * @return the property snapshot timeout in milliseconds
+     */
+    public long getPropertySnapshotTimeout() {
+        return this.propertySnapshotTimeout;
+    }
+
+    /**
+     * Every vertex and edge returned by the Rexster server carries its properties.
+     * With a property snapshot timeout, those properties are kept by the element and getProperty() and getPropertyKeys() are served
+     * from them until they are older than the timeout, after which the element is retrieved again.
+     * Writes made through an element update its snapshot, but changes made by other clients are not seen until the snapshot expires.
+     * A timeout of 0 (the default) disables the snapshot and every read is a request to the server.
+     * A negative timeout keeps the snapshot until RexsterElement.refresh() is called.
+     *
+     * @param propertySnapshotTimeout the property snapshot timeout in milliseconds
+     */
+    public void setPropertySnapshotTimeout(final long propertySnapshotTimeout) {
+        this.propertySnapshotTimeout = propertySnapshotTimeout;
+    }
+
     public Iterable<Vertex> getVertices() {
         return new RexsterVertexIterable(this.graphURI + RexsterTokens.SLASH_VERTICES, this);
     }
@@ -180,6 +257,52 @@ public class RexsterGraph implements IndexableGraph, KeyIndexableGraph, MetaGrap
         }
     }
 
+    /**
+     * Retrieves the vertices in a single request by way of the Gremlin extension of the Rexster server.
+     * If the Gremlin extension is not configured on the server, each vertex is retrieved with its own request.
+     */
+    public Iterable<Vertex> getVertices(final Iterable<?> ids) {
+        final List<Vertex> vertices = new ArrayList<Vertex>();
+        final JSONArray results = this.executeBulkRetrieval(GET_VERTICES_SCRIPT, ids);
+        if (null == results) {
+            for (final Object id : new LinkedHashSet<Object>(toList(ids))) {
+                final Vertex vertex = this.getVertex(id);
+                if (null != vertex)
+                    vertices.add(vertex);
+            }
+        } else {
+            for (int ix = 0; ix < results.length(); ix++) {
+                final JSONObject rawVertex = results.optJSONObject(ix);
+                if (null != rawVertex)
+                    vertices.add(new RexsterVertex(rawVertex, this));
+            }
+        }
+        return vertices;
+    }
+
+    /**
+     * Retrieves the edges in a single request by way of the Gremlin extension of the Rexster server.
+     * If the Gremlin extension is not configured on the server, each edge is retrieved with its own request.
+     */
+    public Iterable<Edge> getEdges(final Iterable<?> ids) {
+        final List<Edge> edges = new ArrayList<Edge>();
+        final JSONArray results = this.executeBulkRetrieval(GET_EDGES_SCRIPT, ids);
+        if (null == results) {
+            for (final Object id : new LinkedHashSet<Object>(toList(ids))) {
+                final Edge edge = this.getEdge(id);
+                if (null != edge)
+                    edges.add(edge);
+            }
+        } else {
+            for (int ix = 0; ix < results.length(); ix++) {
+                final JSONObject rawEdge = results.optJSONObject(ix);
+                if (null != rawEdge)
+                    edges.add(new RexsterEdge(rawEdge, this));
+            }
+        }
+        return edges;
+    }
+
     public Iterable<Edge> getEdges() {
         return new RexsterEdgeIterable(this.graphURI + RexsterTokens.SLASH_EDGES, this);
     }
@@ -333,6 +456,47 @@ public class RexsterGraph implements IndexableGraph, KeyIndexableGraph, MetaGrap
         return RestHelper.postResultArray(this.graphURI + RexsterTokens.SLASH_GREMLIN, new JSONObject(scriptArgs));
     }
 
+    /**
+     * Executes the script like execute() but has the elements of the results returned with typed properties, so that they
+     * can serve as the property snapshot of the elements created from them.
+     */
+    JSONArray executeTyped(final String gremlinScript, final Map<String, Object> scriptParams) {
+        final Map<String, Object> scriptArgs = new HashMap<String, Object>();
+        scriptArgs.put("script", gremlinScript);
+        if (scriptParams != null && scriptParams.size() > 0)
+            scriptArgs.put("params", new JSONObject(scriptParams));
+        final Map<String, Object> rexsterArgs = new HashMap<String, Object>();
+        rexsterArgs.put(RexsterTokens.SHOW_TYPES, true);
+        scriptArgs.put(RexsterTokens.REXSTER, new JSONObject(rexsterArgs));
+
+        return RestHelper.postTypedResultArray(this.graphURI + RexsterTokens.SLASH_GREMLIN, new JSONObject(scriptArgs));
+    }
+
+    private JSONArray executeBulkRetrieval(final String gremlinScript, final Iterable<?> ids) {
+        final List<Object> idList = toList(ids);
+        if (idList.isEmpty())
+            return new JSONArray();
+
+        final Map<String, Object> params = new HashMap<String, Object>();
+        params.put(IDS, new JSONArray(idList));
+        try {
+            return this.executeTyped(gremlinScript, params);
+        } catch (RuntimeException e) {
+            // only a missing gremlin extension falls back to retrieval by id, any other failure is the caller's
+            if (RestHelper.isNotFound(e))
+                return null;
+            throw e;
+        }
+    }
+
+    private static List<Object> toList(final Iterable<?> ids) {
+        final List<Object> list = new ArrayList<Object>();
+        for (final Object id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+
     private static <T extends Element> String getKeyIndexClass(Class<T> elementClass) {
         String c;
         if (Vertex.class.isAssignableFrom(elementClass))
@@ -343,7 +507,7 @@ public class RexsterGraph implements IndexableGraph, KeyIndexableGraph, MetaGrap
     }
 
     public GraphQuery query() {
-        return new DefaultGraphQuery(this);
+        return new RexsterGraphQuery(this);
     }
 
 }
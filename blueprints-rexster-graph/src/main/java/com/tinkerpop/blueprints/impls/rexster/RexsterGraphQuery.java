@@ -0,0 +1,146 @@
+package com.tinkerpop.blueprints.impls.rexster;
+
+import com.tinkerpop.blueprints.Contains;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.DefaultGraphQuery;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RexsterGraphQuery evaluates the query on the Rexster server by way of the Gremlin extension so that only the matching
+ * elements are returned, with their typed properties.
+ * A query without constraints pages through the elements like a DefaultGraphQuery rather than returning them in one response.
+ * If a constraint can not be expressed in the script (e.g. a custom Predicate or a value of a type that can not be written
+ * as a literal), or the Gremlin extension is not configured on the server, the query is evaluated like a DefaultGraphQuery.
+ */
+public class RexsterGraphQuery extends DefaultGraphQuery {
+
+    private static final String PARAM = "p";
+
+    public RexsterGraphQuery(final RexsterGraph graph) {
+        super(graph);
+    }
+
+    public Iterable<Edge> edges() {
+        if (this.limit == 0)
+            return new ArrayList<Edge>();
+        if (this.hasContainers.isEmpty())
+            return super.edges();
+
+        final Map<String, Object> params = new HashMap<String, Object>();
+        final String script = this.buildScript("g.E", params);
+        final JSONArray results = null == script ? null : this.execute(script, params);
+        if (null == results)
+            return super.edges();
+
+        final List<Edge> edges = new ArrayList<Edge>();
+        for (int ix = 0; ix < results.length(); ix++) {
+            final JSONObject rawEdge = results.optJSONObject(ix);
+            if (null != rawEdge)
+                edges.add(new RexsterEdge(rawEdge, (RexsterGraph) this.graph));
+        }
+        return edges;
+    }
+
+    public Iterable<Vertex> vertices() {
+        if (this.limit == 0)
+            return new ArrayList<Vertex>();
+        if (this.hasContainers.isEmpty())
+            return super.vertices();
+
+        final Map<String, Object> params = new HashMap<String, Object>();
+        final String script = this.buildScript("g.V", params);
+        final JSONArray results = null == script ? null : this.execute(script, params);
+        if (null == results)
+            return super.vertices();
+
+        final List<Vertex> vertices = new ArrayList<Vertex>();
+        for (int ix = 0; ix < results.length(); ix++) {
+            final JSONObject rawVertex = results.optJSONObject(ix);
+            if (null != rawVertex)
+                vertices.add(new RexsterVertex(rawVertex, (RexsterGraph) this.graph));
+        }
+        return vertices;
+    }
+
+    /**
+     * Builds the Gremlin script for the query. String values and keys are passed as script parameters.
+     *
+     * @return the script or null if the query can not be expressed as a script
+     */
+    String buildScript(final String start, final Map<String, Object> params) {
+        final StringBuilder sb = new StringBuilder(start);
+        for (final HasContainer hasContainer : this.hasContainers) {
+            final String key = addParam(hasContainer.key, params);
+            if (null == hasContainer.value && hasContainer.predicate == com.tinkerpop.blueprints.Compare.EQUAL) {
+                sb.append(".hasNot(").append(key).append(")");
+            } else if (null == hasContainer.value && hasContainer.predicate == com.tinkerpop.blueprints.Compare.NOT_EQUAL) {
+                sb.append(".has(").append(key).append(")");
+            } else if (hasContainer.predicate instanceof com.tinkerpop.blueprints.Compare || hasContainer.predicate instanceof Contains) {
+                final String value = toLiteral(hasContainer.value, params);
+                if (null == value)
+                    return null;
+                sb.append(".has(").append(key).append(",").append(hasContainer.predicate.getClass().getName())
+                        .append(".").append(((Enum) hasContainer.predicate).name()).append(",").append(value).append(")");
+            } else {
+                return null;
+            }
+        }
+
+        if (this.limit != Integer.MAX_VALUE)
+            sb.append("[0..<").append(this.limit).append("]");
+
+        return sb.toString();
+    }
+
+    private JSONArray execute(final String script, final Map<String, Object> params) {
+        try {
+            return ((RexsterGraph) this.graph).executeTyped(script, params);
+        } catch (RuntimeException e) {
+            // only a missing gremlin extension falls back to the evaluation on the client
+            if (RestHelper.isNotFound(e))
+                return null;
+            throw e;
+        }
+    }
+
+    /**
+     * The Gremlin extension does not preserve the type of numeric parameters, so numbers are written into the script with
+     * their type to keep comparisons with the stored values exact.
+     */
+    private static String toLiteral(final Object value, final Map<String, Object> params) {
+        if (value instanceof String) {
+            return addParam(value, params);
+        } else if (value instanceof Boolean) {
+            return value.toString();
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Float || value instanceof Double) {
+            return value.getClass().getSimpleName() + ".valueOf('" + value + "')";
+        } else if (value instanceof Collection) {
+            final StringBuilder sb = new StringBuilder("[");
+            for (final Object item : (Collection) value) {
+                final String literal = toLiteral(item, params);
+                if (null == literal)
+                    return null;
+                if (sb.length() > 1)
+                    sb.append(",");
+                sb.append(literal);
+            }
+            return sb.append("]").toString();
+        } else {
+            return null;
+        }
+    }
+
+    private static String addParam(final Object value, final Map<String, Object> params) {
+        final String name = PARAM + params.size();
+        params.put(name, value);
+        return name;
+    }
+}
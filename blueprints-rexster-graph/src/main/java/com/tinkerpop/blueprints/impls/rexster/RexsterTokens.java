@@ -80,8 +80,12 @@ class RexsterTokens {
     public static final String REXSTER_OFFSET_END = "rexster.offset.end";
     public static final String REXSTER_OFFSET_START = "rexster.offset.start";
     public static final String REXSTER_SHOW_TYPES_EQUALS_TRUE = "rexster.showTypes=true";
+    public static final String REXSTER = "rexster";
+    public static final String SHOW_TYPES = "showTypes";
 
     public static final String ACCEPT = "Accept";
+    public static final String ACCEPT_ENCODING = "Accept-Encoding";
+    public static final String GZIP = "gzip";
     public static final String AUTHORIZATION = "Authorization";
     public static final String APPLICATION_REXSTER_TYPED_JSON = "application/vnd.rexster-typed-v1+json";
     public static final String APPLICATION_JSON = "application/json";
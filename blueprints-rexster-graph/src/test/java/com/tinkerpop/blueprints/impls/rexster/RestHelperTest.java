@@ -0,0 +1,115 @@
+package com.tinkerpop.blueprints.impls.rexster;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.tinkerpop.blueprints.BaseTest;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exercises the RestHelper transport against a local stand-in for a Rexster server.
+ */
+public class RestHelperTest extends BaseTest {
+
+    private static final String BODY = "{\"version\":\"2.5.0\",\"results\":{\"_id\":\"1\",\"name\":\"marko\",\"age\":29,\"big\":12345678901," +
+            "\"weight\":0.5,\"alive\":true,\"dead\":false,\"nothing\":null,\"nested\":{\"list\":[1,\"two\",[3.0],{\"four\":4}]}}}";
+
+    private HttpServer server;
+    private String lastAcceptEncoding;
+    private final Set<Integer> clientPorts = Collections.synchronizedSet(new HashSet<Integer>());
+
+    @Override
+    public void setUp() throws Exception {
+        RestHelper.Authentication = new RexsterAuthentication(null, null);
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/plain", new HttpHandler() {
+            public void handle(final HttpExchange exchange) throws IOException {
+                lastAcceptEncoding = exchange.getRequestHeaders().getFirst(RexsterTokens.ACCEPT_ENCODING);
+                respond(exchange, BODY.getBytes("UTF-8"));
+            }
+        });
+        this.server.createContext("/gzip", new HttpHandler() {
+            public void handle(final HttpExchange exchange) throws IOException {
+                lastAcceptEncoding = exchange.getRequestHeaders().getFirst(RexsterTokens.ACCEPT_ENCODING);
+                final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                final GZIPOutputStream gzip = new GZIPOutputStream(bytes);
+                gzip.write(BODY.getBytes("UTF-8"));
+                gzip.close();
+                exchange.getResponseHeaders().set("Content-Encoding", RexsterTokens.GZIP);
+                respond(exchange, bytes.toByteArray());
+            }
+        });
+        this.server.start();
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        this.server.stop(0);
+    }
+
+    public void testGetPlainResponse() throws Exception {
+        assertResults(RestHelper.getResultObject(uri("plain")));
+        assertEquals(RexsterTokens.GZIP, this.lastAcceptEncoding);
+    }
+
+    public void testGetGzipResponse() throws Exception {
+        assertResults(RestHelper.getResultObject(uri("gzip")));
+        assertEquals(RexsterTokens.GZIP, this.lastAcceptEncoding);
+    }
+
+    public void testPostGzipResponse() throws Exception {
+        assertResults(RestHelper.postResultObject(uri("gzip"), new JSONObject()));
+    }
+
+    public void testManyRequests() throws Exception {
+        this.stopWatch();
+        for (int i = 0; i < 100; i++) {
+            assertResults(RestHelper.getResultObject(uri(i % 2 == 0 ? "plain" : "gzip")));
+        }
+        printPerformance("RestHelper", 100, "requests", this.stopWatch());
+
+        // fully consumed responses leave the connection in the keep-alive cache
+        assertTrue(this.clientPorts.size() < 10);
+    }
+
+    private String uri(final String path) {
+        return "http://localhost:" + this.server.getAddress().getPort() + "/" + path;
+    }
+
+    private static void assertResults(final JSONObject results) throws Exception {
+        assertEquals("1", results.getString("_id"));
+        assertEquals("marko", results.get("name"));
+        assertEquals(29, results.get("age"));
+        assertEquals(12345678901l, results.get("big"));
+        assertEquals(0.5d, results.get("weight"));
+        assertEquals(Boolean.TRUE, results.get("alive"));
+        assertEquals(Boolean.FALSE, results.get("dead"));
+        assertTrue(results.isNull("nothing"));
+
+        final JSONArray list = results.getJSONObject("nested").getJSONArray("list");
+        assertEquals(4, list.length());
+        assertEquals(1, list.get(0));
+        assertEquals("two", list.get(1));
+        assertEquals(3.0d, list.getJSONArray(2).get(0));
+        assertEquals(4, list.getJSONObject(3).get("four"));
+    }
+
+    private void respond(final HttpExchange exchange, final byte[] body) throws IOException {
+        this.clientPorts.add(exchange.getRemoteAddress().getPort());
+        exchange.getResponseHeaders().set("Content-Type", RexsterTokens.APPLICATION_JSON);
+        exchange.sendResponseHeaders(200, body.length);
+        final OutputStream outputStream = exchange.getResponseBody();
+        outputStream.write(body);
+        outputStream.close();
+    }
+}
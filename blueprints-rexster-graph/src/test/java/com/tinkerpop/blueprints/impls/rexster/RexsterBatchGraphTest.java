@@ -0,0 +1,277 @@
+package com.tinkerpop.blueprints.impls.rexster;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.tinkerpop.blueprints.BaseTest;
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.wrappers.batch.BatchGraph;
+import com.tinkerpop.blueprints.util.wrappers.batch.VertexIDType;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONObject;
+import org.codehaus.jettison.json.JSONTokener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Exercises the buffering of RexsterBatchGraph against a stand-in for the Gremlin extension of a Rexster server that
+ * records the mutations it receives and assigns ids to the elements that are added.
+ */
+public class RexsterBatchGraphTest extends BaseTest {
+
+    private HttpServer server;
+    private final List<JSONArray> batches = new ArrayList<JSONArray>();
+    private int idCounter = 0;
+    private boolean omitIds = false;
+    private int failAt = -1;
+
+    @Override
+    public void setUp() throws Exception {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/graphs/stub" + RexsterTokens.SLASH_GREMLIN, new HttpHandler() {
+            public void handle(final HttpExchange exchange) throws IOException {
+                try {
+                    final JSONObject request = new JSONObject(new JSONTokener(read(exchange.getRequestBody())));
+                    final JSONArray ops = request.getJSONObject("params").getJSONArray("ops");
+                    batches.add(ops);
+
+                    final JSONObject ids = new JSONObject();
+                    final JSONObject result = new JSONObject().put("ids", ids);
+                    int applied = 0;
+                    for (int ix = 0; ix < ops.length(); ix++) {
+                        if (ix == failAt) {
+                            result.put("error", "java.lang.IllegalStateException: failed");
+                            break;
+                        }
+                        final JSONObject op = ops.getJSONObject(ix);
+                        if (op.has(RexsterBatchGraph.TMP) && !omitIds)
+                            ids.put(op.getString(RexsterBatchGraph.TMP), op.has(RexsterBatchGraph.ID) ? op.get(RexsterBatchGraph.ID) : String.valueOf(idCounter++));
+                        applied++;
+                    }
+                    result.put("applied", applied);
+                    final byte[] body = new JSONObject().put(RexsterTokens.RESULTS, new JSONArray().put(result)).toString().getBytes("UTF-8");
+                    exchange.sendResponseHeaders(200, body.length);
+                    final OutputStream outputStream = exchange.getResponseBody();
+                    outputStream.write(body);
+                    outputStream.close();
+                } catch (Exception e) {
+                    exchange.sendResponseHeaders(500, -1);
+                    exchange.close();
+                }
+            }
+        });
+        this.server.start();
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        this.server.stop(0);
+    }
+
+    public void testFlushOnBatchSize() throws Exception {
+        final RexsterBatchGraph graph = new RexsterBatchGraph(this.createGraph(), 10, -1);
+        final List<Vertex> vertices = new ArrayList<Vertex>();
+        for (int i = 0; i < 25; i++) {
+            final Vertex vertex = graph.addVertex(null);
+            vertex.setProperty("name", "v" + i);
+            vertices.add(vertex);
+        }
+        assertEquals(5, this.batches.size());
+        assertEquals(0, graph.getBufferedCount());
+
+        final Set<Object> ids = new HashSet<Object>();
+        for (final Vertex vertex : vertices) {
+            ids.add(vertex.getId());
+        }
+        assertEquals(25, ids.size());
+        assertEquals(5, this.batches.size());
+
+        // vertices added through the graph are known without a request
+        assertEquals(vertices.get(3), graph.getVertex(vertices.get(3).getId()));
+        assertEquals(5, this.batches.size());
+
+        graph.commit();
+        assertEquals(5, this.batches.size());
+    }
+
+    public void testTemporaryIdsAreResolved() throws Exception {
+        final RexsterBatchGraph graph = new RexsterBatchGraph(this.createGraph(), 100, -1);
+        final Vertex a = graph.addVertex(null);
+        final Vertex b = graph.addVertex(null);
+        final Edge edge = graph.addEdge(null, a, b, "knows");
+        edge.setProperty("weight", 0.5f);
+        assertEquals(0, this.batches.size());
+        assertEquals(4, graph.getBufferedCount());
+        assertEquals("knows", edge.getLabel());
+        assertSame(a, edge.getVertex(Direction.OUT));
+
+        graph.commit();
+        assertEquals(1, this.batches.size());
+        final JSONArray ops = this.batches.get(0);
+        assertEquals(4, ops.length());
+        final String tmpA = ops.getJSONObject(0).getString(RexsterBatchGraph.TMP);
+        assertEquals(tmpA, ops.getJSONObject(2).getJSONObject(RexsterBatchGraph.OUT).getString(RexsterBatchGraph.TMP));
+        assertEquals("float", ops.getJSONObject(3).getJSONObject(RexsterBatchGraph.VALUE).getString("type"));
+        assertEquals(0.5, ops.getJSONObject(3).getJSONObject(RexsterBatchGraph.VALUE).getDouble("value"), 0.0);
+        assertTrue(ops.getJSONObject(3).getBoolean(RexsterBatchGraph.EDGE));
+
+        // once flushed, the elements are referenced by the ids assigned by the server
+        a.setProperty("name", "marko");
+        graph.commit();
+        assertEquals(2, this.batches.size());
+        assertEquals(a.getId(), this.batches.get(1).getJSONObject(0).getJSONObject(RexsterBatchGraph.ELEMENT).get(RexsterBatchGraph.ID));
+        assertNotNull(edge.getId());
+        assertFalse(a.getId().equals(b.getId()));
+    }
+
+    public void testIdentityDoesNotFlush() throws Exception {
+        final RexsterBatchGraph graph = new RexsterBatchGraph(this.createGraph(), 100, -1);
+        final Vertex a = graph.addVertex(null);
+        final Vertex b = graph.addVertex(null);
+        final Set<Vertex> set = new HashSet<Vertex>();
+        set.add(a);
+        set.add(b);
+        set.add(a);
+        assertEquals(2, set.size());
+        assertFalse(a.equals(b));
+        assertEquals(0, this.batches.size());
+
+        graph.commit();
+        assertTrue(set.contains(a));
+        assertTrue(set.contains(graph.getVertex(a.getId())));
+        assertEquals(a.hashCode(), graph.getVertex(a.getId()).hashCode());
+    }
+
+    public void testMissingIdsAreAnError() throws Exception {
+        final RexsterBatchGraph graph = new RexsterBatchGraph(this.createGraph(), 100, -1);
+        graph.addVertex(null);
+        this.omitIds = true;
+        try {
+            graph.commit();
+            fail();
+        } catch (IllegalStateException e) {
+        }
+        assertEquals(0, graph.getBufferedCount());
+    }
+
+    public void testFailedBatchIsNotRetried() throws Exception {
+        final RexsterBatchGraph graph = new RexsterBatchGraph(this.createGraph(), 100, -1);
+        final Vertex a = graph.addVertex(null);
+        final Vertex b = graph.addVertex(null);
+        graph.addEdge(null, a, b, "knows");
+        this.failAt = 2;
+        try {
+            graph.commit();
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("first 2 of a batch of 3"));
+        }
+        assertEquals(0, graph.getBufferedCount());
+        assertEquals(1, this.batches.size());
+
+        // the vertices that were applied have their ids, and nothing is sent again
+        this.failAt = -1;
+        assertNotNull(a.getId());
+        assertNotNull(b.getId());
+        graph.commit();
+        assertEquals(1, this.batches.size());
+    }
+
+    public void testTypedValues() throws Exception {
+        final JSONObject list = RexsterBatchGraph.typedValue(java.util.Arrays.asList(1, 2l, "x"));
+        assertEquals("list", list.getString("type"));
+        assertEquals("integer", list.getJSONArray("value").getJSONObject(0).getString("type"));
+        assertEquals("long", list.getJSONArray("value").getJSONObject(1).getString("type"));
+        assertEquals("string", list.getJSONArray("value").getJSONObject(2).getString("type"));
+        assertEquals("boolean", RexsterBatchGraph.typedValue(true).getString("type"));
+        assertEquals("string", RexsterBatchGraph.typedValue(new StringBuilder("s")).getString("type"));
+    }
+
+    public void testRemoveVertexForgetsEdges() throws Exception {
+        final RexsterBatchGraph graph = new RexsterBatchGraph(this.createGraph(), 100, -1);
+        final Vertex a = graph.addVertex(null);
+        final Vertex b = graph.addVertex(null);
+        final Vertex c = graph.addVertex(null);
+        final Edge edge = graph.addEdge(null, a, b, "knows");
+        final Edge other = graph.addEdge(null, a, c, "knows");
+        graph.commit();
+        assertEquals(edge, graph.getEdge(edge.getId()));
+        assertEquals(1, this.batches.size());
+
+        // the edges of other vertices are still known
+        graph.removeVertex(b);
+        assertEquals(other, graph.getEdge(other.getId()));
+        assertEquals(1, this.batches.size());
+
+        // the edge is no longer known, so it is looked up on the server (where the stand-in does not find it)
+        assertNull(graph.getEdge(edge.getId()));
+        assertEquals(2, this.batches.size());
+    }
+
+    public void testRollbackDiscardsBuffer() throws Exception {
+        final RexsterBatchGraph graph = new RexsterBatchGraph(this.createGraph(), 100, -1);
+        graph.addVertex("1");
+        graph.commit();
+        graph.addVertex("2");
+        graph.getVertex("1").setProperty("name", "marko");
+        assertEquals(2, graph.getBufferedCount());
+        graph.rollback();
+        assertEquals(0, graph.getBufferedCount());
+        graph.commit();
+        assertEquals(1, this.batches.size());
+    }
+
+    public void testFlushOnMaxDelay() throws Exception {
+        final RexsterBatchGraph graph = new RexsterBatchGraph(this.createGraph(), 100, 0);
+        graph.addVertex(null);
+        graph.addVertex(null);
+        assertEquals(2, this.batches.size());
+    }
+
+    public void testBatchGraphLoading() throws Exception {
+        final RexsterBatchGraph rexsterBatchGraph = new RexsterBatchGraph(this.createGraph(), RexsterBatchGraph.DEFAULT_BATCH_SIZE, -1);
+        final BatchGraph<RexsterBatchGraph> graph = new BatchGraph<RexsterBatchGraph>(rexsterBatchGraph, VertexIDType.STRING, 100);
+
+        this.stopWatch();
+        for (int i = 0; i < 1000; i++) {
+            final Vertex vertex = graph.addVertex(String.valueOf(i));
+            vertex.setProperty("name", "v" + i);
+            if (i > 0)
+                graph.addEdge(null, vertex, graph.getVertex(String.valueOf(i - 1)), "next");
+        }
+        graph.commit();
+        printPerformance("RexsterBatchGraph", 1999, "elements loaded", this.stopWatch());
+
+        int ops = 0;
+        for (final JSONArray batch : this.batches) {
+            ops = ops + batch.length();
+        }
+        assertTrue(this.batches.size() < 30);
+        assertTrue(ops >= 2999);
+    }
+
+    private RexsterGraph createGraph() {
+        return new RexsterGraph("http://localhost:" + this.server.getAddress().getPort() + "/graphs/stub");
+    }
+
+    private static String read(final InputStream inputStream) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            bytes.write(buffer, 0, read);
+        }
+        inputStream.close();
+        return bytes.toString("UTF-8");
+    }
+}
@@ -0,0 +1,196 @@
+package com.tinkerpop.blueprints.impls.rexster;
+
+import com.tinkerpop.blueprints.BaseTest;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+/**
+ * Exercises the paging of RexsterElementIterable against a stand-in for the paged resources of a Rexster server.
+ */
+public class RexsterElementIterableTest extends BaseTest {
+
+    private static final int TOTAL_VERTICES = 1050;
+
+    private final List<Vertex> vertices = new ArrayList<Vertex>();
+
+    @Override
+    public void setUp() {
+        final TinkerGraph tinkerGraph = new TinkerGraph();
+        for (int i = 0; i < TOTAL_VERTICES; i++) {
+            this.vertices.add(tinkerGraph.addVertex(i));
+        }
+    }
+
+    public void testPagingWithoutPrefetch() {
+        final RexsterGraph graph = new RexsterGraph("http://localhost:8182/graphs/stub", 100);
+        graph.setPrefetchDepth(0);
+        graph.setMaxBufferSize(100);
+        final StubIterable iterable = new StubIterable(graph, 0);
+        assertAllVertices(iterable);
+        assertEquals(11, iterable.getRequests().size());
+        for (final int[] request : iterable.getRequests()) {
+            assertEquals(100, request[1] - request[0]);
+        }
+    }
+
+    public void testPagingWithPrefetch() {
+        for (int depth = 1; depth < 4; depth++) {
+            final RexsterGraph graph = new RexsterGraph("http://localhost:8182/graphs/stub", 100);
+            graph.setPrefetchDepth(depth);
+            graph.setMaxBufferSize(100);
+            assertAllVertices(new StubIterable(graph, 0));
+        }
+    }
+
+    public void testPrefetchDepthIsHonored() throws Exception {
+        for (int depth = 1; depth < 4; depth++) {
+            final RexsterGraph graph = new RexsterGraph("http://localhost:8182/graphs/stub", 10);
+            graph.setPrefetchDepth(depth);
+            graph.setMaxBufferSize(10);
+            final StubIterable iterable = new StubIterable(graph, 0);
+            assertTrue(iterable.iterator().hasNext());
+            Thread.sleep(100);
+            // the page being iterated and the pages requested ahead of it
+            assertEquals(depth + 1, iterable.getRequests().size());
+            iterable.close();
+        }
+    }
+
+    public void testCloseCancelsPrefetch() throws Exception {
+        final RexsterGraph graph = new RexsterGraph("http://localhost:8182/graphs/stub", 100);
+        graph.setPrefetchDepth(2);
+        graph.setMaxBufferSize(100);
+        final StubIterable iterable = new StubIterable(graph, 200);
+        final Iterator<Vertex> itty = iterable.iterator();
+        assertTrue(itty.hasNext());
+        iterable.close();
+        final int requests = iterable.getRequests().size();
+        assertTrue(requests <= 3);
+        int counter = 0;
+        while (itty.hasNext()) {
+            itty.next();
+            counter++;
+        }
+        assertEquals(100, counter);
+        Thread.sleep(300);
+        assertEquals(requests, iterable.getRequests().size());
+    }
+
+    public void testPageSizeAdapts() {
+        final RexsterGraph graph = new RexsterGraph("http://localhost:8182/graphs/stub", 10);
+        graph.setPrefetchDepth(0);
+        graph.setMaxBufferSize(400);
+        final StubIterable iterable = new StubIterable(graph, 0);
+        assertAllVertices(iterable);
+        final List<int[]> requests = iterable.getRequests();
+        assertEquals(10, requests.get(0)[1] - requests.get(0)[0]);
+        assertEquals(20, requests.get(1)[1] - requests.get(1)[0]);
+        assertEquals(400, requests.get(requests.size() - 1)[1] - requests.get(requests.size() - 1)[0]);
+        assertTrue(requests.size() < 20);
+    }
+
+    public void testEmptyIterable() {
+        final RexsterGraph graph = new RexsterGraph("http://localhost:8182/graphs/stub", 100);
+        final Iterator<Vertex> itty = new StubIterable(graph, 0) {
+            @Override
+            protected void fillBuffer(final Queue<Vertex> queue, final int start, final int end) {
+            }
+        }.iterator();
+        assertFalse(itty.hasNext());
+        try {
+            itty.next();
+            fail();
+        } catch (NoSuchElementException e) {
+        }
+    }
+
+    public void testFailedPageIsRethrown() {
+        final RexsterGraph graph = new RexsterGraph("http://localhost:8182/graphs/stub", 100);
+        graph.setPrefetchDepth(2);
+        final Iterator<Vertex> itty = new StubIterable(graph, 0) {
+            @Override
+            protected void fillBuffer(final Queue<Vertex> queue, final int start, final int end) {
+                throw new IllegalStateException("unreachable server");
+            }
+        }.iterator();
+        try {
+            itty.hasNext();
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("unreachable server", e.getMessage());
+        }
+    }
+
+    public void testPrefetchHidesLatency() {
+        final RexsterGraph graph = new RexsterGraph("http://localhost:8182/graphs/stub", 100);
+        graph.setMaxBufferSize(100);
+
+        graph.setPrefetchDepth(0);
+        this.stopWatch();
+        int counter = consume(new StubIterable(graph, 20));
+        printPerformance("RexsterElementIterable", counter, "vertices iterated without prefetch", this.stopWatch());
+
+        graph.setPrefetchDepth(2);
+        this.stopWatch();
+        counter = consume(new StubIterable(graph, 20));
+        printPerformance("RexsterElementIterable", counter, "vertices iterated with prefetch", this.stopWatch());
+    }
+
+    private int consume(final StubIterable iterable) {
+        int counter = 0;
+        for (final Vertex vertex : iterable) {
+            counter++;
+            try {
+                // simulate the cost of processing each vertex
+                if (counter % 10 == 0)
+                    Thread.sleep(1);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return counter;
+    }
+
+    private void assertAllVertices(final StubIterable iterable) {
+        int counter = 0;
+        for (final Vertex vertex : iterable) {
+            assertEquals(this.vertices.get(counter), vertex);
+            counter++;
+        }
+        assertEquals(TOTAL_VERTICES, counter);
+    }
+
+    private class StubIterable extends RexsterElementIterable<Vertex> {
+
+        private final long latency;
+        private final List<int[]> requests = Collections.synchronizedList(new ArrayList<int[]>());
+
+        public StubIterable(final RexsterGraph graph, final long latency) {
+            super(graph.getGraphURI() + RexsterTokens.SLASH_VERTICES, graph);
+            this.latency = latency;
+        }
+
+        public List<int[]> getRequests() {
+            return this.requests;
+        }
+
+        protected void fillBuffer(final Queue<Vertex> queue, final int start, final int end) {
+            this.requests.add(new int[]{start, end});
+            try {
+                Thread.sleep(this.latency);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            for (int i = start; i < end && i < vertices.size(); i++) {
+                queue.add(vertices.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.tinkerpop.blueprints.impls.rexster;
+
+import com.tinkerpop.blueprints.BaseTest;
+import com.tinkerpop.blueprints.Compare;
+import com.tinkerpop.blueprints.Contains;
+import com.tinkerpop.blueprints.Predicate;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class RexsterGraphQueryTest extends BaseTest {
+
+    private final RexsterGraph graph = new RexsterGraph("http://localhost:8182/graphs/stub");
+
+    public void testBuildScript() {
+        final RexsterGraphQuery query = new RexsterGraphQuery(this.graph);
+        query.has("name", "marko").has("age", Compare.GREATER_THAN, 29).interval("weight", 0.5f, 1.0d)
+                .has("id", Contains.IN, Arrays.asList("1", 2l)).has("alive").hasNot("dead").limit(10);
+
+        final Map<String, Object> params = new HashMap<String, Object>();
+        assertEquals("g.V.has(p0,com.tinkerpop.blueprints.Compare.EQUAL,p1)" +
+                ".has(p2,com.tinkerpop.blueprints.Compare.GREATER_THAN,Integer.valueOf('29'))" +
+                ".has(p3,com.tinkerpop.blueprints.Compare.GREATER_THAN_EQUAL,Float.valueOf('0.5'))" +
+                ".has(p4,com.tinkerpop.blueprints.Compare.LESS_THAN,Double.valueOf('1.0'))" +
+                ".has(p5,com.tinkerpop.blueprints.Contains.IN,[p6,Long.valueOf('2')])" +
+                ".has(p7).hasNot(p8)[0..<10]", query.buildScript("g.V", params));
+
+        assertEquals(9, params.size());
+        assertEquals("name", params.get("p0"));
+        assertEquals("marko", params.get("p1"));
+        assertEquals("id", params.get("p5"));
+        assertEquals("1", params.get("p6"));
+        assertEquals("dead", params.get("p8"));
+    }
+
+    public void testBuildScriptWithoutConstraints() {
+        assertEquals("g.E", new RexsterGraphQuery(this.graph).buildScript("g.E", new HashMap<String, Object>()));
+    }
+
+    public void testUnsupportedConstraints() {
+        final RexsterGraphQuery customPredicate = new RexsterGraphQuery(this.graph);
+        customPredicate.has("name", new Predicate() {
+            public boolean evaluate(final Object first, final Object second) {
+                return true;
+            }
+        }, "marko");
+        assertNull(customPredicate.buildScript("g.V", new HashMap<String, Object>()));
+
+        final RexsterGraphQuery customValue = new RexsterGraphQuery(this.graph);
+        customValue.has("location", new Object());
+        assertNull(customValue.buildScript("g.V", new HashMap<String, Object>()));
+    }
+}
@@ -1,12 +1,16 @@
 package com.tinkerpop.blueprints.impls.rexster;
 
+import com.tinkerpop.blueprints.Compare;
+import com.tinkerpop.blueprints.Contains;
 import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.Predicate;
 import com.tinkerpop.blueprints.TestSuite;
 import com.tinkerpop.blueprints.Vertex;
 import com.tinkerpop.blueprints.impls.GraphTest;
 import junit.framework.Assert;
 import org.codehaus.jettison.json.JSONArray;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -48,6 +52,38 @@ public class RexsterGraphSpecificTestSuite extends TestSuite {
         }
     }
 
+    public void testPropertySnapshot() throws Exception {
+        final String doTest = System.getProperty("testRexsterGraph", "true");
+        if (doTest.equals("true")) {
+            final RexsterGraph g = (RexsterGraph) graphTest.generateGraph();
+            ((RexsterGraphTest) graphTest).resetGraph();
+            g.setPropertySnapshotTimeout(-1l);
+
+            final Vertex v = g.addVertex(null);
+            v.setProperty("name", "marko");
+            v.setProperty("age", 29);
+
+            final Vertex snapshot = g.getVertex(v.getId());
+            Assert.assertEquals("marko", snapshot.getProperty("name"));
+            Assert.assertEquals(29, snapshot.getProperty("age"));
+            Assert.assertEquals(2, snapshot.getPropertyKeys().size());
+
+            // writes through another element are not seen until the snapshot is refreshed
+            v.setProperty("name", "okram");
+            Assert.assertEquals("okram", v.getProperty("name"));
+            Assert.assertEquals("marko", snapshot.getProperty("name"));
+            ((RexsterVertex) snapshot).refresh();
+            Assert.assertEquals("okram", snapshot.getProperty("name"));
+
+            snapshot.removeProperty("age");
+            Assert.assertNull(snapshot.getProperty("age"));
+            Assert.assertEquals(1, snapshot.getPropertyKeys().size());
+
+            g.setPropertySnapshotTimeout(RexsterGraph.DEFAULT_PROPERTY_SNAPSHOT_TIMEOUT);
+            Assert.assertNull(v.getProperty("age"));
+        }
+    }
+
     public void testGremlin() throws Exception {
         final String doTest = System.getProperty("testRexsterGraph", "true");
         if (doTest.equals("true")) {
@@ -77,4 +113,62 @@ public class RexsterGraphSpecificTestSuite extends TestSuite {
         }
     }
 
-}
\ No newline at end of file
+    public void testGraphQueryPushdown() throws Exception {
+        final String doTest = System.getProperty("testRexsterGraph", "true");
+        if (doTest.equals("true")) {
+            final RexsterGraph g = (RexsterGraph) graphTest.generateGraph();
+            ((RexsterGraphTest) graphTest).resetGraph();
+
+            for (int i = 0; i < 10; i++) {
+                final Vertex v = g.addVertex(null);
+                v.setProperty("age", i);
+                v.setProperty("name", i % 2 == 0 ? "even" : "odd");
+                if (i > 0)
+                    g.addEdge(null, v, g.getVertices("age", i - 1).iterator().next(), "next").setProperty("weight", (float) i);
+            }
+
+            Assert.assertEquals(5, count(g.query().has("name", "even").vertices()));
+            Assert.assertEquals(3, count(g.query().has("name", "odd").has("age", Compare.GREATER_THAN, 3).vertices()));
+            Assert.assertEquals(4, count(g.query().interval("age", 2, 6).vertices()));
+            Assert.assertEquals(2, count(g.query().has("age", Contains.IN, Arrays.asList(1, 7, 11)).vertices()));
+            Assert.assertEquals(2, count(g.query().has("name", "odd").limit(2).vertices()));
+            Assert.assertEquals(0, count(g.query().has("name").limit(0).vertices()));
+            Assert.assertEquals(0, count(g.query().hasNot("name").vertices()));
+            Assert.assertEquals(9, g.query().has("age", 9).vertices().iterator().next().getProperty("age"));
+
+            Assert.assertEquals(1, count(g.query().has("weight", 4.0f).edges()));
+            Assert.assertEquals(9, count(g.query().has("label", "next").edges()));
+
+            // a custom predicate is evaluated on the client
+            Assert.assertEquals(10, count(g.query().has("name", new Predicate() {
+                public boolean evaluate(final Object first, final Object second) {
+                    return first != null;
+                }
+            }, null).vertices()));
+        }
+    }
+
+    public void testBatchGraph() throws Exception {
+        final String doTest = System.getProperty("testRexsterGraph", "true");
+        if (doTest.equals("true")) {
+            final RexsterGraph g = (RexsterGraph) graphTest.generateGraph();
+            ((RexsterGraphTest) graphTest).resetGraph();
+
+            final RexsterBatchGraph batchGraph = new RexsterBatchGraph(g, 10, -1);
+            Vertex previous = null;
+            for (int i = 0; i < 25; i++) {
+                final Vertex v = batchGraph.addVertex(null);
+                v.setProperty("age", i);
+                if (null != previous)
+                    batchGraph.addEdge(null, previous, v, "next").setProperty("weight", 0.5f);
+                previous = v;
+            }
+            batchGraph.commit();
+
+            Assert.assertEquals(25, count(g.getVertices()));
+            Assert.assertEquals(24, count(g.getEdges()));
+            Assert.assertEquals(24, g.getVertex(previous.getId()).getProperty("age"));
+            Assert.assertEquals(0.5f, g.getEdges().iterator().next().getProperty("weight"));
+        }
+    }
+}
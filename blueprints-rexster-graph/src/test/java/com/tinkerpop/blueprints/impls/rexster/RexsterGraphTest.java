@@ -1,5 +1,6 @@
 package com.tinkerpop.blueprints.impls.rexster;
 
+import com.tinkerpop.blueprints.BulkRetrievalGraphTestSuite;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.EdgeTestSuite;
 import com.tinkerpop.blueprints.Graph;
@@ -66,6 +67,12 @@ public class RexsterGraphTest extends GraphTest {
         printTestPerformance("KeyIndexableGraphTestSuite", this.stopWatch());
     }
 
+    public void testBulkRetrievalGraphTestSuite() throws Exception {
+        this.stopWatch();
+        doTestSuite(new BulkRetrievalGraphTestSuite(this));
+        printTestPerformance("BulkRetrievalGraphTestSuite", this.stopWatch());
+    }
+
     public void testIndexableGraphTestSuite() throws Exception {
         this.stopWatch();
         doTestSuite(new IndexableGraphTestSuite(this));
@@ -0,0 +1,127 @@
+package com.tinkerpop.blueprints.impls.sail;
+
+import com.tinkerpop.blueprints.CloseableIterable;
+import com.tinkerpop.blueprints.Vertex;
+import info.aduna.iteration.CloseableIteration;
+import org.openrdf.model.Value;
+import org.openrdf.query.Binding;
+import org.openrdf.query.BindingSet;
+import org.openrdf.query.QueryEvaluationException;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The solutions of a SPARQL query, which are read from the Sail only as they are iterated over.
+ * Each solution is a read-only view of its binding set: a Vertex is created for a binding only when it is accessed.
+ * The underlying query result is closed when the iteration is exhausted, or by close().
+ */
+class SailBindingIterable implements CloseableIterable<Map<String, Vertex>> {
+
+    private final CloseableIteration<? extends BindingSet, QueryEvaluationException> results;
+    private final SailGraph graph;
+    private boolean iterated = false;
+
+    public SailBindingIterable(final CloseableIteration<? extends BindingSet, QueryEvaluationException> results, final SailGraph graph) {
+        this.results = results;
+        this.graph = graph;
+    }
+
+    public Iterator<Map<String, Vertex>> iterator() {
+        if (this.iterated)
+            throw new IllegalStateException("the results of a SPARQL query can only be iterated over once");
+        this.iterated = true;
+
+        return new Iterator<Map<String, Vertex>>() {
+            public boolean hasNext() {
+                try {
+                    if (results.hasNext())
+                        return true;
+                    else {
+                        results.close();
+                        return false;
+                    }
+                } catch (QueryEvaluationException e) {
+                    throw new RuntimeException(e.getMessage(), e);
+                }
+            }
+
+            public Map<String, Vertex> next() {
+                try {
+                    return new BindingMap(results.next());
+                } catch (QueryEvaluationException e) {
+                    throw new RuntimeException(e.getMessage(), e);
+                } catch (NoSuchElementException e) {
+                    close();
+                    throw e;
+                }
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    public void close() {
+        try {
+            this.results.close();
+        } catch (QueryEvaluationException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    private class BindingMap extends AbstractMap<String, Vertex> {
+
+        private final BindingSet bindingSet;
+
+        public BindingMap(final BindingSet bindingSet) {
+            this.bindingSet = bindingSet;
+        }
+
+        public Vertex get(final Object key) {
+            if (!(key instanceof String))
+                return null;
+            final Value value = this.bindingSet.getValue((String) key);
+            return null == value ? null : new SailVertex(value, graph);
+        }
+
+        public boolean containsKey(final Object key) {
+            return key instanceof String && null != this.bindingSet.getValue((String) key);
+        }
+
+        public int size() {
+            return this.bindingSet.size();
+        }
+
+        public Set<Entry<String, Vertex>> entrySet() {
+            return new AbstractSet<Entry<String, Vertex>>() {
+                public Iterator<Entry<String, Vertex>> iterator() {
+                    final Iterator<Binding> bindings = bindingSet.iterator();
+                    return new Iterator<Entry<String, Vertex>>() {
+                        public boolean hasNext() {
+                            return bindings.hasNext();
+                        }
+
+                        public Entry<String, Vertex> next() {
+                            final Binding binding = bindings.next();
+                            return new SimpleImmutableEntry<String, Vertex>(binding.getName(), new SailVertex(binding.getValue(), graph));
+                        }
+
+                        public void remove() {
+                            throw new UnsupportedOperationException();
+                        }
+                    };
+                }
+
+                public int size() {
+                    return bindingSet.size();
+                }
+            };
+        }
+    }
+}
@@ -21,12 +21,14 @@ class SailEdgeIterable implements Iterable<Edge> {
     private final Resource subject;
     private final URI predicate;
     private final Value object;
+    private final Resource[] contexts;
 
-    public SailEdgeIterable(Resource subject, URI predicate, Value object, final SailGraph graph) {
+    public SailEdgeIterable(Resource subject, URI predicate, Value object, final SailGraph graph, final Resource... contexts) {
         this.subject = subject;
         this.object = object;
         this.predicate = predicate;
         this.graph = graph;
+        this.contexts = contexts;
     }
 
     public Iterator<Edge> iterator() {
@@ -38,7 +40,7 @@ class SailEdgeIterable implements Iterable<Edge> {
 
         public SailEdgeIterator() {
             try {
-                this.statements = graph.getSailConnection().get().getStatements(subject, predicate, object, false);
+                this.statements = graph.getSailConnection().get().getStatements(subject, predicate, object, false, contexts);
             } catch (SailException e) {
                 throw new RuntimeException(e.getMessage(), e);
             }
@@ -1,15 +1,14 @@
 package com.tinkerpop.blueprints.impls.sail;
 
 
+import com.tinkerpop.blueprints.CloseableIterable;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Features;
 import com.tinkerpop.blueprints.GraphQuery;
 import com.tinkerpop.blueprints.MetaGraph;
 import com.tinkerpop.blueprints.TransactionalGraph;
 import com.tinkerpop.blueprints.Vertex;
-import com.tinkerpop.blueprints.util.DefaultGraphQuery;
 import com.tinkerpop.blueprints.util.ExceptionFactory;
-import com.tinkerpop.blueprints.util.PropertyFilteredIterable;
 import com.tinkerpop.blueprints.util.StringFactory;
 import info.aduna.iteration.CloseableIteration;
 import org.apache.log4j.PropertyConfigurator;
@@ -22,7 +21,6 @@ import org.openrdf.model.Value;
 import org.openrdf.model.impl.BNodeImpl;
 import org.openrdf.model.impl.StatementImpl;
 import org.openrdf.model.impl.URIImpl;
-import org.openrdf.query.Binding;
 import org.openrdf.query.BindingSet;
 import org.openrdf.query.QueryEvaluationException;
 import org.openrdf.query.impl.MapBindingSet;
@@ -94,6 +92,8 @@ public class SailGraph implements TransactionalGraph, MetaGraph<Sail> {
         FEATURES.supportsMapProperty = false;
         FEATURES.supportsStringProperty = false;
         FEATURES.supportsThreadedTransactions = false;
+        FEATURES.supportsBulkRetrieval = false;
+        FEATURES.supportsBulkProperties = false;
     }
 
     static {
@@ -217,9 +217,12 @@ public class SailGraph implements TransactionalGraph, MetaGraph<Sail> {
         return new SailEdgeIterable(null, null, null, this);
     }
 
+    /**
+     * Edges with the given label (label), named graph (ng), out vertex (out) or in vertex (in) are retrieved
+     * with a bound statement pattern. Any other key is matched against the properties of every edge.
+     */
     public Iterable<Edge> getEdges(final String key, final Object value) {
-        // TODO: Make this efficient using a SPARQL query
-        return new PropertyFilteredIterable<Edge>(key, value, new SailEdgeIterable(null, null, null, this));
+        return this.query().has(key, value).edges();
     }
 
     public void removeVertex(final Vertex vertex) {
@@ -350,6 +353,24 @@ public class SailGraph implements TransactionalGraph, MetaGraph<Sail> {
         }
     }
 
+    /**
+     * Load RDF data into the SailGraph in batches, each of which is committed in a transaction of its own.
+     * Line-based formats (n-triples and n-quads) are parsed in parallel. Progress is logged as the data is loaded.
+     * Before loading data, the current transaction is successfully committed.
+     *
+     * @param input     the InputStream of RDF data
+     * @param baseURI   the baseURI for RDF data
+     * @param format    supported formats include rdf-xml, n-triples, n-quads, turtle, n3, trix, or trig
+     * @param baseGraph the baseGraph to insert the data into
+     * @param batchSize the number of statements (or lines, for line-based formats) to commit in each transaction
+     * @param threads   the number of threads with which to parse line-based formats
+     * @return the number of statements loaded
+     * @see SailLoader
+     */
+    public long loadRDF(final InputStream input, final String baseURI, final String format, final String baseGraph, final int batchSize, final int threads) {
+        return new SailLoader(this, batchSize, threads).load(input, baseURI, format, baseGraph);
+    }
+
     /**
      * Save RDF data from the SailGraph.
      * Supported formats include rdf-xml, n-triples, turtle, n3, trix, or trig.
@@ -514,7 +535,7 @@ public class SailGraph implements TransactionalGraph, MetaGraph<Sail> {
     }
 
     public GraphQuery query() {
-        return new DefaultGraphQuery(this);
+        return new SailGraphQuery(this);
     }
 
     /**
@@ -525,26 +546,35 @@ public class SailGraph implements TransactionalGraph, MetaGraph<Sail> {
      * @throws RuntimeException if an error occurs in the SPARQL query engine
      */
     public List<Map<String, Vertex>> executeSparql(String sparqlQuery) throws RuntimeException {
+        final CloseableIterable<Map<String, Vertex>> results = this.executeStreamingSparql(sparqlQuery);
+        final List<Map<String, Vertex>> returnList = new ArrayList<Map<String, Vertex>>();
+        try {
+            for (final Map<String, Vertex> result : results) {
+                returnList.add(new HashMap<String, Vertex>(result));
+            }
+        } finally {
+            results.close();
+        }
+        return returnList;
+    }
+
+    /**
+     * Evaluate a SPARQL query against the SailGraph (http://www.w3.org/TR/rdf-sparql-query/), streaming its results.
+     * The solutions are read from the Sail as they are iterated over, and a Vertex is only created for a ?-binding when it is accessed,
+     * so that large results need not be held in memory. The results can be iterated over once, and must be closed if they are not exhausted.
+     *
+     * @param sparqlQuery the SPARQL query to evaluate
+     * @return the mappings between a ?-binding and the URI, blank node, or literal as a Vertex
+     * @throws RuntimeException if an error occurs in the SPARQL query engine
+     */
+    public CloseableIterable<Map<String, Vertex>> executeStreamingSparql(String sparqlQuery) throws RuntimeException {
         try {
             sparqlQuery = getPrefixes() + sparqlQuery;
             final SPARQLParser parser = new SPARQLParser();
             final ParsedQuery query = parser.parseQuery(sparqlQuery, null);
             boolean includeInferred = false;
             final CloseableIteration<? extends BindingSet, QueryEvaluationException> results = this.sailConnection.get().evaluate(query.getTupleExpr(), query.getDataset(), new MapBindingSet(), includeInferred);
-            final List<Map<String, Vertex>> returnList = new ArrayList<Map<String, Vertex>>();
-            try {
-                while (results.hasNext()) {
-                    BindingSet bs = results.next();
-                    Map<String, Vertex> returnMap = new HashMap<String, Vertex>();
-                    for (Binding b : bs) {
-                        returnMap.put(b.getName(), this.getVertex(b.getValue().toString()));
-                    }
-                    returnList.add(returnMap);
-                }
-            } finally {
-                results.close();
-            }
-            return returnList;
+            return new SailBindingIterable(results, this);
         } catch (Exception e) {
             throw new RuntimeException(e.getMessage(), e);
         }
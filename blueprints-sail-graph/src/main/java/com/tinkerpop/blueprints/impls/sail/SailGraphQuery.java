@@ -0,0 +1,166 @@
+package com.tinkerpop.blueprints.impls.sail;
+
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.DefaultGraphQuery;
+import com.tinkerpop.blueprints.util.StringFactory;
+import org.openrdf.model.Resource;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.impl.BNodeImpl;
+import org.openrdf.model.impl.URIImpl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * SailGraphQuery translates the equality constraints of a query on the label, named graph (ng), out vertex (out)
+ * and in vertex (in) of edges into a single bound statement pattern, so that the indices of the Sail serve the query
+ * rather than a scan of every statement in the store.
+ * The remaining constraints are evaluated against the matching edges as in DefaultGraphQuery.
+ */
+public class SailGraphQuery extends DefaultGraphQuery {
+
+    public SailGraphQuery(final SailGraph graph) {
+        super(graph);
+    }
+
+    public Iterable<Edge> edges() {
+        final SailGraph sailGraph = (SailGraph) this.graph;
+        Resource subject = null;
+        URI predicate = null;
+        Value object = null;
+        Resource context = null;
+
+        final List<HasContainer> filters = new ArrayList<HasContainer>();
+        for (final HasContainer hasContainer : this.hasContainers) {
+            if (!hasContainer.predicate.equals(com.tinkerpop.blueprints.Compare.EQUAL) || null == hasContainer.value) {
+                filters.add(hasContainer);
+                continue;
+            }
+
+            final Value value;
+            if (hasContainer.key.equals(StringFactory.LABEL)) {
+                value = toURI(hasContainer.value);
+                if (null != value && (null == predicate || predicate.equals(value))) {
+                    predicate = (URI) value;
+                    continue;
+                }
+            } else if (hasContainer.key.equals(SailTokens.NAMED_GRAPH)) {
+                value = toContext(hasContainer.value);
+                if (null != value && (null == context || context.equals(value))) {
+                    context = (Resource) value;
+                    continue;
+                }
+            } else if (hasContainer.key.equals(SailTokens.OUT_VERTEX)) {
+                value = toValue(hasContainer.value);
+                if (value instanceof Resource && (null == subject || subject.equals(value))) {
+                    subject = (Resource) value;
+                    continue;
+                }
+                return new ArrayList<Edge>();
+            } else if (hasContainer.key.equals(SailTokens.IN_VERTEX)) {
+                value = toValue(hasContainer.value);
+                if (null != value && (null == object || object.equals(value))) {
+                    object = value;
+                    continue;
+                }
+                return new ArrayList<Edge>();
+            } else {
+                filters.add(hasContainer);
+                continue;
+            }
+
+            // a second, different value for the same part of the statement can not be matched
+            if (null != value)
+                return new ArrayList<Edge>();
+            filters.add(hasContainer);
+        }
+
+        final Iterable<Edge> edges = null == context ?
+                new SailEdgeIterable(subject, predicate, object, sailGraph) :
+                new SailEdgeIterable(subject, predicate, object, sailGraph, context);
+        return new FilteredEdgeIterable(edges, filters);
+    }
+
+    private URI toURI(final Object value) {
+        try {
+            return new URIImpl(((SailGraph) this.graph).expandPrefix(value.toString()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private Resource toContext(final Object value) {
+        final String context = value.toString();
+        if (SailHelper.isBNode(context))
+            return new BNodeImpl(context.substring(2));
+        else
+            return toURI(context);
+    }
+
+    private Value toValue(final Object value) {
+        if (value instanceof SailVertex)
+            return ((SailVertex) value).getRawVertex();
+        final Vertex vertex = this.graph.getVertex(value instanceof Vertex ? ((Vertex) value).getId() : value);
+        return null == vertex ? null : ((SailVertex) vertex).getRawVertex();
+    }
+
+    private class FilteredEdgeIterable implements Iterable<Edge> {
+
+        private final Iterable<Edge> edges;
+        private final List<HasContainer> filters;
+
+        public FilteredEdgeIterable(final Iterable<Edge> edges, final List<HasContainer> filters) {
+            this.edges = edges;
+            this.filters = filters;
+        }
+
+        public Iterator<Edge> iterator() {
+            return new Iterator<Edge>() {
+                private final Iterator<Edge> itty = edges.iterator();
+                private Edge nextEdge = null;
+                private long count = 0;
+
+                public boolean hasNext() {
+                    return null != this.nextEdge || this.loadNext();
+                }
+
+                public Edge next() {
+                    if (null == this.nextEdge && !this.loadNext())
+                        throw new NoSuchElementException();
+                    final Edge temp = this.nextEdge;
+                    this.nextEdge = null;
+                    return temp;
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+
+                private boolean loadNext() {
+                    if (this.count >= limit)
+                        return false;
+                    while (this.itty.hasNext()) {
+                        final Edge edge = this.itty.next();
+                        boolean legal = true;
+                        for (final HasContainer hasContainer : filters) {
+                            if (!hasContainer.isLegal(edge)) {
+                                legal = false;
+                                break;
+                            }
+                        }
+                        if (legal) {
+                            this.count++;
+                            this.nextEdge = edge;
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.tinkerpop.blueprints.impls.sail;
+
+import org.openrdf.model.BNode;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+import org.openrdf.model.Value;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.URIImpl;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.RDFParser;
+import org.openrdf.rio.Rio;
+import org.openrdf.rio.helpers.RDFHandlerBase;
+import org.openrdf.rio.helpers.StatementCollector;
+import org.openrdf.sail.SailConnection;
+import org.openrdf.sail.SailException;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+/**
+ * SailLoader loads large amounts of RDF data into a SailGraph in batches, each of which is committed in a transaction
+ * of its own, rather than in one transaction for the entire document.
+ * Line-based formats (n-triples and n-quads) are split into chunks of lines which are parsed in parallel,
+ * and each chunk is added to the Sail through a connection of its own. A blank node label denotes the same node
+ * in all chunks of a load, but not in other loads.
+ * Other formats are parsed by a single parser.
+ * The number of statements loaded and the throughput are logged as the load progresses.
+ * <p/>
+ * As batches are committed independently, a load which fails part way through leaves the statements of the batches
+ * which have already been committed in the graph.
+ */
+public class SailLoader {
+
+    private static final Logger LOGGER = Logger.getLogger(SailLoader.class.getName());
+
+    public static final int DEFAULT_BATCH_SIZE = 10000;
+    public static final long DEFAULT_PROGRESS_INTERVAL = 100000;
+
+    private static final String UTF8 = "UTF-8";
+
+    private final SailGraph graph;
+    private final int batchSize;
+    private final int threads;
+    private long progressInterval = DEFAULT_PROGRESS_INTERVAL;
+
+    private final AtomicLong count = new AtomicLong(0);
+    private long startTime;
+
+    /**
+     * Constructs a SailLoader which commits every 10000 statements and parses with one thread per processor.
+     *
+     * @param graph the SailGraph to load RDF data into
+     */
+    public SailLoader(final SailGraph graph) {
+        this(graph, DEFAULT_BATCH_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param graph     the SailGraph to load RDF data into
+     * @param batchSize the number of statements (or lines, for line-based formats) to commit in each transaction
+     * @param threads   the number of threads with which to parse line-based formats
+     */
+    public SailLoader(final SailGraph graph, final int batchSize, final int threads) {
+        if (batchSize <= 0)
+            throw new IllegalArgumentException("Batch size must be positive");
+        if (threads <= 0)
+            throw new IllegalArgumentException("Number of threads must be positive");
+        this.graph = graph;
+        this.batchSize = batchSize;
+        this.threads = threads;
+    }
+
+    /**
+     * @param progressInterval the number of statements after which progress is logged
+     */
+    public void setProgressInterval(final long progressInterval) {
+        if (progressInterval <= 0)
+            throw new IllegalArgumentException("Progress interval must be positive");
+        this.progressInterval = progressInterval;
+    }
+
+    /**
+     * @return the number of statements which have been loaded so far
+     */
+    public long getStatementCount() {
+        return this.count.get();
+    }
+
+    /**
+     * Load RDF data into the SailGraph. Supported formats include rdf-xml, n-triples, n-quads, turtle, n3, trix, or trig.
+     * Before loading data, the current transaction of the graph is successfully committed.
+     *
+     * @param input     the InputStream of RDF data
+     * @param baseURI   the baseURI for RDF data
+     * @param format    supported formats include rdf-xml, n-triples, n-quads, turtle, n3, trix, or trig
+     * @param baseGraph the baseGraph to insert the data into
+     * @return the number of statements loaded
+     */
+    public long load(final InputStream input, final String baseURI, final String format, final String baseGraph) {
+        final RDFFormat rdfFormat = SailGraph.getFormat(format);
+        final Resource[] contexts = null == baseGraph ? new Resource[]{} : new Resource[]{new URIImpl(baseGraph)};
+
+        this.graph.commit();
+        this.count.set(0);
+        this.startTime = System.currentTimeMillis();
+        try {
+            if (RDFFormat.NTRIPLES.equals(rdfFormat) || RDFFormat.NQUADS.equals(rdfFormat))
+                this.loadLines(input, baseURI, rdfFormat, contexts);
+            else
+                this.loadDocument(input, baseURI, rdfFormat, contexts);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+
+        LOGGER.info(this.progress());
+        return this.count.get();
+    }
+
+    private void loadLines(final InputStream input, final String baseURI, final RDFFormat format, final Resource[] contexts) throws Exception {
+        // when all threads are busy and the queue is full, the reading thread parses the next chunk itself,
+        // which bounds the amount of data in memory
+        final ExecutorService executor = new ThreadPoolExecutor(this.threads, this.threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(this.threads * 2), new ThreadPoolExecutor.CallerRunsPolicy());
+        final AtomicReference<Exception> failure = new AtomicReference<Exception>();
+        // the parsers keep the labels of blank nodes, which are prefixed with an id of the load
+        final String bnodePrefix = "load" + UUID.randomUUID().toString().replace("-", "");
+
+        try {
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(input, UTF8));
+            StringBuilder chunk = new StringBuilder();
+            int lines = 0;
+            String line;
+            while (null == failure.get() && null != (line = reader.readLine())) {
+                chunk.append(line).append('\n');
+                if (++lines == this.batchSize) {
+                    executor.execute(new ChunkLoader(chunk.toString(), baseURI, format, contexts, bnodePrefix, failure));
+                    chunk = new StringBuilder();
+                    lines = 0;
+                }
+            }
+            if (lines > 0 && null == failure.get())
+                executor.execute(new ChunkLoader(chunk.toString(), baseURI, format, contexts, bnodePrefix, failure));
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+
+        if (null != failure.get())
+            throw failure.get();
+    }
+
+    private void loadDocument(final InputStream input, final String baseURI, final RDFFormat format, final Resource[] contexts) throws Exception {
+        final SailConnection c = this.graph.getRawGraph().getConnection();
+        try {
+            c.begin();
+            final RDFParser p = Rio.createParser(format);
+            // the last batch is committed at the end of the document
+            p.setRDFHandler(new BatchAdder(c, contexts));
+            p.parse(input, baseURI);
+        } catch (Exception e) {
+            c.rollback();
+            throw e;
+        } finally {
+            c.close();
+        }
+    }
+
+    private void addStatements(final SailConnection c, final Statement s, final Resource[] contexts) throws SailException {
+        if (1 <= contexts.length) {
+            for (Resource x : contexts) {
+                c.addStatement(s.getSubject(), s.getPredicate(), s.getObject(), x);
+            }
+        } else {
+            c.addStatement(s.getSubject(), s.getPredicate(), s.getObject(), s.getContext());
+        }
+    }
+
+    private Statement scopeBNodes(final Statement s, final String bnodePrefix, final ValueFactory factory) {
+        if (!(s.getSubject() instanceof BNode) && !(s.getObject() instanceof BNode) && !(s.getContext() instanceof BNode))
+            return s;
+        final Resource subject = (Resource) this.scopeBNode(s.getSubject(), bnodePrefix, factory);
+        final Value object = this.scopeBNode(s.getObject(), bnodePrefix, factory);
+        return null == s.getContext() ?
+                factory.createStatement(subject, s.getPredicate(), object) :
+                factory.createStatement(subject, s.getPredicate(), object, (Resource) this.scopeBNode(s.getContext(), bnodePrefix, factory));
+    }
+
+    private Value scopeBNode(final Value value, final String bnodePrefix, final ValueFactory factory) {
+        return value instanceof BNode ? factory.createBNode(bnodePrefix + ((BNode) value).getID()) : value;
+    }
+
+    private void statementsAdded(final long added) {
+        final long total = this.count.addAndGet(added);
+        if (total / this.progressInterval > (total - added) / this.progressInterval)
+            LOGGER.info(this.progress());
+    }
+
+    private String progress() {
+        final long statements = this.count.get();
+        final long time = Math.max(1, System.currentTimeMillis() - this.startTime);
+        return statements + " statements loaded in " + time + "ms (" + (statements * 1000 / time) + " statements/second)";
+    }
+
+    private class ChunkLoader implements Runnable {
+        private final String chunk;
+        private final String baseURI;
+        private final RDFFormat format;
+        private final Resource[] contexts;
+        private final String bnodePrefix;
+        private final AtomicReference<Exception> failure;
+
+        public ChunkLoader(final String chunk, final String baseURI, final RDFFormat format, final Resource[] contexts,
+                           final String bnodePrefix, final AtomicReference<Exception> failure) {
+            this.chunk = chunk;
+            this.baseURI = baseURI;
+            this.format = format;
+            this.contexts = contexts;
+            this.bnodePrefix = bnodePrefix;
+            this.failure = failure;
+        }
+
+        public void run() {
+            if (null != this.failure.get())
+                return;
+
+            try {
+                final Collection<Statement> statements = new ArrayList<Statement>();
+                final RDFParser p = Rio.createParser(this.format);
+                // blank nodes are shared between the chunks of a load
+                p.setPreserveBNodeIDs(true);
+                p.setRDFHandler(new StatementCollector(statements));
+                p.parse(new StringReader(this.chunk), this.baseURI);
+
+                final ValueFactory factory = graph.getRawGraph().getValueFactory();
+                final SailConnection c = graph.getRawGraph().getConnection();
+                try {
+                    c.begin();
+                    for (final Statement s : statements) {
+                        addStatements(c, scopeBNodes(s, this.bnodePrefix, factory), this.contexts);
+                    }
+                    c.commit();
+                } catch (Exception e) {
+                    c.rollback();
+                    throw e;
+                } finally {
+                    c.close();
+                }
+                statementsAdded(statements.size());
+            } catch (Exception e) {
+                this.failure.compareAndSet(null, e);
+            }
+        }
+    }
+
+    private class BatchAdder extends RDFHandlerBase {
+        private final SailConnection c;
+        private final Resource[] contexts;
+        private int added = 0;
+
+        public BatchAdder(final SailConnection c, final Resource[] contexts) {
+            this.c = c;
+            this.contexts = contexts;
+        }
+
+        public void handleNamespace(final String prefix, final String uri) throws RDFHandlerException {
+            try {
+                this.c.setNamespace(prefix, uri);
+            } catch (SailException e) {
+                throw new RDFHandlerException(e);
+            }
+        }
+
+        public void handleStatement(final Statement s) throws RDFHandlerException {
+            try {
+                addStatements(this.c, s, this.contexts);
+            } catch (SailException e) {
+                throw new RDFHandlerException(e);
+            }
+            if (++this.added == batchSize)
+                this.commit(true);
+        }
+
+        public void endRDF() throws RDFHandlerException {
+            this.commit(false);
+        }
+
+        /**
+         * @param begin whether to begin the transaction of the next batch
+         */
+        private void commit(final boolean begin) throws RDFHandlerException {
+            try {
+                this.c.commit();
+                if (begin)
+                    this.c.begin();
+            } catch (SailException e) {
+                throw new RDFHandlerException(e);
+            }
+            statementsAdded(this.added);
+            this.added = 0;
+        }
+    }
+}
@@ -25,6 +25,8 @@ public class SailTokens {
     public static final String VALUE = "value";
     public static final String KIND = "kind";
     public static final String NAMED_GRAPH = "ng";
+    public static final String OUT_VERTEX = "out";
+    public static final String IN_VERTEX = "in";
 
     public static final String URI = "uri";
     public static final String BNODE = "bnode";
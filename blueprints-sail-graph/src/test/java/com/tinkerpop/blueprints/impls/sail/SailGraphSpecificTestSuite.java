@@ -1,13 +1,18 @@
 package com.tinkerpop.blueprints.impls.sail;
 
+import com.tinkerpop.blueprints.CloseableIterable;
 import com.tinkerpop.blueprints.Direction;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.TestSuite;
 import com.tinkerpop.blueprints.Vertex;
 import com.tinkerpop.blueprints.impls.GraphTest;
+import com.tinkerpop.blueprints.util.StringFactory;
 import org.openrdf.model.impl.LiteralImpl;
 import org.openrdf.model.impl.URIImpl;
 
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -138,6 +143,64 @@ public class SailGraphSpecificTestSuite extends TestSuite {
         graph.shutdown();
     }
 
+    public void testStreamingSparql() {
+        SailGraph graph = (SailGraph) graphTest.generateGraph();
+        SailGraphFactory.createTinkerGraph(graph);
+
+        CloseableIterable<Map<String, Vertex>> results = graph.executeStreamingSparql("SELECT ?x ?y WHERE { ?x tg:created ?y } ORDER BY ?x");
+        int counter = 0;
+        for (Map<String, Vertex> map : results) {
+            counter++;
+            assertEquals(map.size(), 2);
+            assertTrue(map.containsKey("x"));
+            assertFalse(map.containsKey("z"));
+            assertNull(map.get("z"));
+            assertTrue(graph.getEdges(SailTokens.OUT_VERTEX, map.get("x")).iterator().hasNext());
+            assertEquals(new HashMap<String, Vertex>(map).get("y"), map.get("y"));
+        }
+        assertEquals(counter, 4);
+        results.close();
+
+        // results which are not exhausted are closed explicitly
+        results = graph.executeStreamingSparql("SELECT ?x WHERE { ?x ?p ?y }");
+        assertTrue(results.iterator().hasNext());
+        results.close();
+        graph.shutdown();
+    }
+
+    public void testBatchedLoading() throws Exception {
+        SailGraph graph = (SailGraph) graphTest.generateGraph();
+        StringBuilder nTriples = new StringBuilder();
+        for (int i = 0; i < 250; i++) {
+            nTriples.append("<http://tinkerpop.com#").append(i).append("> <http://tinkerpop.com#next> <http://tinkerpop.com#").append(i + 1).append("> .\n");
+            nTriples.append("_:list <http://tinkerpop.com#member> <http://tinkerpop.com#").append(i).append("> .\n");
+        }
+
+        SailLoader loader = new SailLoader(graph, 20, 4);
+        loader.setProgressInterval(100);
+        this.stopWatch();
+        assertEquals(loader.load(new ByteArrayInputStream(nTriples.toString().getBytes("UTF-8")), "http://tinkerpop.com#", "n-triples", "http://tinkerpop.com#graph"), 500);
+        printPerformance(graph.toString(), 500, "statements loaded in parallel", this.stopWatch());
+        assertEquals(loader.getStatementCount(), 500);
+        assertEquals(count(graph.getEdges(SailTokens.NAMED_GRAPH, "http://tinkerpop.com#graph")), 500);
+        assertEquals(count(graph.getEdges(StringFactory.LABEL, "http://tinkerpop.com#next")), 250);
+
+        // blank nodes with the same label in different chunks are the same node
+        List<Map<String, Vertex>> results = graph.executeSparql("SELECT DISTINCT ?x WHERE { ?x <http://tinkerpop.com#member> ?y }");
+        assertEquals(results.size(), 1);
+        assertEquals(count(results.get(0).get("x").getEdges(Direction.OUT)), 250);
+
+        // but not with the blank nodes of another load
+        assertEquals(loader.load(new ByteArrayInputStream(nTriples.toString().getBytes("UTF-8")), "http://tinkerpop.com#", "n-triples", "http://tinkerpop.com#graph"), 500);
+        results = graph.executeSparql("SELECT DISTINCT ?x WHERE { ?x <http://tinkerpop.com#member> ?y }");
+        assertEquals(results.size(), 2);
+
+        String turtle = "@prefix tg: <http://tinkerpop.com#> .\n tg:1 tg:knows tg:2, tg:3, tg:4 .\n tg:4 tg:created tg:5 .";
+        assertEquals(graph.loadRDF(new ByteArrayInputStream(turtle.getBytes("UTF-8")), "http://tinkerpop.com#", "turtle", null, 2, 1), 4);
+        assertEquals(count(graph.getEdges()), 754);
+        graph.shutdown();
+    }
+
     public void testNamedGraphs() {
         SailGraph graph = (SailGraph) graphTest.generateGraph();
         SailGraphFactory.createTinkerGraph(graph);
@@ -162,6 +225,37 @@ public class SailGraphSpecificTestSuite extends TestSuite {
         assertEquals(count(graph.getEdges()), 6);
     }
 
+    public void testEdgePatterns() {
+        SailGraph graph = (SailGraph) graphTest.generateGraph();
+        SailGraphFactory.createTinkerGraph(graph);
+        Vertex marko = graph.getVertex("tg:1");
+        Vertex lop = graph.getVertex("tg:3");
+        int counter = 0;
+        for (Edge edge : new ArrayList<Edge>(graph.getEdges(SailTokens.OUT_VERTEX, marko))) {
+            ((SailEdge) edge).setNamedGraph("tg:markoGraph");
+        }
+
+        assertEquals(count(graph.getEdges(StringFactory.LABEL, "tg:knows")), 2);
+        assertEquals(count(graph.getEdges(StringFactory.LABEL, graph.expandPrefix("tg:created"))), 4);
+        assertEquals(count(graph.getEdges(StringFactory.LABEL, "tg:nothing")), 0);
+        assertEquals(count(graph.getEdges(SailTokens.NAMED_GRAPH, "tg:markoGraph")), 3);
+        assertEquals(count(graph.getEdges(SailTokens.NAMED_GRAPH, graph.expandPrefix("tg:markoGraph"))), 3);
+        assertEquals(count(graph.getEdges(SailTokens.OUT_VERTEX, marko)), 3);
+        assertEquals(count(graph.getEdges(SailTokens.IN_VERTEX, "tg:3")), 3);
+        assertEquals(count(graph.getEdges("weight", 0.5f)), 0);
+
+        for (Edge edge : graph.query().has(SailTokens.NAMED_GRAPH, "tg:markoGraph").has(StringFactory.LABEL, "tg:created").edges()) {
+            counter++;
+            assertEquals(edge.getVertex(Direction.OUT), marko);
+            assertEquals(edge.getVertex(Direction.IN), lop);
+        }
+        assertEquals(counter, 1);
+        assertEquals(count(graph.query().has(SailTokens.IN_VERTEX, lop).has(StringFactory.LABEL, "tg:created").hasNot(SailTokens.NAMED_GRAPH).edges()), 2);
+        assertEquals(count(graph.query().has(SailTokens.OUT_VERTEX, marko).has(SailTokens.OUT_VERTEX, lop).edges()), 0);
+        assertEquals(count(graph.query().has(StringFactory.LABEL, "tg:created").limit(3).edges()), 3);
+        graph.shutdown();
+    }
+
     public void testAddManyVertexProperties() {
         SailGraph graph = (SailGraph) graphTest.generateGraph();
         Set<Vertex> vertices = new HashSet<Vertex>();
@@ -7,6 +7,7 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -63,6 +64,23 @@ public abstract class BaseTest extends TestCase {
         }
     }
 
+    /**
+     * Add vertices with the ids 0 to vertexCount - 1 to the graph, and edges between random vertices with the labels in turn.
+     *
+     * @return the vertices added, indexed by id
+     */
+    public static Vertex[] generateRandomGraph(final Graph graph, final int vertexCount, final int edgeCount, final long seed, final String... labels) {
+        final Random random = new Random(seed);
+        final Vertex[] vertices = new Vertex[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            vertices[i] = graph.addVertex(i);
+        }
+        for (int i = 0; i < edgeCount; i++) {
+            graph.addEdge(null, vertices[random.nextInt(vertexCount)], vertices[random.nextInt(vertexCount)], labels[i % labels.length]);
+        }
+        return vertices;
+    }
+
     public static void printPerformance(String name, Integer events, String eventName, double timeInMilliseconds) {
         if (null != events)
             System.out.println("\t" + name + ": " + events + " " + eventName + " in " + timeInMilliseconds + "ms");
@@ -0,0 +1,94 @@
+package com.tinkerpop.blueprints;
+
+import com.tinkerpop.blueprints.impls.GraphTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class BulkRetrievalGraphTestSuite extends TestSuite {
+
+    public BulkRetrievalGraphTestSuite() {
+    }
+
+    public BulkRetrievalGraphTestSuite(final GraphTest graphTest) {
+        super(graphTest);
+    }
+
+    public void testGetVerticesByIds() {
+        BulkRetrievalGraph graph = (BulkRetrievalGraph) graphTest.generateGraph();
+        assertTrue(graph.getFeatures().supportsBulkRetrieval);
+        final List<Object> ids = new ArrayList<Object>();
+        for (int i = 0; i < 25; i++) {
+            final Vertex vertex = graph.addVertex(null);
+            vertex.setProperty("name", "v" + i);
+            ids.add(vertex.getId());
+        }
+        this.stopWatch();
+        final Set<Vertex> vertices = new HashSet<Vertex>();
+        for (final Vertex vertex : graph.getVertices(ids)) {
+            assertTrue(ids.contains(vertex.getId()));
+            vertices.add(vertex);
+        }
+        printPerformance(graph.toString(), ids.size(), "vertices retrieved in bulk", this.stopWatch());
+        assertEquals(vertices.size(), 25);
+        for (final Vertex vertex : vertices) {
+            assertEquals(vertex, graph.getVertex(vertex.getId()));
+            assertEquals(vertex.getProperty("name"), graph.getVertex(vertex.getId()).getProperty("name"));
+        }
+
+        assertEquals(count(graph.getVertices(Arrays.asList(ids.get(0), ids.get(1), ids.get(0)))), 2);
+        assertEquals(count(graph.getVertices(new ArrayList<Object>())), 0);
+        graph.shutdown();
+    }
+
+    public void testGetEdgesByIds() {
+        BulkRetrievalGraph graph = (BulkRetrievalGraph) graphTest.generateGraph();
+        if (graph.getFeatures().supportsEdgeRetrieval) {
+            final Vertex a = graph.addVertex(null);
+            final Vertex b = graph.addVertex(null);
+            final List<Object> ids = new ArrayList<Object>();
+            for (int i = 0; i < 25; i++) {
+                final Edge edge = graph.addEdge(null, a, b, graphTest.convertLabel("knows"));
+                ids.add(edge.getId());
+            }
+            this.stopWatch();
+            final Set<Edge> edges = new HashSet<Edge>();
+            for (final Edge edge : graph.getEdges(ids)) {
+                assertTrue(ids.contains(edge.getId()));
+                assertEquals(edge.getVertex(Direction.OUT), a);
+                edges.add(edge);
+            }
+            printPerformance(graph.toString(), ids.size(), "edges retrieved in bulk", this.stopWatch());
+            assertEquals(edges.size(), 25);
+
+            assertEquals(count(graph.getEdges(Arrays.asList(ids.get(0), ids.get(1), ids.get(0)))), 2);
+            assertEquals(count(graph.getEdges(new ArrayList<Object>())), 0);
+        }
+        graph.shutdown();
+    }
+
+    public void testGetElementsByIdsSkipsRemovedElements() {
+        BulkRetrievalGraph graph = (BulkRetrievalGraph) graphTest.generateGraph();
+        final Vertex a = graph.addVertex(null);
+        final Vertex b = graph.addVertex(null);
+        final Vertex c = graph.addVertex(null);
+        final Object aId = a.getId();
+        final Object bId = b.getId();
+        final Object cId = c.getId();
+        final Edge e = graph.addEdge(null, a, b, graphTest.convertLabel("knows"));
+        final Edge f = graph.addEdge(null, b, c, graphTest.convertLabel("knows"));
+        final Object eId = e.getId();
+        final Object fId = f.getId();
+
+        graph.removeVertex(c);
+        assertEquals(count(graph.getVertices(Arrays.asList(aId, bId, cId))), 2);
+        if (graph.getFeatures().supportsEdgeRetrieval) {
+            assertEquals(count(graph.getEdges(Arrays.asList(eId, fId))), 1);
+            assertEquals(graph.getEdges(Arrays.asList(eId, fId)).iterator().next().getId(), eId);
+        }
+        graph.shutdown();
+    }
+}
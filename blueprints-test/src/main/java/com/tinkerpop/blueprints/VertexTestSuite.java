@@ -1,9 +1,12 @@
 package com.tinkerpop.blueprints;
 
 import com.tinkerpop.blueprints.impls.GraphTest;
+import com.tinkerpop.blueprints.util.ElementHelper;
 import com.tinkerpop.blueprints.util.StringFactory;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -271,6 +274,50 @@ public class VertexTestSuite extends TestSuite {
         graph.shutdown();
     }
 
+    public void testAddManyVertexPropertiesInBulk() {
+        Graph graph = graphTest.generateGraph();
+        if (graph.getFeatures().supportsVertexProperties && graph.getFeatures().supportsStringProperty) {
+            Set<Vertex> vertices = new HashSet<Vertex>();
+            this.stopWatch();
+            for (int i = 0; i < 50; i++) {
+                Vertex vertex = graph.addVertex(null);
+                Map<String, Object> properties = new HashMap<String, Object>();
+                for (int j = 0; j < 15; j++) {
+                    properties.put(UUID.randomUUID().toString(), UUID.randomUUID().toString());
+                }
+                ElementHelper.setProperties(vertex, properties);
+                vertices.add(vertex);
+            }
+            printPerformance(graph.toString(), 15 * 50, "vertex properties added in bulk (with vertices being added too)", this.stopWatch());
+
+            if (graph.getFeatures().supportsVertexIteration)
+                assertEquals(50, count(graph.getVertices()));
+            assertEquals(50, vertices.size());
+            for (Vertex vertex : vertices) {
+                assertEquals(15, vertex.getPropertyKeys().size());
+            }
+        }
+        graph.shutdown();
+    }
+
+    public void testSettingBadVertexPropertiesInBulk() {
+        Graph graph = graphTest.generateGraph();
+        if (graph.getFeatures().supportsVertexProperties && graph.getFeatures().supportsBulkProperties) {
+            Vertex vertex = graph.addVertex(null);
+            assertTrue(vertex instanceof BulkPropertyElement);
+            Map<String, Object> properties = new HashMap<String, Object>();
+            properties.put("name", "marko");
+            properties.put(null, -1);
+            try {
+                ((BulkPropertyElement) vertex).setBulkProperties(properties);
+                fail();
+            } catch (RuntimeException e) {
+                assertNull(vertex.getProperty("name"));
+            }
+        }
+        graph.shutdown();
+    }
+
     public void testRemoveVertexProperties() {
         Graph graph = graphTest.generateGraph();
         if (graph.getFeatures().supportsVertexProperties) {
@@ -67,6 +67,7 @@ public class MockTransactionalGraph implements TransactionalGraph {
     public Features getFeatures() {
         Features f = graph.getFeatures().copyFeatures();
         f.supportsTransactions = true;
+        f.supportsBulkRetrieval = false;
         return f;
     }
 
@@ -1,5 +1,6 @@
 package com.tinkerpop.blueprints.impls.tg;
 
+import com.tinkerpop.blueprints.BulkRetrievalGraphTestSuite;
 import com.tinkerpop.blueprints.Direction;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.EdgeTestSuite;
@@ -61,6 +62,12 @@ public class TinkerGraphTest extends GraphTest {
         printTestPerformance("KeyIndexableGraphTestSuite", this.stopWatch());
     }
 
+    public void testBulkRetrievalGraphTestSuite() throws Exception {
+        this.stopWatch();
+        doTestSuite(new BulkRetrievalGraphTestSuite(this));
+        printTestPerformance("BulkRetrievalGraphTestSuite", this.stopWatch());
+    }
+
     public void testIndexableGraphTestSuite() throws Exception {
         this.stopWatch();
         doTestSuite(new IndexableGraphTestSuite(this));
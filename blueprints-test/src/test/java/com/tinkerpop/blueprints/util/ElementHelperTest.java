@@ -1,12 +1,14 @@
 package com.tinkerpop.blueprints.util;
 
 import com.tinkerpop.blueprints.BaseTest;
+import com.tinkerpop.blueprints.BulkPropertyElement;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Element;
 import com.tinkerpop.blueprints.Graph;
 import com.tinkerpop.blueprints.Vertex;
 import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
 import com.tinkerpop.blueprints.impls.tg.TinkerGraphFactory;
+import com.tinkerpop.blueprints.util.wrappers.wrapped.WrappedGraph;
 
 import java.util.Arrays;
 import java.util.HashMap;
@@ -135,6 +137,25 @@ public class ElementHelperTest extends BaseTest {
 
     }
 
+    public void testSetPropertiesInBulk() {
+        TinkerGraph graph = new TinkerGraph();
+        graph.createKeyIndex("name", Vertex.class);
+        Vertex vertex = graph.addVertex(null);
+        assertTrue(vertex instanceof BulkPropertyElement);
+        ElementHelper.setProperties(vertex, "name", "pierre", "country", "belgium");
+        assertEquals(vertex.getPropertyKeys().size(), 2);
+        assertEquals(graph.getVertices("name", "pierre").iterator().next(), vertex);
+
+        // elements that are not a BulkPropertyElement have their properties set one by one
+        Vertex wrapped = new WrappedGraph<TinkerGraph>(graph).getVertex(vertex.getId());
+        assertFalse(wrapped instanceof BulkPropertyElement);
+        ElementHelper.setProperties(wrapped, "name", "dewilde", "age", 50);
+        assertEquals(vertex.getPropertyKeys().size(), 3);
+        assertEquals(vertex.getProperty("name"), "dewilde");
+        assertEquals(count(graph.getVertices("name", "pierre")), 0);
+        assertEquals(graph.getVertices("name", "dewilde").iterator().next(), vertex);
+    }
+
     public void testSetPropertiesVarArgs() {
         Graph graph = new TinkerGraph();
         Vertex vertex = graph.addVertex(null);
@@ -7,6 +7,10 @@ import com.tinkerpop.blueprints.Graph;
 import com.tinkerpop.blueprints.Vertex;
 import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
 import com.tinkerpop.blueprints.impls.tg.TinkerGraphFactory;
+import com.tinkerpop.blueprints.util.wrappers.readonly.ReadOnlyGraph;
+
+import java.util.Arrays;
+import java.util.Iterator;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -49,6 +53,22 @@ public class GraphHelperTest extends BaseTest {
         }
     }
 
+    public void testGetVerticesAndEdgesByIds() {
+        Graph graph = TinkerGraphFactory.createTinkerGraph();
+        assertEquals(count(GraphHelper.getVertices(graph, Arrays.asList("1", "2", "1", "100"))), 2);
+        assertEquals(count(GraphHelper.getEdges(graph, Arrays.asList("7", "8", "100"))), 2);
+
+        // a wrapper that is not a BulkRetrievalGraph falls back to id by id lookups
+        graph = new ReadOnlyGraph<Graph>(graph);
+        final Iterator<Vertex> vertices = GraphHelper.getVertices(graph, Arrays.asList("1", "2", "1", "100")).iterator();
+        assertEquals(vertices.next().getProperty("name"), "marko");
+        assertEquals(vertices.next().getProperty("name"), "vadas");
+        assertFalse(vertices.hasNext());
+        final Iterator<Edge> edges = GraphHelper.getEdges(graph, Arrays.asList("7", "100", "7")).iterator();
+        assertEquals(edges.next().getLabel(), "knows");
+        assertFalse(edges.hasNext());
+    }
+
     public void testCopyGraph() {
         Graph g = TinkerGraphFactory.createTinkerGraph();
         Graph h = new TinkerGraph();
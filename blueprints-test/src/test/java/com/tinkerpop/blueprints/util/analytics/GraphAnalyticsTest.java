@@ -0,0 +1,151 @@
+package com.tinkerpop.blueprints.util.analytics;
+
+import com.tinkerpop.blueprints.BaseTest;
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraphFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedMap;
+
+public class GraphAnalyticsTest extends BaseTest {
+
+    public void testSnapshot() {
+        Graph graph = TinkerGraphFactory.createTinkerGraph();
+        GraphSnapshot snapshot = new GraphSnapshot(graph);
+        assertEquals(snapshot.getVertexCount(), 6);
+        assertEquals(snapshot.getEdgeCount(), 6);
+
+        int marko = snapshot.getVertex("1");
+        assertEquals(snapshot.getId(marko), "1");
+        assertEquals(snapshot.getDegree(marko, Direction.OUT), 3);
+        assertEquals(snapshot.getDegree(marko, Direction.IN), 0);
+        assertEquals(snapshot.getDegree(snapshot.getVertex("3"), Direction.IN), 3);
+        assertEquals(snapshot.getDegree(snapshot.getVertex("4"), Direction.BOTH), 3);
+        assertEquals(snapshot.getVertex("100"), -1);
+
+        snapshot = new GraphSnapshot(graph, 2, "knows");
+        assertEquals(snapshot.getVertexCount(), 6);
+        assertEquals(snapshot.getEdgeCount(), 2);
+        assertEquals(snapshot.getDegree(snapshot.getVertex("1"), Direction.OUT), 2);
+    }
+
+    public void testPageRank() {
+        Graph graph = TinkerGraphFactory.createTinkerGraph();
+        GraphSnapshot snapshot = new GraphSnapshot(graph);
+        double[] ranks = GraphAnalytics.pageRank(snapshot, GraphAnalytics.DEFAULT_DAMPING, 100, 0.000001d, 2);
+        double total = 0.0d;
+        for (double rank : ranks) {
+            total += rank;
+        }
+        assertEquals(total, 1.0d, 0.0001d);
+
+        // lop is created by three vertices and ranks highest
+        int lop = snapshot.getVertex("3");
+        for (int v = 0; v < ranks.length; v++) {
+            if (v != lop)
+                assertTrue(ranks[lop] > ranks[v]);
+        }
+        assertTrue(ranks[snapshot.getVertex("5")] > ranks[snapshot.getVertex("6")]);
+        assertEquals(ranks[snapshot.getVertex("1")], ranks[snapshot.getVertex("6")], 0.000001d);
+    }
+
+    public void testConnectedComponents() {
+        Graph graph = TinkerGraphFactory.createTinkerGraph();
+        Vertex a = graph.addVertex("a");
+        Vertex b = graph.addVertex("b");
+        graph.addEdge(null, a, b, "knows");
+        graph.addVertex("c");
+
+        GraphSnapshot snapshot = new GraphSnapshot(graph);
+        int[] components = GraphAnalytics.connectedComponents(snapshot, 2);
+        assertEquals(components[snapshot.getVertex("1")], components[snapshot.getVertex("6")]);
+        assertEquals(components[snapshot.getVertex("2")], components[snapshot.getVertex("5")]);
+        assertEquals(components[snapshot.getVertex("a")], components[snapshot.getVertex("b")]);
+        assertFalse(components[snapshot.getVertex("1")] == components[snapshot.getVertex("a")]);
+        assertFalse(components[snapshot.getVertex("c")] == components[snapshot.getVertex("a")]);
+        assertEquals(components[snapshot.getVertex("c")], snapshot.getVertex("c"));
+    }
+
+    public void testBreadthFirstSearch() {
+        Graph graph = TinkerGraphFactory.createTinkerGraph();
+        GraphSnapshot snapshot = new GraphSnapshot(graph);
+        int marko = snapshot.getVertex("1");
+        int[] distances = GraphAnalytics.breadthFirstSearch(snapshot, marko, Direction.OUT, 2);
+        assertEquals(distances[marko], 0);
+        assertEquals(distances[snapshot.getVertex("2")], 1);
+        assertEquals(distances[snapshot.getVertex("3")], 1);
+        assertEquals(distances[snapshot.getVertex("5")], 2);
+        assertEquals(distances[snapshot.getVertex("6")], -1);
+
+        distances = GraphAnalytics.breadthFirstSearch(snapshot, marko, Direction.BOTH, 2);
+        assertEquals(distances[snapshot.getVertex("6")], 2);
+
+        List<Integer> path = GraphAnalytics.shortestPath(snapshot, marko, snapshot.getVertex("5"), Direction.OUT, 2);
+        assertEquals(path, Arrays.asList(marko, snapshot.getVertex("4"), snapshot.getVertex("5")));
+        assertNull(GraphAnalytics.shortestPath(snapshot, snapshot.getVertex("5"), marko, Direction.OUT, 2));
+        assertEquals(GraphAnalytics.shortestPath(snapshot, marko, marko, Direction.OUT, 2), Arrays.asList(marko));
+    }
+
+    public void testDegreeDistribution() {
+        GraphSnapshot snapshot = new GraphSnapshot(TinkerGraphFactory.createTinkerGraph());
+        SortedMap<Integer, Long> distribution = GraphAnalytics.degreeDistribution(snapshot, Direction.OUT);
+        assertEquals(distribution.get(0).longValue(), 3l);
+        assertEquals(distribution.get(1).longValue(), 1l);
+        assertEquals(distribution.get(2).longValue(), 1l);
+        assertEquals(distribution.get(3).longValue(), 1l);
+        assertEquals(distribution.firstKey().intValue(), 0);
+    }
+
+    public void testWriteProperties() {
+        Graph graph = TinkerGraphFactory.createTinkerGraph();
+        GraphSnapshot snapshot = new GraphSnapshot(graph);
+        GraphAnalytics.writeProperties(graph, snapshot, "rank", GraphAnalytics.pageRank(snapshot, GraphAnalytics.DEFAULT_DAMPING, 20, 0.0d, 1), 2);
+        GraphAnalytics.writeProperties(graph, snapshot, "component", GraphAnalytics.connectedComponents(snapshot, 1), 2);
+        for (Vertex vertex : graph.getVertices()) {
+            assertTrue(vertex.getProperty("rank") instanceof Double);
+            assertEquals(vertex.getProperty("component"), graph.getVertex("1").getProperty("component"));
+        }
+
+        try {
+            GraphAnalytics.writeProperties(graph, snapshot, "rank", new double[2], 2);
+            assertTrue(false);
+        } catch (IllegalArgumentException e) {
+            assertTrue(true);
+        }
+    }
+
+    public void testLargeGeneratedGraph() {
+        TinkerGraph graph = new TinkerGraph();
+        int vertexCount = 20000;
+        generateRandomGraph(graph, vertexCount, vertexCount * 5, 42, "link");
+
+        this.stopWatch();
+        GraphSnapshot snapshot = new GraphSnapshot(graph, 4);
+        printPerformance(snapshot.toString(), vertexCount, "vertices extracted", this.stopWatch());
+        assertEquals(snapshot.getEdgeCount(), vertexCount * 5);
+
+        this.stopWatch();
+        double[] ranks = GraphAnalytics.pageRank(snapshot, GraphAnalytics.DEFAULT_DAMPING, 30, 0.0d, 4);
+        printPerformance(snapshot.toString(), 30, "PageRank iterations", this.stopWatch());
+        double[] sequential = GraphAnalytics.pageRank(snapshot, GraphAnalytics.DEFAULT_DAMPING, 30, 0.0d, 1);
+        for (int v = 0; v < vertexCount; v++) {
+            assertEquals(ranks[v], sequential[v], 0.0000001d);
+        }
+
+        this.stopWatch();
+        int[] components = GraphAnalytics.connectedComponents(snapshot, 4);
+        printPerformance(snapshot.toString(), vertexCount, "vertices labeled with components", this.stopWatch());
+        this.stopWatch();
+        int[] distances = GraphAnalytics.breadthFirstSearch(snapshot, 0, Direction.BOTH, 4);
+        printPerformance(snapshot.toString(), vertexCount, "vertices searched breadth first", this.stopWatch());
+        for (int v = 0; v < vertexCount; v++) {
+            // a vertex is reachable (ignoring direction) exactly when it is in the same component
+            assertEquals(distances[v] >= 0, components[v] == components[0]);
+        }
+        assertTrue(Arrays.equals(distances, GraphAnalytics.breadthFirstSearch(snapshot, 0, Direction.BOTH, 1)));
+    }
+}
@@ -0,0 +1,156 @@
+package com.tinkerpop.blueprints.util.traversal;
+
+import com.tinkerpop.blueprints.BaseTest;
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraphFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class BreadthFirstTraversalTest extends BaseTest {
+
+    public void testTraverse() {
+        Graph graph = TinkerGraphFactory.createTinkerGraph();
+        final List<String> ids = new ArrayList<String>();
+        final List<Integer> depths = new ArrayList<Integer>();
+        long count = new BreadthFirstTraversal(Direction.OUT).traverse(graph.getVertex("1"), new VertexVisitor() {
+            public boolean visit(final Vertex vertex, final int depth) {
+                ids.add((String) vertex.getId());
+                depths.add(depth);
+                return true;
+            }
+        });
+        assertEquals(count, 5);
+        assertEquals(ids.get(0), "1");
+        assertEquals(new HashSet<String>(ids.subList(1, 4)), new HashSet<String>(Arrays.asList("2", "3", "4")));
+        assertEquals(ids.get(4), "5");
+        for (int i = 1; i < depths.size(); i++) {
+            assertTrue(depths.get(i - 1) <= depths.get(i));
+        }
+
+        assertEquals(new BreadthFirstTraversal(Direction.BOTH).traverse(graph.getVertex("1"), new VertexVisitor() {
+            public boolean visit(final Vertex vertex, final int depth) {
+                return true;
+            }
+        }), 6);
+    }
+
+    public void testEarlyTermination() {
+        Graph graph = TinkerGraphFactory.createTinkerGraph();
+        long count = new BreadthFirstTraversal(Direction.BOTH).traverse(graph.getVertex("1"), new VertexVisitor() {
+            public boolean visit(final Vertex vertex, final int depth) {
+                return !vertex.getId().equals("3");
+            }
+        });
+        assertTrue(count < 6);
+        assertEquals(new BreadthFirstTraversal(Direction.OUT).traverse(graph.getVertex("1"), new VertexVisitor() {
+            public boolean visit(final Vertex vertex, final int depth) {
+                return false;
+            }
+        }), 1);
+    }
+
+    public void testLabelsAndDepth() {
+        Graph graph = TinkerGraphFactory.createTinkerGraph();
+        Vertex marko = graph.getVertex("1");
+        assertEquals(count(new BreadthFirstTraversal(Direction.OUT, "knows").neighborhood(marko, 5)), 2);
+        assertEquals(count(new BreadthFirstTraversal(Direction.OUT, "knows", "created").neighborhood(marko, 1)), 3);
+        assertEquals(count(new BreadthFirstTraversal(Direction.OUT).neighborhood(marko, 2)), 4);
+        assertEquals(count(new BreadthFirstTraversal(Direction.OUT).maxDepth(1).neighborhood(marko, 2)), 3);
+        assertEquals(count(new BreadthFirstTraversal(Direction.OUT).neighborhood(marko, 0)), 0);
+        assertEquals(count(new BreadthFirstTraversal(Direction.IN).neighborhood(graph.getVertex("5"), 2)), 2);
+    }
+
+    public void testShortestPath() {
+        Graph graph = TinkerGraphFactory.createTinkerGraph();
+        Vertex marko = graph.getVertex("1");
+        Vertex ripple = graph.getVertex("5");
+        Vertex peter = graph.getVertex("6");
+
+        List<Vertex> path = new BreadthFirstTraversal(Direction.OUT).shortestPath(marko, ripple);
+        assertEquals(path.size(), 3);
+        assertEquals(path.get(0), marko);
+        assertEquals(path.get(1), graph.getVertex("4"));
+        assertEquals(path.get(2), ripple);
+
+        assertNull(new BreadthFirstTraversal(Direction.OUT).shortestPath(ripple, marko));
+        assertNull(new BreadthFirstTraversal(Direction.OUT).shortestPath(marko, peter));
+        assertEquals(new BreadthFirstTraversal(Direction.BOTH).shortestPath(marko, peter).size(), 3);
+        assertNull(new BreadthFirstTraversal(Direction.OUT, "knows").shortestPath(marko, ripple));
+        assertNull(new BreadthFirstTraversal(Direction.OUT).maxDepth(1).shortestPath(marko, ripple));
+        assertEquals(new BreadthFirstTraversal(Direction.OUT).shortestPath(marko, marko).size(), 1);
+    }
+
+    public void testVisitedIds() {
+        VisitedIds visited = new VisitedIds();
+        for (long i = 0; i < 1000; i++) {
+            assertTrue(visited.add(i * 7));
+        }
+        assertFalse(visited.add(14l));
+        assertTrue(visited.add(14));
+        assertFalse(visited.add(14));
+        assertFalse(visited.contains((short) 14));
+        assertTrue(visited.add(Long.MIN_VALUE));
+        assertFalse(visited.add(Long.MIN_VALUE));
+        assertTrue(visited.add("a"));
+        assertFalse(visited.add("a"));
+        assertTrue(visited.contains(6993l));
+        assertFalse(visited.contains(6994l));
+        assertTrue(visited.contains("a"));
+        assertEquals(visited.size(), 1003);
+    }
+
+    public void testLargeGeneratedGraph() {
+        TinkerGraph graph = new TinkerGraph();
+        Vertex[] vertices = generateRandomGraph(graph, 20000, 60000, 42, "a", "b");
+
+        final Set<Object> sequential = new HashSet<Object>();
+        this.stopWatch();
+        long count = new BreadthFirstTraversal(Direction.OUT).traverse(vertices[0], new VertexVisitor() {
+            public boolean visit(final Vertex vertex, final int depth) {
+                sequential.add(vertex.getId());
+                return true;
+            }
+        });
+        printPerformance(graph.toString(), (int) count, "vertices traversed with 1 thread", this.stopWatch());
+
+        final Set<Object> parallel = new HashSet<Object>();
+        this.stopWatch();
+        assertEquals(new BreadthFirstTraversal(Direction.OUT).threads(4).traverse(vertices[0], new VertexVisitor() {
+            public boolean visit(final Vertex vertex, final int depth) {
+                parallel.add(vertex.getId());
+                return true;
+            }
+        }), count);
+        printPerformance(graph.toString(), (int) count, "vertices traversed with 4 threads", this.stopWatch());
+        assertEquals(parallel, sequential);
+
+        this.stopWatch();
+        for (int i = 1; i < 20; i++) {
+            List<Vertex> bidirectional = new BreadthFirstTraversal(Direction.OUT).threads(2).shortestPath(vertices[0], vertices[i]);
+            List<Vertex> neighborhood = new BreadthFirstTraversal(Direction.OUT).neighborhood(vertices[0], null == bidirectional ? 100 : bidirectional.size() - 1);
+            if (null == bidirectional) {
+                assertFalse(neighborhood.contains(vertices[i]));
+            } else {
+                // the path is valid, and no shorter path exists
+                for (int j = 1; j < bidirectional.size(); j++) {
+                    assertTrue(count(bidirectional.get(j - 1).getVertices(Direction.OUT)) > 0);
+                    boolean adjacent = false;
+                    for (Vertex vertex : bidirectional.get(j - 1).getVertices(Direction.OUT)) {
+                        adjacent = adjacent || vertex.equals(bidirectional.get(j));
+                    }
+                    assertTrue(adjacent);
+                }
+                assertTrue(neighborhood.contains(vertices[i]));
+                assertFalse(new BreadthFirstTraversal(Direction.OUT).neighborhood(vertices[0], bidirectional.size() - 2).contains(vertices[i]));
+            }
+        }
+        printPerformance(graph.toString(), 19, "shortest paths found", this.stopWatch());
+    }
+}
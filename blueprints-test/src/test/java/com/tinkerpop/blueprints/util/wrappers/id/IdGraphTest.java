@@ -1,5 +1,6 @@
 package com.tinkerpop.blueprints.util.wrappers.id;
 
+import com.tinkerpop.blueprints.BulkRetrievalGraphTestSuite;
 import com.tinkerpop.blueprints.Direction;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.EdgeTestSuite;
@@ -17,6 +18,7 @@ import com.tinkerpop.blueprints.util.io.graphson.GraphSONReaderTestSuite;
 import com.tinkerpop.blueprints.util.wrappers.WrapperGraph;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Set;
 
@@ -175,6 +177,72 @@ public class IdGraphTest extends GraphTest {
         assertFalse(e1.getId().equals("edge1"));
     }
 
+    public void testIdCache() throws Exception {
+        final int[] lookups = new int[]{0, 0};
+        IdGraph<TinkerGraph> graph = new IdGraph<TinkerGraph>(new TinkerGraph() {
+            @Override
+            public Iterable<Vertex> getVertices(final String key, final Object value) {
+                lookups[0]++;
+                return super.getVertices(key, value);
+            }
+
+            @Override
+            public Iterable<Edge> getEdges(final String key, final Object value) {
+                lookups[1]++;
+                return super.getEdges(key, value);
+            }
+        });
+        graph.setIdCacheSize(2);
+        graph.enforceUniqueIds(false);
+        Vertex a = graph.addVertex("a");
+        Vertex b = graph.addVertex("b");
+        Vertex c = graph.addVertex("c");
+        Edge e = graph.addEdge("e", a, b, "knows");
+        graph.enforceUniqueIds(true);
+        lookups[0] = 0;
+        lookups[1] = 0;
+
+        assertEquals(a, graph.getVertex("a"));
+        assertEquals(a, graph.getVertex("a"));
+        assertEquals(1, lookups[0]);
+        assertEquals(e, graph.getEdge("e"));
+        assertEquals(e, graph.getEdge("e"));
+        assertEquals(1, lookups[1]);
+
+        // bounded: "a" is evicted by "b" and "c"
+        assertEquals(b, graph.getVertex("b"));
+        assertEquals(c, graph.getVertex("c"));
+        assertEquals(a, graph.getVertex("a"));
+        assertEquals(4, lookups[0]);
+
+        // batched retrieval skips missing and duplicate ids
+        lookups[0] = 0;
+        assertEquals(2, count(graph.getVertices(Arrays.asList("a", "c", "a", "missing"))));
+        assertEquals(1, lookups[0]);
+        assertEquals(1, count(graph.getEdges(Arrays.asList("e", "missing"))));
+
+        // removal
+        graph.removeEdge(e);
+        assertNull(graph.getEdge("e"));
+        graph.removeVertex(a);
+        assertNull(graph.getVertex("a"));
+        assertEquals(1, count(graph.getVertices(Arrays.asList("a", "c"))));
+
+        // removal outside of IdGraph is detected
+        graph.getBaseGraph().removeVertex(((IdVertex) graph.getVertex("c")).getBaseVertex());
+        assertNull(graph.getVertex("c"));
+
+        // rollback clears the cache
+        lookups[0] = 0;
+        graph.getVertex("b");
+        graph.getVertex("b");
+        assertEquals(1, lookups[0]);
+        graph.rollback();
+        graph.getVertex("b");
+        assertEquals(2, lookups[0]);
+        graph.shutdown();
+    }
+
     public void testVertexTestSuite() throws Exception {
         this.stopWatch();
         doTestSuite(new VertexTestSuite(this));
@@ -199,6 +267,12 @@ public class IdGraphTest extends GraphTest {
         printTestPerformance("KeyIndexableGraphTestSuite", this.stopWatch());
     }
 
+    public void testBulkRetrievalGraphTestSuite() throws Exception {
+        this.stopWatch();
+        doTestSuite(new BulkRetrievalGraphTestSuite(this));
+        printTestPerformance("BulkRetrievalGraphTestSuite", this.stopWatch());
+    }
+
     public void testGraphMLReaderTestSuite() throws Exception {
         this.stopWatch();
         doTestSuite(new GraphMLReaderTestSuite(this));
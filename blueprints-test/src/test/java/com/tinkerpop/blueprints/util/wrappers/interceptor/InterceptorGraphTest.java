@@ -0,0 +1,194 @@
+package com.tinkerpop.blueprints.util.wrappers.interceptor;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.EdgeTestSuite;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.GraphTestSuite;
+import com.tinkerpop.blueprints.TestSuite;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.VertexTestSuite;
+import com.tinkerpop.blueprints.impls.GraphTest;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraphFactory;
+import com.tinkerpop.blueprints.util.io.graphml.GraphMLReader;
+import com.tinkerpop.blueprints.util.wrappers.event.EventGraph;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.StubGraphChangedListener;
+import com.tinkerpop.blueprints.util.wrappers.partition.PartitionGraph;
+import com.tinkerpop.blueprints.util.wrappers.readonly.ReadOnlyGraph;
+
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Set;
+
+public class InterceptorGraphTest extends GraphTest {
+
+    private static final int TOTAL_RUNS = 10;
+
+    public void testVertexTestSuite() throws Exception {
+        this.stopWatch();
+        doTestSuite(new VertexTestSuite(this));
+        printTestPerformance("VertexTestSuite", this.stopWatch());
+    }
+
+    public void testEdgeTestSuite() throws Exception {
+        this.stopWatch();
+        doTestSuite(new EdgeTestSuite(this));
+        printTestPerformance("EdgeTestSuite", this.stopWatch());
+    }
+
+    public void testGraphTestSuite() throws Exception {
+        this.stopWatch();
+        doTestSuite(new GraphTestSuite(this));
+        printTestPerformance("GraphTestSuite", this.stopWatch());
+    }
+
+    public Graph generateGraph() {
+        return generateGraph("");
+    }
+
+    public Graph generateGraph(final String graphDirectoryName) {
+        return new InterceptorGraph<TinkerGraph>(new TinkerGraph(), new PartitionInterceptor("_writeGraph", "writeGraph"), new EventInterceptor());
+    }
+
+    public void doTestSuite(final TestSuite testSuite) throws Exception {
+        for (Method method : testSuite.getClass().getDeclaredMethods()) {
+            if (method.getName().startsWith("test")) {
+                System.out.println("Testing " + method.getName() + "...");
+                method.invoke(testSuite);
+            }
+        }
+    }
+
+    public void testWrappedElementUniqueness() {
+        Graph graph = new InterceptorGraph<TinkerGraph>(TinkerGraphFactory.createTinkerGraph(), new ReadOnlyInterceptor());
+        assertEquals(graph.getVertex(1), graph.getVertex(1));
+        Set<Vertex> set = new HashSet<Vertex>();
+        set.add(graph.getVertex(2));
+        set.add(graph.getVertex(2));
+        assertEquals(set.size(), 1);
+        assertEquals(graph.getEdge(7).hashCode(), graph.getEdge(7).hashCode());
+        assertEquals(graph.getEdge(8), graph.getEdge(8));
+    }
+
+    public void testReadOnlyInterceptor() {
+        Graph graph = new InterceptorGraph<TinkerGraph>(TinkerGraphFactory.createTinkerGraph(), new ReadOnlyInterceptor());
+        assertEquals(count(graph.getVertices()), 6);
+        assertEquals(count(graph.getEdges()), 6);
+        try {
+            graph.addVertex(null);
+            fail();
+        } catch (UnsupportedOperationException e) {
+        }
+        try {
+            graph.removeEdge(graph.getEdge(10));
+            fail();
+        } catch (UnsupportedOperationException e) {
+        }
+        try {
+            graph.getVertex(1).setProperty("name", "noname");
+            fail();
+        } catch (UnsupportedOperationException e) {
+        }
+        try {
+            graph.getVertex(1).getEdges(Direction.OUT).iterator().next().removeProperty("weight");
+            fail();
+        } catch (UnsupportedOperationException e) {
+        }
+        assertEquals(graph.getVertex(1).getProperty("name"), "marko");
+        assertEquals(count(graph.getVertices()), 6);
+    }
+
+    public void testInterceptorChain() {
+        TinkerGraph rawGraph = new TinkerGraph();
+        PartitionInterceptor partition = new PartitionInterceptor("_writeGraph", "a");
+        EventInterceptor event = new EventInterceptor();
+        StubGraphChangedListener listener = new StubGraphChangedListener();
+        event.addListener(listener);
+        Graph graph = new InterceptorGraph<TinkerGraph>(rawGraph, partition, event);
+
+        Vertex marko = graph.addVertex(null);
+        marko.setProperty("name", "marko");
+        marko.setProperty("_writeGraph", "b");
+        assertEquals(listener.addVertexEventRecorded(), 1);
+        assertEquals(listener.vertexPropertyChangedEventRecorded(), 1);
+        assertEquals(marko.getPropertyKeys().size(), 1);
+        assertNull(marko.getProperty("_writeGraph"));
+        assertEquals(rawGraph.getVertex(marko.getId()).getProperty("_writeGraph"), "a");
+
+        partition.setWritePartition("b");
+        Vertex peter = graph.addVertex(null);
+        Edge knows = graph.addEdge(null, marko, peter, "knows");
+        assertEquals(listener.addVertexEventRecorded(), 2);
+        assertEquals(listener.addEdgeEventRecorded(), 1);
+        assertEquals(count(graph.getVertices()), 1);
+        assertEquals(count(graph.getEdges()), 0);
+        assertEquals(count(graph.query().vertices()), 1);
+        assertNull(graph.getVertex(peter.getId()));
+        assertEquals(count(marko.getEdges(Direction.OUT)), 0);
+
+        partition.addReadPartition("b");
+        assertEquals(count(graph.getVertices()), 2);
+        assertEquals(count(graph.getEdges()), 1);
+        assertEquals(count(graph.query().vertices()), 2);
+        assertEquals(count(marko.getEdges(Direction.OUT)), 1);
+        assertEquals(count(marko.query().direction(Direction.OUT).vertices()), 1);
+        assertEquals(knows.getVertex(Direction.IN), peter);
+
+        partition.removeReadPartition("b");
+        assertNull(knows.getVertex(Direction.IN));
+
+        graph.removeVertex(marko);
+        assertEquals(listener.vertexRemovedEventRecorded(), 1);
+        assertEquals(count(rawGraph.getVertices()), 1);
+
+        Vertex unpartitioned = rawGraph.addVertex(null);
+        assertNotNull(graph.getVertex(unpartitioned.getId()));
+        assertEquals(count(graph.getVertices()), 1);
+        assertEquals(count(graph.query().vertices()), 0);
+        graph.shutdown();
+    }
+
+    public void testStackedWrappersVersusInterceptorGraph() throws Exception {
+        final TinkerGraph rawGraph = new TinkerGraph();
+        final PartitionGraph<TinkerGraph> partitionGraph = new PartitionGraph<TinkerGraph>(rawGraph, "_writeGraph", "a");
+        GraphMLReader.inputGraph(partitionGraph, GraphMLReader.class.getResourceAsStream("graph-example-2.xml"));
+
+        final Graph stacked = new ReadOnlyGraph<EventGraph>(new EventGraph<PartitionGraph>(partitionGraph));
+        final Graph intercepted = new InterceptorGraph<TinkerGraph>(rawGraph, new PartitionInterceptor("_writeGraph", "a"), new EventInterceptor(), new ReadOnlyInterceptor());
+
+        int stackedCount = 0;
+        int interceptedCount = 0;
+        double stackedTime = 0.0d;
+        double interceptedTime = 0.0d;
+        for (int i = 0; i < TOTAL_RUNS; i++) {
+            this.stopWatch();
+            stackedCount = traverse(stacked);
+            stackedTime = stackedTime + this.stopWatch();
+            this.stopWatch();
+            interceptedCount = traverse(intercepted);
+            interceptedTime = interceptedTime + this.stopWatch();
+        }
+        assertEquals(stackedCount, interceptedCount);
+        printPerformance("ReadOnlyGraph[EventGraph[PartitionGraph]]", stackedCount, "elements touched (average)", stackedTime / (double) TOTAL_RUNS);
+        printPerformance("InterceptorGraph[partition,event,readonly]", interceptedCount, "elements touched (average)", interceptedTime / (double) TOTAL_RUNS);
+    }
+
+    private static int traverse(final Graph graph) {
+        int counter = 0;
+        for (final Vertex vertex : graph.getVertices()) {
+            counter++;
+            for (final Edge edge : vertex.getEdges(Direction.OUT)) {
+                counter++;
+                final Vertex vertex2 = edge.getVertex(Direction.IN);
+                counter++;
+                for (final Edge edge2 : vertex2.getEdges(Direction.OUT)) {
+                    counter++;
+                    edge2.getVertex(Direction.IN);
+                    counter++;
+                }
+            }
+        }
+        return counter;
+    }
+}
@@ -119,6 +119,91 @@ public class PartitionGraphTest extends GraphTest {
         assertNull(graph.getVertex("inp1").getEdges(Direction.OUT).iterator().next().getVertex(Direction.IN));
     }
 
+    public void testPartitionKeyIndex() {
+        TinkerGraph rawGraph = new TinkerGraph();
+        PartitionGraph<TinkerGraph> graph = new PartitionGraph<TinkerGraph>(rawGraph, "_writeGraph", "a");
+        assertFalse(rawGraph.getIndexedKeys(Vertex.class).contains("_writeGraph"));
+        graph.setAutoIndexPartitionKey(true);
+        assertTrue(graph.isAutoIndexPartitionKey());
+        assertTrue(rawGraph.getIndexedKeys(Vertex.class).contains("_writeGraph"));
+        assertTrue(rawGraph.getIndexedKeys(Edge.class).contains("_writeGraph"));
+
+        Vertex a1 = graph.addVertex(null);
+        a1.setProperty("name", "marko");
+        Vertex a2 = graph.addVertex(null);
+        a2.setProperty("name", "peter");
+        graph.setWritePartition("b");
+        Vertex b1 = graph.addVertex(null);
+        b1.setProperty("name", "marko");
+        graph.addEdge(null, a1, b1, "knows");
+        Vertex unpartitioned = rawGraph.addVertex(null);
+        unpartitioned.setProperty("name", "marko");
+
+        assertNotNull(graph.getVertex(unpartitioned.getId()));
+        assertTrue(graph.isInPartition(unpartitioned));
+        assertEquals(count(graph.getVertex(a1.getId()).getVertices(Direction.BOTH)), 0);
+
+        assertEquals(count(graph.getVertices()), 3);
+        assertEquals(count(graph.getEdges()), 0);
+        assertEquals(count(graph.getVertices("name", "marko")), 2);
+        assertEquals(count(graph.query().vertices()), 2);
+        assertEquals(count(graph.query().has("name", "marko").vertices()), 1);
+        assertEquals(graph.query().has("name", "marko").vertices().iterator().next(), a1);
+        assertEquals(count(graph.query().has("name", "peter").vertices()), 1);
+
+        graph.addReadPartition("b");
+        assertEquals(count(graph.getVertices()), 4);
+        assertEquals(count(graph.getEdges()), 1);
+        assertEquals(count(graph.getVertices("name", "marko")), 3);
+        assertEquals(count(graph.query().vertices()), 3);
+        assertEquals(count(graph.query().limit(2).vertices()), 2);
+        assertEquals(count(graph.query().has("name", "marko").vertices()), 2);
+        assertEquals(count(graph.query().has("name", "marko").edges()), 0);
+        assertEquals(count(graph.query().edges()), 1);
+
+        graph.removeReadPartition("a");
+        assertEquals(count(graph.getVertices()), 2);
+        assertEquals(count(graph.query().vertices()), 1);
+        assertEquals(graph.query().vertices().iterator().next(), b1);
+        assertEquals(count(graph.getEdges()), 1);
+
+        graph.setPartitionKey("_partition");
+        assertTrue(rawGraph.getIndexedKeys(Vertex.class).contains("_partition"));
+        assertEquals(count(graph.getVertices()), 4);
+        assertEquals(count(graph.query().vertices()), 0);
+
+        graph.shutdown();
+    }
+
+    public void testPartitionKeyIndexAgreesWithScan() {
+        TinkerGraph rawGraph = new TinkerGraph();
+        PartitionGraph<TinkerGraph> graph = new PartitionGraph<TinkerGraph>(rawGraph, "_writeGraph", "a");
+        Vertex a1 = graph.addVertex(null);
+        a1.setProperty("name", "marko");
+        graph.setWritePartition("b");
+        Vertex b1 = graph.addVertex(null);
+        b1.setProperty("name", "marko");
+        graph.addEdge(null, a1, b1, "knows");
+        Vertex unpartitioned = rawGraph.addVertex(null);
+        unpartitioned.setProperty("name", "marko");
+        rawGraph.addEdge(null, rawGraph.getVertex(a1.getId()), unpartitioned, "knows");
+
+        for (final boolean indexed : Arrays.asList(false, true)) {
+            if (indexed)
+                graph.setAutoIndexPartitionKey(true);
+            assertEquals(count(graph.getVertices()), 2);
+            assertEquals(count(graph.getVertices("name", "marko")), 2);
+            assertEquals(count(graph.query().vertices()), 1);
+            assertEquals(count(graph.query().has("name", "marko").vertices()), 1);
+            assertEquals(count(graph.getEdges()), 1);
+            assertEquals(count(graph.query().edges()), 0);
+            assertNotNull(graph.getVertex(unpartitioned.getId()));
+            assertEquals(graph.getVertex(a1.getId()), a1);
+        }
+
+        graph.shutdown();
+    }
+
     public void testSpecificBehavior() {
         TinkerGraph rawGraph = new TinkerGraph();
         PartitionIndexableGraph graph = new PartitionIndexableGraph(rawGraph, "_writeGraph", "a");